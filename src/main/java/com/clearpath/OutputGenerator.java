@@ -1,17 +1,24 @@
 package com.clearpath;
 
 import com.clearpath.model.AnalysisResult;
+import com.clearpath.store.ResultStore;
+import com.clearpath.store.ResultStoreWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 
 public class OutputGenerator {
     private static final Logger logger = LoggerFactory.getLogger(OutputGenerator.class);
 
+    public static final String CSV_HEADER = "File,Greeting_End_Time(s),Beep_Detected,Beep_Expected,Recommended_Start_Time(s),Confidence,Confidence_Score,Compliance_Risk,Reasoning";
+
     /**
      * Generate CSV output file
      */
@@ -20,25 +27,34 @@ public class OutputGenerator {
 
         try (PrintWriter writer = new PrintWriter(new FileWriter(outputPath))) {
             // Header
-            writer.println("File,Greeting_End_Time(s),Beep_Detected,Beep_Expected,Recommended_Start_Time(s),Confidence,Reasoning");
+            writer.println(CSV_HEADER);
 
             // Data rows
             for (AnalysisResult result : results) {
-                writer.printf("%s,%.3f,%s,%s,%.3f,%s,\"%s\"%n",
-                        result.getFileName(),
-                        result.getGreetingEndTime(),
-                        result.getBeepInfo().isDetected() ? "YES" : "NO",
-                        result.getBeepExpectation().name(),
-                        result.getRecommendedStartTime(),
-                        result.getConfidence(),
-                        result.getReasoning().replace("\"", "\"\"")  // Escape quotes
-                );
+                writer.println(csvRow(result));
             }
         }
 
         logger.info("✓ CSV generated successfully: {}", outputPath);
     }
 
+    /**
+     * One CSV data row, columns as in {@link #CSV_HEADER}
+     */
+    public static String csvRow(AnalysisResult result) {
+        return String.format("%s,%.3f,%s,%s,%.3f,%s,%.3f,%.4f,\"%s\"",
+                result.getFileName(),
+                result.getGreetingEndTime(),
+                result.getBeepInfo().isDetected() ? "YES" : "NO",
+                result.getBeepExpectation().name(),
+                result.getRecommendedStartTime(),
+                result.getConfidence(),
+                result.getConfidenceScore(),
+                result.getComplianceRisk(),
+                result.getReasoning().replace("\"", "\"\"")  // Escape quotes
+        );
+    }
+
     /**
      * Generate detailed text report
      */
@@ -78,7 +94,9 @@ public class OutputGenerator {
 
                 writer.println("FINAL DECISION:");
                 writer.printf("  • Recommended Start:    %.3f seconds%n", result.getRecommendedStartTime());
-                writer.printf("  • Confidence Level:     %s%n", result.getConfidence());
+                writer.printf("  • Confidence Level:     %s (%.2f)%n", result.getConfidence(), result.getConfidenceScore());
+                writer.printf("  • Compliance Risk:      %.1f%% chance of starting before a beep%n",
+                        result.getComplianceRisk() * 100);
                 writer.printf("  • Reasoning:            %s%n", result.getReasoning());
                 writer.println();
 
@@ -112,6 +130,18 @@ public class OutputGenerator {
         logger.info("✓ Detailed report generated: {}", outputPath);
     }
 
+    /**
+     * Append results to a columnar {@link ResultStore} under today's date (UTC)
+     *
+     * @param carrier carrier or tenant the calls belong to
+     */
+    public void appendToStore(List<AnalysisResult> results, Path storeDir, String carrier) throws IOException {
+        try (ResultStoreWriter writer = ResultStoreWriter.open(storeDir)) {
+            writer.append(results, carrier, LocalDate.now(ZoneOffset.UTC));
+        }
+        logger.info("✓ Results appended to store: {}", storeDir);
+    }
+
     /**
      * Print summary table to console
      */
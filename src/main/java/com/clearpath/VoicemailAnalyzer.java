@@ -1,17 +1,36 @@
 package com.clearpath;
 
 import com.clearpath.audio.AudioReader;
-import com.clearpath.detection.EnergyDetector;
+import com.clearpath.cluster.ShardCoordinator;
+import com.clearpath.cluster.ShardWorker;
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.config.Config;
+import com.clearpath.config.SettingsProvider;
 import com.clearpath.detection.BeepDetector;
+import com.clearpath.detection.ChannelAnalyzer;
 import com.clearpath.decision.DecisionEngine;
+import com.clearpath.fingerprint.ContentHash;
+import com.clearpath.fingerprint.GreetingCache;
+import com.clearpath.fingerprint.GreetingFingerprint;
+import com.clearpath.trace.Trace;
+import com.clearpath.transcription.TranscriptAligner;
+import com.clearpath.transcription.TranscriptAlignment;
 import com.clearpath.transcription.TranscriptAnalyzer;
+import com.clearpath.transcription.TranscriptionOutcome;
+import com.clearpath.transcription.TranscriptionScheduler;
 import com.clearpath.model.AudioFrame;
 import com.clearpath.model.AnalysisResult;
+import com.clearpath.model.BeepInfo;
+import com.clearpath.model.ChannelAnalysis;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Main entry point for the Voicemail Drop Compliance Detector.
@@ -22,13 +41,17 @@ import java.util.List;
  *
  * <h2>Processing Pipeline:</h2>
  * <ol>
- *   <li><b>Audio Reading</b> - Converts WAV files to 16kHz mono PCM frames</li>
+ *   <li><b>Audio Reading</b> - Decodes WAV/FLAC/Ogg FLAC to 16kHz PCM frames, one stream per channel</li>
  *   <li><b>Energy Detection</b> - Identifies greeting end via silence detection</li>
  *   <li><b>Beep Detection</b> - Uses FFT to find 950Hz tone (recording start signal)</li>
- *   <li><b>Transcript Analysis</b> - AI-powered speech-to-text + pattern matching</li>
+ *   <li><b>Transcript Analysis</b> - AI-powered speech-to-text + pattern matching, only for files
+ *       whose decision still depends on it, scheduled by {@link TranscriptionScheduler}</li>
  *   <li><b>Decision Engine</b> - Combines all signals to calculate optimal start time</li>
  * </ol>
  *
+ * <p>A greeting heard before (same file, or the same mailbox greeting at another level or
+ * offset) reuses the earlier evidence from a {@link GreetingCache} and skips steps 2-4.</p>
+ *
  * <h2>Output Files:</h2>
  * <ul>
  *   <li>voicemail_analysis_results.csv - Machine-readable results</li>
@@ -42,13 +65,25 @@ import java.util.List;
 public class VoicemailAnalyzer {
     private static final Logger logger = LoggerFactory.getLogger(VoicemailAnalyzer.class);
 
+    /** Greetings analyzed by this JVM, across batches */
+    private static final GreetingCache greetingCache = new GreetingCache(Config.FINGERPRINT_CACHE_ENTRIES);
+
     /**
      * Main execution method. Processes all voicemail audio files and generates
      * compliance reports with recommended start timestamps.
      *
-     * @param args Command line arguments (not used)
+     * @param args Optional {@code --profile <name>} selecting a tenant/carrier settings profile,
+     *             followed by optional audio file paths (defaults to the bundled samples); or
+     *             {@code coordinator ...} / {@code worker ...} for a sharded batch, see
+     *             {@link ShardCoordinator} and {@link ShardWorker}
      */
     public static void main(String[] args) {
+        // Cluster modes: "coordinator" shards a manifest across worker JVMs, "worker" processes leased shards
+        if (args.length > 0 && (args[0].equals("coordinator") || args[0].equals("worker"))) {
+            runClusterMode(args[0], Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         // Print application header
         logger.info("═══════════════════════════════════════════════════════════════");
         logger.info("    VOICEMAIL DROP COMPLIANCE DETECTOR - FINAL VERSION         ");
@@ -67,95 +102,33 @@ public class VoicemailAnalyzer {
                 "audio-files/vm7_output.wav"
         };
 
-        // Initialize all processing components
-        // Each component is responsible for one aspect of the analysis
-        AudioReader audioReader = new AudioReader();              // Handles WAV file I/O and format conversion
-        EnergyDetector energyDetector = new EnergyDetector();      // RMS energy-based silence detection
-        BeepDetector beepDetector = new BeepDetector();            // FFT-based pure tone detection
-        TranscriptAnalyzer transcriptAnalyzer = new TranscriptAnalyzer();  // Deepgram STT + pattern matching
-        DecisionEngine decisionEngine = new DecisionEngine();      // Multi-signal fusion for final decision
-        OutputGenerator outputGenerator = new OutputGenerator();   // CSV and report generation
-
-        // Store analysis results for all files
-        List<AnalysisResult> allResults = new ArrayList<>();
-
-        // ========================================
-        // MAIN PROCESSING LOOP
-        // ========================================
-        // Process each voicemail file through the complete pipeline
-        for (int i = 0; i < audioFiles.length; i++) {
-            String audioFilePath = audioFiles[i];
-
-            try {
-                logger.info("Processing file {}/{}...", i + 1, audioFiles.length);
-
-                // ----------------------------------------
-                // STEP 1: AUDIO LOADING
-                // ----------------------------------------
-                // Read and convert audio file to standardized format:
-                // - Sample rate: 16kHz (optimal for speech processing)
-                // - Channels: Mono (reduces complexity)
-                // - Bit depth: 16-bit signed integer
-                // - Frame size: 20ms (320 samples at 16kHz)
-                List<AudioFrame> frames = audioReader.readAudioFile(audioFilePath);
-
-                // ----------------------------------------
-                // STEP 2: ENERGY-BASED SILENCE DETECTION
-                // ----------------------------------------
-                // Goal: Find when the greeting ends (person stops talking)
-                // Method: Calculate RMS energy per frame, detect sustained silence
-                // Threshold: -50dB for 1 second (50 consecutive frames)
-                // Edge case handling: Ignores initial silence before greeting starts
-                double greetingEndTime = energyDetector.detectGreetingEnd(frames);
-
-                // ----------------------------------------
-                // STEP 3: FFT-BASED BEEP DETECTION
-                // ----------------------------------------
-                // Goal: Detect the answering machine's recording start beep
-                // Method: 1024-point FFT with Hanning window, search 900-1100Hz
-                // Validation: Peak-to-average ratio >15dB, duration 0.5-2.5s
-                // Search window: 5 seconds after greeting end
-                var beepInfo = beepDetector.detectBeep(frames, greetingEndTime);
-
-                // ----------------------------------------
-                // STEP 4: AI TRANSCRIPTION & PATTERN MATCHING
-                // ----------------------------------------
-                // Goal: Predict beep likelihood from greeting content
-                // Method: Deepgram speech-to-text → regex pattern matching
-                // Patterns:
-                //   HIGH (0.95): "after the beep", "at the tone"
-                //   MEDIUM (0.60): "leave a message"
-                //   LOW (0.30): No beep indicators
-                String transcript = transcriptAnalyzer.getTranscript(audioFilePath);
-                var beepExpectation = transcriptAnalyzer.analyzeBeepExpectation(transcript);
-
-                // ----------------------------------------
-                // STEP 5: DECISION ENGINE (MULTI-SIGNAL FUSION)
-                // ----------------------------------------
-                // Goal: Calculate optimal start time using all signals
-                // Decision tree:
-                //   CASE 1: Beep detected → Start 0.5s after beep ends (HIGH confidence)
-                //   CASE 2: HIGH beep expected, not found → Wait 3.0s (MEDIUM confidence)
-                //   CASE 3: MEDIUM beep expected → Wait 2.0s (MEDIUM-HIGH confidence)
-                //   CASE 4: LOW beep expected → Wait 1.0s (MEDIUM-HIGH confidence)
-                // Safety: Caps delay at 4s to avoid excessive wait
-                String fileName = audioFilePath.substring(audioFilePath.lastIndexOf('/') + 1);
-                var result = decisionEngine.makeDecision(
-                        fileName, greetingEndTime, beepInfo, transcript, beepExpectation);
+        String profile = null;
+        List<String> fileArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--profile") && i + 1 < args.length) {
+                profile = args[++i];
+            } else {
+                fileArgs.add(args[i]);
+            }
+        }
+        if (!fileArgs.isEmpty()) {
+            audioFiles = fileArgs.toArray(new String[0]);
+        }
 
-                // Store result for batch output generation
-                allResults.add(result);
+        // Settings come from -Dclearpath.config / CLEARPATH_CONFIG (hot reloaded) or the classpath
+        SettingsProvider settingsProvider = SettingsProvider.fromDefaultLocation();
+        try {
+            settingsProvider.startWatching();
+        } catch (IOException e) {
+            logger.warn("Settings hot reload disabled: {}", e.getMessage());
+        }
 
-                // Log individual file result
-                logger.info("✓ {} → Start at {}s",
-                        fileName, String.format("%.3f", result.getRecommendedStartTime()));
+        OutputGenerator outputGenerator = new OutputGenerator();   // CSV and report generation
 
-            } catch (Exception e) {
-                // Log errors but continue processing remaining files
-                logger.error("✗ Error processing {}: {}", audioFilePath, e.getMessage());
-                // In production: Could implement retry logic or alert system here
-            }
-        }
+        // Passes 1-3 over every file
+        List<AnalysisResult> allResults = analyzeBatch(List.of(audioFiles), settingsProvider, profile);
+        String resultsStoreDir = settingsProvider.forProfile(profile).getResultsStoreDir();
+        settingsProvider.close();
 
         logger.info("");
         logger.info("═══════════════════════════════════════════════════════════════");
@@ -173,6 +146,12 @@ public class VoicemailAnalyzer {
             // Generate detailed text report (human-readable, for review)
             outputGenerator.generateDetailedReport(allResults, "voicemail_detailed_report.txt");
 
+            // Append to the columnar result store (for queries across runs), if configured
+            if (!resultsStoreDir.isBlank()) {
+                outputGenerator.appendToStore(allResults, Paths.get(resultsStoreDir),
+                        profile != null ? profile : AnalyzerSettings.DEFAULT_PROFILE);
+            }
+
             // Print success message with file locations
             logger.info("");
             logger.info("✅ ALL OUTPUTS GENERATED SUCCESSFULLY!");
@@ -188,6 +167,426 @@ public class VoicemailAnalyzer {
         }
     }
 
+    private static void runClusterMode(String mode, String[] args) {
+        try {
+            if (mode.equals("coordinator")) {
+                ShardCoordinator.main(args);
+            } else {
+                ShardWorker.main(args);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("✗ {} failed: {}", mode, e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run a batch through the three passes: audio analysis of every file, transcription of
+     * the files that still need it, then decisions. Files that fail are logged and left out.
+     *
+     * @param settingsProvider source of one settings snapshot per file (left open)
+     * @param profile          settings profile, or null for the default
+     * @return results in input order
+     */
+    public static List<AnalysisResult> analyzeBatch(List<String> audioFiles, SettingsProvider settingsProvider,
+                                                    String profile) {
+        return analyzeBatch(audioFiles, settingsProvider, profile, null);
+    }
+
+    /**
+     * {@link #analyzeBatch(List, SettingsProvider, String)}, also reporting which input each
+     * result came from: result file names are base names and may repeat across directories
+     *
+     * @param resultPaths if not null, receives the input path of each result, in result order
+     */
+    public static List<AnalysisResult> analyzeBatch(List<String> audioFiles, SettingsProvider settingsProvider,
+                                                    String profile, List<String> resultPaths) {
+        // Store analysis results for all files
+        List<AnalysisResult> allResults = new ArrayList<>();
+        boolean tracing = startTrace(settingsProvider.forProfile(profile).getTraceDir());
+
+        // Greetings seen so far: across batches with their decisions, within this one audio only
+        int cacheEntries = settingsProvider.forProfile(profile).getFingerprintCacheEntries();
+        greetingCache.setCapacity(cacheEntries);
+        GreetingCache batchGreetings = new GreetingCache(cacheEntries);
+
+        // ========================================
+        // MAIN PROCESSING LOOP
+        // ========================================
+        // Pass 1: audio analysis of every file (STEPS 1-3)
+        List<AcousticAnalysis> analyzed = new ArrayList<>();
+        for (int i = 0; i < audioFiles.size(); i++) {
+            String audioFilePath = audioFiles.get(i);
+
+            try {
+                logger.info("Processing file {}/{}...", i + 1, audioFiles.size());
+
+                // One snapshot per file: a reload mid-file never mixes old and new thresholds
+                AnalyzerSettings settings = settingsProvider.forProfile(profile);
+                try (Trace.Span _ = Trace.span("audio", audioFilePath)) {
+                    analyzed.add(analyzeAudio(audioFilePath, settings, batchGreetings));
+                }
+
+            } catch (Exception e) {
+                // Log errors but continue processing remaining files
+                logger.error("✗ Error processing {}: {}", audioFilePath, e.getMessage());
+                // In production: Could implement retry logic or alert system here
+            }
+        }
+
+        // Pass 2: transcribe only what can still change a decision (STEP 4)
+        TranscriptionScheduler scheduler = new TranscriptionScheduler(settingsProvider.forProfile(profile));
+        Map<String, TranscriptionOutcome> transcripts;
+        try {
+            transcripts = transcribe(scheduler, analyzed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Transcription interrupted; deciding without transcripts");
+            transcripts = Map.of();
+        }
+
+        // Pass 3: decisions (STEP 5)
+        for (AcousticAnalysis analysis : analyzed) {
+            try (Trace.Span _ = Trace.span("decision", analysis.audioFilePath)) {
+                var result = analysis.reused != null ? analysis.reused
+                        : analysis.leaderPath != null ? decideRepeat(analysis, transcripts.get(analysis.leaderPath))
+                        : decide(analysis, transcripts.get(analysis.audioFilePath));
+
+                // Store result for batch output generation
+                allResults.add(result);
+                if (resultPaths != null) {
+                    resultPaths.add(analysis.audioFilePath);
+                }
+
+                // Log individual file result
+                logger.info("✓ {} → Start at {}s",
+                        result.getFileName(), String.format("%.3f", result.getRecommendedStartTime()));
+
+            } catch (Exception e) {
+                logger.error("✗ Error deciding {}: {}", analysis.audioFilePath, e.getMessage());
+            }
+        }
+        if (settingsProvider.forProfile(profile).isFingerprintEnabled()) {
+            logger.info("Repeated greetings: {} earlier, {} within this batch",
+                    greetingCache.getExactHits() + greetingCache.getFuzzyHits(),
+                    batchGreetings.getExactHits() + batchGreetings.getFuzzyHits());
+            logger.info("{}", greetingCache);
+        }
+        if (tracing) {
+            logger.info("Trace: {} events written", Trace.stop());
+        }
+        return allResults;
+    }
+
+    /**
+     * Start a batch trace in {@code traceDir} if set (see {@link Trace})
+     *
+     * @return true if this call started tracing
+     */
+    private static boolean startTrace(String traceDir) {
+        if (traceDir.isBlank() || Trace.isEnabled()) {
+            return false;
+        }
+        try {
+            logger.info("Tracing to {}", Trace.start(Paths.get(traceDir)));
+            return true;
+        } catch (IOException e) {
+            logger.warn("Tracing disabled, cannot write to {}: {}", traceDir, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Run one file through the complete pipeline using a single settings snapshot.
+     *
+     * @param audioFilePath Path to the audio file
+     * @param settings      Settings snapshot shared by every component for this file
+     * @return Final decision for the file
+     */
+    public static AnalysisResult analyzeFile(String audioFilePath, AnalyzerSettings settings) throws Exception {
+        AcousticAnalysis analysis = analyzeAudio(audioFilePath, settings, null);
+        Map<String, TranscriptionOutcome> transcripts =
+                transcribe(new TranscriptionScheduler(settings), List.of(analysis));
+        return decide(analysis, transcripts.get(audioFilePath));
+    }
+
+    /**
+     * Audio-only results for one file, waiting for its transcript
+     */
+    private static final class AcousticAnalysis {
+        final String audioFilePath;
+        final AnalyzerSettings settings;
+        final List<ChannelAnalysis> channelResults;
+        final double audioSeconds;
+        final double transcriptImpact;  // how far the transcript can still move the start time
+        final String contentHash;              // null when fingerprinting is off
+        final GreetingFingerprint fingerprint;  // far-end channel; null when off or not decoded
+        final String leaderPath;               // earlier file of the batch with the same greeting, or null
+        final AnalysisResult reused;           // decision from a cached greeting, or null
+        List<AudioFrame> farEndFrames;         // for a beep re-scan after alignment, then released; or null
+
+        AcousticAnalysis(String audioFilePath, AnalyzerSettings settings, List<ChannelAnalysis> channelResults,
+                         double audioSeconds, double transcriptImpact, String contentHash,
+                         GreetingFingerprint fingerprint, String leaderPath) {
+            this.audioFilePath = audioFilePath;
+            this.settings = settings;
+            this.channelResults = channelResults;
+            this.audioSeconds = audioSeconds;
+            this.transcriptImpact = transcriptImpact;
+            this.contentHash = contentHash;
+            this.fingerprint = fingerprint;
+            this.leaderPath = leaderPath;
+            this.reused = null;
+        }
+
+        AcousticAnalysis(String audioFilePath, AnalyzerSettings settings, AnalysisResult reused) {
+            this.audioFilePath = audioFilePath;
+            this.settings = settings;
+            this.channelResults = List.of();
+            this.audioSeconds = 0;
+            this.transcriptImpact = 0;
+            this.contentHash = null;
+            this.fingerprint = null;
+            this.leaderPath = null;
+            this.reused = reused;
+        }
+    }
+
+    /**
+     * STEPS 1-3 for one file
+     *
+     * @param batchGreetings audio results of the batch so far, or null for a single file
+     */
+    private static AcousticAnalysis analyzeAudio(String audioFilePath, AnalyzerSettings settings,
+                                                 GreetingCache batchGreetings) throws Exception {
+        // Initialize the audio components
+        // Each component is responsible for one aspect of the analysis
+        AudioReader audioReader = new AudioReader(settings);              // Handles WAV file I/O and format conversion
+        ChannelAnalyzer channelAnalyzer = new ChannelAnalyzer(settings);   // Energy + beep detection per channel
+        DecisionEngine decisionEngine = new DecisionEngine(settings);      // Multi-signal fusion for final decision
+        String fileName = audioFilePath.substring(audioFilePath.lastIndexOf('/') + 1);
+
+        // A byte-identical recording analyzed before, or earlier in this batch: nothing to decode
+        String contentHash = null;
+        if (settings.isFingerprintEnabled()) {
+            try (Trace.Span _ = Trace.span("hash")) {
+                contentHash = ContentHash.sha256Hex(Paths.get(audioFilePath));
+            }
+            GreetingCache.Hit hit = greetingCache.lookupExact(contentHash, settings);
+            if (hit != null) {
+                logger.info("Reusing the decision for {}: {}", fileName, hit);
+                return new AcousticAnalysis(audioFilePath, settings, hit.decide(fileName));
+            }
+            hit = batchGreetings != null ? batchGreetings.lookupExact(contentHash, settings) : null;
+            if (hit != null) {
+                return repeat(audioFilePath, settings, contentHash, null, hit);
+            }
+        }
+
+        // ----------------------------------------
+        // STEP 1: AUDIO LOADING
+        // ----------------------------------------
+        // Read and convert audio file to standardized format:
+        // - Sample rate: 16kHz (optimal for speech processing)
+        // - Channels: kept separate (stereo calls carry agent and far end on their own channels)
+        // - Bit depth: 16-bit signed integer
+        // - Frame size: 20ms (320 samples at 16kHz)
+        List<List<AudioFrame>> channels = audioReader.readChannels(audioFilePath);
+
+        // The same greeting at another level or offset (a mailbox called again): skip steps 2-4
+        GreetingFingerprint fingerprint = null;
+        if (settings.isFingerprintEnabled()) {
+            try (Trace.Span _ = Trace.span("fingerprint")) {
+                fingerprint = GreetingFingerprint.compute(channels.get(settings.farEndChannelFor(channels.size())),
+                        settings.getSampleRate());
+            }
+            GreetingCache.Hit hit = greetingCache.lookup(fingerprint, settings, channels.size());
+            if (hit != null) {
+                logger.info("Reusing the decision for {}: {}", fileName, hit);
+                return new AcousticAnalysis(audioFilePath, settings, hit.decide(fileName));
+            }
+            hit = batchGreetings != null ? batchGreetings.lookup(fingerprint, settings, channels.size()) : null;
+            if (hit != null) {
+                return repeat(audioFilePath, settings, contentHash, fingerprint, hit);
+            }
+        }
+
+        // ----------------------------------------
+        // STEP 2 + 3: ENERGY AND BEEP DETECTION (PER CHANNEL, IN PARALLEL)
+        // ----------------------------------------
+        // Energy: find when the greeting ends (person stops talking)
+        //   Method: Calculate RMS energy per frame, detect sustained silence
+        //   Threshold: -50dB for 1 second (50 consecutive frames)
+        //   Edge case handling: Ignores initial silence before greeting starts
+        // Beep: detect the answering machine's recording start beep
+        //   Method: 1024-point FFT with Hanning window, search 900-1100Hz
+        //   Validation: Peak-to-average ratio >15dB, duration 0.5-2.5s
+        //   Search window: 5 seconds after greeting end
+        List<ChannelAnalysis> channelResults = channelAnalyzer.analyze(channels);
+
+        if (fingerprint != null && batchGreetings != null) {
+            // Audio results only: a later copy in this batch waits for this file's transcript
+            batchGreetings.put(audioFilePath, contentHash, fingerprint, settings, channelResults, null, null);
+        }
+
+        double audioSeconds = channels.get(0).size() * settings.getFrameDurationSec();
+        double transcriptImpact = decisionEngine.transcriptImpact(channelResults);
+        AcousticAnalysis analysis = new AcousticAnalysis(audioFilePath, settings, channelResults, audioSeconds,
+                transcriptImpact, contentHash, fingerprint, null);
+
+        // Only a file that gets word timings can need a beep re-scan; keep its far end until then
+        // rather than decoding it again in the decision pass
+        if (settings.isAlignmentEnabled() && (transcriptImpact > 0 || settings.isTranscriptionDeferFinal())) {
+            analysis.farEndFrames = channels.get(settings.farEndChannelFor(channels.size()));
+        }
+        return analysis;
+    }
+
+    /**
+     * A file repeating the greeting of an earlier file in the batch: that file's audio results,
+     * shifted, and later its transcript instead of one of its own
+     */
+    private static AcousticAnalysis repeat(String audioFilePath, AnalyzerSettings settings, String contentHash,
+                                           GreetingFingerprint fingerprint, GreetingCache.Hit hit) {
+        logger.info("Skipping analysis of {}: {}",
+                audioFilePath.substring(audioFilePath.lastIndexOf('/') + 1), hit);
+        return new AcousticAnalysis(audioFilePath, settings, hit.getChannelResults(), 0, 0, contentHash,
+                fingerprint, hit.getSource());
+    }
+
+    /**
+     * STEP 4: AI TRANSCRIPTION, scheduled across the batch
+     */
+    private static Map<String, TranscriptionOutcome> transcribe(TranscriptionScheduler scheduler,
+                                                                List<AcousticAnalysis> analyzed)
+            throws InterruptedException {
+        // Goal: Predict beep likelihood from greeting content
+        // Method: Deepgram speech-to-text → regex pattern matching
+        // Scheduling: a file whose start time is the same under every transcript class (a
+        //   confident beep) is final and not sent; the rest go most ambiguous first, within
+        //   the rate limit and concurrency budget, retrying 429/5xx with jittered backoff
+        for (AcousticAnalysis analysis : analyzed) {
+            if (analysis.reused != null || analysis.leaderPath != null) {
+                continue;  // decided from a cached or repeated greeting
+            }
+            scheduler.submit(analysis.audioFilePath, analysis.audioSeconds, analysis.transcriptImpact);
+        }
+        return scheduler.runAll();
+    }
+
+    /**
+     * STEP 5 for one file, from its audio results and transcription outcome (null counts as failed)
+     */
+    private static AnalysisResult decide(AcousticAnalysis analysis, TranscriptionOutcome outcome) {
+        TranscriptAnalyzer transcriptAnalyzer = new TranscriptAnalyzer(analysis.settings);  // Pattern matching
+        DecisionEngine decisionEngine = new DecisionEngine(analysis.settings);
+
+        // Patterns:
+        //   HIGH (0.95): "after the beep", "at the tone"
+        //   MEDIUM (0.60): "leave a message"
+        //   LOW (0.30): No beep indicators
+        // Skipped as final → LOW: the start time is the same for every class, and LOW gives a
+        //   detected beep the least support, so the most conservative confidence
+        // Failed, timed out, circuit open → UNKNOWN: not evidence of "no beep"; the wait covers
+        //   an announced beep and the confidence stays below HIGH
+        TranscriptionOutcome.Status status = outcome != null ? outcome.getStatus() : TranscriptionOutcome.Status.FAILED;
+        String transcript = switch (status) {
+            case TRANSCRIBED -> outcome.getTranscript();
+            case SKIPPED_FINAL -> "Not transcribed (decision final from audio)";
+            case FAILED -> "Transcription failed";
+            case TIMED_OUT -> "Transcription timed out";
+            case CIRCUIT_OPEN -> "Not transcribed (STT circuit open)";
+        };
+        var beepExpectation = transcriptAnalyzer.analyzeBeepExpectation(outcome);
+
+        // Word timings (when transcribed): last word vs energy greeting end, and a beep search
+        // narrowed to just after "after the beep" where the first search looked in the wrong place
+        List<ChannelAnalysis> channelResults;
+        try (Trace.Span _ = Trace.span("align")) {
+            channelResults = align(analysis, outcome);
+        } finally {
+            analysis.farEndFrames = null;
+        }
+
+        // ----------------------------------------
+        // STEP 5: DECISION ENGINE (MULTI-SIGNAL FUSION)
+        // ----------------------------------------
+        // Goal: Calculate optimal start time using all signals
+        // Evidence is fused as probabilities (see DecisionScorer):
+        //   Transcript class → prior P(beep); detector confidence or miss rate → posterior
+        //   CASE 1: Beep detected → Start after beep end (+ no-beep delay if P(real) is low)
+        //   CASE 2-5: No beep → shortest delay keeping P(start before a late beep) ≤ max risk
+        //     defaults: HIGH or no transcript ≈ 2.8s, MEDIUM ≈ 1.9s, LOW = 1.0s after greeting end
+        // Output: start time plus a numeric confidence score and compliance risk
+        // Only the far-end channel is used (mono recordings have just one)
+        String audioFilePath = analysis.audioFilePath;
+        String fileName = audioFilePath.substring(audioFilePath.lastIndexOf('/') + 1);
+        AnalysisResult result = decisionEngine.makeDecision(fileName, channelResults, transcript, beepExpectation);
+
+        // Remember the evidence for the next call to this mailbox; a failed transcription is
+        // not worth repeating, so only settled outcomes are cached
+        boolean settled = status == TranscriptionOutcome.Status.TRANSCRIBED
+                || status == TranscriptionOutcome.Status.SKIPPED_FINAL;
+        if (analysis.fingerprint != null && settled) {
+            greetingCache.put(analysis.audioFilePath, analysis.contentHash, analysis.fingerprint, analysis.settings,
+                    channelResults, transcript, beepExpectation);
+        }
+        return result;
+    }
+
+    /**
+     * STEP 5 for a file repeating an earlier greeting of the batch: that file's evidence once
+     * it is decided and cached, else the shifted audio results with its transcription outcome
+     */
+    private static AnalysisResult decideRepeat(AcousticAnalysis analysis, TranscriptionOutcome leaderOutcome) {
+        String fileName = analysis.audioFilePath.substring(analysis.audioFilePath.lastIndexOf('/') + 1);
+        GreetingCache.Hit hit = analysis.fingerprint != null
+                ? greetingCache.lookup(analysis.fingerprint, analysis.settings, analysis.channelResults.size())
+                : greetingCache.lookupExact(analysis.contentHash, analysis.settings);
+        if (hit != null) {
+            return hit.decide(fileName);
+        }
+        return decide(analysis, leaderOutcome);
+    }
+
+    /**
+     * Far-end channel results corrected by the transcript's word timings, or the audio-only
+     * results when there are none
+     */
+    private static List<ChannelAnalysis> align(AcousticAnalysis analysis, TranscriptionOutcome outcome) {
+        if (outcome == null || outcome.getWords().isEmpty()) {
+            return analysis.channelResults;
+        }
+        AnalyzerSettings settings = analysis.settings;
+        TranscriptAligner aligner = new TranscriptAligner(settings);
+        int farEndIndex = settings.farEndChannelFor(analysis.channelResults.size());
+        ChannelAnalysis farEnd = analysis.channelResults.get(farEndIndex);
+        TranscriptAlignment alignment = aligner.align(outcome.getWords(), farEnd.getGreetingEndTime());
+
+        BeepInfo beep = farEnd.getBeepInfo();
+        if (aligner.needsBeepRescan(alignment, beep)) {
+            if (analysis.farEndFrames == null) {
+                // A repeated greeting: its audio results came from an earlier file, not decoded here
+                logger.info("No audio kept for a beep re-scan of {}, keeping the first result",
+                        analysis.audioFilePath);
+            } else {
+                beep = new BeepDetector(settings).detectBeep(analysis.farEndFrames,
+                        alignment.getBeepWindowFromSec(), alignment.getBeepWindowToSec());
+            }
+        }
+        if (!alignment.isGreetingEndMoved() && beep == farEnd.getBeepInfo()) {
+            return analysis.channelResults;
+        }
+
+        List<ChannelAnalysis> aligned = new ArrayList<>(analysis.channelResults);
+        aligned.set(farEndIndex, new ChannelAnalysis(farEnd.getChannel(), alignment.getGreetingEndSec(),
+                farEnd.getGreetingEndConfidence(), beep));
+        logger.info("Aligned {}", aligned.get(farEndIndex));
+        return aligned;
+    }
+
     // ========================================
     // DESIGN NOTES & RATIONALE
     // ========================================
@@ -1,7 +1,11 @@
 package com.clearpath.audio;
 
-import com.clearpath.config.Config;
+import com.clearpath.audio.source.AudioSource;
+import com.clearpath.audio.source.AudioSources;
+import com.clearpath.audio.source.JavaSoundSource;
+import com.clearpath.config.AnalyzerSettings;
 import com.clearpath.model.AudioFrame;
+import com.clearpath.trace.Trace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,80 +13,184 @@ import javax.sound.sampled.*;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class AudioReader {
     private static final Logger logger = LoggerFactory.getLogger(AudioReader.class);
+    private static final int READ_CHUNK_BYTES = 64 * 1024;
+
+    private final AnalyzerSettings settings;
+
+    public AudioReader() {
+        this(AnalyzerSettings.defaults());
+    }
+
+    public AudioReader(AnalyzerSettings settings) {
+        this.settings = settings;
+    }
 
     /**
      * Read audio file and convert to frames
      */
     public List<AudioFrame> readAudioFile(String filePath) throws IOException, UnsupportedAudioFileException {
+        double[] allSamples = readSamples(filePath);
+
+        // Split into frames
+        List<AudioFrame> frames = splitIntoFrames(allSamples);
+        logger.info("Split into {} frames", frames.size());
+
+        return frames;
+    }
+
+    /**
+     * Read audio file as normalized mono samples at the configured sample rate
+     */
+    public double[] readSamples(String filePath) throws IOException, UnsupportedAudioFileException {
         logger.info("Reading audio file: {}", filePath);
 
-        File audioFile = new File(filePath);
-        AudioInputStream audioStream = AudioSystem.getAudioInputStream(audioFile);
-
-        // Get audio format info
-        AudioFormat format = audioStream.getFormat();
-        logger.info("Original format: {} Hz, {} channels, {} bits",
-                format.getSampleRate(), format.getChannels(), format.getSampleSizeInBits());
-
-        // Convert to our target format if needed (16kHz, mono, 16-bit)
-        AudioFormat targetFormat = new AudioFormat(
-                Config.SAMPLE_RATE,  // 16000 Hz
-                16,                   // 16 bits
-                1,                    // Mono
-                true,                 // Signed
-                false                 // Little endian
-        );
-
-        // Convert if formats don't match
-        if (!format.matches(targetFormat)) {
-            logger.info("Converting to target format: 16kHz mono 16-bit");
-            audioStream = AudioSystem.getAudioInputStream(targetFormat, audioStream);
-            format = targetFormat;
-        }
+        double[] allSamples = convert(AudioSources.open(new File(filePath)), true)[0];
+        logAudioDuration(allSamples.length, 1);
+        return allSamples;
+    }
+
+    /**
+     * Read an already-open stream (e.g. an in-memory synthetic greeting) and convert to frames
+     */
+    public List<AudioFrame> readAudioStream(AudioInputStream audioStream) throws IOException {
+        return splitIntoFrames(readSamples(audioStream));
+    }
 
-        // Read all audio data
-        byte[] audioBytes = audioStream.readAllBytes();
-        audioStream.close();
+    /**
+     * Read an open stream as normalized mono samples at the configured sample rate. Closes the stream.
+     */
+    public double[] readSamples(AudioInputStream audioStream) throws IOException {
+        double[] allSamples = convert(new JavaSoundSource(audioStream), true)[0];
+        logAudioDuration(allSamples.length, 1);
+        return allSamples;
+    }
 
-        logger.info("Read {} bytes of audio data", audioBytes.length);
+    /**
+     * Read every channel separately (no downmix), one frame list per channel.
+     * Frames are assembled while the file is decoded; no whole-file sample buffer is kept.
+     */
+    public List<List<AudioFrame>> readChannels(String filePath) throws IOException, UnsupportedAudioFileException {
+        logger.info("Reading audio file per channel: {}", filePath);
+
+        try (Trace.Span span = Trace.span("read")) {
+            AudioSource source = AudioSources.open(new File(filePath));
+            int channels = source.getFormat().getChannels();
+            List<List<AudioFrame>> result = new ArrayList<>(channels);
+            FrameAssembler[] assemblers = new FrameAssembler[channels];
+            for (int ch = 0; ch < channels; ch++) {
+                List<AudioFrame> frames = new ArrayList<>();
+                result.add(frames);
+                assemblers[ch] = new FrameAssembler(settings.getFrameSizeSamples(), settings.getSampleRate(),
+                        frames::add);
+            }
+
+            stream(source, false, (ch, samples, count) -> assemblers[ch].accept(samples, count));
+
+            long samplesPerChannel = (long) assemblers[0].getFrameCount() * settings.getFrameSizeSamples();
+            logAudioDuration(samplesPerChannel, channels);
+            span.arg("format", source.getDescription()).arg("channels", channels)
+                    .arg("seconds", samplesPerChannel / (double) settings.getSampleRate());
+            return result;
+        }
+    }
 
-        // Convert bytes to samples (16-bit signed integers)
-        int numSamples = audioBytes.length / 2;  // 2 bytes per sample
-        double[] allSamples = new double[numSamples];
+    /**
+     * Read an open stream into one sample array per channel at the configured sample rate. Closes the stream.
+     */
+    public double[][] readChannelSamples(AudioInputStream audioStream) throws IOException {
+        double[][] result = convert(new JavaSoundSource(audioStream), false);
+        logAudioDuration(result[0].length, result.length);
+        return result;
+    }
 
-        for (int i = 0; i < numSamples; i++) {
-            // Combine two bytes into 16-bit signed integer
-            short sample = (short) ((audioBytes[i * 2 + 1] << 8) | (audioBytes[i * 2] & 0xFF));
-            // Normalize to -1.0 to +1.0 range
-            allSamples[i] = sample / 32768.0;
+    /**
+     * Decode and resample a whole stream into per-channel arrays
+     */
+    private double[][] convert(AudioSource source, boolean downmix) throws IOException {
+        int channels = downmix ? 1 : source.getFormat().getChannels();
+        double[][] buffers = new double[channels][settings.getSampleRate()];
+        int[] lengths = new int[channels];
+
+        stream(source, downmix, (ch, samples, count) -> {
+            if (lengths[ch] + count > buffers[ch].length) {
+                buffers[ch] = Arrays.copyOf(buffers[ch], Math.max(2 * buffers[ch].length, lengths[ch] + count));
+            }
+            System.arraycopy(samples, 0, buffers[ch], lengths[ch], count);
+            lengths[ch] += count;
+        });
+
+        double[][] result = new double[channels][];
+        for (int ch = 0; ch < channels; ch++) {
+            result[ch] = Arrays.copyOf(buffers[ch], lengths[ch]);
         }
+        return result;
+    }
 
-        double durationSec = numSamples / (double) Config.SAMPLE_RATE;
-        logger.info("Audio duration: {} seconds", String.format("%.2f", durationSec));
-        // Split into frames
-        List<AudioFrame> frames = splitIntoFrames(allSamples);
-        logger.info("Split into {} frames", frames.size());
+    /**
+     * Push a source through {@link StreamingAudioConverter} chunk by chunk. Reading (and so
+     * decoding) stops once the configured maximum duration is covered. Closes the source.
+     */
+    private void stream(AudioSource source, boolean downmix, StreamingAudioConverter.SampleSink sink)
+            throws IOException {
+        AudioFormat format = source.getFormat();
+        logger.info("Original format: {}, {} Hz, {} channels, {} bits",
+                source.getDescription(), format.getSampleRate(), format.getChannels(), format.getSampleSizeInBits());
+
+        try (source) {
+            StreamingAudioConverter converter =
+                    new StreamingAudioConverter(format, settings.getSampleRate(), downmix);
+
+            long remaining = Long.MAX_VALUE;
+            if (settings.hasMaxDuration()) {
+                remaining = (long) Math.ceil(settings.getMaxDurationSec() * format.getSampleRate()) * format.getFrameSize();
+            }
+
+            // Spans per chunk: decoding and resampling interleave, one chunk at a time
+            byte[] chunk = new byte[READ_CHUNK_BYTES - READ_CHUNK_BYTES % format.getFrameSize()];
+            while (remaining > 0) {
+                int read;
+                try (Trace.Span span = Trace.span("decode")) {
+                    read = source.read(chunk, 0, (int) Math.min(chunk.length, remaining));
+                    span.arg("bytes", read);
+                }
+                if (read <= 0) {
+                    break;
+                }
+                try (Trace.Span _ = Trace.span("resample")) {
+                    converter.accept(chunk, 0, read, sink);
+                }
+                remaining -= read;
+            }
+            if (remaining <= 0) {
+                logger.info("Stopped decoding at the {}s analysis limit", settings.getMaxDurationSec());
+            }
+            converter.finish(sink);
+        }
+    }
 
-        return frames;
+    private void logAudioDuration(long samplesPerChannel, int channels) {
+        logger.info("Audio duration: {} seconds, {} channel(s)",
+                String.format("%.2f", samplesPerChannel / (double) settings.getSampleRate()), channels);
     }
 
     /**
      * Split audio samples into fixed-size frames
      */
-    private List<AudioFrame> splitIntoFrames(double[] allSamples) {
+    public List<AudioFrame> splitIntoFrames(double[] allSamples) {
         List<AudioFrame> frames = new ArrayList<>();
-        int frameSize = Config.FRAME_SIZE_SAMPLES;  // 320 samples = 20ms
+        int frameSize = settings.getFrameSizeSamples();  // 320 samples = 20ms by default
 
         int frameIndex = 0;
         for (int i = 0; i + frameSize <= allSamples.length; i += frameSize) {
             double[] frameSamples = new double[frameSize];
             System.arraycopy(allSamples, i, frameSamples, 0, frameSize);
 
-            double timestamp = i / (double) Config.SAMPLE_RATE;
+            double timestamp = i / (double) settings.getSampleRate();
             frames.add(new AudioFrame(frameSamples, timestamp, frameIndex));
             frameIndex++;
         }
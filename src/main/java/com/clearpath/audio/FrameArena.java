@@ -0,0 +1,275 @@
+package com.clearpath.audio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of fixed-size off-heap slabs for frame buffers.
+ *
+ * <p>Memory comes from a shared FFM {@link Arena} in chunks of {@value #CHUNK_SLABS} slabs,
+ * allocated on demand up to {@code maxSlabs} and kept until the pool is closed. Slabs are
+ * rounded up to a cache line so two holders never share one. Free slabs sit on a lock-free
+ * stack (an index list with a version-tagged head), so {@link #lease()} and {@link #release}
+ * are a CAS each and allocate nothing once the pool has grown to its working size. A leased
+ * slab is not cleared; holders overwrite it.</p>
+ *
+ * <p>With leak detection on, every lease records its call site. {@link #checkLeaks} reports
+ * slabs held longer than a given age with the stack that leased them, and {@link #close()}
+ * reports whatever is still out. Releasing a slab twice always fails.</p>
+ */
+public final class FrameArena implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(FrameArena.class);
+
+    static final int CHUNK_SLABS = 64;
+    private static final long SLAB_ALIGNMENT = 64;  // one cache line
+    private static final long EMPTY = 0;
+
+    private final String name;
+    private final long slabBytes;
+    private final int maxSlabs;
+    private final boolean leakDetection;
+    private final Arena arena = Arena.ofShared();
+
+    // Slot i is free when reachable from head; next[i] holds the slot below it plus one
+    private final FrameSlab[] slabs;
+    private final int[] next;
+    private final AtomicLong head = new AtomicLong(EMPTY);  // version << 32 | (top slot + 1)
+    private volatile int capacity;
+
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger peakLeased = new AtomicInteger();
+    private final AtomicLong totalLeases = new AtomicLong();
+    private final AtomicLong failedLeases = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param slabBytes     usable bytes per slab (rounded up to a cache line)
+     * @param maxSlabs      hard limit on slabs ever allocated
+     * @param leakDetection record lease sites for {@link #checkLeaks}
+     */
+    public FrameArena(String name, long slabBytes, int maxSlabs, boolean leakDetection) {
+        if (slabBytes <= 0 || maxSlabs <= 0) {
+            throw new IllegalArgumentException("Slab size and count must be positive");
+        }
+        this.name = name;
+        this.slabBytes = (slabBytes + SLAB_ALIGNMENT - 1) / SLAB_ALIGNMENT * SLAB_ALIGNMENT;
+        this.maxSlabs = maxSlabs;
+        this.leakDetection = leakDetection;
+        this.slabs = new FrameSlab[maxSlabs];
+        this.next = new int[maxSlabs];
+    }
+
+    /**
+     * Size the pool for {@code maxBytes} of off-heap memory
+     */
+    public static FrameArena withBudget(String name, long slabBytes, long maxBytes, boolean leakDetection) {
+        long rounded = (slabBytes + SLAB_ALIGNMENT - 1) / SLAB_ALIGNMENT * SLAB_ALIGNMENT;
+        int maxSlabs = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, maxBytes / rounded));
+        return new FrameArena(name, slabBytes, maxSlabs, leakDetection);
+    }
+
+    // ==================== Leasing ====================
+
+    /**
+     * Take a free slab, growing the pool if needed
+     *
+     * @return the slab, or null if all {@code maxSlabs} are leased
+     */
+    public FrameSlab lease() {
+        FrameSlab slab;
+        while ((slab = pop()) == null) {
+            if (!grow()) {
+                failedLeases.incrementAndGet();
+                return null;
+            }
+        }
+        if (!slab.leased.compareAndSet(false, true)) {
+            throw new IllegalStateException(name + ": free slab " + slab.getIndex() + " was already leased");
+        }
+        slab.leasedAtNanos = System.nanoTime();
+        if (leakDetection) {
+            slab.leaseSite = new Throwable("Slab " + slab.getIndex() + " leased here");
+        }
+
+        int now = leased.incrementAndGet();
+        if (now > peakLeased.get()) {
+            peakLeased.accumulateAndGet(now, Math::max);
+        }
+        totalLeases.incrementAndGet();
+        return slab;
+    }
+
+    /**
+     * Hand a slab back; it must not be touched afterwards
+     *
+     * @throws IllegalStateException if the slab is not currently leased or belongs to another pool
+     */
+    public void release(FrameSlab slab) {
+        if (slab.getIndex() >= capacity || slabs[slab.getIndex()] != slab) {
+            throw new IllegalStateException(name + ": slab " + slab.getIndex() + " does not belong to this pool");
+        }
+        if (!slab.leased.compareAndSet(true, false)) {
+            throw new IllegalStateException(name + ": slab " + slab.getIndex() + " released twice");
+        }
+        slab.leaseSite = null;
+        leased.decrementAndGet();
+        push(slab.getIndex());
+    }
+
+    private FrameSlab pop() {
+        while (true) {
+            long h = head.get();
+            int top = (int) h - 1;
+            if (top < 0) {
+                return null;
+            }
+            long replacement = nextVersion(h) | next[top];
+            if (head.compareAndSet(h, replacement)) {
+                return slabs[top];
+            }
+        }
+    }
+
+    private void push(int index) {
+        while (true) {
+            long h = head.get();
+            next[index] = (int) h;
+            if (head.compareAndSet(h, nextVersion(h) | (index + 1))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Bump the version half of the head so a stale pop can't succeed after the same slot
+     * is popped and pushed again in between (ABA)
+     */
+    private static long nextVersion(long h) {
+        return ((h >>> 32) + 1) << 32;
+    }
+
+    /**
+     * Allocate one more chunk and put its slabs on the free list
+     *
+     * @return false if the pool is at its limit or closed
+     */
+    private synchronized boolean grow() {
+        if ((int) head.get() != 0) {
+            return true;  // another thread grew or released while we waited
+        }
+        if (closed || capacity >= maxSlabs) {
+            return false;
+        }
+        int first = capacity;
+        int count = Math.min(CHUNK_SLABS, maxSlabs - first);
+        MemorySegment chunk = arena.allocate(slabBytes * count, SLAB_ALIGNMENT);
+        for (int i = 0; i < count; i++) {
+            slabs[first + i] = new FrameSlab(first + i, chunk.asSlice(i * slabBytes, slabBytes));
+        }
+        capacity = first + count;
+        for (int i = count - 1; i >= 0; i--) {
+            push(first + i);
+        }
+        logger.debug("{}: grew to {} slabs ({} KB off-heap)", name, capacity, getOffHeapBytes() / 1024);
+        return true;
+    }
+
+    // ==================== Leak detection ====================
+
+    /**
+     * Log every slab leased for longer than {@code maxAgeNanos}; with leak detection on, each
+     * report includes the stack that leased it
+     *
+     * @return number of such slabs
+     */
+    public int checkLeaks(long maxAgeNanos) {
+        long now = System.nanoTime();
+        int found = 0;
+        int limit = capacity;
+        for (int i = 0; i < limit; i++) {
+            FrameSlab slab = slabs[i];
+            if (!slab.leased.get()) {
+                continue;
+            }
+            long age = now - slab.leasedAtNanos;
+            if (age < maxAgeNanos) {
+                continue;
+            }
+            found++;
+            Throwable site = slab.leaseSite;
+            if (site != null) {
+                logger.warn("{}: slab {} held for {}s", name, i, String.format("%.1f", age / 1e9), site);
+            } else {
+                logger.warn("{}: slab {} held for {}s", name, i, String.format("%.1f", age / 1e9));
+            }
+        }
+        return found;
+    }
+
+    public boolean isLeakDetection() {
+        return leakDetection;
+    }
+
+    // ==================== Metrics ====================
+
+    public String getName() { return name; }
+    public long getSlabBytes() { return slabBytes; }
+    public int getMaxSlabs() { return maxSlabs; }
+
+    /**
+     * Slabs allocated so far (leased or free)
+     */
+    public int getCapacity() { return capacity; }
+
+    public int getLeased() { return leased.get(); }
+    public int getPeakLeased() { return peakLeased.get(); }
+    public long getTotalLeases() { return totalLeases.get(); }
+
+    /**
+     * Leases refused because every slab up to the limit was out
+     */
+    public long getFailedLeases() { return failedLeases.get(); }
+
+    public long getOffHeapBytes() {
+        return capacity * slabBytes;
+    }
+
+    /**
+     * Leased share of the allocated slabs, 0..1
+     */
+    public double getUtilization() {
+        int allocated = capacity;
+        return allocated == 0 ? 0.0 : leased.get() / (double) allocated;
+    }
+
+    /**
+     * Free all off-heap memory. Slabs still leased are reported as leaks and become invalid.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        int outstanding = checkLeaks(0);
+        if (outstanding > 0) {
+            logger.warn("{}: closed with {} slab(s) still leased", name, outstanding);
+        }
+        logger.info("{}: {} leases, peak {} of {} slabs ({} KB off-heap)", name, getTotalLeases(),
+                getPeakLeased(), getCapacity(), getOffHeapBytes() / 1024);
+        arena.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%d/%d slabs leased, peak %d, %d KB]", name, getLeased(), getCapacity(),
+                getPeakLeased(), getOffHeapBytes() / 1024);
+    }
+}
@@ -0,0 +1,48 @@
+package com.clearpath.audio;
+
+import com.clearpath.model.AudioFrame;
+
+import java.util.function.Consumer;
+
+/**
+ * Cuts a continuous sample stream into fixed-size {@link AudioFrame}s as samples arrive.
+ *
+ * <p>A trailing partial frame is dropped, matching {@code AudioReader.splitIntoFrames}.</p>
+ */
+public class FrameAssembler {
+    private final int frameSize;
+    private final int sampleRate;
+    private final Consumer<AudioFrame> consumer;
+
+    private double[] current;
+    private int fill;
+    private int frameIndex;
+
+    public FrameAssembler(int frameSize, int sampleRate, Consumer<AudioFrame> consumer) {
+        this.frameSize = frameSize;
+        this.sampleRate = sampleRate;
+        this.consumer = consumer;
+        this.current = new double[frameSize];
+    }
+
+    public void accept(double[] samples, int count) {
+        int pos = 0;
+        while (pos < count) {
+            int n = Math.min(frameSize - fill, count - pos);
+            System.arraycopy(samples, pos, current, fill, n);
+            fill += n;
+            pos += n;
+            if (fill == frameSize) {
+                double timestamp = (long) frameIndex * frameSize / (double) sampleRate;
+                consumer.accept(new AudioFrame(current, timestamp, frameIndex));
+                frameIndex++;
+                current = new double[frameSize];
+                fill = 0;
+            }
+        }
+    }
+
+    public int getFrameCount() {
+        return frameIndex;
+    }
+}
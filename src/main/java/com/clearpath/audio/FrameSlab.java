@@ -0,0 +1,41 @@
+package com.clearpath.audio;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One fixed-size block of off-heap memory leased from a {@link FrameArena}.
+ *
+ * <p>Handles are created once per slot when the arena grows and reused for every lease, so
+ * leasing allocates nothing. The segment is only valid between {@link FrameArena#lease()} and
+ * {@link FrameArena#release}; after that another holder may be writing to it.</p>
+ */
+public final class FrameSlab {
+    private final int index;
+    private final MemorySegment segment;
+
+    // Lease bookkeeping; the timestamp and site are published by the free list hand-off
+    final AtomicBoolean leased = new AtomicBoolean();
+    long leasedAtNanos;
+    Throwable leaseSite;  // only with leak detection
+
+    FrameSlab(int index, MemorySegment segment) {
+        this.index = index;
+        this.segment = segment;
+    }
+
+    /**
+     * Slot number within the arena
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public MemorySegment getSegment() {
+        return segment;
+    }
+
+    public long getSizeBytes() {
+        return segment.byteSize();
+    }
+}
@@ -0,0 +1,56 @@
+package com.clearpath.audio;
+
+/**
+ * G.711 μ-law / A-law decoding through 256-entry lookup tables.
+ *
+ * <p>Tables hold samples already normalized to -1.0..+1.0, so decoding is one array read.</p>
+ */
+public final class G711 {
+    private static final double[] ULAW = new double[256];
+    private static final double[] ALAW = new double[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            ULAW[i] = ulawToLinear(i) / 32768.0;
+            ALAW[i] = alawToLinear(i) / 32768.0;
+        }
+    }
+
+    private G711() {
+    }
+
+    public static double decodeUlaw(byte b) {
+        return ULAW[b & 0xFF];
+    }
+
+    public static double decodeAlaw(byte b) {
+        return ALAW[b & 0xFF];
+    }
+
+    /**
+     * ITU-T G.711 μ-law to 16-bit linear
+     */
+    static int ulawToLinear(int u) {
+        u = ~u & 0xFF;
+        int sign = u & 0x80;
+        int exponent = (u >> 4) & 0x07;
+        int mantissa = u & 0x0F;
+        int sample = (((mantissa << 3) + 0x84) << exponent) - 0x84;
+        return sign != 0 ? -sample : sample;
+    }
+
+    /**
+     * ITU-T G.711 A-law to 16-bit linear
+     */
+    static int alawToLinear(int a) {
+        a ^= 0x55;
+        int segment = (a >> 4) & 0x07;
+        int t = (a & 0x0F) << 4;
+        if (segment == 0) {
+            t += 8;
+        } else {
+            t = (t + 0x108) << (segment - 1);
+        }
+        return (a & 0x80) != 0 ? t : -t;
+    }
+}
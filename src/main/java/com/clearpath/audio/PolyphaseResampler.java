@@ -0,0 +1,177 @@
+package com.clearpath.audio;
+
+/**
+ * Streaming rational-ratio resampler using a polyphase Kaiser-windowed sinc filter.
+ *
+ * <p>The ratio is reduced to L/M (e.g. 8000→16000 = 2/1, 44100→16000 = 160/441,
+ * 48000→16000 = 1/3). Only the L filter phases that are actually needed are evaluated,
+ * so each output sample costs {@code tapsPerPhase} multiply-adds regardless of L or M.</p>
+ *
+ * <p>Input may arrive in chunks of any size; filter history is carried between calls.
+ * Output is aligned to the input (filter group delay is compensated), so output
+ * sample {@code n} corresponds to time {@code n / outputRate}.</p>
+ */
+public class PolyphaseResampler {
+    public static final int DEFAULT_TAPS_PER_PHASE = 32;
+    private static final double KAISER_BETA = 8.0;     // ~80 dB stopband
+    private static final double ROLLOFF = 0.92;        // passband edge as a fraction of the output Nyquist
+
+    private final int inputRate;
+    private final int outputRate;
+    private final int up;      // L
+    private final int down;    // M
+    private final int taps;    // per phase
+    private final double[][] phases;  // phases[p][k] = h[p + k * L]
+    private final long delay;         // filter group delay on the upsampled grid
+
+    // Input samples with absolute indices [bufferStart, bufferStart + bufferLength)
+    private double[] buffer;
+    private int bufferLength;
+    private long bufferStart;
+
+    // Absolute position of the next output sample on the L-times upsampled grid
+    private long nextUpsampled;
+
+    public PolyphaseResampler(int inputRate, int outputRate) {
+        this(inputRate, outputRate, DEFAULT_TAPS_PER_PHASE);
+    }
+
+    public PolyphaseResampler(int inputRate, int outputRate, int tapsPerPhase) {
+        if (inputRate <= 0 || outputRate <= 0 || tapsPerPhase <= 0) {
+            throw new IllegalArgumentException("Rates and taps must be positive");
+        }
+        int gcd = gcd(inputRate, outputRate);
+        this.inputRate = inputRate;
+        this.outputRate = outputRate;
+        this.up = outputRate / gcd;
+        this.down = inputRate / gcd;
+        this.taps = tapsPerPhase;
+        // Filter centre on a whole upsampled sample; starting there lines output 0 up with input 0
+        this.delay = ((long) up * taps - 1) / 2;
+        this.nextUpsampled = delay;
+        this.phases = designPhases(up, down, tapsPerPhase, delay);
+        this.buffer = new double[Math.max(4096, 2 * tapsPerPhase)];
+    }
+
+    public int getInputRate() { return inputRate; }
+    public int getOutputRate() { return outputRate; }
+
+    /**
+     * Upper bound of output samples produced for {@code inputSamples} more input
+     */
+    public int maxOutput(int inputSamples) {
+        return (int) (((long) inputSamples * up) / down) + 2;
+    }
+
+    /**
+     * Resample one chunk.
+     *
+     * @return number of samples written to {@code out} (at most {@link #maxOutput(int)})
+     */
+    public int process(double[] in, int offset, int length, double[] out, int outOffset) {
+        append(in, offset, length);
+
+        int written = 0;
+        long available = bufferStart + bufferLength;  // absolute index one past the newest input
+        while (true) {
+            long base = nextUpsampled / up;  // newest input sample touched by this output
+            if (base >= available) {
+                break;
+            }
+            double[] coeffs = phases[(int) (nextUpsampled % up)];
+            int idx = (int) (base - bufferStart);
+            double acc = 0;
+            // Samples before the start of the stream are treated as silence
+            int kMax = Math.min(taps, idx + 1);
+            for (int k = 0; k < kMax; k++) {
+                acc += coeffs[k] * buffer[idx - k];
+            }
+            out[outOffset + written++] = acc;
+            nextUpsampled += down;
+        }
+
+        discardHistory();
+        return written;
+    }
+
+    /**
+     * Emit the samples still held back by the filter delay. Ends the stream.
+     */
+    public int flush(double[] out, int outOffset) {
+        // First upsampled position past the real end of the input
+        long limit = (bufferStart + bufferLength) * up + delay;
+        long first = nextUpsampled;
+        int pad = taps / 2 + 2;
+        int written = process(new double[pad], 0, pad, out, outOffset);
+        long valid = first >= limit ? 0 : (limit - first + down - 1) / down;
+        return (int) Math.min(written, valid);
+    }
+
+    private void append(double[] in, int offset, int length) {
+        if (bufferLength + length > buffer.length) {
+            double[] grown = new double[Math.max(buffer.length * 2, bufferLength + length)];
+            System.arraycopy(buffer, 0, grown, 0, bufferLength);
+            buffer = grown;
+        }
+        System.arraycopy(in, offset, buffer, bufferLength, length);
+        bufferLength += length;
+    }
+
+    /**
+     * Keep only the taps-1 samples the next output can still reach
+     */
+    private void discardHistory() {
+        long keepFrom = nextUpsampled / up - (taps - 1);
+        int drop = (int) Math.max(0, Math.min(bufferLength, keepFrom - bufferStart));
+        if (drop > 0) {
+            System.arraycopy(buffer, drop, buffer, 0, bufferLength - drop);
+            bufferLength -= drop;
+            bufferStart += drop;
+        }
+    }
+
+    /**
+     * Kaiser-windowed sinc prototype at L times the input rate, split into L phases
+     */
+    private static double[][] designPhases(int up, int down, int taps, long center) {
+        int length = up * taps;
+        // Cutoff in cycles per upsampled sample: the lower of the input and output Nyquist
+        double cutoff = 0.5 * ROLLOFF / Math.max(up, down);
+        double halfWidth = length / 2.0;
+        double i0Beta = besselI0(KAISER_BETA);
+
+        double[][] phases = new double[up][taps];
+        for (int n = 0; n < length; n++) {
+            double x = n - center;
+            double sinc = x == 0 ? 2.0 * cutoff : Math.sin(2.0 * Math.PI * cutoff * x) / (Math.PI * x);
+            double r = x / halfWidth;
+            double window = besselI0(KAISER_BETA * Math.sqrt(Math.max(0, 1.0 - r * r))) / i0Beta;
+            // Gain of L restores the level lost by zero-stuffing
+            phases[n % up][n / up] = sinc * window * up;
+        }
+        return phases;
+    }
+
+    private static double besselI0(double x) {
+        double sum = 1.0;
+        double term = 1.0;
+        double halfX = x / 2.0;
+        for (int k = 1; k < 50; k++) {
+            term *= (halfX / k) * (halfX / k);
+            sum += term;
+            if (term < 1e-12 * sum) {
+                break;
+            }
+        }
+        return sum;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
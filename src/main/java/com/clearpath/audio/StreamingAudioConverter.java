@@ -0,0 +1,221 @@
+package com.clearpath.audio;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Chunk-by-chunk conversion of raw audio bytes to normalized samples at the target rate.
+ *
+ * <p>Handles linear PCM (8/16/24/32-bit, either byte order, signed or unsigned 8-bit)
+ * and G.711 μ-law/A-law via {@link G711}. Channels are de-interleaved straight from the
+ * input chunk, optionally averaged to mono, and resampled with one
+ * {@link PolyphaseResampler} per channel. Chunks may split sample frames anywhere,
+ * so the converter works on network packets as well as file reads.</p>
+ */
+public class StreamingAudioConverter {
+    private final double[] byteTable;  // 8-bit formats decode through a 256-entry table
+    private final int inputChannels;
+    private final int outputChannels;
+    private final int bytesPerSample;
+    private final int frameBytes;
+    private final boolean bigEndian;
+    private final boolean downmix;
+    private final PolyphaseResampler[] resamplers;  // null when no rate change is needed
+
+    // Partial sample frame carried over from the previous chunk
+    private final byte[] pending;
+    private int pendingLength;
+
+    // Scratch buffers, grown on demand
+    private double[][] decoded;
+    private double[] resampled;
+
+    /**
+     * Receives converted samples; {@code samples[0..count)} is only valid during the call
+     */
+    public interface SampleSink {
+        void accept(int channel, double[] samples, int count);
+    }
+
+    public StreamingAudioConverter(AudioFormat source, int targetRate, boolean downmix) {
+        if (!isSupported(source)) {
+            throw new IllegalArgumentException("Unsupported encoding for built-in conversion: " + source);
+        }
+        this.byteTable = source.getSampleSizeInBits() == 8 ? byteTable(source.getEncoding()) : null;
+        this.inputChannels = source.getChannels();
+        this.outputChannels = downmix ? 1 : inputChannels;
+        this.bytesPerSample = (source.getSampleSizeInBits() + 7) / 8;
+        this.frameBytes = bytesPerSample * inputChannels;
+        this.bigEndian = source.isBigEndian();
+        this.downmix = downmix;
+        this.pending = new byte[frameBytes];
+
+        int sourceRate = Math.round(source.getSampleRate());
+        if (sourceRate != targetRate) {
+            resamplers = new PolyphaseResampler[outputChannels];
+            for (int ch = 0; ch < outputChannels; ch++) {
+                resamplers[ch] = new PolyphaseResampler(sourceRate, targetRate);
+            }
+        } else {
+            resamplers = null;
+        }
+        this.decoded = new double[outputChannels][0];
+        this.resampled = new double[0];
+    }
+
+    /**
+     * True if the format can be decoded without {@code javax.sound} conversion
+     */
+    public static boolean isSupported(AudioFormat format) {
+        AudioFormat.Encoding enc = format.getEncoding();
+        int bits = format.getSampleSizeInBits();
+        if (format.getChannels() < 1 || format.getSampleRate() <= 0) {
+            return false;
+        }
+        if (enc.equals(AudioFormat.Encoding.ULAW) || enc.equals(AudioFormat.Encoding.ALAW)) {
+            return bits == 8;
+        }
+        if (enc.equals(AudioFormat.Encoding.PCM_SIGNED)) {
+            return bits == 8 || bits == 16 || bits == 24 || bits == 32;
+        }
+        return enc.equals(AudioFormat.Encoding.PCM_UNSIGNED) && bits == 8;
+    }
+
+    public int getOutputChannels() {
+        return outputChannels;
+    }
+
+    /**
+     * Convert one chunk of raw bytes and push the result to {@code sink}
+     */
+    public void accept(byte[] data, int offset, int length, SampleSink sink) {
+        int pos = offset;
+        int end = offset + length;
+
+        // Complete a sample frame split across chunks
+        if (pendingLength > 0) {
+            int need = Math.min(frameBytes - pendingLength, length);
+            System.arraycopy(data, pos, pending, pendingLength, need);
+            pendingLength += need;
+            pos += need;
+            if (pendingLength < frameBytes) {
+                return;
+            }
+            decodeFrames(pending, 0, 1);
+            emit(1, sink);
+            pendingLength = 0;
+        }
+
+        int frames = (end - pos) / frameBytes;
+        if (frames > 0) {
+            decodeFrames(data, pos, frames);
+            emit(frames, sink);
+            pos += frames * frameBytes;
+        }
+
+        pendingLength = end - pos;
+        System.arraycopy(data, pos, pending, 0, pendingLength);
+    }
+
+    /**
+     * Flush resampler delay lines at end of stream
+     */
+    public void finish(SampleSink sink) {
+        if (resamplers == null) {
+            return;
+        }
+        ensureResampled(resamplers[0].maxOutput(PolyphaseResampler.DEFAULT_TAPS_PER_PHASE));
+        for (int ch = 0; ch < outputChannels; ch++) {
+            int n = resamplers[ch].flush(resampled, 0);
+            if (n > 0) {
+                sink.accept(ch, resampled, n);
+            }
+        }
+    }
+
+    private void emit(int frames, SampleSink sink) {
+        for (int ch = 0; ch < outputChannels; ch++) {
+            if (resamplers == null) {
+                sink.accept(ch, decoded[ch], frames);
+            } else {
+                ensureResampled(resamplers[ch].maxOutput(frames));
+                int n = resamplers[ch].process(decoded[ch], 0, frames, resampled, 0);
+                if (n > 0) {
+                    sink.accept(ch, resampled, n);
+                }
+            }
+        }
+    }
+
+    private void decodeFrames(byte[] data, int offset, int frames) {
+        if (decoded[0].length < frames) {
+            for (int ch = 0; ch < outputChannels; ch++) {
+                decoded[ch] = new double[Math.max(frames, 2 * decoded[ch].length)];
+            }
+        }
+
+        if (downmix && inputChannels > 1) {
+            double scale = 1.0 / inputChannels;
+            double[] out = decoded[0];
+            for (int i = 0; i < frames; i++) {
+                int frameStart = offset + i * frameBytes;
+                double sum = 0;
+                for (int ch = 0; ch < inputChannels; ch++) {
+                    sum += decodeSample(data, frameStart + ch * bytesPerSample);
+                }
+                out[i] = sum * scale;
+            }
+            return;
+        }
+
+        for (int ch = 0; ch < outputChannels; ch++) {
+            double[] out = decoded[ch];
+            int p = offset + ch * bytesPerSample;
+            for (int i = 0; i < frames; i++, p += frameBytes) {
+                out[i] = decodeSample(data, p);
+            }
+        }
+    }
+
+    private double decodeSample(byte[] data, int p) {
+        switch (bytesPerSample) {
+            case 1:
+                return byteTable[data[p] & 0xFF];
+            case 2:
+                return (short) (bigEndian
+                        ? (data[p] << 8) | (data[p + 1] & 0xFF)
+                        : (data[p + 1] << 8) | (data[p] & 0xFF)) / 32768.0;
+            case 3:
+                return (bigEndian
+                        ? (data[p] << 16) | ((data[p + 1] & 0xFF) << 8) | (data[p + 2] & 0xFF)
+                        : (data[p + 2] << 16) | ((data[p + 1] & 0xFF) << 8) | (data[p] & 0xFF)) / 8388608.0;
+            default:
+                return (bigEndian
+                        ? (data[p] << 24) | ((data[p + 1] & 0xFF) << 16) | ((data[p + 2] & 0xFF) << 8) | (data[p + 3] & 0xFF)
+                        : (data[p + 3] << 24) | ((data[p + 2] & 0xFF) << 16) | ((data[p + 1] & 0xFF) << 8) | (data[p] & 0xFF))
+                        / 2147483648.0;
+        }
+    }
+
+    private static double[] byteTable(AudioFormat.Encoding encoding) {
+        double[] table = new double[256];
+        for (int i = 0; i < 256; i++) {
+            byte b = (byte) i;
+            if (encoding.equals(AudioFormat.Encoding.ULAW)) {
+                table[i] = G711.decodeUlaw(b);
+            } else if (encoding.equals(AudioFormat.Encoding.ALAW)) {
+                table[i] = G711.decodeAlaw(b);
+            } else if (encoding.equals(AudioFormat.Encoding.PCM_UNSIGNED)) {
+                table[i] = (i - 128) / 128.0;
+            } else {
+                table[i] = b / 128.0;
+            }
+        }
+        return table;
+    }
+
+    private void ensureResampled(int size) {
+        if (resampled.length < size) {
+            resampled = new double[Math.max(size, 2 * resampled.length)];
+        }
+    }
+}
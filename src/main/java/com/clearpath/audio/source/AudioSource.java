@@ -0,0 +1,33 @@
+package com.clearpath.audio.source;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A decoded audio stream, whatever the container or codec on disk.
+ *
+ * <p>{@link #read} returns raw sample bytes laid out as described by {@link #getFormat()},
+ * which is always a format {@link com.clearpath.audio.StreamingAudioConverter} can consume.
+ * Sources decode lazily, so a reader that stops early also stops the decoder (and the
+ * disk reads behind it). Use {@link AudioSources#open} to pick the right implementation.</p>
+ */
+public interface AudioSource extends Closeable {
+
+    /**
+     * Layout of the bytes returned by {@link #read}
+     */
+    AudioFormat getFormat();
+
+    /**
+     * Container/codec name for logging, e.g. "FLAC" or "WAVE (javax.sound)"
+     */
+    String getDescription();
+
+    /**
+     * Read up to {@code length} bytes of whole sample frames.
+     *
+     * @return bytes read, or -1 at end of stream
+     */
+    int read(byte[] buffer, int offset, int length) throws IOException;
+}
@@ -0,0 +1,87 @@
+package com.clearpath.audio.source;
+
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Opens a recording by sniffing its leading bytes rather than trusting the file extension:
+ *
+ * <ul>
+ *   <li>{@code fLaC} (optionally behind an ID3v2 tag): native FLAC</li>
+ *   <li>{@code OggS} with a FLAC mapping header: Ogg FLAC</li>
+ *   <li>{@code OggS} with Opus or Vorbis: rejected, no pure-Java decoder yet</li>
+ *   <li>anything else: handed to javax.sound (WAV, AIFF, AU)</li>
+ * </ul>
+ */
+public final class AudioSources {
+    private static final int SNIFF_BYTES = 4;
+    private static final int OGG_FLAC_HEADER_BYTES = 9;  // 0x7F "FLAC" major minor header-count
+
+    private AudioSources() {
+    }
+
+    /**
+     * Extensions worth handing to {@link #open} when scanning a directory
+     */
+    public static boolean isAudioFileName(String name) {
+        String lower = name.toLowerCase();
+        return lower.endsWith(".wav") || lower.endsWith(".flac") || lower.endsWith(".oga") || lower.endsWith(".ogg");
+    }
+
+    public static AudioSource open(File file) throws IOException, UnsupportedAudioFileException {
+        byte[] head = new byte[SNIFF_BYTES];
+        int headLength;
+        try (InputStream in = new FileInputStream(file)) {
+            headLength = in.readNBytes(head, 0, head.length);
+        }
+        String magic = new String(head, 0, headLength, StandardCharsets.ISO_8859_1);
+
+        if (magic.equals("fLaC") || magic.startsWith("ID3")) {
+            return openFlac(file);
+        }
+        if (magic.equals("OggS")) {
+            return openOgg(file);
+        }
+        return new JavaSoundSource(AudioSystem.getAudioInputStream(file), "javax.sound");
+    }
+
+    private static AudioSource openFlac(File file) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            return new FlacSource(in, "FLAC");
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static AudioSource openOgg(File file) throws IOException, UnsupportedAudioFileException {
+        OggPayloadInputStream in = new OggPayloadInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            byte[] header = in.readNBytes(OGG_FLAC_HEADER_BYTES);
+            if (header.length >= 5 && header[0] == 0x7F && startsWith(header, 1, "FLAC")) {
+                return new FlacSource(in, "Ogg FLAC");
+            }
+
+            String codec = startsWith(header, 0, "OpusHead") ? "Opus"
+                    : startsWith(header, 1, "vorbis") ? "Vorbis" : "unknown codec";
+            throw new UnsupportedAudioFileException("Ogg/" + codec + " is not supported: " + file.getName());
+        } catch (IOException | UnsupportedAudioFileException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static boolean startsWith(byte[] data, int offset, String prefix) {
+        byte[] expected = prefix.getBytes(StandardCharsets.ISO_8859_1);
+        return data.length >= offset + expected.length
+                && Arrays.equals(data, offset, offset + expected.length, expected, 0, expected.length);
+    }
+}
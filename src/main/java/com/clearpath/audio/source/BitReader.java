@@ -0,0 +1,145 @@
+package com.clearpath.audio.source;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * MSB-first bit reader over a buffered stream, with the Rice/unary primitives FLAC needs
+ */
+class BitReader {
+    private final InputStream in;
+    private final byte[] buffer = new byte[64 * 1024];
+    private int bufferPos;
+    private int bufferLength;
+
+    // Up to 39 pending bits, right-aligned; only the low cacheBits are valid
+    private long cache;
+    private int cacheBits;
+
+    BitReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Read {@code n} (0..32) bits as an unsigned value
+     */
+    int readBits(int n) throws IOException {
+        if (n == 0) {
+            return 0;
+        }
+        while (cacheBits < n) {
+            int b = nextByte();
+            if (b < 0) {
+                throw new EOFException("Unexpected end of stream");
+            }
+            cache = (cache << 8) | b;
+            cacheBits += 8;
+        }
+        cacheBits -= n;
+        return (int) ((cache >>> cacheBits) & ((1L << n) - 1));
+    }
+
+    /**
+     * Read {@code n} bits as a two's complement value
+     */
+    int readSignedBits(int n) throws IOException {
+        if (n == 0) {
+            return 0;
+        }
+        int shift = 32 - n;
+        return (readBits(n) << shift) >> shift;
+    }
+
+    long readLongBits(int n) throws IOException {
+        if (n <= 32) {
+            return readBits(n) & 0xFFFFFFFFL;
+        }
+        long high = readBits(n - 32) & 0xFFFFFFFFL;
+        return (high << 32) | (readBits(32) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Count zero bits up to and including the next one bit
+     */
+    int readUnary() throws IOException {
+        int count = 0;
+        while (true) {
+            if (cacheBits == 0) {
+                int b = nextByte();
+                if (b < 0) {
+                    throw new EOFException("Unexpected end of stream");
+                }
+                cache = b;
+                cacheBits = 8;
+            }
+            long bits = cache & ((1L << cacheBits) - 1);
+            if (bits == 0) {
+                count += cacheBits;
+                cacheBits = 0;
+                continue;
+            }
+            int highest = 63 - Long.numberOfLeadingZeros(bits);
+            count += cacheBits - 1 - highest;
+            cacheBits = highest;
+            return count;
+        }
+    }
+
+    /**
+     * Rice-coded signed value with parameter {@code k}
+     */
+    int readRice(int k) throws IOException {
+        int quotient = readUnary();
+        int value = (quotient << k) | readBits(k);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    void alignToByte() {
+        cacheBits -= cacheBits % 8;
+    }
+
+    /**
+     * Next whole byte at a byte boundary, or -1 at end of stream
+     */
+    int readByteOrEof() throws IOException {
+        alignToByte();
+        if (cacheBits >= 8) {
+            return readBits(8);
+        }
+        return nextByte();
+    }
+
+    void skipBytes(long n) throws IOException {
+        alignToByte();
+        while (n > 0 && cacheBits >= 8) {
+            readBits(8);
+            n--;
+        }
+        while (n > 0) {
+            if (bufferPos == bufferLength && !fill()) {
+                throw new EOFException("Unexpected end of stream");
+            }
+            int step = (int) Math.min(n, bufferLength - bufferPos);
+            bufferPos += step;
+            n -= step;
+        }
+    }
+
+    private int nextByte() throws IOException {
+        if (bufferPos == bufferLength && !fill()) {
+            return -1;
+        }
+        return buffer[bufferPos++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        bufferPos = 0;
+        bufferLength = n;
+        return true;
+    }
+}
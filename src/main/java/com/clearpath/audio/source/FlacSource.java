@@ -0,0 +1,425 @@
+package com.clearpath.audio.source;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Pure-Java streaming FLAC decoder.
+ *
+ * <p>Supports every subframe type (constant, verbatim, fixed, LPC), both Rice partition
+ * formats including escaped partitions, wasted bits, and the three stereo decorrelation
+ * modes. One frame (typically 4096 samples) is decoded per refill, so memory stays
+ * constant and a caller that stops reading stops the decoder too. Frame CRCs and the
+ * STREAMINFO MD5 are not verified while decoding; the MD5 is exposed for offline checks
+ * (see {@code FlacVectorCheck}). A stream cut off mid-frame delivers every complete frame,
+ * then {@link #read} throws {@link java.io.EOFException}.</p>
+ *
+ * <p>Output is little-endian signed PCM at 8, 16, 24 or 32 bits; 12- and 20-bit
+ * streams are left-justified into the next whole byte.</p>
+ */
+public class FlacSource implements AudioSource {
+    private static final int METADATA_STREAMINFO = 0;
+
+    private final BitReader in;
+    private final InputStream stream;
+    private final String description;
+    private final AudioFormat format;
+
+    // STREAMINFO
+    private final int sampleRate;
+    private final int channels;
+    private final int bitsPerSample;
+    private final long totalSamples;  // 0 if unknown
+    private final byte[] md5;         // all zero if the encoder did not compute it
+
+    private final int outputBytes;
+    private final int outputShift;
+
+    private int[][] block = new int[0][0];
+    private byte[] pcm = new byte[0];
+    private int pcmPos;
+    private int pcmLength;
+    private boolean finished;
+
+    /**
+     * @param stream positioned at the "fLaC" marker (an ID3v2 tag in front is skipped)
+     */
+    public FlacSource(InputStream stream, String description) throws IOException {
+        this.stream = stream;
+        this.in = new BitReader(stream);
+        this.description = description;
+
+        skipId3AndCheckMarker();
+
+        // The first metadata block must be STREAMINFO; everything else is skipped
+        boolean last = in.readBits(1) == 1;
+        int type = in.readBits(7);
+        int length = in.readBits(24);
+        if (type != METADATA_STREAMINFO || length < 34) {
+            throw new IOException("FLAC stream does not start with STREAMINFO");
+        }
+        in.readBits(16);  // min block size
+        in.readBits(16);  // max block size
+        in.readBits(24);  // min frame size
+        in.readBits(24);  // max frame size
+        sampleRate = in.readBits(20);
+        channels = in.readBits(3) + 1;
+        bitsPerSample = in.readBits(5) + 1;
+        totalSamples = in.readLongBits(36);
+        md5 = new byte[16];
+        for (int i = 0; i < md5.length; i++) {
+            md5[i] = (byte) in.readBits(8);
+        }
+        in.skipBytes(length - 34);  // any padding in the block
+
+        while (!last) {
+            last = in.readBits(1) == 1;
+            in.readBits(7);
+            in.skipBytes(in.readBits(24));
+        }
+
+        if (sampleRate == 0) {
+            throw new IOException("FLAC stream has no sample rate");
+        }
+
+        outputBytes = bitsPerSample <= 8 ? 1 : bitsPerSample <= 16 ? 2 : bitsPerSample <= 24 ? 3 : 4;
+        outputShift = outputBytes * 8 - bitsPerSample;
+        format = new AudioFormat(sampleRate, outputBytes * 8, channels, true, false);
+    }
+
+    public long getTotalSamples() {
+        return totalSamples;
+    }
+
+    /**
+     * Sample size on disk; {@link #getFormat()} rounds it up to whole bytes
+     */
+    public int getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    /**
+     * STREAMINFO MD5 of the decoded samples (interleaved, little-endian, right-justified in
+     * whole bytes), or null if the encoder left it unset
+     */
+    public byte[] getStreamMd5() {
+        for (byte b : md5) {
+            if (b != 0) {
+                return md5.clone();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        while (pcmPos == pcmLength) {
+            if (finished || !decodeFrame()) {
+                finished = true;
+                return -1;
+            }
+        }
+        int n = Math.min(length, pcmLength - pcmPos);
+        System.arraycopy(pcm, pcmPos, buffer, offset, n);
+        pcmPos += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    private void skipId3AndCheckMarker() throws IOException {
+        int b0 = in.readBits(8);
+        int b1 = in.readBits(8);
+        int b2 = in.readBits(8);
+        if (b0 == 'I' && b1 == 'D' && b2 == '3') {
+            in.skipBytes(3);  // version, flags
+            int size = 0;
+            for (int i = 0; i < 4; i++) {
+                size = (size << 7) | (in.readBits(8) & 0x7F);
+            }
+            in.skipBytes(size);
+            b0 = in.readBits(8);
+            b1 = in.readBits(8);
+            b2 = in.readBits(8);
+        }
+        int b3 = in.readBits(8);
+        if (b0 != 'f' || b1 != 'L' || b2 != 'a' || b3 != 'C') {
+            throw new IOException("Missing fLaC stream marker");
+        }
+    }
+
+    // ==================== Frames ====================
+
+    /**
+     * Decode the next frame into {@link #pcm}; false at end of stream
+     */
+    private boolean decodeFrame() throws IOException {
+        // Sync code 0b11111111_111110xx; scanning also skips trailing tags
+        int previous = in.readByteOrEof();
+        int current;
+        while (true) {
+            current = in.readByteOrEof();
+            if (previous < 0 || current < 0) {
+                return false;
+            }
+            if (previous == 0xFF && (current & 0xFE) == 0xF8) {
+                break;
+            }
+            previous = current;
+        }
+
+        int blockSizeCode = in.readBits(4);
+        int sampleRateCode = in.readBits(4);
+        int channelAssignment = in.readBits(4);
+        int sampleSizeCode = in.readBits(3);
+        in.readBits(1);
+        readUtf8Number();
+
+        int blockSize = switch (blockSizeCode) {
+            case 0 -> throw new IOException("Reserved FLAC block size");
+            case 1 -> 192;
+            case 2, 3, 4, 5 -> 576 << (blockSizeCode - 2);
+            case 6 -> in.readBits(8) + 1;
+            case 7 -> in.readBits(16) + 1;
+            default -> 256 << (blockSizeCode - 8);
+        };
+        switch (sampleRateCode) {
+            case 12 -> in.readBits(8);
+            case 13, 14 -> in.readBits(16);
+            case 15 -> throw new IOException("Invalid FLAC sample rate code");
+            default -> { }  // rate is fixed by STREAMINFO for our purposes
+        }
+        int sampleSize = switch (sampleSizeCode) {
+            case 0 -> bitsPerSample;
+            case 1 -> 8;
+            case 2 -> 12;
+            case 4 -> 16;
+            case 5 -> 20;
+            case 6 -> 24;
+            case 7 -> 32;
+            default -> throw new IOException("Reserved FLAC sample size");
+        };
+        in.readBits(8);  // header CRC-8
+
+        int frameChannels = channelAssignment < 8 ? channelAssignment + 1 : 2;
+        if (channelAssignment > 10 || frameChannels != channels) {
+            throw new IOException("Unsupported FLAC channel assignment " + channelAssignment);
+        }
+        if (block.length != channels || block[0].length < blockSize) {
+            block = new int[channels][blockSize];
+        }
+
+        for (int ch = 0; ch < channels; ch++) {
+            // The side channel carries one extra bit
+            boolean side = (channelAssignment == 8 && ch == 1)
+                    || (channelAssignment == 9 && ch == 0)
+                    || (channelAssignment == 10 && ch == 1);
+            decodeSubframe(block[ch], blockSize, sampleSize + (side ? 1 : 0));
+        }
+        in.alignToByte();
+        in.readBits(16);  // frame CRC-16
+
+        decorrelate(channelAssignment, blockSize);
+        pack(blockSize);
+        return true;
+    }
+
+    private void readUtf8Number() throws IOException {
+        int first = in.readBits(8);
+        int extra = Integer.numberOfLeadingZeros(~first << 24);
+        for (int i = 1; i < extra; i++) {
+            in.readBits(8);
+        }
+    }
+
+    private void decorrelate(int channelAssignment, int blockSize) {
+        int[] left = block[0];
+        int[] right = block[1 % channels];
+        switch (channelAssignment) {
+            case 8:   // left/side
+                for (int i = 0; i < blockSize; i++) {
+                    right[i] = left[i] - right[i];
+                }
+                break;
+            case 9:   // side/right
+                for (int i = 0; i < blockSize; i++) {
+                    left[i] += right[i];
+                }
+                break;
+            case 10:  // mid/side
+                for (int i = 0; i < blockSize; i++) {
+                    int side = right[i];
+                    int mid = (left[i] << 1) | (side & 1);
+                    left[i] = (mid + side) >> 1;
+                    right[i] = (mid - side) >> 1;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Interleave the decoded block as little-endian PCM
+     */
+    private void pack(int blockSize) {
+        int size = blockSize * channels * outputBytes;
+        if (pcm.length < size) {
+            pcm = new byte[size];
+        }
+        int p = 0;
+        for (int i = 0; i < blockSize; i++) {
+            for (int ch = 0; ch < channels; ch++) {
+                int sample = block[ch][i] << outputShift;
+                for (int b = 0; b < outputBytes; b++) {
+                    pcm[p++] = (byte) (sample >> (8 * b));
+                }
+            }
+        }
+        pcmPos = 0;
+        pcmLength = size;
+    }
+
+    // ==================== Subframes ====================
+
+    private void decodeSubframe(int[] out, int blockSize, int bps) throws IOException {
+        in.readBits(1);  // zero padding
+        int type = in.readBits(6);
+        int wasted = 0;
+        if (in.readBits(1) == 1) {
+            wasted = in.readUnary() + 1;
+            bps -= wasted;
+        }
+
+        if (type == 0) {
+            int value = in.readSignedBits(bps);
+            for (int i = 0; i < blockSize; i++) {
+                out[i] = value;
+            }
+        } else if (type == 1) {
+            for (int i = 0; i < blockSize; i++) {
+                out[i] = in.readSignedBits(bps);
+            }
+        } else if (type >= 8 && type <= 12) {
+            decodeFixed(out, blockSize, bps, type - 8);
+        } else if (type >= 32) {
+            decodeLpc(out, blockSize, bps, (type & 31) + 1);
+        } else {
+            throw new IOException("Reserved FLAC subframe type " + type);
+        }
+
+        if (wasted > 0) {
+            for (int i = 0; i < blockSize; i++) {
+                out[i] <<= wasted;
+            }
+        }
+    }
+
+    private void decodeFixed(int[] out, int blockSize, int bps, int order) throws IOException {
+        for (int i = 0; i < order; i++) {
+            out[i] = in.readSignedBits(bps);
+        }
+        decodeResidual(out, blockSize, order);
+
+        switch (order) {
+            case 1:
+                for (int i = 1; i < blockSize; i++) {
+                    out[i] += out[i - 1];
+                }
+                break;
+            case 2:
+                for (int i = 2; i < blockSize; i++) {
+                    out[i] += 2 * out[i - 1] - out[i - 2];
+                }
+                break;
+            case 3:
+                for (int i = 3; i < blockSize; i++) {
+                    out[i] += 3 * out[i - 1] - 3 * out[i - 2] + out[i - 3];
+                }
+                break;
+            case 4:
+                for (int i = 4; i < blockSize; i++) {
+                    out[i] += 4 * out[i - 1] - 6 * out[i - 2] + 4 * out[i - 3] - out[i - 4];
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void decodeLpc(int[] out, int blockSize, int bps, int order) throws IOException {
+        for (int i = 0; i < order; i++) {
+            out[i] = in.readSignedBits(bps);
+        }
+        int precision = in.readBits(4) + 1;
+        if (precision == 16) {
+            throw new IOException("Invalid FLAC LPC precision");
+        }
+        int shift = in.readSignedBits(5);
+        if (shift < 0) {
+            throw new IOException("Negative FLAC LPC shift");
+        }
+        int[] coefficients = new int[order];
+        for (int j = 0; j < order; j++) {
+            coefficients[j] = in.readSignedBits(precision);
+        }
+        decodeResidual(out, blockSize, order);
+
+        for (int i = order; i < blockSize; i++) {
+            long sum = 0;
+            for (int j = 0; j < order; j++) {
+                sum += (long) coefficients[j] * out[i - j - 1];
+            }
+            out[i] += (int) (sum >> shift);
+        }
+    }
+
+    /**
+     * Rice-coded residual written to {@code out[order..blockSize)}
+     */
+    private void decodeResidual(int[] out, int blockSize, int order) throws IOException {
+        int method = in.readBits(2);
+        if (method > 1) {
+            throw new IOException("Reserved FLAC residual coding method");
+        }
+        int parameterBits = method == 0 ? 4 : 5;
+        int escape = method == 0 ? 15 : 31;
+
+        int partitionOrder = in.readBits(4);
+        int partitions = 1 << partitionOrder;
+        int partitionSamples = blockSize >> partitionOrder;
+        if (partitionSamples < order) {
+            throw new IOException("FLAC residual partition smaller than predictor order");
+        }
+
+        int i = order;
+        for (int p = 0; p < partitions; p++) {
+            int count = p == 0 ? partitionSamples - order : partitionSamples;
+            int parameter = in.readBits(parameterBits);
+            if (parameter == escape) {
+                int rawBits = in.readBits(5);
+                for (int n = 0; n < count; n++) {
+                    out[i++] = in.readSignedBits(rawBits);
+                }
+            } else {
+                for (int n = 0; n < count; n++) {
+                    out[i++] = in.readRice(parameter);
+                }
+            }
+        }
+    }
+}
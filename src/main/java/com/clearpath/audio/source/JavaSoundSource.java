@@ -0,0 +1,64 @@
+package com.clearpath.audio.source;
+
+import com.clearpath.audio.StreamingAudioConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.IOException;
+
+/**
+ * Formats the JDK reads natively (WAV, AIFF, AU) and in-memory {@link AudioInputStream}s
+ */
+public class JavaSoundSource implements AudioSource {
+    private static final Logger logger = LoggerFactory.getLogger(JavaSoundSource.class);
+
+    private final AudioInputStream stream;
+    private final String description;
+
+    public JavaSoundSource(AudioInputStream stream) {
+        this(stream, "javax.sound");
+    }
+
+    public JavaSoundSource(AudioInputStream stream, String description) {
+        this.stream = decodable(stream);
+        this.description = description;
+    }
+
+    /**
+     * Encodings the built-in converter doesn't handle are decoded to 16-bit PCM by javax.sound,
+     * keeping the source rate and channel layout; resampling always stays in-house.
+     */
+    private static AudioInputStream decodable(AudioInputStream stream) {
+        AudioFormat format = stream.getFormat();
+        if (StreamingAudioConverter.isSupported(format)) {
+            return stream;
+        }
+
+        AudioFormat pcm = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+        logger.info("Decoding {} to 16-bit PCM via javax.sound", format.getEncoding());
+        return AudioSystem.getAudioInputStream(pcm, stream);
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return stream.getFormat();
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        return stream.read(buffer, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+}
@@ -0,0 +1,105 @@
+package com.clearpath.audio.source;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Ogg page demuxer that presents the packet data of the first logical stream as one byte stream.
+ *
+ * <p>Packet boundaries are dropped. That is exactly what the Ogg FLAC mapping needs: after a
+ * 9-byte mapping header the concatenated packets are a native FLAC stream. Pages of other
+ * logical streams (multiplexed video, metadata) are skipped. Page CRCs are not verified.</p>
+ */
+class OggPayloadInputStream extends InputStream {
+    private static final int CAPTURE_PATTERN = 0x4F676753;  // "OggS"
+
+    private final DataInputStream in;
+    private final byte[] page = new byte[255 * 255];
+    private int pagePos;
+    private int pageLength;
+    private long serial = -1;
+    private boolean endOfStream;
+
+    OggPayloadInputStream(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensurePayload()) {
+            return -1;
+        }
+        return page[pagePos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensurePayload()) {
+            return -1;
+        }
+        int n = Math.min(length, pageLength - pagePos);
+        System.arraycopy(page, pagePos, buffer, offset, n);
+        pagePos += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean ensurePayload() throws IOException {
+        while (pagePos == pageLength) {
+            if (endOfStream || !readPage()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Load the next page of our logical stream into {@link #page}
+     */
+    private boolean readPage() throws IOException {
+        while (true) {
+            int pattern;
+            try {
+                pattern = in.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+            if (pattern != CAPTURE_PATTERN) {
+                throw new IOException("Lost Ogg page sync");
+            }
+            in.readUnsignedByte();                    // version
+            int headerType = in.readUnsignedByte();
+            in.skipNBytes(8);                         // granule position
+            long pageSerial = Integer.toUnsignedLong(Integer.reverseBytes(in.readInt()));
+            in.skipNBytes(8);                         // sequence number, CRC
+            int segments = in.readUnsignedByte();
+            int length = 0;
+            for (int i = 0; i < segments; i++) {
+                length += in.readUnsignedByte();
+            }
+
+            if (serial < 0) {
+                serial = pageSerial;
+            }
+            if (pageSerial != serial) {
+                in.skipNBytes(length);
+                continue;
+            }
+
+            in.readFully(page, 0, length);
+            pagePos = 0;
+            pageLength = length;
+            endOfStream = (headerType & 0x04) != 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.clearpath.benchmark;
+
+import com.clearpath.audio.AudioReader;
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.detection.EnergyDetector;
+import com.clearpath.detection.SilenceMap;
+import com.clearpath.model.AudioFrame;
+import com.clearpath.model.GreetingEnd;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares greeting-end detection on the silence map with the frame-by-frame first-silence
+ * scan it replaced (still what live sessions run).
+ *
+ * <p>For each bundled recording (far-end channel) the table shows the old end point, where
+ * each map policy puts it, how far {@code first-silence} moved it, and the median time of both
+ * paths including the energy pass. Each file is run a second time with a single 20 ms click
+ * injected {@value #CLICK_OFFSET_SEC}s into the silence after the greeting: the old scan
+ * restarts its silent run there, the map absorbs the click.</p>
+ *
+ * <p>Usage: {@code GreetingEndBenchmark [--audio-dir audio-files] [--iterations 20]}</p>
+ */
+public class GreetingEndBenchmark {
+    static {
+        // Per-file detector logging would swamp the table
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+    }
+
+    private static final double CLICK_OFFSET_SEC = 0.5;
+    private static final double CLICK_AMPLITUDE = 0.05;  // -26 dB RMS, well above the speech threshold
+
+    private final AnalyzerSettings settings;
+    private final int iterations;
+
+    public GreetingEndBenchmark(AnalyzerSettings settings, int iterations) {
+        this.settings = settings;
+        this.iterations = iterations;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String audioDir = "audio-files";
+        int iterations = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--audio-dir": audioDir = args[++i]; break;
+                case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        AnalyzerSettings settings = AnalyzerSettings.defaults();
+        GreetingEndBenchmark benchmark = new GreetingEndBenchmark(settings, iterations);
+        AudioReader reader = new AudioReader(settings);
+
+        File[] files = new File(audioDir).listFiles((dir, name) -> name.toLowerCase().endsWith(".wav"));
+        if (files == null || files.length == 0) {
+            System.err.println("No .wav files in " + audioDir);
+            System.exit(1);
+        }
+        Arrays.sort(files);
+
+        System.out.println(String.format("%-22s %7s %5s %9s %9s %8s %9s %9s %9s %9s %8s",
+                "recording", "frames", "segs", "old end", "first", "moved ms", "longest", "last",
+                "old us", "map us", "ns/frame"));
+        for (File file : files) {
+            List<List<AudioFrame>> channels = reader.readChannels(file.getPath());
+            List<AudioFrame> frames = channels.get(settings.farEndChannelFor(channels.size()));
+            System.out.println(benchmark.run(file.getName(), frames));
+            List<AudioFrame> clicked = benchmark.withClick(frames);
+            if (clicked != null) {
+                System.out.println(benchmark.run(file.getName() + " +click", clicked));
+            }
+        }
+    }
+
+    /**
+     * Time both paths on one channel and format a table row
+     */
+    String run(String name, List<AudioFrame> frames) {
+        EnergyDetector detector = new EnergyDetector(settings);
+        long[] oldNanos = new long[iterations];
+        long[] mapNanos = new long[iterations];
+        GreetingEnd oldEnd = null;
+        GreetingEnd firstSilence = null;
+        SilenceMap map = null;
+
+        // One untimed pass of each path for JIT warmup
+        for (int i = -1; i < iterations; i++) {
+            long start = System.nanoTime();
+            oldEnd = detector.detectGreetingEndStreaming(frames);
+            long middle = System.nanoTime();
+            map = detector.buildSilenceMap(frames);
+            firstSilence = detector.greetingEnd(map);
+            long end = System.nanoTime();
+            if (i >= 0) {
+                oldNanos[i] = middle - start;
+                mapNanos[i] = end - middle;
+            }
+        }
+
+        GreetingEnd longest = new EnergyDetector(settings.toBuilder().greetingEndPolicy("longest-silence").build())
+                .greetingEnd(map);
+        GreetingEnd last = new EnergyDetector(settings.toBuilder().greetingEndPolicy("last-speech").build())
+                .greetingEnd(map);
+        double mapUs = median(mapNanos) / 1e3;
+        return String.format("%-22s %7d %5d %9s %9s %8.0f %9s %9s %9.0f %9.0f %8.1f",
+                name, frames.size(), map.segmentCount(), format(oldEnd), format(firstSilence),
+                (firstSilence.getTime() - oldEnd.getTime()) * 1000, format(longest), format(last),
+                median(oldNanos) / 1e3, mapUs, mapUs * 1e3 / frames.size());
+    }
+
+    /**
+     * A copy of the channel with one loud frame inside the silence after the old greeting end,
+     * or null when that silence is too short to hold it
+     */
+    List<AudioFrame> withClick(List<AudioFrame> frames) {
+        GreetingEnd end = new EnergyDetector(settings).detectGreetingEndStreaming(frames);
+        int clickFrame = (int) Math.round((end.getTime() + CLICK_OFFSET_SEC) / settings.getFrameDurationSec());
+        if (!end.isSilenceFound() || clickFrame >= frames.size()) {
+            return null;
+        }
+        List<AudioFrame> copy = new ArrayList<>(frames);
+        AudioFrame original = frames.get(clickFrame);
+        double[] samples = original.getSamples().clone();
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] += (i % 2 == 0 ? CLICK_AMPLITUDE : -CLICK_AMPLITUDE);
+        }
+        copy.set(clickFrame, new AudioFrame(samples, original.getTimestamp(), original.getFrameIndex()));
+        return copy;
+    }
+
+    private static String format(GreetingEnd end) {
+        return end.isSilenceFound() ? String.format("%.3f", end.getTime()) : "none";
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
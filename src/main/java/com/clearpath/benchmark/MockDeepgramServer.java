@@ -0,0 +1,229 @@
+package com.clearpath.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Deepgram pre-recorded endpoint, for exercising the client's timeouts,
+ * hedging and circuit breaker without a network or an API key.
+ *
+ * <p>Every POST is answered with a Deepgram-shaped JSON transcript after a lognormal delay
+ * (median {@code medianMs}, spread {@code sigma}); with probability {@code slowRate} the
+ * request instead stalls for {@code slowMs}, the tail that hedging is meant to cut. A share of
+ * requests can fail with 503 ({@code errorRate}) or 429 with a Retry-After
+ * ({@code throttleRate}). The request body is read and discarded; the transcript is always
+ * the same greeting, with evenly spaced word timings.</p>
+ *
+ * <p>Usage: {@code MockDeepgramServer [--port 0] [--median-ms 300] [--sigma 0.3]
+ * [--slow-rate 0.03] [--slow-ms 8000] [--error-rate 0] [--throttle-rate 0]}</p>
+ */
+public class MockDeepgramServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MockDeepgramServer.class);
+
+    public static final String PATH = "/v1/listen";
+    private static final String TRANSCRIPT = "please leave your message after the beep";
+    private static final double FIRST_WORD_SEC = 0.4;
+    private static final double WORD_SEC = 0.32;  // word length plus gap
+
+    private final HttpServer server;
+    private volatile double medianMs = 300;
+    private volatile double sigma = 0.3;
+    private volatile double slowRate = 0.03;
+    private volatile double slowMs = 8000;
+    private volatile double errorRate = 0;
+    private volatile double throttleRate = 0;
+    private volatile boolean down;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger slow = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+
+    /**
+     * Bind to 127.0.0.1 on {@code port} (0 for any free port) and start serving
+     */
+    public MockDeepgramServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());  // a stalled request holds no platform thread
+        server.start();
+        logger.info("Mock Deepgram listening on {}", getUrl());
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 0;
+        double medianMs = 300;
+        double sigma = 0.3;
+        double slowRate = 0.03;
+        double slowMs = 8000;
+        double errorRate = 0;
+        double throttleRate = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--median-ms": medianMs = Double.parseDouble(args[++i]); break;
+                case "--sigma": sigma = Double.parseDouble(args[++i]); break;
+                case "--slow-rate": slowRate = Double.parseDouble(args[++i]); break;
+                case "--slow-ms": slowMs = Double.parseDouble(args[++i]); break;
+                case "--error-rate": errorRate = Double.parseDouble(args[++i]); break;
+                case "--throttle-rate": throttleRate = Double.parseDouble(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        MockDeepgramServer mock = new MockDeepgramServer(port)
+                .latency(medianMs, sigma)
+                .tail(slowRate, slowMs)
+                .failures(errorRate, throttleRate);
+        System.out.println("Mock Deepgram at " + mock.getUrl() + " (set deepgram.url to this; Ctrl-C to stop)");
+        Thread.currentThread().join();
+    }
+
+    // ==================== Behaviour ====================
+
+    public MockDeepgramServer latency(double medianMs, double sigma) {
+        this.medianMs = medianMs;
+        this.sigma = sigma;
+        return this;
+    }
+
+    public MockDeepgramServer tail(double slowRate, double slowMs) {
+        this.slowRate = slowRate;
+        this.slowMs = slowMs;
+        return this;
+    }
+
+    public MockDeepgramServer failures(double errorRate, double throttleRate) {
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+        return this;
+    }
+
+    /**
+     * While down, every request gets a 503 immediately (an outage, for the circuit breaker)
+     */
+    public void setDown(boolean down) {
+        this.down = down;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "{\"err_msg\":\"POST only\"}");
+                return;
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (down || random.nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                send(exchange, 503, "{\"err_msg\":\"Service unavailable\"}");
+                return;
+            }
+            if (random.nextDouble() < throttleRate) {
+                errors.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 429, "{\"err_msg\":\"Too many requests\"}");
+                return;
+            }
+
+            double delayMs;
+            if (random.nextDouble() < slowRate) {
+                slow.incrementAndGet();
+                delayMs = slowMs;
+            } else {
+                delayMs = medianMs * Math.exp(sigma * random.nextGaussian());
+            }
+            try {
+                Thread.sleep((long) delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            send(exchange, 200, responseJson(random.nextDouble(0.85, 0.99)));
+        } catch (IOException e) {
+            // Client hung up, usually a cancelled hedge loser
+            logger.debug("Mock Deepgram: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * {@code {"results":{"channels":[{"alternatives":[{"transcript":...,"confidence":...,"words":[...]}]}]}}}
+     */
+    private static String responseJson(double confidence) {
+        JsonArray words = new JsonArray();
+        String[] tokens = TRANSCRIPT.split(" ");
+        for (int i = 0; i < tokens.length; i++) {
+            JsonObject word = new JsonObject();
+            double start = FIRST_WORD_SEC + i * WORD_SEC;
+            word.addProperty("word", tokens[i]);
+            word.addProperty("start", Math.round(start * 100) / 100.0);
+            word.addProperty("end", Math.round((start + WORD_SEC * 0.8) * 100) / 100.0);
+            word.addProperty("confidence", confidence);
+            word.addProperty("punctuated_word", i == 0 ? "Please" : tokens[i]);
+            words.add(word);
+        }
+        JsonObject alternative = new JsonObject();
+        alternative.addProperty("transcript", TRANSCRIPT);
+        alternative.addProperty("confidence", confidence);
+        alternative.add("words", words);
+        JsonArray alternatives = new JsonArray();
+        alternatives.add(alternative);
+        JsonObject channel = new JsonObject();
+        channel.add("alternatives", alternatives);
+        JsonArray channels = new JsonArray();
+        channels.add(channel);
+        JsonObject results = new JsonObject();
+        results.add("channels", channels);
+        JsonObject root = new JsonObject();
+        root.add("results", results);
+        return root.toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // ==================== Metrics ====================
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+    }
+
+    public int getRequests() { return requests.get(); }
+    public int getSlow() { return slow.get(); }
+    public int getErrors() { return errors.get(); }
+
+    public void resetCounters() {
+        requests.set(0);
+        slow.set(0);
+        errors.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
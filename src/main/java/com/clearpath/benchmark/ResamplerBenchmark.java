@@ -0,0 +1,273 @@
+package com.clearpath.benchmark;
+
+import com.clearpath.audio.AudioReader;
+import com.clearpath.config.AnalyzerSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the built-in streaming converter against {@code javax.sound} format conversion.
+ *
+ * <p>Inputs are the bundled recordings plus in-memory 1 kHz tones in the formats we see in
+ * production (8 kHz μ-law/A-law telephony, 44.1/48 kHz captures). Each input is converted
+ * to the configured analysis format by both paths; the table shows median time, speed
+ * relative to real time, and for the tones the error against an ideal 1 kHz sine.
+ * A javax column of "unsupported" means the JDK provider threw instead of converting.</p>
+ *
+ * <p>Usage: {@code ResamplerBenchmark [--audio-dir audio-files] [--iterations 10]}</p>
+ */
+public class ResamplerBenchmark {
+    static {
+        // Per-read logging from AudioReader would swamp the timings
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+            System.setProperty("org.slf4j.simpleLogger.log.com.clearpath.benchmark", "info");
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ResamplerBenchmark.class);
+
+    private static final double TONE_HZ = 1000.0;
+    private static final double TONE_SEC = 10.0;
+    private static final double TONE_AMPLITUDE = 0.5;
+
+    private final AnalyzerSettings settings;
+    private final AudioReader reader;
+    private final int iterations;
+
+    public ResamplerBenchmark(AnalyzerSettings settings, int iterations) {
+        this.settings = settings;
+        this.reader = new AudioReader(settings);
+        this.iterations = iterations;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String audioDir = "audio-files";
+        int iterations = 10;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--audio-dir": audioDir = args[++i]; break;
+                case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        ResamplerBenchmark benchmark = new ResamplerBenchmark(AnalyzerSettings.defaults(), iterations);
+
+        List<Input> inputs = new ArrayList<>();
+        inputs.add(tone("tone 8k u-law", AudioFormat.Encoding.ULAW, 8000, 8, 1));
+        inputs.add(tone("tone 8k a-law", AudioFormat.Encoding.ALAW, 8000, 8, 1));
+        inputs.add(tone("tone 8k pcm16 stereo", AudioFormat.Encoding.PCM_SIGNED, 8000, 16, 2));
+        inputs.add(tone("tone 44.1k pcm16", AudioFormat.Encoding.PCM_SIGNED, 44100, 16, 1));
+        inputs.add(tone("tone 48k pcm16 stereo", AudioFormat.Encoding.PCM_SIGNED, 48000, 16, 2));
+        inputs.add(tone("tone 48k pcm24", AudioFormat.Encoding.PCM_SIGNED, 48000, 24, 1));
+
+        File[] files = new File(audioDir).listFiles((dir, name) -> name.toLowerCase().endsWith(".wav"));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                inputs.add(file(file));
+            }
+        }
+
+        System.out.println(String.format("%-24s %10s %10s %10s %10s %10s %10s",
+                "input", "javax ms", "javax xRT", "built ms", "built xRT", "javax err", "built err"));
+        for (Input input : inputs) {
+            System.out.println(benchmark.run(input));
+        }
+    }
+
+    /**
+     * Time both conversion paths on one input and format a table row
+     */
+    String run(Input input) throws Exception {
+        double[] builtIn = null;
+        double[] javax = null;
+        long[] builtInNanos = new long[iterations];
+        long[] javaxNanos = new long[iterations];
+        boolean javaxSupported = true;
+
+        // One untimed pass of each path for JIT warmup
+        for (int i = -1; i < iterations; i++) {
+            long start = System.nanoTime();
+            builtIn = reader.readSamples(input.open());
+            if (i >= 0) {
+                builtInNanos[i] = System.nanoTime() - start;
+            }
+
+            if (javaxSupported) {
+                start = System.nanoTime();
+                try {
+                    javax = readWithJavax(input.open());
+                } catch (IllegalArgumentException e) {
+                    logger.debug("javax.sound cannot convert {}: {}", input.name, e.getMessage());
+                    javaxSupported = false;
+                }
+                if (i >= 0) {
+                    javaxNanos[i] = System.nanoTime() - start;
+                }
+            }
+        }
+
+        double builtInMs = median(builtInNanos) / 1e6;
+        double javaxMs = median(javaxNanos) / 1e6;
+        return String.format("%-24s %10s %10s %10.2f %10.0f %10s %10s",
+                input.name,
+                javaxSupported ? String.format("%.2f", javaxMs) : "unsupported",
+                javaxSupported ? String.format("%.0f", input.durationSec * 1000 / javaxMs) : "-",
+                builtInMs,
+                input.durationSec * 1000 / builtInMs,
+                input.tone && javaxSupported ? formatDb(toneErrorDb(javax)) : "-",
+                input.tone ? formatDb(toneErrorDb(builtIn)) : "-");
+    }
+
+    /**
+     * The pre-existing path: let the JDK provider convert to 16-bit mono at the target rate
+     */
+    private double[] readWithJavax(AudioInputStream audioStream) throws Exception {
+        AudioFormat targetFormat = new AudioFormat(settings.getSampleRate(), 16, 1, true, false);
+        byte[] bytes;
+        try (AudioInputStream converted = AudioSystem.getAudioInputStream(targetFormat, audioStream)) {
+            bytes = converted.readAllBytes();
+        }
+
+        double[] samples = new double[bytes.length / 2];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) ((bytes[2 * i + 1] << 8) | (bytes[2 * i] & 0xFF)) / 32768.0;
+        }
+        return samples;
+    }
+
+    /**
+     * RMS error against the ideal tone at the output rate, relative to the tone's RMS.
+     * The first and last 50 ms are skipped so filter start-up doesn't count.
+     */
+    private double toneErrorDb(double[] samples) {
+        int rate = settings.getSampleRate();
+        int margin = rate / 20;
+        double errorEnergy = 0;
+        double signalEnergy = 0;
+        for (int n = margin; n < samples.length - margin; n++) {
+            double ideal = TONE_AMPLITUDE * Math.sin(2.0 * Math.PI * TONE_HZ * n / rate);
+            double diff = samples[n] - ideal;
+            errorEnergy += diff * diff;
+            signalEnergy += ideal * ideal;
+        }
+        return 10.0 * Math.log10(Math.max(errorEnergy, 1e-20) / signalEnergy);
+    }
+
+    private static String formatDb(double db) {
+        return String.format("%.1f dB", db);
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // ==================== Inputs ====================
+
+    /**
+     * One benchmark input, held in memory so disk reads don't enter the timings
+     */
+    static class Input {
+        final String name;
+        final AudioFormat format;
+        final byte[] data;
+        final double durationSec;
+        final boolean tone;
+
+        Input(String name, AudioFormat format, byte[] data, boolean tone) {
+            this.name = name;
+            this.format = format;
+            this.data = data;
+            this.durationSec = data.length / (double) format.getFrameSize() / format.getFrameRate();
+            this.tone = tone;
+        }
+
+        AudioInputStream open() {
+            return new AudioInputStream(new ByteArrayInputStream(data), format, data.length / format.getFrameSize());
+        }
+    }
+
+    private static Input file(File file) throws Exception {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+            return new Input(file.getName(), in.getFormat(), in.readAllBytes(), false);
+        }
+    }
+
+    /**
+     * Encode a 1 kHz tone (same signal on every channel) in the given format
+     */
+    private static Input tone(String name, AudioFormat.Encoding encoding, int rate, int bits, int channels) {
+        int bytesPerSample = bits / 8;
+        boolean bigEndian = false;
+        AudioFormat format = new AudioFormat(encoding, rate, bits, channels,
+                bytesPerSample * channels, rate, bigEndian);
+
+        int frames = (int) (TONE_SEC * rate);
+        byte[] data = new byte[frames * bytesPerSample * channels];
+        int p = 0;
+        for (int n = 0; n < frames; n++) {
+            double value = TONE_AMPLITUDE * Math.sin(2.0 * Math.PI * TONE_HZ * n / rate);
+            for (int ch = 0; ch < channels; ch++) {
+                if (encoding.equals(AudioFormat.Encoding.ULAW)) {
+                    data[p++] = linearToUlaw((int) Math.round(value * 32767));
+                } else if (encoding.equals(AudioFormat.Encoding.ALAW)) {
+                    data[p++] = linearToAlaw((int) Math.round(value * 32767));
+                } else {
+                    long scaled = Math.round(value * ((1L << (bits - 1)) - 1));
+                    for (int b = 0; b < bytesPerSample; b++) {
+                        data[p++] = (byte) (scaled >> (8 * b));
+                    }
+                }
+            }
+        }
+        return new Input(name, format, data, true);
+    }
+
+    /**
+     * ITU-T G.711 μ-law encoder (test-signal generation only)
+     */
+    private static byte linearToUlaw(int sample) {
+        int sign = sample < 0 ? 0x80 : 0;
+        int magnitude = Math.min(Math.abs(sample), 32635) + 0x84;
+        int exponent = 7;
+        for (int mask = 0x4000; (magnitude & mask) == 0 && exponent > 0; mask >>= 1) {
+            exponent--;
+        }
+        int mantissa = (magnitude >> (exponent + 3)) & 0x0F;
+        return (byte) ~(sign | (exponent << 4) | mantissa);
+    }
+
+    /**
+     * ITU-T G.711 A-law encoder (test-signal generation only)
+     */
+    private static byte linearToAlaw(int sample) {
+        int sign = sample >= 0 ? 0x80 : 0;
+        int magnitude = Math.min(Math.abs(sample), 32767) >> 3;
+        int encoded;
+        if (magnitude < 32) {
+            encoded = magnitude >> 1;
+        } else {
+            int segment = 1;
+            while (segment < 7 && magnitude >= (64 << (segment - 1))) {
+                segment++;
+            }
+            encoded = (segment << 4) | ((magnitude >> segment) & 0x0F);
+        }
+        return (byte) ((sign | encoded) ^ 0x55);
+    }
+}
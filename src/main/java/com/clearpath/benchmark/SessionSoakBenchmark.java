@@ -0,0 +1,322 @@
+package com.clearpath.benchmark;
+
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.decision.DecisionScore;
+import com.clearpath.session.LiveSession;
+import com.clearpath.session.SessionListener;
+import com.clearpath.session.SessionManager;
+import com.clearpath.synthetic.SyntheticCorpusGenerator;
+import com.clearpath.synthetic.SyntheticGreeting;
+import com.clearpath.transcription.TranscriptAnalyzer.BeepExpectation;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Soak test for {@link SessionManager}: N simulated calls streaming in real time.
+ *
+ * <p>Producer threads play synthetic greetings (with ground truth) into live sessions at one
+ * frame per frame period, like media threads reading RTP. A call that has been decided is
+ * closed and immediately replaced by the next greeting, so N calls stay concurrent and the
+ * buffer pool is exercised by continuous churn. Each level reports decision latency
+ * percentiles (enqueue of the deciding frame to the listener callback), throughput, dropped
+ * frames, how far producers fell behind real time, bytes allocated per frame on the carrier
+ * threads, GC activity, the early-start rate against the labels, and the peak number of
+ * off-heap session slabs leased with the memory the arena grew to.</p>
+ *
+ * <p>Usage: {@code SessionSoakBenchmark [--calls 1000,5000,10000] [--seconds 30]
+ * [--producers 2] [--carriers 0] [--greetings 64] [--seed 7]}</p>
+ */
+public class SessionSoakBenchmark {
+    static {
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+    }
+
+    private static final double TAIL_SEC = 5.0;
+    private static final int MAX_LATENCIES = 1 << 21;
+    private static final double STAGGER_SEC = 2.0;  // spread call starts so greetings don't end in lockstep
+
+    private final AnalyzerSettings settings;
+    private final List<SyntheticGreeting> greetings = new ArrayList<>();
+    private final List<short[]> pcm = new ArrayList<>();
+    private final int frameSize;
+    private final long frameNanos;
+
+    public SessionSoakBenchmark(AnalyzerSettings settings, int greetingCount, long seed) {
+        this.settings = settings;
+        this.frameSize = settings.getFrameSizeSamples();
+        this.frameNanos = settings.getFrameSizeMs() * 1_000_000L;
+        SyntheticCorpusGenerator generator = new SyntheticCorpusGenerator();
+        for (int i = 0; i < greetingCount; i++) {
+            SyntheticGreeting greeting = generator.greeting(i, seed, TAIL_SEC);
+            greetings.add(greeting);
+            pcm.add(greeting.toPcm16());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = {1000, 5000, 10000};
+        int seconds = 30;
+        int producers = 2;
+        int carriers = 0;
+        int greetingCount = 64;
+        long seed = 7;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--calls": levels = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "--producers": producers = Integer.parseInt(args[++i]); break;
+                case "--carriers": carriers = Integer.parseInt(args[++i]); break;
+                case "--greetings": greetingCount = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        AnalyzerSettings settings = AnalyzerSettings.defaults().toBuilder().sessionCarrierThreads(carriers).build();
+        SessionSoakBenchmark benchmark = new SessionSoakBenchmark(settings, greetingCount, seed);
+        System.out.printf("%d carrier threads, %d producer threads, %d greetings, %ds per level%n",
+                settings.resolveSessionCarrierThreads(), producers, greetingCount, seconds);
+
+        benchmark.run(Math.min(500, levels[0]), 5, producers);  // JIT warmup, not reported
+
+        System.out.println(String.format("%7s %9s %8s %8s %8s %8s %9s %8s %8s %9s %6s %8s %7s %6s %8s",
+                "calls", "decisions", "p50 us", "p99 us", "p99.9 us", "max us", "frames/s",
+                "dropped", "lag ms", "alloc B/f", "GCs", "GC ms", "early", "slabs", "off MB"));
+        for (int calls : levels) {
+            System.out.println(benchmark.run(calls, seconds, producers));
+        }
+    }
+
+    /**
+     * One soak level
+     */
+    Result run(int calls, int seconds, int producerCount) throws InterruptedException {
+        Result result = new Result(calls);
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMs();
+
+        try (SessionManager manager = new SessionManager(settings)) {
+            long[] carrierAllocBefore = carrierAllocatedBytes();
+            long framesBefore = manager.getFramesProcessed();
+            long start = System.nanoTime();
+            long end = start + seconds * 1_000_000_000L;
+
+            Thread[] producers = new Thread[producerCount];
+            for (int p = 0; p < producerCount; p++) {
+                int from = (int) ((long) calls * p / producerCount);
+                int to = (int) ((long) calls * (p + 1) / producerCount);
+                long producerSeed = p;
+                producers[p] = new Thread(() -> produce(manager, from, to, start, end, producerSeed, result),
+                        "soak-producer-" + p);
+                producers[p].start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            result.framesPerSec = (manager.getFramesProcessed() - framesBefore) / elapsed;
+            long[] carrierAllocAfter = carrierAllocatedBytes();
+            long allocated = 0;
+            for (int i = 0; i < Math.min(carrierAllocBefore.length, carrierAllocAfter.length); i++) {
+                allocated += carrierAllocAfter[i] - carrierAllocBefore[i];
+            }
+            long frames = manager.getFramesProcessed() - framesBefore;
+            result.allocBytesPerFrame = carrierAllocBefore.length == 0 || frames == 0
+                    ? Double.NaN : allocated / (double) frames;
+            result.peakSlabs = manager.getArena().getPeakLeased();
+            result.offHeapMb = manager.getArena().getOffHeapBytes() / (1024.0 * 1024.0);
+        }
+
+        result.gcCount = gcCount() - gcCountBefore;
+        result.gcTimeMs = gcTimeMs() - gcTimeBefore;
+        return result;
+    }
+
+    /**
+     * Producer loop: one frame per call per frame period until {@code end}
+     */
+    private void produce(SessionManager manager, int from, int to, long start, long end, long seed, Result result) {
+        Random random = new Random(seed);
+        int count = to - from;
+        Call[] calls = new Call[count];
+        long[] startAtTick = new long[count];
+        long staggerTicks = (long) (STAGGER_SEC * 1e9 / frameNanos);
+        for (int i = 0; i < count; i++) {
+            calls[i] = new Call(result);
+            startAtTick[i] = (long) (random.nextDouble() * staggerTicks);
+        }
+        short[] silence = new short[frameSize];
+        int nextCall = from;
+
+        long tick = 0;
+        for (long due = start; due < end; due += frameNanos, tick++) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                result.maxLagNanos.accumulateAndGet(-wait, Math::max);
+            }
+
+            for (int i = 0; i < count; i++) {
+                Call call = calls[i];
+                if (call.session == null) {
+                    if (tick < startAtTick[i]) {
+                        continue;
+                    }
+                    int index = nextCall++ % greetings.size();
+                    call.begin(manager.open("call-" + from + "-" + nextCall, BeepExpectation.MEDIUM, call),
+                            greetings.get(index), pcm.get(index));
+                }
+                if (call.decided) {
+                    call.session.close();
+                    int index = nextCall++ % greetings.size();
+                    call.begin(manager.open("call-" + from + "-" + nextCall, BeepExpectation.MEDIUM, call),
+                            greetings.get(index), pcm.get(index));
+                }
+
+                short[] audio = call.pcm;
+                boolean queued = call.position + frameSize <= audio.length
+                        ? call.session.offer(audio, call.position)
+                        : call.session.offer(silence, 0);
+                call.position += frameSize;
+                if (!queued) {
+                    result.dropped.incrementAndGet();
+                }
+            }
+        }
+        for (Call call : calls) {
+            if (call.session != null) {
+                call.session.close();
+            }
+        }
+    }
+
+    /**
+     * One producer-owned call slot; also the session's listener
+     */
+    private static final class Call implements SessionListener {
+        private final Result result;
+        LiveSession session;
+        SyntheticGreeting greeting;
+        short[] pcm;
+        int position;
+        volatile boolean decided;
+
+        Call(Result result) {
+            this.result = result;
+        }
+
+        void begin(LiveSession session, SyntheticGreeting greeting, short[] pcm) {
+            this.greeting = greeting;
+            this.pcm = pcm;
+            this.position = 0;
+            this.decided = false;
+            this.session = session;
+        }
+
+        @Override
+        public void onDecision(LiveSession session, DecisionScore score, long latencyNanos) {
+            double ideal = greeting.hasBeep() ? greeting.getBeepEndTime() : greeting.getGreetingEndTime();
+            result.record(latencyNanos, score.getStartTime() < ideal);
+            decided = true;
+        }
+    }
+
+    /**
+     * Per-level measurements
+     */
+    static final class Result {
+        final int calls;
+        final long[] latencies = new long[MAX_LATENCIES];
+        final AtomicInteger decisions = new AtomicInteger();
+        final AtomicInteger earlyStarts = new AtomicInteger();
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicLong maxLagNanos = new AtomicLong();
+        double framesPerSec;
+        double allocBytesPerFrame;
+        long gcCount;
+        long gcTimeMs;
+        int peakSlabs;
+        double offHeapMb;
+
+        Result(int calls) {
+            this.calls = calls;
+        }
+
+        void record(long latencyNanos, boolean early) {
+            int i = decisions.getAndIncrement();
+            if (i < latencies.length) {
+                latencies[i] = latencyNanos;
+            }
+            if (early) {
+                earlyStarts.incrementAndGet();
+            }
+        }
+
+        @Override
+        public String toString() {
+            int n = Math.min(decisions.get(), latencies.length);
+            long[] sorted = Arrays.copyOf(latencies, n);
+            Arrays.sort(sorted);
+            return String.format("%7d %9d %8.0f %8.0f %8.0f %8.0f %9.0f %8d %8.1f %9.1f %6d %8d %6.1f%% %6d %8.1f",
+                    calls, decisions.get(),
+                    percentile(sorted, 0.50) / 1e3, percentile(sorted, 0.99) / 1e3,
+                    percentile(sorted, 0.999) / 1e3, n == 0 ? 0 : sorted[n - 1] / 1e3,
+                    framesPerSec, dropped.get(), maxLagNanos.get() / 1e6, allocBytesPerFrame,
+                    gcCount, gcTimeMs, n == 0 ? 0 : earlyStarts.get() * 100.0 / decisions.get(),
+                    peakSlabs, offHeapMb);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+        }
+    }
+
+    // ==================== JVM counters ====================
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcTimeMs() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * Bytes allocated so far by each carrier thread, or an empty array if the JVM can't tell
+     */
+    private static long[] carrierAllocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)) {
+            return new long[0];
+        }
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("session-carrier-"))
+                .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                .mapToLong(t -> threads.getThreadAllocatedBytes(t.threadId()))
+                .toArray();
+    }
+}
@@ -0,0 +1,282 @@
+package com.clearpath.benchmark;
+
+import com.clearpath.model.DeepgramResponse;
+import com.clearpath.model.DeepgramTranscript;
+import com.clearpath.transcription.DeepgramResponseParser;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Deepgram response parsing: Gson object mapping (the previous client path) against the
+ * streaming {@link DeepgramResponseParser}.
+ *
+ * <p>Inputs are synthetic responses shaped like Deepgram's, with a metadata block and
+ * {@code --words} word timings each. Every variant starts from the raw bytes, standing in for
+ * the network buffer:</p>
+ * <ul>
+ *   <li>mapped: decode the body to a String, {@code Gson.fromJson} into {@link DeepgramResponse}
+ *       (transcript only, as the client did before)</li>
+ *   <li>mapped +w: the same with a mapping that also has the word timings</li>
+ *   <li>tree: {@code JsonParser} into a {@code JsonElement} tree, then navigate it</li>
+ *   <li>stream: {@link DeepgramResponseParser} with word timings</li>
+ *   <li>stream -w: the same, skipping the {@code words} array</li>
+ * </ul>
+ *
+ * <p>Like a JMH average-time run: warmup iterations, then measured iterations of a fixed
+ * duration on one thread; the table shows mean time per parse with its spread across
+ * iterations, and bytes allocated per parse (from the thread's allocation counter).</p>
+ *
+ * <p>Usage: {@code TranscriptParseBenchmark [--words 10,200,2000] [--warmup 3]
+ * [--iterations 5] [--seconds 1]}</p>
+ */
+public class TranscriptParseBenchmark {
+    private static final Gson gson = new Gson();
+    private static final String[] VOCABULARY = {"please", "leave", "your", "message", "after", "the", "beep",
+            "hi", "you've", "reached", "john", "i'm", "not", "available", "right", "now", "call", "back", "soon"};
+
+    private static volatile long sink;  // keeps results alive so the JIT can't drop the work
+
+    private final int warmup;
+    private final int iterations;
+    private final long iterationNanos;
+
+    public TranscriptParseBenchmark(int warmup, int iterations, double seconds) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.iterationNanos = (long) (seconds * 1e9);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] wordCounts = {10, 200, 2000};
+        int warmup = 3;
+        int iterations = 5;
+        double seconds = 1.0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--words": wordCounts = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                case "--warmup": warmup = Integer.parseInt(args[++i]); break;
+                case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+                case "--seconds": seconds = Double.parseDouble(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        TranscriptParseBenchmark benchmark = new TranscriptParseBenchmark(warmup, iterations, seconds);
+        System.out.println(String.format("%6s %8s %-9s %12s %10s %12s", "words", "KB", "variant", "us/op", "stdev us",
+                "B/op"));
+        for (int words : wordCounts) {
+            byte[] body = responseJson(words, 7).getBytes(StandardCharsets.UTF_8);
+            checkAgree(body);
+            benchmark.measure(words, body, "mapped", TranscriptParseBenchmark::mapped);
+            benchmark.measure(words, body, "mapped +w", TranscriptParseBenchmark::mappedWithWords);
+            benchmark.measure(words, body, "tree", TranscriptParseBenchmark::tree);
+            benchmark.measure(words, body, "stream", b -> streamed(b, true));
+            benchmark.measure(words, body, "stream -w", b -> streamed(b, false));
+        }
+    }
+
+    // ==================== Variants ====================
+
+    @FunctionalInterface
+    interface Variant {
+        long parse(byte[] body) throws IOException;
+    }
+
+    private static long mapped(byte[] body) {
+        String json = new String(body, StandardCharsets.UTF_8);
+        DeepgramResponse response = gson.fromJson(json, DeepgramResponse.class);
+        return response.results.channels[0].alternatives[0].transcript.length();
+    }
+
+    private static long mappedWithWords(byte[] body) {
+        String json = new String(body, StandardCharsets.UTF_8);
+        TimedResponse response = gson.fromJson(json, TimedResponse.class);
+        TimedResponse.Alternative alternative = response.results.channels[0].alternatives[0];
+        return alternative.transcript.length() + alternative.words.length;
+    }
+
+    /**
+     * {@link DeepgramResponse} plus the word timings
+     */
+    static class TimedResponse {
+        Results results;
+
+        static class Results {
+            Channel[] channels;
+        }
+
+        static class Channel {
+            Alternative[] alternatives;
+        }
+
+        static class Alternative {
+            String transcript;
+            double confidence;
+            Word[] words;
+        }
+
+        static class Word {
+            String word;
+            double start;
+            double end;
+            double confidence;
+        }
+    }
+
+    private static long tree(byte[] body) throws IOException {
+        try (Reader reader = reader(body)) {
+            JsonObject alternative = JsonParser.parseReader(reader).getAsJsonObject()
+                    .getAsJsonObject("results").getAsJsonArray("channels").get(0).getAsJsonObject()
+                    .getAsJsonArray("alternatives").get(0).getAsJsonObject();
+            return alternative.get("transcript").getAsString().length() + alternative.getAsJsonArray("words").size();
+        }
+    }
+
+    private static long streamed(byte[] body, boolean withWords) throws IOException {
+        try (Reader reader = reader(body)) {
+            DeepgramTranscript transcript = DeepgramResponseParser.parse(reader, withWords);
+            return transcript.getTranscript().length() + transcript.getWords().size();
+        }
+    }
+
+    private static Reader reader(byte[] body) {
+        return new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * All variants must read the same transcript
+     */
+    private static void checkAgree(byte[] body) throws IOException {
+        String mapped = gson.fromJson(new String(body, StandardCharsets.UTF_8), DeepgramResponse.class)
+                .results.channels[0].alternatives[0].transcript;
+        try (Reader reader = reader(body)) {
+            DeepgramTranscript streamed = DeepgramResponseParser.parse(reader);
+            if (!mapped.equals(streamed.getTranscript())) {
+                throw new IllegalStateException("Streaming parser disagrees with object mapping");
+            }
+        }
+    }
+
+    // ==================== Measurement ====================
+
+    void measure(int words, byte[] body, String name, Variant variant) throws IOException {
+        for (int i = 0; i < warmup; i++) {
+            iteration(body, variant);
+        }
+        double[] nanosPerOp = new double[iterations];
+        long allocated = 0;
+        long ops = 0;
+        for (int i = 0; i < iterations; i++) {
+            long allocBefore = allocatedBytes();
+            long[] result = iteration(body, variant);
+            allocated += allocatedBytes() - allocBefore;
+            ops += result[0];
+            nanosPerOp[i] = result[1] / (double) result[0];
+        }
+
+        double mean = Arrays.stream(nanosPerOp).average().orElse(Double.NaN);
+        double spread = Math.sqrt(Arrays.stream(nanosPerOp).map(v -> (v - mean) * (v - mean)).sum()
+                / Math.max(1, iterations - 1));
+        double bytesPerOp = allocated < 0 ? Double.NaN : allocated / (double) ops;
+        System.out.println(String.format("%6d %8.1f %-9s %12.2f %10.2f %12.0f", words, body.length / 1024.0, name,
+                mean / 1000, spread / 1000, bytesPerOp));
+    }
+
+    /**
+     * Parse repeatedly for one iteration period
+     *
+     * @return {operations, elapsed nanos}
+     */
+    private long[] iteration(byte[] body, Variant variant) throws IOException {
+        long start = System.nanoTime();
+        long end = start + iterationNanos;
+        long ops = 0;
+        long acc = 0;
+        long now;
+        do {
+            acc += variant.parse(body);
+            ops++;
+            now = System.nanoTime();
+        } while (now < end);
+        sink = acc;
+        return new long[]{ops, now - start};
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return Long.MIN_VALUE;  // makes B/op NaN
+    }
+
+    // ==================== Input ====================
+
+    /**
+     * A response shaped like Deepgram's pre-recorded output with {@code wordCount} timed words
+     */
+    static String responseJson(int wordCount, long seed) {
+        Random random = new Random(seed);
+        JsonArray words = new JsonArray();
+        StringBuilder transcript = new StringBuilder();
+        double t = 0.2;
+        for (int i = 0; i < wordCount; i++) {
+            String token = VOCABULARY[random.nextInt(VOCABULARY.length)];
+            double length = 0.15 + random.nextDouble() * 0.35;
+            JsonObject word = new JsonObject();
+            word.addProperty("word", token);
+            word.addProperty("start", Math.round(t * 1000) / 1000.0);
+            word.addProperty("end", Math.round((t + length) * 1000) / 1000.0);
+            word.addProperty("confidence", 0.8 + random.nextDouble() * 0.2);
+            word.addProperty("punctuated_word", token);
+            words.add(word);
+            transcript.append(i == 0 ? "" : " ").append(token);
+            t += length + random.nextDouble() * 0.2;
+        }
+
+        JsonObject alternative = new JsonObject();
+        alternative.addProperty("transcript", transcript.toString());
+        alternative.addProperty("confidence", 0.93);
+        alternative.add("words", words);
+        JsonArray alternatives = new JsonArray();
+        alternatives.add(alternative);
+        JsonObject channel = new JsonObject();
+        channel.add("alternatives", alternatives);
+        JsonArray channels = new JsonArray();
+        channels.add(channel);
+        JsonObject results = new JsonObject();
+        results.add("channels", channels);
+
+        JsonObject modelInfo = new JsonObject();
+        modelInfo.addProperty("name", "2-general-nova");
+        modelInfo.addProperty("version", "2024-01-09.29447");
+        modelInfo.addProperty("arch", "nova-2");
+        JsonObject models = new JsonObject();
+        models.add("c0d1a568-ce81-4fea-97e7-bd45cb1fdf3c", modelInfo);
+        JsonObject metadata = new JsonObject();
+        metadata.addProperty("transaction_key", "deprecated");
+        metadata.addProperty("request_id", "2479c8c8-8185-40ac-9ac6-f0874419f793");
+        metadata.addProperty("sha256", "154e291ecfa8be6ab8343560bcc109008fa7853eb5372533e8efdefc9b504c33");
+        metadata.addProperty("created", "2024-02-06T19:56:16.180Z");
+        metadata.addProperty("duration", Math.round(t * 1000) / 1000.0);
+        metadata.addProperty("channels", 1);
+        metadata.add("model_info", models);
+
+        JsonObject root = new JsonObject();
+        root.add("metadata", metadata);
+        root.add("results", results);
+        return root.toString();
+    }
+}
@@ -0,0 +1,196 @@
+package com.clearpath.benchmark;
+
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.synthetic.SyntheticCorpusGenerator;
+import com.clearpath.transcription.CircuitOpenException;
+import com.clearpath.transcription.DeepgramClient;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tail latency of {@link DeepgramClient} against a {@link MockDeepgramServer}, with and without
+ * hedged requests, followed by an outage to show the circuit breaker failing fast.
+ *
+ * <p>Each run warms the client's latency history first (hedging starts only once the endpoint
+ * has a p95), then sends {@code --requests} files with {@code --concurrency} in flight and
+ * reports per-request latency percentiles, extra requests the server saw (hedges) and
+ * timeouts. The outage phase takes the mock down and counts how many calls still reached the
+ * server before the breaker opened, then brings it back and checks that the circuit closes
+ * after {@code deepgram.breaker.open.sec}.</p>
+ *
+ * <p>Usage: {@code TranscriptionTailBenchmark [--requests 400] [--concurrency 8]
+ * [--median-ms 300] [--slow-rate 0.03] [--slow-ms 8000]}</p>
+ */
+public class TranscriptionTailBenchmark {
+    static {
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+    }
+
+    private static final int WARMUP_REQUESTS = 40;
+    private static final double BREAKER_OPEN_SEC = 2.0;
+
+    private final MockDeepgramServer mock;
+    private final String audioFile;
+
+    public TranscriptionTailBenchmark(MockDeepgramServer mock, String audioFile) {
+        this.mock = mock;
+        this.audioFile = audioFile;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requests = 400;
+        int concurrency = 8;
+        double medianMs = 300;
+        double slowRate = 0.03;
+        double slowMs = 8000;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--requests": requests = Integer.parseInt(args[++i]); break;
+                case "--concurrency": concurrency = Integer.parseInt(args[++i]); break;
+                case "--median-ms": medianMs = Double.parseDouble(args[++i]); break;
+                case "--slow-rate": slowRate = Double.parseDouble(args[++i]); break;
+                case "--slow-ms": slowMs = Double.parseDouble(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        Path audio = Files.createTempFile("tail-benchmark", ".wav");
+        try (MockDeepgramServer mock = new MockDeepgramServer(0)) {
+            new SyntheticCorpusGenerator().greeting(0, 7, 1.0).writeWav(audio);
+            mock.latency(medianMs, 0.3).tail(slowRate, slowMs);
+            TranscriptionTailBenchmark benchmark = new TranscriptionTailBenchmark(mock, audio.toString());
+
+            System.out.printf("Mock Deepgram at %s: median %.0f ms, %.1f%% stall for %.0f ms%n",
+                    mock.getUrl(), medianMs, slowRate * 100, slowMs);
+            System.out.println(String.format("%-8s %8s %8s %8s %8s %8s %8s %8s %8s",
+                    "hedging", "requests", "p50 ms", "p95 ms", "p99 ms", "max ms", "extra", "timeouts", "errors"));
+            System.out.println(benchmark.run("off", false, requests, concurrency));
+            System.out.println(benchmark.run("on", true, requests, concurrency));
+
+            benchmark.outage();
+        } finally {
+            Files.deleteIfExists(audio);
+        }
+    }
+
+    /**
+     * Settings for one run; the query string gives each run its own endpoint key, so runs don't
+     * share latency history or breaker state
+     */
+    private AnalyzerSettings settings(String run, boolean hedge) {
+        return AnalyzerSettings.defaults().toBuilder()
+                .deepgramApiKey("benchmark")
+                .deepgramUrl(mock.getUrl() + "?run=" + run)
+                .deepgramHedgeEnabled(hedge)
+                .deepgramBreakerOpenSec(BREAKER_OPEN_SEC)
+                .build();
+    }
+
+    Result run(String run, boolean hedge, int requests, int concurrency) throws InterruptedException {
+        DeepgramClient client = new DeepgramClient(settings(run, hedge));
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            try {
+                client.transcribeFile(audioFile);
+            } catch (IOException e) {
+                // Warmup only fills the latency window
+            }
+        }
+
+        Result result = new Result(run, requests);
+        mock.resetCounters();
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger index = new AtomicInteger();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                workers.execute(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        client.transcribeFile(audioFile);
+                    } catch (InterruptedIOException e) {
+                        result.timeouts.incrementAndGet();
+                    } catch (IOException e) {
+                        result.errors.incrementAndGet();
+                    } finally {
+                        result.latenciesMs[index.getAndIncrement()] = (System.nanoTime() - start) / 1e6;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        result.serverRequests = mock.getRequests();
+        return result;
+    }
+
+    /**
+     * Take the mock down, count calls that still reached it, then check recovery
+     */
+    void outage() throws InterruptedException {
+        DeepgramClient client = new DeepgramClient(settings("outage", true));
+        int calls = 50;
+        int rejected = 0;
+        mock.setDown(true);
+        mock.resetCounters();
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            try {
+                client.transcribeFile(audioFile);
+            } catch (CircuitOpenException e) {
+                rejected++;
+            } catch (IOException e) {
+                // 503 from the mock, counted by the server
+            }
+        }
+        double elapsedMs = (System.nanoTime() - start) / 1e6;
+        System.out.printf("Outage: %d calls in %.0f ms, %d reached the server, %d failed fast (circuit open)%n",
+                calls, elapsedMs, mock.getRequests(), rejected);
+
+        mock.setDown(false);
+        Thread.sleep((long) (BREAKER_OPEN_SEC * 1000) + 100);
+        try {
+            client.transcribeFile(audioFile);
+            System.out.println("Recovery: trial request after the open period succeeded, circuit closed");
+        } catch (IOException e) {
+            System.out.println("Recovery: trial request failed: " + e.getMessage());
+        }
+    }
+
+    static final class Result {
+        final String run;
+        final double[] latenciesMs;
+        final AtomicInteger timeouts = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        int serverRequests;
+
+        Result(String run, int requests) {
+            this.run = run;
+            this.latenciesMs = new double[requests];
+        }
+
+        @Override
+        public String toString() {
+            double[] sorted = latenciesMs.clone();
+            Arrays.sort(sorted);
+            int extra = serverRequests - sorted.length;
+            return String.format("%-8s %8d %8.0f %8.0f %8.0f %8.0f %7.1f%% %8d %8d", run, sorted.length,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted[sorted.length - 1], 100.0 * extra / sorted.length, timeouts.get(), errors.get());
+        }
+
+        private static double percentile(double[] sorted, double p) {
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+        }
+    }
+}
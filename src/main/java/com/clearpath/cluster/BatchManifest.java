@@ -0,0 +1,53 @@
+package com.clearpath.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the list of audio files for a cluster batch.
+ *
+ * <p>One file per line, '#' starts a comment, paths are relative to the manifest. Only the
+ * first CSV column is read, so a labeled evaluation manifest works as a batch manifest too:</p>
+ * <pre>
+ * # month-end reprocessing
+ * 2025-11/vm1_output.wav
+ * 2025-11/vm2_output.wav
+ * </pre>
+ */
+public final class BatchManifest {
+    private static final Logger logger = LoggerFactory.getLogger(BatchManifest.class);
+
+    private BatchManifest() {
+    }
+
+    /**
+     * @return absolute paths, in manifest order
+     */
+    public static List<String> load(Path manifest) throws IOException {
+        Path baseDir = manifest.toAbsolutePath().getParent();
+        List<String> files = new ArrayList<>();
+
+        try (BufferedReader in = Files.newBufferedReader(manifest)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("file,")) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                String file = (comma < 0 ? line : line.substring(0, comma)).trim();
+                files.add(baseDir.resolve(file).normalize().toString());
+            }
+        }
+
+        logger.info("Loaded {} files from {}", files.size(), manifest);
+        return files;
+    }
+}
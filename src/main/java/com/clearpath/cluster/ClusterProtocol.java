@@ -0,0 +1,91 @@
+package com.clearpath.cluster;
+
+import com.clearpath.OutputGenerator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line protocol between {@link ShardCoordinator} and {@link ShardWorker}.
+ *
+ * <p>One request per TCP connection: the worker sends a single line, the coordinator answers
+ * with one or more lines and closes. Fields are separated by single spaces; the last field of
+ * a line may contain spaces (paths, error messages).</p>
+ * <pre>
+ * LEASE &lt;worker&gt;                        → SHARD &lt;id&gt; &lt;token&gt; &lt;heartbeat ms&gt; &lt;result path&gt;
+ *                                          FILE &lt;manifest index&gt; &lt;path&gt; (one per file)
+ *                                          END
+ *                                        | WAIT &lt;ms&gt; | DONE
+ * HEARTBEAT &lt;worker&gt; &lt;id&gt; &lt;token&gt;       → OK | LOST
+ * COMPLETE &lt;worker&gt; &lt;id&gt; &lt;token&gt;        → OK | STALE
+ * FAIL &lt;worker&gt; &lt;id&gt; &lt;token&gt; &lt;message&gt; → OK
+ * </pre>
+ */
+final class ClusterProtocol {
+    static final String LEASE = "LEASE";
+    static final String HEARTBEAT = "HEARTBEAT";
+    static final String COMPLETE = "COMPLETE";
+    static final String FAIL = "FAIL";
+
+    static final String SHARD = "SHARD";
+    static final String FILE = "FILE";
+    static final String END = "END";
+    static final String WAIT = "WAIT";
+    static final String DONE = "DONE";
+    static final String OK = "OK";
+    static final String LOST = "LOST";
+    static final String STALE = "STALE";
+    static final String ERROR = "ERROR";
+
+    static final int SOCKET_TIMEOUT_MS = 10_000;
+
+    // Shard result CSVs: the merged CSV's columns after the manifest index of each row
+    static final String SHARD_CSV_HEADER = "Manifest_Index," + OutputGenerator.CSV_HEADER;
+
+    private ClusterProtocol() {
+    }
+
+    /**
+     * Send one request line and read the reply until the coordinator closes the connection
+     */
+    static List<String> exchange(InetSocketAddress coordinator, String request) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(coordinator, SOCKET_TIMEOUT_MS);
+            socket.setSoTimeout(SOCKET_TIMEOUT_MS);
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            out.write(request);
+            out.write('\n');
+            out.flush();
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            List<String> reply = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                reply.add(line);
+            }
+            if (reply.isEmpty()) {
+                throw new IOException("Empty reply from coordinator to " + request.split(" ", 2)[0]);
+            }
+            return reply;
+        }
+    }
+
+    /**
+     * Parse {@code host:port}
+     */
+    static InetSocketAddress parseAddress(String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Expected host:port, got " + address);
+        }
+        return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+    }
+}
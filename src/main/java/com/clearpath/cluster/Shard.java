@@ -0,0 +1,91 @@
+package com.clearpath.cluster;
+
+import com.clearpath.fingerprint.ContentHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A unit of work leased to one worker: a subset of the manifest, in manifest order, with each
+ * file's position in the manifest
+ */
+public final class Shard {
+    private static final Logger logger = LoggerFactory.getLogger(Shard.class);
+
+    private final int id;
+    private final List<String> files;
+    private final List<Integer> manifestIndices;
+
+    public Shard(int id, List<String> files, List<Integer> manifestIndices) {
+        if (files.size() != manifestIndices.size()) {
+            throw new IllegalArgumentException("Shard " + id + ": " + files.size() + " files but "
+                    + manifestIndices.size() + " manifest indices");
+        }
+        this.id = id;
+        this.files = List.copyOf(files);
+        this.manifestIndices = List.copyOf(manifestIndices);
+    }
+
+    public int getId() { return id; }
+    public List<String> getFiles() { return files; }
+    public List<Integer> getManifestIndices() { return manifestIndices; }
+
+    /**
+     * Split files into at most {@code shardCount} shards by SHA-256 of their content.
+     *
+     * <p>Content rather than path: the same recording exported twice under different names
+     * lands in the same shard, and a re-run after files were moved or renamed gives every
+     * recording the same shard as before. Hashing reads every file once, in parallel.
+     * Unreadable files are placed by their path and left to fail on the worker, where the
+     * error is reported like any other. Empty shards are dropped.</p>
+     */
+    public static List<Shard> byContentHash(List<String> files, int shardCount) {
+        int[] assignment = files.parallelStream()
+                .mapToInt(file -> (int) Math.floorMod(contentHash(file), (long) shardCount))
+                .toArray();
+
+        List<List<String>> buckets = new ArrayList<>();
+        List<List<Integer>> indices = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            buckets.add(new ArrayList<>());
+            indices.add(new ArrayList<>());
+        }
+        for (int i = 0; i < files.size(); i++) {
+            buckets.get(assignment[i]).add(files.get(i));
+            indices.get(assignment[i]).add(i);
+        }
+
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            if (!buckets.get(i).isEmpty()) {
+                shards.add(new Shard(i, buckets.get(i), indices.get(i)));
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * First 8 bytes of the file's SHA-256
+     */
+    private static long contentHash(String file) {
+        byte[] digest;
+        try {
+            digest = ContentHash.sha256(Path.of(file));
+        } catch (IOException e) {
+            logger.warn("Cannot read {} for hashing ({}); sharding by path", file, e.getMessage());
+            digest = ContentHash.sha256(file.getBytes(StandardCharsets.UTF_8));
+        }
+        return ByteBuffer.wrap(digest).getLong();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("shard %d (%d files)", id, files.size());
+    }
+}
@@ -0,0 +1,476 @@
+package com.clearpath.cluster;
+
+import com.clearpath.OutputGenerator;
+import com.clearpath.VoicemailAnalyzer;
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.config.SettingsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits a batch manifest into shards and leases them to {@link ShardWorker} processes.
+ *
+ * <p>Workers connect over TCP (see {@link ClusterProtocol}), take one shard at a time and
+ * write its results to a CSV file in the shared work directory. A lease lasts
+ * {@code cluster.lease.sec} and is renewed by heartbeats every {@code cluster.heartbeat.sec};
+ * a worker that dies or hangs stops heartbeating, its lease expires and the shard goes back
+ * to the queue, up to {@code cluster.max.attempts} leases. Every lease carries its own token
+ * and result file, so a worker presumed dead that finishes after all cannot clobber another
+ * worker's output: the first completion wins and later ones are told the shard is stale.</p>
+ *
+ * <p>When every shard is complete or given up, the shard CSVs are merged into one CSV in
+ * manifest order. Shard rows carry their manifest index, so files with the same name in
+ * different directories keep their own rows. Files that failed on their worker, or whose
+ * shard was given up, are missing from it and listed in the log.</p>
+ *
+ * <p>Usage: {@code VoicemailAnalyzer coordinator --manifest <file> [--out results.csv]
+ * [--work-dir <out>.shards] [--bind 127.0.0.1] [--port 0] [--local-workers 0]
+ * [--shards N] [--profile name]}. With {@code --local-workers N} the coordinator starts N
+ * worker JVMs on this machine (same classpath and JVM options, logs in the work directory);
+ * otherwise start workers with {@code VoicemailAnalyzer worker --coordinator host:port}.</p>
+ */
+public class ShardCoordinator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    private static final long WORKER_EXIT_TIMEOUT_SEC = 30;
+
+    private enum State { PENDING, LEASED, COMPLETE, FAILED }
+
+    /**
+     * Lease bookkeeping for one shard; guarded by the coordinator's monitor
+     */
+    private static final class ShardState {
+        final Shard shard;
+        State state = State.PENDING;
+        int attempts;
+        String worker;
+        String token;
+        long deadlineNanos;
+        final Map<String, Path> resultsByToken = new HashMap<>();  // every lease ever issued
+        Path result;  // of the winning completion
+
+        ShardState(Shard shard) {
+            this.shard = shard;
+        }
+    }
+
+    private final Map<Integer, ShardState> shards = new LinkedHashMap<>();
+    private final Path workDir;
+    private final long leaseNanos;
+    private final long heartbeatMillis;
+    private final int maxAttempts;
+
+    private ServerSocket serverSocket;
+    private ExecutorService connections;
+    private int reLeased;
+
+    public ShardCoordinator(List<Shard> shards, Path workDir, AnalyzerSettings settings) {
+        for (Shard shard : shards) {
+            this.shards.put(shard.getId(), new ShardState(shard));
+        }
+        this.workDir = workDir;
+        this.leaseNanos = (long) (settings.getClusterLeaseSec() * 1e9);
+        this.heartbeatMillis = (long) (settings.getClusterHeartbeatSec() * 1000);
+        this.maxAttempts = settings.getClusterMaxAttempts();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path manifest = null;
+        Path out = Paths.get("voicemail_analysis_results.csv");
+        Path workDir = null;
+        String bind = "127.0.0.1";
+        int port = 0;
+        int localWorkers = 0;
+        int shardCount = 0;
+        String profile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--manifest": manifest = Paths.get(args[++i]); break;
+                case "--out": out = Paths.get(args[++i]); break;
+                case "--work-dir": workDir = Paths.get(args[++i]); break;
+                case "--bind": bind = args[++i]; break;
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--local-workers": localWorkers = Integer.parseInt(args[++i]); break;
+                case "--shards": shardCount = Integer.parseInt(args[++i]); break;
+                case "--profile": profile = args[++i]; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        if (manifest == null) {
+            System.err.println("Usage: VoicemailAnalyzer coordinator --manifest <file> [--out results.csv] " +
+                    "[--work-dir dir] [--bind 127.0.0.1] [--port 0] [--local-workers N] [--shards N] [--profile name]");
+            System.exit(1);
+        }
+        if (workDir == null) {
+            workDir = Paths.get(out + ".shards");
+        }
+        Files.createDirectories(workDir);
+
+        AnalyzerSettings settings;
+        try (SettingsProvider provider = SettingsProvider.fromDefaultLocation()) {
+            settings = provider.forProfile(profile);
+        }
+        List<String> files = BatchManifest.load(manifest);
+        warnOnNameCollisions(files);
+        List<Shard> shards = Shard.byContentHash(files,
+                shardCount > 0 ? shardCount : settings.getClusterShards());
+        logger.info("Split {} files into {} shards", files.size(), shards.size());
+
+        long start = System.nanoTime();
+        List<Process> workers = new ArrayList<>();
+        try (ShardCoordinator coordinator = new ShardCoordinator(shards, workDir, settings)) {
+            InetSocketAddress address = coordinator.start(new InetSocketAddress(InetAddress.getByName(bind), port));
+            for (int i = 0; i < localWorkers; i++) {
+                workers.add(startLocalWorker(address, "local-" + i, profile, workDir));
+            }
+
+            coordinator.awaitCompletion();
+            int merged = coordinator.merge(files, out);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            logger.info("✅ {} of {} files merged into {} in {}s ({} files/s, {} re-leases)",
+                    merged, files.size(), out, String.format("%.1f", elapsed),
+                    String.format("%.2f", merged / elapsed), coordinator.getReLeasedCount());
+
+            // Workers still polling get DONE and exit on their own
+            for (Process worker : workers) {
+                if (!worker.waitFor(WORKER_EXIT_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                    logger.warn("Worker pid {} did not exit; stopping it", worker.pid());
+                    worker.destroy();
+                }
+            }
+        } finally {
+            workers.forEach(Process::destroy);
+        }
+    }
+
+    // ==================== Server ====================
+
+    /**
+     * Start accepting workers
+     *
+     * @return the bound address (with the actual port when 0 was requested)
+     */
+    public synchronized InetSocketAddress start(InetSocketAddress bindAddress) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(bindAddress);
+        connections = Executors.newVirtualThreadPerTaskExecutor();
+        Thread.ofPlatform().daemon().name("shard-coordinator-accept").start(this::acceptLoop);
+
+        InetSocketAddress address = (InetSocketAddress) serverSocket.getLocalSocketAddress();
+        logger.info("Shard coordinator listening on {}:{} with {} shards",
+                address.getAddress().getHostAddress(), address.getPort(), shards.size());
+        return address;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handle(socket));
+            } catch (SocketException e) {
+                return;  // closed
+            } catch (IOException e) {
+                logger.warn("Accept failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket) {
+            socket.setSoTimeout(ClusterProtocol.SOCKET_TIMEOUT_MS);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String request = in.readLine();
+            if (request == null) {
+                return;
+            }
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            for (String line : dispatch(request)) {
+                out.print(line);
+                out.print('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            logger.debug("Worker connection failed: {}", e.getMessage());
+        }
+    }
+
+    private List<String> dispatch(String request) {
+        String[] parts = request.split(" ", 5);
+        try {
+            return switch (parts[0]) {
+                case ClusterProtocol.LEASE -> lease(parts[1]);
+                case ClusterProtocol.HEARTBEAT -> List.of(heartbeat(parts[1], Integer.parseInt(parts[2]), parts[3]));
+                case ClusterProtocol.COMPLETE -> List.of(complete(parts[1], Integer.parseInt(parts[2]), parts[3]));
+                case ClusterProtocol.FAIL -> List.of(fail(parts[1], Integer.parseInt(parts[2]), parts[3],
+                        parts.length > 4 ? parts[4] : ""));
+                default -> List.of(ClusterProtocol.ERROR + " unknown request " + parts[0]);
+            };
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            return List.of(ClusterProtocol.ERROR + " malformed request");
+        }
+    }
+
+    // ==================== Leases ====================
+
+    synchronized List<String> lease(String worker) {
+        reapExpired();
+        for (ShardState s : shards.values()) {
+            if (s.state != State.PENDING) {
+                continue;
+            }
+            s.state = State.LEASED;
+            s.attempts++;
+            s.worker = worker;
+            s.token = s.attempts + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+            s.deadlineNanos = System.nanoTime() + leaseNanos;
+            Path result = workDir.resolve(String.format("shard-%03d-%s.csv", s.shard.getId(), s.token))
+                    .toAbsolutePath();
+            s.resultsByToken.put(s.token, result);
+            logger.info("Leased {} to {} (attempt {})", s.shard, worker, s.attempts);
+
+            List<String> reply = new ArrayList<>();
+            reply.add(String.join(" ", ClusterProtocol.SHARD, String.valueOf(s.shard.getId()), s.token,
+                    String.valueOf(heartbeatMillis), result.toString()));
+            for (int i = 0; i < s.shard.getFiles().size(); i++) {
+                reply.add(String.join(" ", ClusterProtocol.FILE, String.valueOf(s.shard.getManifestIndices().get(i)),
+                        s.shard.getFiles().get(i)));
+            }
+            reply.add(ClusterProtocol.END);
+            return reply;
+        }
+        // Nothing to hand out: either everything is finished or the rest is leased and may come back
+        return List.of(isFinished() ? ClusterProtocol.DONE : ClusterProtocol.WAIT + " " + heartbeatMillis);
+    }
+
+    synchronized String heartbeat(String worker, int shardId, String token) {
+        ShardState s = shards.get(shardId);
+        if (s == null || s.state != State.LEASED || !token.equals(s.token)) {
+            return ClusterProtocol.LOST;
+        }
+        s.deadlineNanos = System.nanoTime() + leaseNanos;
+        return ClusterProtocol.OK;
+    }
+
+    /**
+     * Accept the first completion from any lease ever issued for the shard
+     */
+    synchronized String complete(String worker, int shardId, String token) {
+        ShardState s = shards.get(shardId);
+        Path result = s == null ? null : s.resultsByToken.get(token);
+        if (result == null || s.state == State.COMPLETE || !Files.exists(result)) {
+            logger.info("Stale completion of shard {} from {}", shardId, worker);
+            return ClusterProtocol.STALE;
+        }
+        s.state = State.COMPLETE;
+        s.result = result;
+        logger.info("✓ {} completed by {}{}", s.shard, worker,
+                token.equals(s.token) ? "" : " (after its lease was re-issued)");
+        notifyAll();
+        return ClusterProtocol.OK;
+    }
+
+    synchronized String fail(String worker, int shardId, String token, String message) {
+        ShardState s = shards.get(shardId);
+        if (s != null && s.state == State.LEASED && token.equals(s.token)) {
+            logger.warn("{} failed on {}: {}", s.shard, worker, message);
+            release(s);
+        }
+        return ClusterProtocol.OK;
+    }
+
+    /**
+     * Return shards whose lease ran out without a heartbeat to the queue
+     */
+    private void reapExpired() {
+        long now = System.nanoTime();
+        for (ShardState s : shards.values()) {
+            if (s.state == State.LEASED && now - s.deadlineNanos > 0) {
+                logger.warn("Lease on {} held by {} expired; worker presumed dead", s.shard, s.worker);
+                release(s);
+            }
+        }
+    }
+
+    private void release(ShardState s) {
+        s.token = null;
+        s.worker = null;
+        if (s.attempts >= maxAttempts) {
+            s.state = State.FAILED;
+            logger.error("✗ Giving up on {} after {} attempts", s.shard, s.attempts);
+            notifyAll();
+        } else {
+            s.state = State.PENDING;
+            reLeased++;
+        }
+    }
+
+    private boolean isFinished() {
+        return shards.values().stream().allMatch(s -> s.state == State.COMPLETE || s.state == State.FAILED);
+    }
+
+    /**
+     * Block until every shard is complete or given up, reaping expired leases meanwhile
+     */
+    public synchronized void awaitCompletion() throws InterruptedException {
+        while (!isFinished()) {
+            wait(heartbeatMillis);
+            reapExpired();
+        }
+    }
+
+    public synchronized int getReLeasedCount() {
+        return reLeased;
+    }
+
+    // ==================== Merge ====================
+
+    /**
+     * Merge the completed shards' CSVs into {@code out}, rows in manifest order
+     *
+     * @param files the manifest, in order
+     * @return rows written
+     */
+    public synchronized int merge(List<String> files, Path out) throws IOException {
+        String[] rowsByIndex = new String[files.size()];
+        for (ShardState s : shards.values()) {
+            if (s.state != State.COMPLETE) {
+                logger.error("✗ {} missing from the results: {}", s.shard, s.shard.getFiles());
+                continue;
+            }
+            Set<Integer> expected = new HashSet<>(s.shard.getManifestIndices());
+            List<String> lines = Files.readAllLines(s.result, StandardCharsets.UTF_8);
+            for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+                int comma = line.indexOf(',');
+                int index;
+                try {
+                    index = Integer.parseInt(line.substring(0, Math.max(0, comma)));
+                } catch (NumberFormatException e) {
+                    index = -1;
+                }
+                if (!expected.contains(index)) {
+                    logger.warn("Ignoring row of {} without a valid manifest index: {}", s.shard, line);
+                    continue;
+                }
+                rowsByIndex[index] = line.substring(comma + 1);
+            }
+        }
+
+        Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+        int written = 0;
+        List<String> missing = new ArrayList<>();
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+            writer.println(OutputGenerator.CSV_HEADER);
+            for (int i = 0; i < files.size(); i++) {
+                String row = rowsByIndex[i];
+                if (row == null) {
+                    missing.add(files.get(i));
+                } else {
+                    writer.println(row);
+                    written++;
+                }
+            }
+        }
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        if (!missing.isEmpty()) {
+            logger.warn("{} files have no result (failed on their worker or shard given up): {}",
+                    missing.size(), missing);
+        }
+        return written;
+    }
+
+    /**
+     * Warn about manifest entries in different directories with the same file name: the
+     * merged CSV's File column cannot tell their rows apart
+     */
+    static void warnOnNameCollisions(List<String> files) {
+        Map<String, List<String>> pathsByName = new LinkedHashMap<>();
+        for (String file : files) {
+            List<String> paths = pathsByName.computeIfAbsent(Paths.get(file).getFileName().toString(),
+                    k -> new ArrayList<>());
+            if (!paths.contains(file)) {
+                paths.add(file);
+            }
+        }
+        pathsByName.forEach((name, paths) -> {
+            if (paths.size() > 1) {
+                logger.warn("{} files named {} in the manifest; their rows follow manifest order but share " +
+                        "the File column: {}", paths.size(), name, paths);
+            }
+        });
+    }
+
+    // ==================== Local Workers ====================
+
+    /**
+     * Start a worker JVM on this machine with this JVM's classpath and options
+     */
+    static Process startLocalWorker(InetSocketAddress coordinator, String workerId, String profile, Path logDir)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!option.startsWith("-agentlib:jdwp")) {  // a second debugger on the same port would fail
+                command.add(option);
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(VoicemailAnalyzer.class.getName());
+        command.add("worker");
+        command.add("--coordinator");
+        command.add(coordinator.getAddress().getHostAddress() + ":" + coordinator.getPort());
+        command.add("--id");
+        command.add(workerId);
+        if (profile != null) {
+            command.add("--profile");
+            command.add(profile);
+        }
+
+        Path log = logDir.resolve(workerId + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        logger.info("Started local worker {} (pid {}), log {}", workerId, process.pid(), log);
+        return process;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+            connections.shutdown();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.clearpath.cluster;
+
+import com.clearpath.OutputGenerator;
+import com.clearpath.VoicemailAnalyzer;
+import com.clearpath.config.SettingsProvider;
+import com.clearpath.model.AnalysisResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Processes shards leased from a {@link ShardCoordinator} until it has none left.
+ *
+ * <p>Each shard runs through the same three passes as a local batch
+ * ({@link VoicemailAnalyzer#analyzeBatch}), with a heartbeat keeping the lease alive. Results
+ * are written, each row led by its file's manifest index, to a temporary file and renamed into
+ * place before the shard is reported complete, so the coordinator never merges a half-written
+ * CSV. If the coordinator cannot be
+ * reached several times in a row the worker assumes the batch is over and exits.</p>
+ *
+ * <p>Usage: {@code VoicemailAnalyzer worker --coordinator host:port [--id name]
+ * [--profile name]}</p>
+ */
+public class ShardWorker {
+    private static final Logger logger = LoggerFactory.getLogger(ShardWorker.class);
+
+    private static final int MAX_CONNECT_FAILURES = 5;
+    private static final long RECONNECT_DELAY_MS = 1000;
+
+    private final InetSocketAddress coordinator;
+    private final String workerId;
+    private final SettingsProvider settingsProvider;
+    private final String profile;
+
+    public ShardWorker(InetSocketAddress coordinator, String workerId, SettingsProvider settingsProvider,
+                       String profile) {
+        this.coordinator = coordinator;
+        this.workerId = workerId;
+        this.settingsProvider = settingsProvider;
+        this.profile = profile;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String address = null;
+        String workerId = "worker-" + ProcessHandle.current().pid();
+        String profile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--coordinator": address = args[++i]; break;
+                case "--id": workerId = args[++i]; break;
+                case "--profile": profile = args[++i]; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        if (address == null) {
+            System.err.println("Usage: VoicemailAnalyzer worker --coordinator host:port [--id name] [--profile name]");
+            System.exit(1);
+        }
+
+        try (SettingsProvider provider = SettingsProvider.fromDefaultLocation()) {
+            int shards = new ShardWorker(ClusterProtocol.parseAddress(address), workerId, provider, profile).run();
+            logger.info("Worker {} finished after {} shards", workerId, shards);
+        }
+    }
+
+    /**
+     * Lease and process shards until the coordinator says DONE or stays unreachable
+     *
+     * @return shards processed
+     */
+    public int run() throws InterruptedException {
+        int processed = 0;
+        int connectFailures = 0;
+        while (true) {
+            List<String> reply;
+            try {
+                reply = ClusterProtocol.exchange(coordinator, ClusterProtocol.LEASE + " " + workerId);
+                connectFailures = 0;
+            } catch (IOException e) {
+                if (++connectFailures >= MAX_CONNECT_FAILURES) {
+                    logger.warn("Coordinator unreachable ({}); stopping", e.getMessage());
+                    return processed;
+                }
+                Thread.sleep(RECONNECT_DELAY_MS * connectFailures);
+                continue;
+            }
+
+            String[] status = reply.get(0).split(" ", 5);
+            switch (status[0]) {
+                case ClusterProtocol.DONE -> {
+                    return processed;
+                }
+                case ClusterProtocol.WAIT -> Thread.sleep(Long.parseLong(status[1]));
+                case ClusterProtocol.SHARD -> {
+                    process(Integer.parseInt(status[1]), status[2], Long.parseLong(status[3]), Paths.get(status[4]),
+                            reply);
+                    processed++;
+                }
+                default -> {
+                    logger.error("Unexpected reply from coordinator: {}", reply.get(0));
+                    return processed;
+                }
+            }
+        }
+    }
+
+    private void process(int shardId, String token, long heartbeatMillis, Path result, List<String> reply) {
+        List<String> files = new ArrayList<>();
+        Map<String, ArrayDeque<String>> indicesByPath = new HashMap<>();
+        for (String line : reply.subList(1, reply.size())) {
+            if (line.startsWith(ClusterProtocol.FILE + " ")) {
+                String[] fields = line.split(" ", 3);
+                files.add(fields[2]);
+                indicesByPath.computeIfAbsent(fields[2], k -> new ArrayDeque<>()).add(fields[1]);
+            }
+        }
+        logger.info("Worker {} processing shard {} ({} files)", workerId, shardId, files.size());
+
+        AtomicBoolean lost = new AtomicBoolean();
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shard-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(() -> {
+            try {
+                String answer = ClusterProtocol.exchange(coordinator,
+                        String.join(" ", ClusterProtocol.HEARTBEAT, workerId, String.valueOf(shardId), token)).get(0);
+                if (answer.equals(ClusterProtocol.LOST) && lost.compareAndSet(false, true)) {
+                    logger.warn("Lease on shard {} lost; finishing anyway, the coordinator keeps the first result",
+                            shardId);
+                }
+            } catch (IOException e) {
+                logger.debug("Heartbeat failed: {}", e.getMessage());
+            }
+        }, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        String outcome;
+        try {
+            List<String> resultPaths = new ArrayList<>();
+            List<AnalysisResult> results = VoicemailAnalyzer.analyzeBatch(files, settingsProvider, profile, resultPaths);
+            Path tmp = result.resolveSibling(result.getFileName() + ".tmp");
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+                writer.println(ClusterProtocol.SHARD_CSV_HEADER);
+                for (int i = 0; i < results.size(); i++) {
+                    // A path listed twice yields two results in order, one per manifest entry
+                    writer.println(indicesByPath.get(resultPaths.get(i)).poll() + ","
+                            + OutputGenerator.csvRow(results.get(i)));
+                }
+            }
+            Files.move(tmp, result, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            outcome = String.join(" ", ClusterProtocol.COMPLETE, workerId, String.valueOf(shardId), token);
+        } catch (Exception e) {
+            logger.error("✗ Shard {} failed: {}", shardId, e.getMessage());
+            outcome = String.join(" ", ClusterProtocol.FAIL, workerId, String.valueOf(shardId), token,
+                    String.valueOf(e.getMessage()).replace('\n', ' '));
+        } finally {
+            heartbeat.shutdownNow();
+        }
+
+        try {
+            String answer = ClusterProtocol.exchange(coordinator, outcome).get(0);
+            if (answer.equals(ClusterProtocol.STALE)) {
+                logger.info("Shard {} was already completed by another worker", shardId);
+            }
+        } catch (IOException e) {
+            // The lease expires and the shard is re-leased
+            logger.warn("Could not report shard {}: {}", shardId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,750 @@
+package com.clearpath.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable snapshot of every tunable used by the analysis pipeline.
+ *
+ * <p>Detectors receive a settings instance at construction time and never read
+ * {@link Config} directly, so a single analysis always sees one consistent set
+ * of thresholds even if the backing file is reloaded while it runs.</p>
+ *
+ * <p>Property keys (file or {@code profile.<name>.<key>} overrides):</p>
+ * <pre>
+ * audio.sample.rate                 audio.frame.size.ms     audio.far.end.channel
+ * audio.max.duration.sec
+ * energy.silence.threshold.db       energy.speech.threshold.db
+ * energy.silence.duration.sec       energy.click.max.sec
+ * energy.greeting.end.policy
+ * beep.fft.size                     beep.min.freq.hz        beep.max.freq.hz
+ * beep.min.duration.sec             beep.max.duration.sec   beep.peak.ratio.db
+ * beep.search.window.sec            beep.precise.timing.sec
+ * decision.post.beep.delay.sec      decision.precise.post.beep.delay.sec
+ * decision.no.beep.short.delay.sec
+ * decision.no.beep.long.delay.sec   decision.beep.wait.timeout.sec
+ * decision.max.compliance.risk      decision.beep.miss.rate
+ * decision.streaming.enabled        decision.streaming.beep.start.window.sec
+ * decision.streaming.max.wait.sec
+ * transcript.high.beep.probability  transcript.medium.beep.probability
+ * session.carrier.threads           session.queue.frames    session.idle.timeout.sec
+ * session.arena.max.mb              session.arena.leak.detection
+ * transcription.max.concurrent      transcription.rate.per.sec
+ * transcription.max.retries         transcription.backoff.base.sec
+ * transcription.defer.final         transcription.cost.per.minute
+ * alignment.enabled                 alignment.tolerance.sec
+ * alignment.min.word.confidence     alignment.beep.window.sec
+ * cluster.shards                    cluster.lease.sec       cluster.heartbeat.sec
+ * cluster.max.attempts              results.store.dir
+ * fingerprint.enabled               fingerprint.cache.entries
+ * fingerprint.max.bit.error.rate    fingerprint.max.offset.sec
+ * trace.dir
+ * deepgram.api.key                  deepgram.url
+ * deepgram.connect.timeout.sec      deepgram.read.timeout.sec  deepgram.call.timeout.sec
+ * deepgram.hedge.enabled            deepgram.hedge.min.delay.sec
+ * deepgram.breaker.failures         deepgram.breaker.open.sec
+ * </pre>
+ */
+public final class AnalyzerSettings {
+    private static final Logger logger = LoggerFactory.getLogger(AnalyzerSettings.class);
+
+    public static final String DEFAULT_PROFILE = "default";
+
+    private static final AnalyzerSettings DEFAULTS = new Builder().build();
+
+    private final String profileName;
+
+    // Audio Processing
+    private final int sampleRate;
+    private final int frameSizeMs;
+    private final int farEndChannel;
+    private final double maxDurationSec;
+
+    // Energy Detection (Silence)
+    private final double silenceThresholdDb;
+    private final double speechThresholdDb;
+    private final double silenceDurationSec;
+    private final double clickMaxSec;
+    private final String greetingEndPolicy;
+
+    // Beep Detection
+    private final int fftSize;
+    private final double beepMinFreqHz;
+    private final double beepMaxFreqHz;
+    private final double beepMinDurationSec;
+    private final double beepMaxDurationSec;
+    private final double beepPeakRatioDb;
+    private final double beepSearchWindowSec;
+    private final double beepPreciseTimingSec;
+
+    // Decision Timing
+    private final double postBeepDelaySec;
+    private final double precisePostBeepDelaySec;
+    private final double noBeepShortDelaySec;
+    private final double noBeepLongDelaySec;
+    private final double beepWaitTimeoutSec;
+    private final double maxComplianceRisk;
+    private final double beepMissRate;
+    private final boolean streamingDecisionEnabled;
+    private final double streamingBeepStartWindowSec;
+    private final double streamingMaxWaitSec;
+
+    // Pattern Matching
+    private final double highBeepProbability;
+    private final double mediumBeepProbability;
+
+    // Live Sessions
+    private final int sessionCarrierThreads;
+    private final int sessionQueueFrames;
+    private final double sessionIdleTimeoutSec;
+    private final int sessionArenaMaxMb;
+    private final boolean sessionArenaLeakDetection;
+
+    // Transcription Scheduling
+    private final int transcriptionMaxConcurrent;
+    private final double transcriptionRatePerSec;
+    private final int transcriptionMaxRetries;
+    private final double transcriptionBackoffBaseSec;
+    private final boolean transcriptionDeferFinal;
+    private final double transcriptionCostPerMinute;
+
+    // Transcript Alignment
+    private final boolean alignmentEnabled;
+    private final double alignmentToleranceSec;
+    private final double alignmentMinWordConfidence;
+    private final double alignmentBeepWindowSec;
+
+    // Cluster Batch Processing
+    private final int clusterShards;
+    private final double clusterLeaseSec;
+    private final double clusterHeartbeatSec;
+    private final int clusterMaxAttempts;
+
+    // Result Store
+    private final String resultsStoreDir;
+
+    // Greeting Fingerprint
+    private final boolean fingerprintEnabled;
+    private final int fingerprintCacheEntries;
+    private final double fingerprintMaxBitErrorRate;
+    private final double fingerprintMaxOffsetSec;
+
+    // Tracing
+    private final String traceDir;
+
+    // Deepgram API
+    private final String deepgramApiKey;
+    private final String deepgramUrl;
+    private final double deepgramConnectTimeoutSec;
+    private final double deepgramReadTimeoutSec;
+    private final double deepgramCallTimeoutSec;
+    private final boolean deepgramHedgeEnabled;
+    private final double deepgramHedgeMinDelaySec;
+    private final int deepgramBreakerFailures;
+    private final double deepgramBreakerOpenSec;
+
+    private AnalyzerSettings(Builder b) {
+        this.profileName = b.profileName;
+        this.sampleRate = b.sampleRate;
+        this.frameSizeMs = b.frameSizeMs;
+        this.farEndChannel = b.farEndChannel;
+        this.maxDurationSec = b.maxDurationSec;
+        this.silenceThresholdDb = b.silenceThresholdDb;
+        this.speechThresholdDb = b.speechThresholdDb;
+        this.silenceDurationSec = b.silenceDurationSec;
+        this.clickMaxSec = b.clickMaxSec;
+        this.greetingEndPolicy = b.greetingEndPolicy;
+        this.fftSize = b.fftSize;
+        this.beepMinFreqHz = b.beepMinFreqHz;
+        this.beepMaxFreqHz = b.beepMaxFreqHz;
+        this.beepMinDurationSec = b.beepMinDurationSec;
+        this.beepMaxDurationSec = b.beepMaxDurationSec;
+        this.beepPeakRatioDb = b.beepPeakRatioDb;
+        this.beepSearchWindowSec = b.beepSearchWindowSec;
+        this.beepPreciseTimingSec = b.beepPreciseTimingSec;
+        this.postBeepDelaySec = b.postBeepDelaySec;
+        this.precisePostBeepDelaySec = b.precisePostBeepDelaySec;
+        this.noBeepShortDelaySec = b.noBeepShortDelaySec;
+        this.noBeepLongDelaySec = b.noBeepLongDelaySec;
+        this.beepWaitTimeoutSec = b.beepWaitTimeoutSec;
+        this.maxComplianceRisk = b.maxComplianceRisk;
+        this.beepMissRate = b.beepMissRate;
+        this.streamingDecisionEnabled = b.streamingDecisionEnabled;
+        this.streamingBeepStartWindowSec = b.streamingBeepStartWindowSec;
+        this.streamingMaxWaitSec = b.streamingMaxWaitSec;
+        this.highBeepProbability = b.highBeepProbability;
+        this.mediumBeepProbability = b.mediumBeepProbability;
+        this.sessionCarrierThreads = b.sessionCarrierThreads;
+        this.sessionQueueFrames = b.sessionQueueFrames;
+        this.sessionIdleTimeoutSec = b.sessionIdleTimeoutSec;
+        this.sessionArenaMaxMb = b.sessionArenaMaxMb;
+        this.sessionArenaLeakDetection = b.sessionArenaLeakDetection;
+        this.transcriptionMaxConcurrent = b.transcriptionMaxConcurrent;
+        this.transcriptionRatePerSec = b.transcriptionRatePerSec;
+        this.transcriptionMaxRetries = b.transcriptionMaxRetries;
+        this.transcriptionBackoffBaseSec = b.transcriptionBackoffBaseSec;
+        this.transcriptionDeferFinal = b.transcriptionDeferFinal;
+        this.transcriptionCostPerMinute = b.transcriptionCostPerMinute;
+        this.alignmentEnabled = b.alignmentEnabled;
+        this.alignmentToleranceSec = b.alignmentToleranceSec;
+        this.alignmentMinWordConfidence = b.alignmentMinWordConfidence;
+        this.alignmentBeepWindowSec = b.alignmentBeepWindowSec;
+        this.clusterShards = b.clusterShards;
+        this.clusterLeaseSec = b.clusterLeaseSec;
+        this.clusterHeartbeatSec = b.clusterHeartbeatSec;
+        this.clusterMaxAttempts = b.clusterMaxAttempts;
+        this.resultsStoreDir = b.resultsStoreDir;
+        this.fingerprintEnabled = b.fingerprintEnabled;
+        this.fingerprintCacheEntries = b.fingerprintCacheEntries;
+        this.fingerprintMaxBitErrorRate = b.fingerprintMaxBitErrorRate;
+        this.fingerprintMaxOffsetSec = b.fingerprintMaxOffsetSec;
+        this.traceDir = b.traceDir;
+        this.deepgramApiKey = b.deepgramApiKey;
+        this.deepgramUrl = b.deepgramUrl;
+        this.deepgramConnectTimeoutSec = b.deepgramConnectTimeoutSec;
+        this.deepgramReadTimeoutSec = b.deepgramReadTimeoutSec;
+        this.deepgramCallTimeoutSec = b.deepgramCallTimeoutSec;
+        this.deepgramHedgeEnabled = b.deepgramHedgeEnabled;
+        this.deepgramHedgeMinDelaySec = b.deepgramHedgeMinDelaySec;
+        this.deepgramBreakerFailures = b.deepgramBreakerFailures;
+        this.deepgramBreakerOpenSec = b.deepgramBreakerOpenSec;
+    }
+
+    /**
+     * Settings built from the compiled-in {@link Config} defaults
+     */
+    public static AnalyzerSettings defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Copy of these settings that can be modified (used by parameter sweeps)
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    public String getProfileName() { return profileName; }
+    public int getSampleRate() { return sampleRate; }
+    public int getFrameSizeMs() { return frameSizeMs; }
+    public int getFrameSizeSamples() { return (sampleRate * frameSizeMs) / 1000; }
+    public double getFrameDurationSec() { return frameSizeMs / 1000.0; }
+    public int getFarEndChannel() { return farEndChannel; }
+    public double getMaxDurationSec() { return maxDurationSec; }
+
+    /**
+     * True if decoding should stop once {@link #getMaxDurationSec()} of audio has been read
+     */
+    public boolean hasMaxDuration() {
+        return maxDurationSec > 0;
+    }
+
+    /**
+     * Far-end channel for a recording with {@code channelCount} channels (mono always uses channel 0)
+     */
+    public int farEndChannelFor(int channelCount) {
+        return Math.min(farEndChannel, channelCount - 1);
+    }
+
+    public double getSilenceThresholdDb() { return silenceThresholdDb; }
+    public double getSpeechThresholdDb() { return speechThresholdDb; }
+    public double getSilenceDurationSec() { return silenceDurationSec; }
+    public double getClickMaxSec() { return clickMaxSec; }
+    public String getGreetingEndPolicy() { return greetingEndPolicy; }
+    public int getFftSize() { return fftSize; }
+    public double getBeepMinFreqHz() { return beepMinFreqHz; }
+    public double getBeepMaxFreqHz() { return beepMaxFreqHz; }
+    public double getBeepMinDurationSec() { return beepMinDurationSec; }
+    public double getBeepMaxDurationSec() { return beepMaxDurationSec; }
+    public double getBeepPeakRatioDb() { return beepPeakRatioDb; }
+    public double getBeepSearchWindowSec() { return beepSearchWindowSec; }
+    public double getBeepPreciseTimingSec() { return beepPreciseTimingSec; }
+    public double getPostBeepDelaySec() { return postBeepDelaySec; }
+    public double getPrecisePostBeepDelaySec() { return precisePostBeepDelaySec; }
+    public double getNoBeepShortDelaySec() { return noBeepShortDelaySec; }
+    public double getNoBeepLongDelaySec() { return noBeepLongDelaySec; }
+    public double getBeepWaitTimeoutSec() { return beepWaitTimeoutSec; }
+    public double getMaxComplianceRisk() { return maxComplianceRisk; }
+    public double getBeepMissRate() { return beepMissRate; }
+    public boolean isStreamingDecisionEnabled() { return streamingDecisionEnabled; }
+    public double getStreamingBeepStartWindowSec() { return streamingBeepStartWindowSec; }
+    public double getStreamingMaxWaitSec() { return streamingMaxWaitSec; }
+    public double getHighBeepProbability() { return highBeepProbability; }
+    public double getMediumBeepProbability() { return mediumBeepProbability; }
+    public int getSessionCarrierThreads() { return sessionCarrierThreads; }
+    public int getSessionQueueFrames() { return sessionQueueFrames; }
+    public double getSessionIdleTimeoutSec() { return sessionIdleTimeoutSec; }
+    public int getSessionArenaMaxMb() { return sessionArenaMaxMb; }
+    public boolean isSessionArenaLeakDetection() { return sessionArenaLeakDetection; }
+    public int getTranscriptionMaxConcurrent() { return transcriptionMaxConcurrent; }
+    public double getTranscriptionRatePerSec() { return transcriptionRatePerSec; }
+    public int getTranscriptionMaxRetries() { return transcriptionMaxRetries; }
+    public double getTranscriptionBackoffBaseSec() { return transcriptionBackoffBaseSec; }
+    public boolean isTranscriptionDeferFinal() { return transcriptionDeferFinal; }
+    public double getTranscriptionCostPerMinute() { return transcriptionCostPerMinute; }
+    public boolean isAlignmentEnabled() { return alignmentEnabled; }
+    public double getAlignmentToleranceSec() { return alignmentToleranceSec; }
+    public double getAlignmentMinWordConfidence() { return alignmentMinWordConfidence; }
+    public double getAlignmentBeepWindowSec() { return alignmentBeepWindowSec; }
+    public int getClusterShards() { return clusterShards; }
+    public double getClusterLeaseSec() { return clusterLeaseSec; }
+    public double getClusterHeartbeatSec() { return clusterHeartbeatSec; }
+    public int getClusterMaxAttempts() { return clusterMaxAttempts; }
+    public String getResultsStoreDir() { return resultsStoreDir; }
+    public boolean isFingerprintEnabled() { return fingerprintEnabled; }
+    public int getFingerprintCacheEntries() { return fingerprintCacheEntries; }
+    public double getFingerprintMaxBitErrorRate() { return fingerprintMaxBitErrorRate; }
+    public double getFingerprintMaxOffsetSec() { return fingerprintMaxOffsetSec; }
+    public String getTraceDir() { return traceDir; }
+
+    /**
+     * Carrier thread count with 0 resolved to the number of available processors
+     */
+    public int resolveSessionCarrierThreads() {
+        return sessionCarrierThreads > 0 ? sessionCarrierThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public String getDeepgramApiKey() { return deepgramApiKey; }
+    public String getDeepgramUrl() { return deepgramUrl; }
+    public double getDeepgramConnectTimeoutSec() { return deepgramConnectTimeoutSec; }
+    public double getDeepgramReadTimeoutSec() { return deepgramReadTimeoutSec; }
+    public double getDeepgramCallTimeoutSec() { return deepgramCallTimeoutSec; }
+    public boolean isDeepgramHedgeEnabled() { return deepgramHedgeEnabled; }
+    public double getDeepgramHedgeMinDelaySec() { return deepgramHedgeMinDelaySec; }
+    public int getDeepgramBreakerFailures() { return deepgramBreakerFailures; }
+    public double getDeepgramBreakerOpenSec() { return deepgramBreakerOpenSec; }
+
+    public boolean hasDeepgramApiKey() {
+        return deepgramApiKey != null && !deepgramApiKey.isBlank()
+                && !deepgramApiKey.equals(Config.API_KEY_PLACEHOLDER);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "AnalyzerSettings[%s: silence=%.1fdB/%.2fs, speech=%.1fdB, beep=%.0f-%.0fHz %.2f-%.2fs >%.1fdB, " +
+                        "delays=%.2f/%.2f/%.2f/%.2fs]",
+                profileName, silenceThresholdDb, silenceDurationSec, speechThresholdDb,
+                beepMinFreqHz, beepMaxFreqHz, beepMinDurationSec, beepMaxDurationSec, beepPeakRatioDb,
+                postBeepDelaySec, noBeepShortDelaySec, noBeepLongDelaySec, beepWaitTimeoutSec);
+    }
+
+    /**
+     * Mutable builder; starts from {@link Config} defaults
+     */
+    public static final class Builder {
+        private String profileName = DEFAULT_PROFILE;
+        private int sampleRate = Config.SAMPLE_RATE;
+        private int frameSizeMs = Config.FRAME_SIZE_MS;
+        private int farEndChannel = Config.FAR_END_CHANNEL;
+        private double maxDurationSec = Config.MAX_DURATION_SEC;
+        private double silenceThresholdDb = Config.SILENCE_THRESHOLD_DB;
+        private double speechThresholdDb = Config.SPEECH_THRESHOLD_DB;
+        private double silenceDurationSec = Config.SILENCE_DURATION_SEC;
+        private double clickMaxSec = Config.CLICK_MAX_SEC;
+        private String greetingEndPolicy = Config.GREETING_END_POLICY;
+        private int fftSize = Config.FFT_SIZE;
+        private double beepMinFreqHz = Config.BEEP_MIN_FREQ_HZ;
+        private double beepMaxFreqHz = Config.BEEP_MAX_FREQ_HZ;
+        private double beepMinDurationSec = Config.BEEP_MIN_DURATION_SEC;
+        private double beepMaxDurationSec = Config.BEEP_MAX_DURATION_SEC;
+        private double beepPeakRatioDb = Config.BEEP_PEAK_RATIO_DB;
+        private double beepSearchWindowSec = Config.BEEP_SEARCH_WINDOW_SEC;
+        private double beepPreciseTimingSec = Config.BEEP_PRECISE_TIMING_SEC;
+        private double postBeepDelaySec = Config.POST_BEEP_DELAY_SEC;
+        private double precisePostBeepDelaySec = Config.PRECISE_POST_BEEP_DELAY_SEC;
+        private double noBeepShortDelaySec = Config.NO_BEEP_SHORT_DELAY_SEC;
+        private double noBeepLongDelaySec = Config.NO_BEEP_LONG_DELAY_SEC;
+        private double beepWaitTimeoutSec = Config.BEEP_WAIT_TIMEOUT_SEC;
+        private double maxComplianceRisk = Config.MAX_COMPLIANCE_RISK;
+        private double beepMissRate = Config.BEEP_MISS_RATE;
+        private boolean streamingDecisionEnabled = Config.STREAMING_DECISION_ENABLED;
+        private double streamingBeepStartWindowSec = Config.STREAMING_BEEP_START_WINDOW_SEC;
+        private double streamingMaxWaitSec = Config.STREAMING_MAX_WAIT_SEC;
+        private double highBeepProbability = Config.HIGH_BEEP_PROBABILITY;
+        private double mediumBeepProbability = Config.MEDIUM_BEEP_PROBABILITY;
+        private int sessionCarrierThreads = Config.SESSION_CARRIER_THREADS;
+        private int sessionQueueFrames = Config.SESSION_QUEUE_FRAMES;
+        private double sessionIdleTimeoutSec = Config.SESSION_IDLE_TIMEOUT_SEC;
+        private int sessionArenaMaxMb = Config.SESSION_ARENA_MAX_MB;
+        private boolean sessionArenaLeakDetection = Config.SESSION_ARENA_LEAK_DETECTION;
+        private int transcriptionMaxConcurrent = Config.TRANSCRIPTION_MAX_CONCURRENT;
+        private double transcriptionRatePerSec = Config.TRANSCRIPTION_RATE_PER_SEC;
+        private int transcriptionMaxRetries = Config.TRANSCRIPTION_MAX_RETRIES;
+        private double transcriptionBackoffBaseSec = Config.TRANSCRIPTION_BACKOFF_BASE_SEC;
+        private boolean transcriptionDeferFinal = Config.TRANSCRIPTION_DEFER_FINAL;
+        private double transcriptionCostPerMinute = Config.TRANSCRIPTION_COST_PER_MINUTE;
+        private boolean alignmentEnabled = Config.ALIGNMENT_ENABLED;
+        private double alignmentToleranceSec = Config.ALIGNMENT_TOLERANCE_SEC;
+        private double alignmentMinWordConfidence = Config.ALIGNMENT_MIN_WORD_CONFIDENCE;
+        private double alignmentBeepWindowSec = Config.ALIGNMENT_BEEP_WINDOW_SEC;
+        private int clusterShards = Config.CLUSTER_SHARDS;
+        private double clusterLeaseSec = Config.CLUSTER_LEASE_SEC;
+        private double clusterHeartbeatSec = Config.CLUSTER_HEARTBEAT_SEC;
+        private int clusterMaxAttempts = Config.CLUSTER_MAX_ATTEMPTS;
+        private String resultsStoreDir = Config.RESULTS_STORE_DIR;
+        private boolean fingerprintEnabled = Config.FINGERPRINT_ENABLED;
+        private int fingerprintCacheEntries = Config.FINGERPRINT_CACHE_ENTRIES;
+        private double fingerprintMaxBitErrorRate = Config.FINGERPRINT_MAX_BIT_ERROR_RATE;
+        private double fingerprintMaxOffsetSec = Config.FINGERPRINT_MAX_OFFSET_SEC;
+        private String traceDir = Config.TRACE_DIR;
+        private String deepgramApiKey = Config.API_KEY_PLACEHOLDER;
+        private String deepgramUrl = Config.DEEPGRAM_HTTP_URL;
+        private double deepgramConnectTimeoutSec = Config.DEEPGRAM_CONNECT_TIMEOUT_SEC;
+        private double deepgramReadTimeoutSec = Config.DEEPGRAM_READ_TIMEOUT_SEC;
+        private double deepgramCallTimeoutSec = Config.DEEPGRAM_CALL_TIMEOUT_SEC;
+        private boolean deepgramHedgeEnabled = Config.DEEPGRAM_HEDGE_ENABLED;
+        private double deepgramHedgeMinDelaySec = Config.DEEPGRAM_HEDGE_MIN_DELAY_SEC;
+        private int deepgramBreakerFailures = Config.DEEPGRAM_BREAKER_FAILURES;
+        private double deepgramBreakerOpenSec = Config.DEEPGRAM_BREAKER_OPEN_SEC;
+
+        private Builder() {
+        }
+
+        private Builder(AnalyzerSettings s) {
+            this.profileName = s.profileName;
+            this.sampleRate = s.sampleRate;
+            this.frameSizeMs = s.frameSizeMs;
+            this.farEndChannel = s.farEndChannel;
+            this.maxDurationSec = s.maxDurationSec;
+            this.silenceThresholdDb = s.silenceThresholdDb;
+            this.speechThresholdDb = s.speechThresholdDb;
+            this.silenceDurationSec = s.silenceDurationSec;
+            this.clickMaxSec = s.clickMaxSec;
+            this.greetingEndPolicy = s.greetingEndPolicy;
+            this.fftSize = s.fftSize;
+            this.beepMinFreqHz = s.beepMinFreqHz;
+            this.beepMaxFreqHz = s.beepMaxFreqHz;
+            this.beepMinDurationSec = s.beepMinDurationSec;
+            this.beepMaxDurationSec = s.beepMaxDurationSec;
+            this.beepPeakRatioDb = s.beepPeakRatioDb;
+            this.beepSearchWindowSec = s.beepSearchWindowSec;
+            this.beepPreciseTimingSec = s.beepPreciseTimingSec;
+            this.postBeepDelaySec = s.postBeepDelaySec;
+            this.precisePostBeepDelaySec = s.precisePostBeepDelaySec;
+            this.noBeepShortDelaySec = s.noBeepShortDelaySec;
+            this.noBeepLongDelaySec = s.noBeepLongDelaySec;
+            this.beepWaitTimeoutSec = s.beepWaitTimeoutSec;
+            this.maxComplianceRisk = s.maxComplianceRisk;
+            this.beepMissRate = s.beepMissRate;
+            this.streamingDecisionEnabled = s.streamingDecisionEnabled;
+            this.streamingBeepStartWindowSec = s.streamingBeepStartWindowSec;
+            this.streamingMaxWaitSec = s.streamingMaxWaitSec;
+            this.highBeepProbability = s.highBeepProbability;
+            this.mediumBeepProbability = s.mediumBeepProbability;
+            this.sessionCarrierThreads = s.sessionCarrierThreads;
+            this.sessionQueueFrames = s.sessionQueueFrames;
+            this.sessionIdleTimeoutSec = s.sessionIdleTimeoutSec;
+            this.sessionArenaMaxMb = s.sessionArenaMaxMb;
+            this.sessionArenaLeakDetection = s.sessionArenaLeakDetection;
+            this.transcriptionMaxConcurrent = s.transcriptionMaxConcurrent;
+            this.transcriptionRatePerSec = s.transcriptionRatePerSec;
+            this.transcriptionMaxRetries = s.transcriptionMaxRetries;
+            this.transcriptionBackoffBaseSec = s.transcriptionBackoffBaseSec;
+            this.transcriptionDeferFinal = s.transcriptionDeferFinal;
+            this.transcriptionCostPerMinute = s.transcriptionCostPerMinute;
+            this.alignmentEnabled = s.alignmentEnabled;
+            this.alignmentToleranceSec = s.alignmentToleranceSec;
+            this.alignmentMinWordConfidence = s.alignmentMinWordConfidence;
+            this.alignmentBeepWindowSec = s.alignmentBeepWindowSec;
+            this.clusterShards = s.clusterShards;
+            this.clusterLeaseSec = s.clusterLeaseSec;
+            this.clusterHeartbeatSec = s.clusterHeartbeatSec;
+            this.clusterMaxAttempts = s.clusterMaxAttempts;
+            this.resultsStoreDir = s.resultsStoreDir;
+            this.fingerprintEnabled = s.fingerprintEnabled;
+            this.fingerprintCacheEntries = s.fingerprintCacheEntries;
+            this.fingerprintMaxBitErrorRate = s.fingerprintMaxBitErrorRate;
+            this.fingerprintMaxOffsetSec = s.fingerprintMaxOffsetSec;
+            this.traceDir = s.traceDir;
+            this.deepgramApiKey = s.deepgramApiKey;
+            this.deepgramUrl = s.deepgramUrl;
+            this.deepgramConnectTimeoutSec = s.deepgramConnectTimeoutSec;
+            this.deepgramReadTimeoutSec = s.deepgramReadTimeoutSec;
+            this.deepgramCallTimeoutSec = s.deepgramCallTimeoutSec;
+            this.deepgramHedgeEnabled = s.deepgramHedgeEnabled;
+            this.deepgramHedgeMinDelaySec = s.deepgramHedgeMinDelaySec;
+            this.deepgramBreakerFailures = s.deepgramBreakerFailures;
+            this.deepgramBreakerOpenSec = s.deepgramBreakerOpenSec;
+        }
+
+        public Builder profileName(String v) { this.profileName = v; return this; }
+        public Builder sampleRate(int v) { this.sampleRate = v; return this; }
+        public Builder frameSizeMs(int v) { this.frameSizeMs = v; return this; }
+        public Builder farEndChannel(int v) { this.farEndChannel = v; return this; }
+        public Builder maxDurationSec(double v) { this.maxDurationSec = v; return this; }
+        public Builder silenceThresholdDb(double v) { this.silenceThresholdDb = v; return this; }
+        public Builder speechThresholdDb(double v) { this.speechThresholdDb = v; return this; }
+        public Builder silenceDurationSec(double v) { this.silenceDurationSec = v; return this; }
+        public Builder clickMaxSec(double v) { this.clickMaxSec = v; return this; }
+        public Builder greetingEndPolicy(String v) { this.greetingEndPolicy = v; return this; }
+        public Builder fftSize(int v) { this.fftSize = v; return this; }
+        public Builder beepMinFreqHz(double v) { this.beepMinFreqHz = v; return this; }
+        public Builder beepMaxFreqHz(double v) { this.beepMaxFreqHz = v; return this; }
+        public Builder beepMinDurationSec(double v) { this.beepMinDurationSec = v; return this; }
+        public Builder beepMaxDurationSec(double v) { this.beepMaxDurationSec = v; return this; }
+        public Builder beepPeakRatioDb(double v) { this.beepPeakRatioDb = v; return this; }
+        public Builder beepSearchWindowSec(double v) { this.beepSearchWindowSec = v; return this; }
+        public Builder beepPreciseTimingSec(double v) { this.beepPreciseTimingSec = v; return this; }
+        public Builder postBeepDelaySec(double v) { this.postBeepDelaySec = v; return this; }
+        public Builder precisePostBeepDelaySec(double v) { this.precisePostBeepDelaySec = v; return this; }
+        public Builder noBeepShortDelaySec(double v) { this.noBeepShortDelaySec = v; return this; }
+        public Builder noBeepLongDelaySec(double v) { this.noBeepLongDelaySec = v; return this; }
+        public Builder beepWaitTimeoutSec(double v) { this.beepWaitTimeoutSec = v; return this; }
+        public Builder maxComplianceRisk(double v) { this.maxComplianceRisk = v; return this; }
+        public Builder beepMissRate(double v) { this.beepMissRate = v; return this; }
+        public Builder streamingDecisionEnabled(boolean v) { this.streamingDecisionEnabled = v; return this; }
+        public Builder streamingBeepStartWindowSec(double v) { this.streamingBeepStartWindowSec = v; return this; }
+        public Builder streamingMaxWaitSec(double v) { this.streamingMaxWaitSec = v; return this; }
+        public Builder highBeepProbability(double v) { this.highBeepProbability = v; return this; }
+        public Builder mediumBeepProbability(double v) { this.mediumBeepProbability = v; return this; }
+        public Builder sessionCarrierThreads(int v) { this.sessionCarrierThreads = v; return this; }
+        public Builder sessionQueueFrames(int v) { this.sessionQueueFrames = v; return this; }
+        public Builder sessionIdleTimeoutSec(double v) { this.sessionIdleTimeoutSec = v; return this; }
+        public Builder sessionArenaMaxMb(int v) { this.sessionArenaMaxMb = v; return this; }
+        public Builder sessionArenaLeakDetection(boolean v) { this.sessionArenaLeakDetection = v; return this; }
+        public Builder transcriptionMaxConcurrent(int v) { this.transcriptionMaxConcurrent = v; return this; }
+        public Builder transcriptionRatePerSec(double v) { this.transcriptionRatePerSec = v; return this; }
+        public Builder transcriptionMaxRetries(int v) { this.transcriptionMaxRetries = v; return this; }
+        public Builder transcriptionBackoffBaseSec(double v) { this.transcriptionBackoffBaseSec = v; return this; }
+        public Builder transcriptionDeferFinal(boolean v) { this.transcriptionDeferFinal = v; return this; }
+        public Builder transcriptionCostPerMinute(double v) { this.transcriptionCostPerMinute = v; return this; }
+        public Builder alignmentEnabled(boolean v) { this.alignmentEnabled = v; return this; }
+        public Builder alignmentToleranceSec(double v) { this.alignmentToleranceSec = v; return this; }
+        public Builder alignmentMinWordConfidence(double v) { this.alignmentMinWordConfidence = v; return this; }
+        public Builder alignmentBeepWindowSec(double v) { this.alignmentBeepWindowSec = v; return this; }
+        public Builder clusterShards(int v) { this.clusterShards = v; return this; }
+        public Builder clusterLeaseSec(double v) { this.clusterLeaseSec = v; return this; }
+        public Builder clusterHeartbeatSec(double v) { this.clusterHeartbeatSec = v; return this; }
+        public Builder clusterMaxAttempts(int v) { this.clusterMaxAttempts = v; return this; }
+        public Builder resultsStoreDir(String v) { this.resultsStoreDir = v; return this; }
+        public Builder fingerprintEnabled(boolean v) { this.fingerprintEnabled = v; return this; }
+        public Builder fingerprintCacheEntries(int v) { this.fingerprintCacheEntries = v; return this; }
+        public Builder fingerprintMaxBitErrorRate(double v) { this.fingerprintMaxBitErrorRate = v; return this; }
+        public Builder fingerprintMaxOffsetSec(double v) { this.fingerprintMaxOffsetSec = v; return this; }
+        public Builder traceDir(String v) { this.traceDir = v; return this; }
+        public Builder deepgramApiKey(String v) { this.deepgramApiKey = v; return this; }
+        public Builder deepgramUrl(String v) { this.deepgramUrl = v; return this; }
+        public Builder deepgramConnectTimeoutSec(double v) { this.deepgramConnectTimeoutSec = v; return this; }
+        public Builder deepgramReadTimeoutSec(double v) { this.deepgramReadTimeoutSec = v; return this; }
+        public Builder deepgramCallTimeoutSec(double v) { this.deepgramCallTimeoutSec = v; return this; }
+        public Builder deepgramHedgeEnabled(boolean v) { this.deepgramHedgeEnabled = v; return this; }
+        public Builder deepgramHedgeMinDelaySec(double v) { this.deepgramHedgeMinDelaySec = v; return this; }
+        public Builder deepgramBreakerFailures(int v) { this.deepgramBreakerFailures = v; return this; }
+        public Builder deepgramBreakerOpenSec(double v) { this.deepgramBreakerOpenSec = v; return this; }
+
+        /**
+         * Apply a single property by key (see class docs for the key names)
+         *
+         * @throws IllegalArgumentException for unknown keys or unparsable values
+         */
+        public Builder set(String key, String value) {
+            if (!apply(key, value)) {
+                throw new IllegalArgumentException("Unknown setting: " + key);
+            }
+            return this;
+        }
+
+        /**
+         * Apply a single property if the key is known
+         *
+         * @return false if the key is not a setting, leaving the builder unchanged
+         * @throws IllegalArgumentException for unparsable values
+         */
+        private boolean apply(String key, String value) {
+            String v = value.trim();
+            try {
+                switch (key) {
+                    case "audio.sample.rate" -> sampleRate = Integer.parseInt(v);
+                    case "audio.frame.size.ms" -> frameSizeMs = Integer.parseInt(v);
+                    case "audio.far.end.channel" -> farEndChannel = Integer.parseInt(v);
+                    case "audio.max.duration.sec" -> maxDurationSec = Double.parseDouble(v);
+                    case "energy.silence.threshold.db" -> silenceThresholdDb = Double.parseDouble(v);
+                    case "energy.speech.threshold.db" -> speechThresholdDb = Double.parseDouble(v);
+                    case "energy.silence.duration.sec" -> silenceDurationSec = Double.parseDouble(v);
+                    case "energy.click.max.sec" -> clickMaxSec = Double.parseDouble(v);
+                    case "energy.greeting.end.policy" -> greetingEndPolicy = v;
+                    case "beep.fft.size" -> fftSize = Integer.parseInt(v);
+                    case "beep.min.freq.hz" -> beepMinFreqHz = Double.parseDouble(v);
+                    case "beep.max.freq.hz" -> beepMaxFreqHz = Double.parseDouble(v);
+                    case "beep.min.duration.sec" -> beepMinDurationSec = Double.parseDouble(v);
+                    case "beep.max.duration.sec" -> beepMaxDurationSec = Double.parseDouble(v);
+                    case "beep.peak.ratio.db" -> beepPeakRatioDb = Double.parseDouble(v);
+                    case "beep.search.window.sec" -> beepSearchWindowSec = Double.parseDouble(v);
+                    case "beep.precise.timing.sec" -> beepPreciseTimingSec = Double.parseDouble(v);
+                    case "decision.post.beep.delay.sec" -> postBeepDelaySec = Double.parseDouble(v);
+                    case "decision.precise.post.beep.delay.sec" -> precisePostBeepDelaySec = Double.parseDouble(v);
+                    case "decision.no.beep.short.delay.sec" -> noBeepShortDelaySec = Double.parseDouble(v);
+                    case "decision.no.beep.long.delay.sec" -> noBeepLongDelaySec = Double.parseDouble(v);
+                    case "decision.beep.wait.timeout.sec" -> beepWaitTimeoutSec = Double.parseDouble(v);
+                    case "decision.max.compliance.risk" -> maxComplianceRisk = Double.parseDouble(v);
+                    case "decision.beep.miss.rate" -> beepMissRate = Double.parseDouble(v);
+                    case "decision.streaming.enabled" -> streamingDecisionEnabled = Boolean.parseBoolean(v);
+                    case "decision.streaming.beep.start.window.sec" -> streamingBeepStartWindowSec = Double.parseDouble(v);
+                    case "decision.streaming.max.wait.sec" -> streamingMaxWaitSec = Double.parseDouble(v);
+                    case "transcript.high.beep.probability" -> highBeepProbability = Double.parseDouble(v);
+                    case "transcript.medium.beep.probability" -> mediumBeepProbability = Double.parseDouble(v);
+                    case "session.carrier.threads" -> sessionCarrierThreads = Integer.parseInt(v);
+                    case "session.queue.frames" -> sessionQueueFrames = Integer.parseInt(v);
+                    case "session.idle.timeout.sec" -> sessionIdleTimeoutSec = Double.parseDouble(v);
+                    case "session.arena.max.mb" -> sessionArenaMaxMb = Integer.parseInt(v);
+                    case "session.arena.leak.detection" -> sessionArenaLeakDetection = Boolean.parseBoolean(v);
+                    case "transcription.max.concurrent" -> transcriptionMaxConcurrent = Integer.parseInt(v);
+                    case "transcription.rate.per.sec" -> transcriptionRatePerSec = Double.parseDouble(v);
+                    case "transcription.max.retries" -> transcriptionMaxRetries = Integer.parseInt(v);
+                    case "transcription.backoff.base.sec" -> transcriptionBackoffBaseSec = Double.parseDouble(v);
+                    case "transcription.defer.final" -> transcriptionDeferFinal = Boolean.parseBoolean(v);
+                    case "transcription.cost.per.minute" -> transcriptionCostPerMinute = Double.parseDouble(v);
+                    case "alignment.enabled" -> alignmentEnabled = Boolean.parseBoolean(v);
+                    case "alignment.tolerance.sec" -> alignmentToleranceSec = Double.parseDouble(v);
+                    case "alignment.min.word.confidence" -> alignmentMinWordConfidence = Double.parseDouble(v);
+                    case "alignment.beep.window.sec" -> alignmentBeepWindowSec = Double.parseDouble(v);
+                    case "cluster.shards" -> clusterShards = Integer.parseInt(v);
+                    case "cluster.lease.sec" -> clusterLeaseSec = Double.parseDouble(v);
+                    case "cluster.heartbeat.sec" -> clusterHeartbeatSec = Double.parseDouble(v);
+                    case "cluster.max.attempts" -> clusterMaxAttempts = Integer.parseInt(v);
+                    case "results.store.dir" -> resultsStoreDir = v;
+                    case "fingerprint.enabled" -> fingerprintEnabled = Boolean.parseBoolean(v);
+                    case "fingerprint.cache.entries" -> fingerprintCacheEntries = Integer.parseInt(v);
+                    case "fingerprint.max.bit.error.rate" -> fingerprintMaxBitErrorRate = Double.parseDouble(v);
+                    case "fingerprint.max.offset.sec" -> fingerprintMaxOffsetSec = Double.parseDouble(v);
+                    case "trace.dir" -> traceDir = v;
+                    case "deepgram.api.key" -> deepgramApiKey = v;
+                    case "deepgram.url" -> deepgramUrl = v;
+                    case "deepgram.connect.timeout.sec" -> deepgramConnectTimeoutSec = Double.parseDouble(v);
+                    case "deepgram.read.timeout.sec" -> deepgramReadTimeoutSec = Double.parseDouble(v);
+                    case "deepgram.call.timeout.sec" -> deepgramCallTimeoutSec = Double.parseDouble(v);
+                    case "deepgram.hedge.enabled" -> deepgramHedgeEnabled = Boolean.parseBoolean(v);
+                    case "deepgram.hedge.min.delay.sec" -> deepgramHedgeMinDelaySec = Double.parseDouble(v);
+                    case "deepgram.breaker.failures" -> deepgramBreakerFailures = Integer.parseInt(v);
+                    case "deepgram.breaker.open.sec" -> deepgramBreakerOpenSec = Double.parseDouble(v);
+                    default -> {
+                        return false;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + key + ": '" + value + "'", e);
+            }
+            return true;
+        }
+
+        /**
+         * Apply every key in {@code props} that is not a profile override
+         */
+        public Builder applyProperties(Properties props) {
+            for (String key : props.stringPropertyNames()) {
+                if (!key.startsWith("profile.")) {
+                    set(key, props.getProperty(key));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Apply {@code profile.<name>.<key>} overrides for the given profile
+         */
+        public Builder applyProfile(Properties props, String profile) {
+            String prefix = "profile." + profile + ".";
+            for (String key : props.stringPropertyNames()) {
+                if (key.startsWith(prefix)) {
+                    set(key.substring(prefix.length()), props.getProperty(key));
+                }
+            }
+            return profileName(profile);
+        }
+
+        /**
+         * Apply environment overrides. A key such as {@code beep.peak.ratio.db} is read from
+         * {@code CLEARPATH_BEEP_PEAK_RATIO_DB}; the API key is also read from {@code DEEPGRAM_API_KEY}.
+         * Unlike the properties file, a {@code CLEARPATH_*} variable that names no setting is
+         * logged and skipped, since the environment is shared with unrelated tooling.
+         */
+        public Builder applyEnvironment(Map<String, String> env) {
+            String apiKey = env.get("DEEPGRAM_API_KEY");
+            if (apiKey != null && !apiKey.isBlank()) {
+                deepgramApiKey = apiKey;
+            }
+            for (Map.Entry<String, String> e : env.entrySet()) {
+                if (e.getKey().startsWith("CLEARPATH_") && !e.getKey().equals("CLEARPATH_CONFIG")) {
+                    String key = e.getKey().substring("CLEARPATH_".length())
+                            .toLowerCase(Locale.ROOT).replace('_', '.');
+                    if (!apply(key, e.getValue())) {
+                        logger.warn("Ignoring {}: no setting named '{}'", e.getKey(), key);
+                    }
+                }
+            }
+            return this;
+        }
+
+        public AnalyzerSettings build() {
+            if (sampleRate <= 0 || frameSizeMs <= 0) {
+                throw new IllegalArgumentException("Sample rate and frame size must be positive");
+            }
+            if (farEndChannel < 0) {
+                throw new IllegalArgumentException("Far-end channel must not be negative");
+            }
+            if (Integer.bitCount(fftSize) != 1) {
+                throw new IllegalArgumentException("FFT size must be a power of two: " + fftSize);
+            }
+            if (beepMinFreqHz >= beepMaxFreqHz || beepMinDurationSec >= beepMaxDurationSec) {
+                throw new IllegalArgumentException("Beep min bounds must be below max bounds");
+            }
+            if (maxComplianceRisk <= 0 || maxComplianceRisk >= 1 || beepMissRate <= 0 || beepMissRate >= 1) {
+                throw new IllegalArgumentException("Compliance risk and beep miss rate must be between 0 and 1");
+            }
+            if (streamingBeepStartWindowSec <= 0 || streamingMaxWaitSec <= 0) {
+                throw new IllegalArgumentException("Streaming beep start window and maximum wait must be positive");
+            }
+            if (precisePostBeepDelaySec > postBeepDelaySec) {
+                throw new IllegalArgumentException("Precise post-beep delay must not exceed the post-beep delay");
+            }
+            if (sessionCarrierThreads < 0 || Integer.bitCount(sessionQueueFrames) != 1) {
+                throw new IllegalArgumentException("Session carrier threads must not be negative and the queue size " +
+                        "must be a power of two");
+            }
+            if (sessionArenaMaxMb <= 0) {
+                throw new IllegalArgumentException("Session arena budget must be positive");
+            }
+            if (clusterShards < 1 || clusterMaxAttempts < 1 || clusterHeartbeatSec <= 0
+                    || clusterLeaseSec <= clusterHeartbeatSec) {
+                throw new IllegalArgumentException("Cluster shards and attempts must be positive and the lease must " +
+                        "be longer than the heartbeat interval");
+            }
+            if (fingerprintCacheEntries < 1 || fingerprintMaxBitErrorRate < 0 || fingerprintMaxBitErrorRate >= 0.5
+                    || fingerprintMaxOffsetSec < 0) {
+                throw new IllegalArgumentException("Fingerprint cache must hold at least one entry, the bit error rate " +
+                        "must be below 0.5 (chance) and the offset must not be negative");
+            }
+            if (clickMaxSec < 0 || !(greetingEndPolicy.equals("first-silence")
+                    || greetingEndPolicy.equals("longest-silence") || greetingEndPolicy.equals("last-speech"))) {
+                throw new IllegalArgumentException("Click length must not be negative and the greeting end policy " +
+                        "must be first-silence, longest-silence or last-speech: " + greetingEndPolicy);
+            }
+            if (deepgramConnectTimeoutSec <= 0 || deepgramReadTimeoutSec <= 0 || deepgramCallTimeoutSec <= 0
+                    || deepgramBreakerFailures < 1 || deepgramBreakerOpenSec <= 0) {
+                throw new IllegalArgumentException("Deepgram timeouts, breaker threshold and open time must be positive");
+            }
+            if (transcriptionMaxConcurrent < 1 || transcriptionRatePerSec <= 0 || transcriptionMaxRetries < 0) {
+                throw new IllegalArgumentException("Transcription concurrency and rate must be positive, " +
+                        "retries not negative");
+            }
+            if (alignmentToleranceSec < 0 || alignmentMinWordConfidence < 0 || alignmentMinWordConfidence > 1
+                    || alignmentBeepWindowSec <= 0) {
+                throw new IllegalArgumentException("Alignment tolerance must not be negative, word confidence must be " +
+                        "in [0, 1] and the beep window positive");
+            }
+            if (silenceThresholdDb > speechThresholdDb) {
+                throw new IllegalArgumentException("Silence threshold must not exceed speech threshold");
+            }
+            return new AnalyzerSettings(this);
+        }
+    }
+}
@@ -1,19 +1,23 @@
 package com.clearpath.config;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
-
+/**
+ * Compiled-in defaults. Runtime code reads these through {@link AnalyzerSettings}
+ * (see {@link SettingsProvider} for file/environment overrides and hot reload).
+ */
 public class Config {
     // Audio Processing
     public static final int SAMPLE_RATE = 16000;
     public static final int FRAME_SIZE_MS = 20;
     public static final int FRAME_SIZE_SAMPLES = (SAMPLE_RATE * FRAME_SIZE_MS) / 1000;
+    public static final int FAR_END_CHANNEL = 1;  // Stereo call recordings: 0 = agent, 1 = far end
+    public static final double MAX_DURATION_SEC = 120.0;  // Decode at most this much of each recording (0 = all)
 
     // Energy Detection (Silence)
     public static final double SILENCE_THRESHOLD_DB = -50.0;
     public static final double SPEECH_THRESHOLD_DB = -40.0;
     public static final double SILENCE_DURATION_SEC = 1.0;
+    public static final double CLICK_MAX_SEC = 0.1;                  // Sound shorter than this inside silence is a click
+    public static final String GREETING_END_POLICY = "first-silence"; // first-silence, longest-silence or last-speech
 
     // Beep Detection
     public static final int FFT_SIZE = 1024;
@@ -22,51 +26,75 @@ public class Config {
     public static final double BEEP_MIN_DURATION_SEC = 0.5;
     public static final double BEEP_MAX_DURATION_SEC = 2.5;
     public static final double BEEP_PEAK_RATIO_DB = 15.0;
+    public static final double BEEP_SEARCH_WINDOW_SEC = 5.0;
+    public static final double BEEP_PRECISE_TIMING_SEC = 0.005;  // Edge uncertainty that counts as precise
 
     // Decision Timing
     public static final double POST_BEEP_DELAY_SEC = 0.5;
+    public static final double PRECISE_POST_BEEP_DELAY_SEC = 0.15;  // Used when beep edges are precise
     public static final double NO_BEEP_SHORT_DELAY_SEC = 1.0;
     public static final double NO_BEEP_LONG_DELAY_SEC = 3.0;
     public static final double BEEP_WAIT_TIMEOUT_SEC = 3.0;
+    public static final double MAX_COMPLIANCE_RISK = 0.05;  // Accepted probability of starting before a late beep
+    public static final double BEEP_MISS_RATE = 0.10;       // P(detector misses | beep present)
+    public static final boolean STREAMING_DECISION_ENABLED = false;    // Live calls commit once a beep is unlikely
+    public static final double STREAMING_BEEP_START_WINDOW_SEC = 1.5;  // Beeps start within this long of the greeting end
+    public static final double STREAMING_MAX_WAIT_SEC = 3.0;           // Latest streaming start after the greeting end
 
     // Pattern Matching
     public static final double HIGH_BEEP_PROBABILITY = 0.75;
     public static final double MEDIUM_BEEP_PROBABILITY = 0.50;
 
-    // Deepgram API - Loaded from properties file
-    public static final String DEEPGRAM_API_KEY = loadDeepgramKey();
-    public static final String DEEPGRAM_WS_URL = "wss://api.deepgram.com/v1/listen?punctuate=true&model=nova-2";
+    // Live Sessions
+    public static final int SESSION_CARRIER_THREADS = 0;          // 0 = one per available processor
+    public static final int SESSION_QUEUE_FRAMES = 16;            // Per-call frame queue (power of two)
+    public static final double SESSION_IDLE_TIMEOUT_SEC = 10.0;   // Evict calls that stop sending audio
+    public static final int SESSION_ARENA_MAX_MB = 256;           // Off-heap frame buffer budget for live calls
+    public static final boolean SESSION_ARENA_LEAK_DETECTION = false; // Record lease sites, report held buffers
 
-    /**
-     * Load Deepgram API key from application.properties
-     */
-    private static String loadDeepgramKey() {
-        try (InputStream input = Config.class.getClassLoader()
-                .getResourceAsStream("application.properties")) {
+    // Transcription Scheduling
+    public static final int TRANSCRIPTION_MAX_CONCURRENT = 4;     // Parallel STT requests
+    public static final double TRANSCRIPTION_RATE_PER_SEC = 5.0;  // STT requests started per second
+    public static final int TRANSCRIPTION_MAX_RETRIES = 3;        // Retries on 429/5xx
+    public static final double TRANSCRIPTION_BACKOFF_BASE_SEC = 0.5; // First retry waits up to this long, doubling
+    public static final boolean TRANSCRIPTION_DEFER_FINAL = false; // Still transcribe final decisions, after the rest
+    public static final double TRANSCRIPTION_COST_PER_MINUTE = 0.0043; // USD per audio minute, for spend reports
 
-            if (input == null) {
-                System.err.println("ERROR: application.properties not found!");
-                System.err.println("Please copy application.properties.example to application.properties");
-                System.err.println("and add your Deepgram API key.");
-                return "YOUR_API_KEY_HERE";
-            }
+    // Transcript Alignment
+    public static final boolean ALIGNMENT_ENABLED = true;         // Reconcile greeting end and beep window with word timings
+    public static final double ALIGNMENT_TOLERANCE_SEC = 0.3;     // Last word vs energy greeting end: agreement band
+    public static final double ALIGNMENT_MIN_WORD_CONFIDENCE = 0.5; // Words below this don't move the greeting end
+    public static final double ALIGNMENT_BEEP_WINDOW_SEC = 2.5;   // Beep search span once "after the beep" is timed
 
-            Properties prop = new Properties();
-            prop.load(input);
+    // Cluster Batch Processing
+    public static final int CLUSTER_SHARDS = 16;                  // Manifest split: more shards than workers evens out the tail
+    public static final double CLUSTER_LEASE_SEC = 30.0;          // Shard lease; expires without a heartbeat, then re-leased
+    public static final double CLUSTER_HEARTBEAT_SEC = 5.0;       // Worker heartbeat interval (well under the lease)
+    public static final int CLUSTER_MAX_ATTEMPTS = 3;             // Leases per shard before it is given up
 
-            String apiKey = prop.getProperty("deepgram.api.key");
+    // Result Store
+    public static final String RESULTS_STORE_DIR = "";            // Columnar result store appended after each run (empty: off)
 
-            if (apiKey == null || apiKey.equals("YOUR_DEEPGRAM_API_KEY_HERE")) {
-                System.err.println("ERROR: Deepgram API key not configured!");
-                System.err.println("Edit src/main/resources/application.properties");
-                return "YOUR_API_KEY_HERE";
-            }
+    // Greeting Fingerprint
+    public static final boolean FINGERPRINT_ENABLED = false;      // Reuse decisions for greetings heard before (opt-in)
+    public static final int FINGERPRINT_CACHE_ENTRIES = 5000;     // Greetings kept (least recently used evicted)
+    public static final double FINGERPRINT_MAX_BIT_ERROR_RATE = 0.25; // Fuzzy match: share of fingerprint bits allowed to differ
+    public static final double FINGERPRINT_MAX_OFFSET_SEC = 0.5;  // Fuzzy match: largest start offset between two copies
 
-            return apiKey;
+    // Tracing
+    public static final String TRACE_DIR = "";                    // Chrome trace-event JSON of each batch written here (empty: off)
+
+    // Deepgram API - key is supplied via application.properties or DEEPGRAM_API_KEY
+    public static final String API_KEY_PLACEHOLDER = "YOUR_DEEPGRAM_API_KEY_HERE";
+    public static final String DEEPGRAM_HTTP_URL = "https://api.deepgram.com/v1/listen?punctuate=true&model=nova-2";
+    public static final String DEEPGRAM_WS_URL = "wss://api.deepgram.com/v1/listen?punctuate=true&model=nova-2";
 
-        } catch (IOException e) {
-            System.err.println("Error loading application.properties: " + e.getMessage());
-            return "YOUR_API_KEY_HERE";
-        }
-    }
+    // Deepgram HTTP resilience
+    public static final double DEEPGRAM_CONNECT_TIMEOUT_SEC = 5.0; // TCP + TLS setup
+    public static final double DEEPGRAM_READ_TIMEOUT_SEC = 30.0;  // Max gap between response bytes
+    public static final double DEEPGRAM_CALL_TIMEOUT_SEC = 45.0;  // Deadline for one request, end to end
+    public static final boolean DEEPGRAM_HEDGE_ENABLED = true;    // Second request once the first passes p95 latency
+    public static final double DEEPGRAM_HEDGE_MIN_DELAY_SEC = 1.0; // Never hedge sooner than this
+    public static final int DEEPGRAM_BREAKER_FAILURES = 5;        // Consecutive failures that open the circuit
+    public static final double DEEPGRAM_BREAKER_OPEN_SEC = 30.0;  // Fail fast this long before a trial request
 }
@@ -0,0 +1,242 @@
+package com.clearpath.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads {@link AnalyzerSettings} from a properties file plus the environment and
+ * keeps one immutable snapshot per profile (tenant or carrier).
+ *
+ * <p>Layering, lowest to highest priority: {@link Config} defaults, base keys of the
+ * file, {@code CLEARPATH_*} environment variables, then {@code profile.<name>.*} keys.</p>
+ *
+ * <p>Reloads build a complete new set of snapshots and swap them in atomically.
+ * Callers take one snapshot per analysis ({@link #current()} / {@link #forProfile(String)})
+ * so in-flight work is never affected by a reload. A file that fails to parse
+ * is logged and the previous snapshot stays active.</p>
+ */
+public class SettingsProvider implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SettingsProvider.class);
+
+    public static final String CONFIG_PROPERTY = "clearpath.config";
+    public static final String CONFIG_ENV = "CLEARPATH_CONFIG";
+    private static final String CLASSPATH_RESOURCE = "application.properties";
+
+    private final Path configFile;  // null when settings come from the classpath or are fixed
+    private final Map<String, String> env;
+    private final AtomicReference<Map<String, AnalyzerSettings>> profiles = new AtomicReference<>();
+
+    private volatile WatchService watchService;
+    private volatile long generation;
+
+    private SettingsProvider(Path configFile, Map<String, String> env) {
+        this.configFile = configFile;
+        this.env = env;
+    }
+
+    /**
+     * Resolve the config file from {@code -Dclearpath.config}, then {@code CLEARPATH_CONFIG},
+     * falling back to {@code application.properties} on the classpath.
+     */
+    public static SettingsProvider fromDefaultLocation() {
+        String location = System.getProperty(CONFIG_PROPERTY, System.getenv(CONFIG_ENV));
+        if (location != null && !location.isBlank()) {
+            return fromFile(Paths.get(location));
+        }
+        SettingsProvider provider = new SettingsProvider(null, System.getenv());
+        provider.install(provider.loadClasspath());
+        return provider;
+    }
+
+    public static SettingsProvider fromFile(Path file) {
+        SettingsProvider provider = new SettingsProvider(file.toAbsolutePath(), System.getenv());
+        if (!provider.reload()) {
+            logger.warn("Falling back to built-in defaults plus environment until {} can be loaded", file);
+            provider.install(provider.buildProfiles(new Properties()));
+        }
+        return provider;
+    }
+
+    /**
+     * Provider that always returns the given settings (used for sweeps and benchmarks)
+     */
+    public static SettingsProvider fixed(AnalyzerSettings settings) {
+        SettingsProvider provider = new SettingsProvider(null, Map.of());
+        provider.install(Map.of(AnalyzerSettings.DEFAULT_PROFILE, settings));
+        return provider;
+    }
+
+    /**
+     * Current snapshot of the default profile
+     */
+    public AnalyzerSettings current() {
+        return profiles.get().get(AnalyzerSettings.DEFAULT_PROFILE);
+    }
+
+    /**
+     * Current snapshot for a tenant/carrier profile; unknown or null names get the default profile
+     */
+    public AnalyzerSettings forProfile(String profile) {
+        Map<String, AnalyzerSettings> snapshot = profiles.get();
+        if (profile == null) {
+            return snapshot.get(AnalyzerSettings.DEFAULT_PROFILE);
+        }
+        return snapshot.getOrDefault(profile, snapshot.get(AnalyzerSettings.DEFAULT_PROFILE));
+    }
+
+    public Set<String> getProfileNames() {
+        return profiles.get().keySet();
+    }
+
+    /**
+     * Number of successful loads so far (useful for logging which snapshot a result used)
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Re-read the config file and swap in the new snapshots.
+     *
+     * @return true if the file was loaded, false if the previous snapshot was kept
+     */
+    public boolean reload() {
+        if (configFile == null) {
+            return false;
+        }
+        Properties props = new Properties();
+        try (InputStream input = Files.newInputStream(configFile)) {
+            props.load(input);
+            install(buildProfiles(props));
+            logger.info("Loaded settings from {} (generation {}, profiles {})",
+                    configFile, generation, getProfileNames());
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("Could not load settings from {}: {}", configFile, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Watch the config file and reload on change. No-op for classpath or fixed settings.
+     */
+    public synchronized void startWatching() throws IOException {
+        if (configFile == null || watchService != null) {
+            return;
+        }
+        Path dir = configFile.getParent();
+        WatchService ws = FileSystems.getDefault().newWatchService();
+        dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchService = ws;
+
+        Thread watcher = new Thread(() -> watchLoop(ws), "settings-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching {} for changes", configFile);
+    }
+
+    private void watchLoop(WatchService ws) {
+        Path fileName = configFile.getFileName();
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    // Editors often write in several steps; let the file settle before reading it
+                    Thread.sleep(100);
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close() was called
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.warn("Error closing settings watcher: {}", e.getMessage());
+            }
+            watchService = null;
+        }
+    }
+
+    private Map<String, AnalyzerSettings> buildProfiles(Properties props) {
+        AnalyzerSettings base = AnalyzerSettings.builder()
+                .applyProperties(props)
+                .applyEnvironment(env)
+                .build();
+
+        Map<String, AnalyzerSettings> result = new HashMap<>();
+        result.put(AnalyzerSettings.DEFAULT_PROFILE, base);
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith("profile.")) {
+                int end = key.indexOf('.', "profile.".length());
+                if (end < 0) {
+                    throw new IllegalArgumentException("Malformed profile key: " + key);
+                }
+                String profile = key.substring("profile.".length(), end);
+                if (!result.containsKey(profile)) {
+                    result.put(profile, base.toBuilder().applyProfile(props, profile).build());
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<String, AnalyzerSettings> loadClasspath() {
+        Properties props = new Properties();
+        try (InputStream input = SettingsProvider.class.getClassLoader()
+                .getResourceAsStream(CLASSPATH_RESOURCE)) {
+            if (input == null) {
+                logger.warn("{} not found on classpath; using built-in defaults", CLASSPATH_RESOURCE);
+                logger.warn("Copy application.properties.example to application.properties " +
+                        "or set DEEPGRAM_API_KEY to enable transcription");
+            } else {
+                props.load(input);
+            }
+        } catch (IOException e) {
+            logger.error("Error loading {}: {}", CLASSPATH_RESOURCE, e.getMessage());
+        }
+        Map<String, AnalyzerSettings> result = buildProfiles(props);
+        if (!result.get(AnalyzerSettings.DEFAULT_PROFILE).hasDeepgramApiKey()) {
+            logger.error("Deepgram API key not configured! Edit src/main/resources/application.properties " +
+                    "or set DEEPGRAM_API_KEY");
+        }
+        return result;
+    }
+
+    private synchronized void install(Map<String, AnalyzerSettings> snapshot) {
+        profiles.set(Collections.unmodifiableMap(snapshot));
+        generation++;
+    }
+}
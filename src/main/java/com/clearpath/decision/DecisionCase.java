@@ -0,0 +1,48 @@
+package com.clearpath.decision;
+
+/**
+ * Which evidence drove the start time.
+ *
+ * <p>Each case has a fixed id, which is what gets persisted (the result store's
+ * {@code decision_case.u8} column): never change or reuse an id, give a new case the next free
+ * one, and reordering the constants is then harmless.</p>
+ */
+public enum DecisionCase {
+    BEEP_DETECTED(0, "Beep detected in audio"),
+    BEEP_EXPECTED_NOT_FOUND(1, "Transcript announces a beep, none detected"),
+    POSSIBLE_BEEP(2, "Transcript suggests a possible beep"),
+    NO_BEEP_EXPECTED(3, "No beep expected"),
+    NO_TRANSCRIPT(4, "No transcript, no beep detected");
+
+    private static final DecisionCase[] BY_ID = new DecisionCase[256];
+
+    static {
+        for (DecisionCase decisionCase : values()) {
+            if (BY_ID[decisionCase.id] != null) {
+                throw new IllegalStateException("Duplicate decision case id " + decisionCase.id);
+            }
+            BY_ID[decisionCase.id] = decisionCase;
+        }
+    }
+
+    private final int id;
+    private final String description;
+
+    DecisionCase(int id, String description) {
+        this.id = id;
+        this.description = description;
+    }
+
+    /**
+     * Stable id, 0-255
+     */
+    public int getId() { return id; }
+    public String getDescription() { return description; }
+
+    /**
+     * The case with this id, or null if there is none
+     */
+    public static DecisionCase fromId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+}
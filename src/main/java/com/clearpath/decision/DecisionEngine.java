@@ -1,78 +1,156 @@
 package com.clearpath.decision;
 
-import com.clearpath.config.Config;
+import com.clearpath.config.AnalyzerSettings;
 import com.clearpath.model.AnalysisResult;
 import com.clearpath.model.BeepInfo;
+import com.clearpath.model.ChannelAnalysis;
 import com.clearpath.transcription.TranscriptAnalyzer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 public class DecisionEngine {
     private static final Logger logger = LoggerFactory.getLogger(DecisionEngine.class);
+    private final AnalyzerSettings settings;
+    private final DecisionScorer scorer;
+
+    public DecisionEngine() {
+        this(AnalyzerSettings.defaults());
+    }
+
+    public DecisionEngine(AnalyzerSettings settings) {
+        this.settings = settings;
+        this.scorer = new DecisionScorer(settings);
+    }
 
     /**
-     * Make final decision on when to start voicemail playback
+     * Make final decision from per-channel detection results, using only the far-end channel
+     */
+    public AnalysisResult makeDecision(String fileName, List<ChannelAnalysis> channels, String transcript,
+                                       TranscriptAnalyzer.BeepExpectation beepExpectation) {
+        ChannelAnalysis farEnd = channels.get(settings.farEndChannelFor(channels.size()));
+        if (channels.size() > 1) {
+            logger.info("Deciding from far-end channel {} of {}", farEnd.getChannel(), channels.size());
+        }
+        return makeDecision(fileName, farEnd.getGreetingEndTime(), farEnd.getGreetingEndConfidence(),
+                farEnd.getBeepInfo(), transcript, beepExpectation);
+    }
+
+    /**
+     * How far the far-end start time can move depending on the transcript: the spread of start
+     * times over every transcript class a transcript can produce. Zero means the acoustic
+     * evidence alone is final (e.g. a beep confident enough even against a LOW prior), so
+     * transcribing the file cannot change the decision.
+     */
+    public double transcriptImpact(List<ChannelAnalysis> channels) {
+        ChannelAnalysis farEnd = channels.get(settings.farEndChannelFor(channels.size()));
+        BeepInfo beepInfo = farEnd.getBeepInfo();
+        DecisionScore scratch = new DecisionScore();
+        double earliest = Double.POSITIVE_INFINITY;
+        double latest = Double.NEGATIVE_INFINITY;
+        for (TranscriptAnalyzer.BeepExpectation expectation : TranscriptAnalyzer.BeepExpectation.values()) {
+            if (!expectation.isObserved()) {
+                continue;
+            }
+            double start = scorer.score(farEnd.getGreetingEndTime(), farEnd.getGreetingEndConfidence(),
+                    beepInfo.isDetected(), beepInfo.getEndTime(), beepInfo.getConfidence(),
+                    beepInfo.getTimingPrecision(), expectation, scratch).getStartTime();
+            earliest = Math.min(earliest, start);
+            latest = Math.max(latest, start);
+        }
+        return latest - earliest;
+    }
+
+    /**
+     * Make final decision on when to start voicemail playback, trusting the greeting end fully
      */
     public AnalysisResult makeDecision(String fileName, double greetingEndTime,
                                        BeepInfo beepInfo, String transcript,
                                        TranscriptAnalyzer.BeepExpectation beepExpectation) {
+        return makeDecision(fileName, greetingEndTime, 1.0, beepInfo, transcript, beepExpectation);
+    }
+
+    /**
+     * Make final decision on when to start voicemail playback
+     */
+    public AnalysisResult makeDecision(String fileName, double greetingEndTime, double greetingEndConfidence,
+                                       BeepInfo beepInfo, String transcript,
+                                       TranscriptAnalyzer.BeepExpectation beepExpectation) {
 
         logger.info("Making decision for {}...", fileName);
 
-        double startTime;
+        DecisionScore score = scorer.score(greetingEndTime, greetingEndConfidence,
+                beepInfo.isDetected(), beepInfo.getEndTime(), beepInfo.getConfidence(),
+                beepInfo.getTimingPrecision(), beepExpectation, new DecisionScore());
+        double startTime = score.getStartTime();
         String reasoning;
-        String confidence;
-
-        // CASE 1: Beep actually detected in audio (most reliable)
-        if (beepInfo.isDetected()) {
-            startTime = beepInfo.getEndTime() + Config.POST_BEEP_DELAY_SEC;
-            reasoning = String.format("Beep detected at %.3fs (%.0fHz, %.1fs duration). " +
-                            "Starting %.1fs after beep end for safety.",
-                    beepInfo.getStartTime(), beepInfo.getFrequency(),
-                    beepInfo.getDuration(), Config.POST_BEEP_DELAY_SEC);
-            confidence = "HIGH";
-            logger.info("✓ CASE 1: Beep detected → Start at {}s", String.format("%.3f", startTime));
-        }
 
-        // CASE 2: No beep detected, but transcript strongly indicates beep expected
-        else if (beepExpectation == TranscriptAnalyzer.BeepExpectation.HIGH) {
-            startTime = greetingEndTime + Config.BEEP_WAIT_TIMEOUT_SEC;
-            reasoning = String.format("Transcript mentions beep ('at the tone' or 'after the beep'), " +
-                            "but no beep detected. Waiting %.1fs to be safe.",
-                    Config.BEEP_WAIT_TIMEOUT_SEC);
-            confidence = "MEDIUM";
-            logger.info("✓ CASE 2: HIGH beep expected but not found → Wait {}s",
-                    Config.BEEP_WAIT_TIMEOUT_SEC);
-        }
+        switch (score.getDecisionCase()) {
+            // CASE 1: Beep actually detected in audio (most reliable)
+            case BEEP_DETECTED -> {
+                double margin = scorer.postBeepMargin(beepInfo.getTimingPrecision());
+                reasoning = String.format("Beep detected at %.3fs (%.0fHz, %.1fs duration, P(real)=%.2f). " +
+                                "Starting %.2fs after beep end for safety%s.",
+                        beepInfo.getStartTime(), beepInfo.getFrequency(),
+                        beepInfo.getDuration(), score.getBeepProbability(), score.getDelay(),
+                        margin < settings.getPostBeepDelaySec()
+                                ? String.format(" (beep end timed to ±%.1fms)", beepInfo.getTimingPrecision() * 1000)
+                                : "");
+                if (score.getDelay() > margin) {
+                    reasoning += " Beep not certain enough on its own; also covering a later beep.";
+                }
+                if (!beepExpectation.isObserved()) {
+                    reasoning += String.format(" %s: beep judged on the audio alone.", transcript);
+                }
+                logger.info("✓ CASE 1: Beep detected → Start at {}s", String.format("%.3f", startTime));
+            }
 
-        // CASE 3: Medium beep expectation (phrases like "leave a message")
-        else if (beepExpectation == TranscriptAnalyzer.BeepExpectation.MEDIUM) {
-            startTime = greetingEndTime + Config.NO_BEEP_LONG_DELAY_SEC;
-            reasoning = String.format("Transcript mentions 'leave a message' but no explicit beep phrase. " +
-                            "Waiting %.1fs as moderate safety buffer.",
-                    Config.NO_BEEP_LONG_DELAY_SEC);
-            confidence = "MEDIUM-HIGH";
-            logger.info("✓ CASE 3: MEDIUM beep expected → Wait {}s",
-                    Config.NO_BEEP_LONG_DELAY_SEC);
-        }
+            // CASE 2: No beep detected, but transcript strongly indicates beep expected
+            case BEEP_EXPECTED_NOT_FOUND -> {
+                reasoning = String.format("Transcript mentions beep ('at the tone' or 'after the beep'), " +
+                                "but no beep detected (P(beep)=%.2f). Waiting %.2fs to keep the risk of " +
+                                "starting before a late beep at %.1f%%.",
+                        score.getBeepProbability(), score.getDelay(), score.getComplianceRisk() * 100);
+                logger.info("✓ CASE 2: HIGH beep expected but not found → Wait {}s",
+                        String.format("%.2f", score.getDelay()));
+            }
+
+            // CASE 3: Medium beep expectation (phrases like "leave a message")
+            case POSSIBLE_BEEP -> {
+                reasoning = String.format("Transcript mentions 'leave a message' but no explicit beep phrase " +
+                                "(P(beep)=%.2f). Waiting %.2fs as moderate safety buffer (risk %.1f%%).",
+                        score.getBeepProbability(), score.getDelay(), score.getComplianceRisk() * 100);
+                logger.info("✓ CASE 3: MEDIUM beep expected → Wait {}s",
+                        String.format("%.2f", score.getDelay()));
+            }
+
+            // CASE 5: No transcript to read (STT failed, timed out or circuit open)
+            case NO_TRANSCRIPT -> {
+                reasoning = String.format("%s and no beep detected, so whether the greeting " +
+                                "announces a beep is unknown. Waiting %.2fs as if it did (risk %.1f%%); " +
+                                "confidence capped below HIGH.",
+                        transcript, score.getDelay(), score.getComplianceRisk() * 100);
+                logger.info("✓ CASE 5: No transcript → Wait {}s", String.format("%.2f", score.getDelay()));
+            }
 
-        // CASE 4: Low beep expectation (no beep indicators in transcript)
-        else {
-            startTime = greetingEndTime + Config.NO_BEEP_SHORT_DELAY_SEC;
-            reasoning = String.format("No beep phrases in transcript and no beep detected. " +
-                            "Starting %.1fs after greeting ends (minimal delay).",
-                    Config.NO_BEEP_SHORT_DELAY_SEC);
-            confidence = "MEDIUM-HIGH";
-            logger.info("✓ CASE 4: LOW beep expected → Wait {}s",
-                    Config.NO_BEEP_SHORT_DELAY_SEC);
+            // CASE 4: Low beep expectation (no beep indicators in transcript)
+            default -> {
+                reasoning = String.format("No beep phrases in transcript and no beep detected. " +
+                                "Starting %.1fs after greeting ends (minimal delay).",
+                        score.getDelay());
+                logger.info("✓ CASE 4: LOW beep expected → Wait {}s",
+                        String.format("%.2f", score.getDelay()));
+            }
         }
 
         // Compliance check
-        logger.info("Final decision: Start voicemail at {}s (Confidence: {})",
-                String.format("%.3f", startTime), confidence);
+        logger.info("Final decision: Start voicemail at {}s (Confidence: {} {}, risk {})",
+                String.format("%.3f", startTime), DecisionScore.confidenceLabel(score.getConfidence()),
+                String.format("%.2f", score.getConfidence()), String.format("%.3f", score.getComplianceRisk()));
 
         return new AnalysisResult(fileName, greetingEndTime, beepInfo, transcript,
-                beepExpectation, startTime, reasoning, confidence);
+                beepExpectation, startTime, reasoning, score);
     }
 
     /**
@@ -92,7 +170,8 @@ public class DecisionEngine {
         logger.info("");
         logger.info("--- FINAL DECISION ---");
         logger.info("Recommended Start Time: {}s", String.format("%.3f", result.getRecommendedStartTime()));
-        logger.info("Confidence: {}", result.getConfidence());
+        logger.info("Confidence: {} ({})", result.getConfidence(), String.format("%.2f", result.getConfidenceScore()));
+        logger.info("Compliance Risk: {}", String.format("%.3f", result.getComplianceRisk()));
         logger.info("Reasoning: {}", result.getReasoning());
         logger.info("");
         logger.info("--- COMPLIANCE CHECK ---");
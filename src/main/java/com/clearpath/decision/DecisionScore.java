@@ -0,0 +1,49 @@
+package com.clearpath.decision;
+
+/**
+ * Mutable output of {@link DecisionScorer}; one instance can be reused for every call
+ */
+public final class DecisionScore {
+    public static final double HIGH_CONFIDENCE = 0.90;  // lowest score labeled HIGH
+
+    private DecisionCase decisionCase;
+    private double startTime;
+    private double delay;              // seconds after the reference point (beep end or greeting end)
+    private double beepProbability;    // posterior that a recording beep is (or will be) present
+    private double complianceRisk;     // probability the start precedes the end of a beep
+    private double expectedDeadAir;    // seconds
+    private double confidence;         // 0..1, thresholdable by downstream systems
+
+    void set(DecisionCase decisionCase, double startTime, double delay, double beepProbability,
+             double complianceRisk, double expectedDeadAir, double confidence) {
+        this.decisionCase = decisionCase;
+        this.startTime = startTime;
+        this.delay = delay;
+        this.beepProbability = beepProbability;
+        this.complianceRisk = complianceRisk;
+        this.expectedDeadAir = expectedDeadAir;
+        this.confidence = confidence;
+    }
+
+    public DecisionCase getDecisionCase() { return decisionCase; }
+    public double getStartTime() { return startTime; }
+    public double getDelay() { return delay; }
+    public double getBeepProbability() { return beepProbability; }
+    public double getComplianceRisk() { return complianceRisk; }
+    public double getExpectedDeadAir() { return expectedDeadAir; }
+    public double getConfidence() { return confidence; }
+
+    /**
+     * Report label for a numeric confidence, matching the tiers used before scores existed
+     */
+    public static String confidenceLabel(double confidence) {
+        if (confidence >= HIGH_CONFIDENCE) {
+            return "HIGH";
+        } else if (confidence >= 0.75) {
+            return "MEDIUM-HIGH";
+        } else if (confidence >= 0.50) {
+            return "MEDIUM";
+        }
+        return "LOW";
+    }
+}
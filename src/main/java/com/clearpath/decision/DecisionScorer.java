@@ -0,0 +1,149 @@
+package com.clearpath.decision;
+
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.transcription.TranscriptAnalyzer.BeepExpectation;
+
+/**
+ * Probabilistic start-time decision.
+ *
+ * <p>Evidence is fused in log-odds: the transcript class gives the prior probability of a
+ * beep, and the beep detector either multiplies the odds by its own confidence (beep found)
+ * or by the miss likelihood ratio (nothing found). Without a detected beep, a beep that is
+ * still coming is assumed to end uniformly within the horizon after the greeting
+ * ({@code decision.beep.wait.timeout.sec} when the transcript announces one,
+ * {@code decision.no.beep.long.delay.sec} otherwise). Dead air grows with the delay, so the
+ * expected-dead-air minimum under the {@code decision.max.compliance.risk} bound is simply
+ * the shortest delay that meets the bound.</p>
+ *
+ * <p>A missing transcript ({@link BeepExpectation#UNKNOWN}) is not evidence either way. The
+ * no-beep wait then assumes the greeting may have announced a beep (HIGH's prior and horizon),
+ * a detected beep is judged against the LOW prior since no transcript backs it up, and a
+ * decision resting on the prior alone is never labeled HIGH confidence.</p>
+ *
+ * <p>Pure arithmetic on primitives writing into a caller-owned {@link DecisionScore}: no
+ * allocation, well under a microsecond per call, safe for per-frame use in streaming mode.</p>
+ */
+public final class DecisionScorer {
+    // P(detector fires | no beep); the detector's false alarms are rare once validated
+    private static final double FALSE_ALARM_RATE = 0.01;
+
+    // Below DecisionScore.HIGH_CONFIDENCE: a no-beep decision without a transcript is a guess
+    static final double MAX_CONFIDENCE_WITHOUT_TRANSCRIPT = 0.85;
+
+    private final AnalyzerSettings settings;
+    private final double missLikelihoodRatio;
+
+    public DecisionScorer(AnalyzerSettings settings) {
+        this.settings = settings;
+        this.missLikelihoodRatio = settings.getBeepMissRate() / (1.0 - FALSE_ALARM_RATE);
+    }
+
+    /**
+     * Score one decision.
+     *
+     * @param greetingEnd        greeting end time (seconds)
+     * @param greetingConfidence energy detector's confidence in {@code greetingEnd}
+     * @param beepDetected       whether a beep was found
+     * @param beepEnd            end of the detected beep (ignored if none)
+     * @param beepConfidence     detector's probability that the beep is real (ignored if none)
+     * @param beepPrecision      edge timing uncertainty in seconds, NaN if unknown
+     * @param expectation        transcript evidence
+     * @param out                receives the result
+     * @return {@code out}
+     */
+    public DecisionScore score(double greetingEnd, double greetingConfidence,
+                               boolean beepDetected, double beepEnd, double beepConfidence, double beepPrecision,
+                               BeepExpectation expectation, DecisionScore out) {
+        double priorOdds = odds(expectation.getBeepProbability());
+        double horizon = expectation == BeepExpectation.HIGH || expectation == BeepExpectation.UNKNOWN
+                ? settings.getBeepWaitTimeoutSec() : settings.getNoBeepLongDelaySec();
+
+        // Hypothesis "no beep detected": shortest delay meeting the risk bound
+        double pUndetected = probability(priorOdds * missLikelihoodRatio);
+        double noBeepDelay = noBeepDelay(pUndetected, horizon);
+        double noBeepRisk = lateBeepRisk(pUndetected, noBeepDelay, horizon);
+        double noBeepConfidence = noBeepConfidence(expectation, greetingConfidence, noBeepRisk);
+
+        if (!beepDetected) {
+            DecisionCase decisionCase = noBeepCase(expectation);
+            // E[dead air] = (1-p)*d + p*E[max(0, d-T)], T ~ U(0, horizon)
+            double deadAir = (1.0 - pUndetected) * noBeepDelay
+                    + pUndetected * noBeepDelay * noBeepDelay / (2.0 * horizon);
+            out.set(decisionCase, greetingEnd + noBeepDelay, noBeepDelay, pUndetected,
+                    noBeepRisk, deadAir, noBeepConfidence);
+            return out;
+        }
+
+        // Beep detected: the detector's confidence acts as a likelihood ratio on the prior
+        double c = Math.min(Math.max(beepConfidence, 1e-6), 1.0 - 1e-6);
+        double beepPriorOdds = expectation.isObserved() ? priorOdds : odds(BeepExpectation.LOW.getBeepProbability());
+        double pReal = probability(beepPriorOdds * odds(c));
+        double margin = postBeepMargin(beepPrecision);
+        double start = beepEnd + margin;
+        double risk = 1.0 - pReal;
+        double confidence = pReal;
+
+        // Not sure enough it is the real beep: also satisfy the no-beep hypothesis
+        if (risk > settings.getMaxComplianceRisk()) {
+            start = Math.max(start, greetingEnd + noBeepDelay);
+            risk = Math.min(risk, noBeepRisk);
+            confidence = noBeepConfidence;
+        }
+        out.set(DecisionCase.BEEP_DETECTED, start, start - beepEnd, pReal, risk, start - beepEnd, confidence);
+        return out;
+    }
+
+    /**
+     * Delay after the beep end. The full post-beep delay covers frame-grid timing; when the
+     * detector timed the edge precisely only the precise delay plus three sigma is kept.
+     */
+    public double postBeepMargin(double beepPrecision) {
+        if (Double.isNaN(beepPrecision) || beepPrecision > settings.getBeepPreciseTimingSec()) {
+            return settings.getPostBeepDelaySec();
+        }
+        return Math.min(settings.getPostBeepDelaySec(),
+                settings.getPrecisePostBeepDelaySec() + 3 * beepPrecision);
+    }
+
+    /**
+     * Shortest delay d with p * P(T > d) <= risk bound, T ~ U(0, horizon)
+     */
+    private double noBeepDelay(double pBeep, double horizon) {
+        double bound = settings.getMaxComplianceRisk();
+        double delay = pBeep > bound ? horizon * (1.0 - bound / pBeep) : 0.0;
+        return Math.max(settings.getNoBeepShortDelaySec(), Math.min(delay, horizon));
+    }
+
+    /**
+     * Decision case when no beep is decided on, by transcript class
+     */
+    static DecisionCase noBeepCase(BeepExpectation expectation) {
+        return switch (expectation) {
+            case HIGH -> DecisionCase.BEEP_EXPECTED_NOT_FOUND;
+            case MEDIUM -> DecisionCase.POSSIBLE_BEEP;
+            case LOW -> DecisionCase.NO_BEEP_EXPECTED;
+            case UNKNOWN -> DecisionCase.NO_TRANSCRIPT;
+        };
+    }
+
+    /**
+     * Confidence in a start time without a detected beep, capped below HIGH when there is no
+     * transcript and the wait rests on the prior alone
+     */
+    static double noBeepConfidence(BeepExpectation expectation, double greetingConfidence, double risk) {
+        double confidence = greetingConfidence * (1.0 - risk);
+        return expectation.isObserved() ? confidence : Math.min(confidence, MAX_CONFIDENCE_WITHOUT_TRANSCRIPT);
+    }
+
+    private static double lateBeepRisk(double pBeep, double delay, double horizon) {
+        return pBeep * Math.max(0.0, 1.0 - delay / horizon);
+    }
+
+    private static double odds(double p) {
+        return p / (1.0 - p);
+    }
+
+    private static double probability(double odds) {
+        return odds / (1.0 + odds);
+    }
+}
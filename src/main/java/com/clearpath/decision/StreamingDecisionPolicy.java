@@ -0,0 +1,143 @@
+package com.clearpath.decision;
+
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.model.GreetingEnd;
+import com.clearpath.transcription.TranscriptAnalyzer.BeepExpectation;
+
+/**
+ * Lookahead-free start-time decision for live calls.
+ *
+ * <p>{@link DecisionScorer} picks a fixed delay after the greeting end as if the whole beep
+ * window had already been searched; live, that delay is spent waiting. This policy instead
+ * follows the audio after the greeting end frame by frame with a small hidden-state filter: a
+ * beep starts uniformly within {@code decision.streaming.beep.start.window.sec} of the greeting
+ * end, sounds for about the mean valid beep duration, then is over. A beep is loud whether or
+ * not the tone detector accepts it, so every frame below the silence floor all but rules out
+ * a beep sounding right now, and every such frame past the start window leaves less room for
+ * one still to come. The call is decided as soon as the probability that a beep is pending
+ * (still to come or sounding) drops to {@code decision.max.compliance.risk} with no beep
+ * candidate open, and otherwise {@code decision.streaming.max.wait.sec} after the greeting end.
+ * That bound only ends the wait for a beep that has not shown up: a beep candidate still sounding
+ * holds the decision until it closes, and no start is put before the end of a beep (plus the
+ * scorer's margin) that has been seen.</p>
+ *
+ * <p>A noisy line keeps frames above the floor, which is uninformative, so such calls simply
+ * run to the bound. Pure arithmetic on a caller-owned {@link StreamingDecisionState}, like the
+ * scorer: safe for per-frame use.</p>
+ */
+public final class StreamingDecisionPolicy {
+    // P(frame above the silence floor | beep sounding)
+    private static final double SOUND_GIVEN_BEEP = 0.99;
+    // P(frame above the silence floor | no beep sounding): line noise or stray speech, deliberately neutral
+    private static final double SOUND_GIVEN_NO_BEEP = 0.5;
+
+    private final AnalyzerSettings settings;
+    private final double frameSec;
+    private final double beepEndPerFrame;
+
+    public StreamingDecisionPolicy(AnalyzerSettings settings) {
+        this.settings = settings;
+        this.frameSec = settings.getFrameDurationSec();
+        double meanBeepSec = (settings.getBeepMinDurationSec() + settings.getBeepMaxDurationSec()) / 2;
+        this.beepEndPerFrame = Math.min(1.0, frameSec / meanBeepSec);
+    }
+
+    /**
+     * Start following a call once its greeting end is known. The energy detector reports the
+     * end only after a run of silent frames, so those count as already observed.
+     *
+     * @param now audio time when the greeting end was found
+     */
+    public void begin(GreetingEnd greetingEnd, double now, StreamingDecisionState state) {
+        state.reset();
+        state.started = true;
+        state.greetingEnd = greetingEnd.getTime();
+        state.greetingConfidence = greetingEnd.getConfidence();
+        state.waiting = 1.0;
+        state.none = 1.0;
+        if (greetingEnd.isSilenceFound()) {
+            int silentFrames = (int) Math.round((now - greetingEnd.getTime()) / frameSec);
+            for (int i = 0; i < silentFrames; i++) {
+                observe(false, state);
+            }
+        }
+        state.elapsed = Math.max(0.0, now - greetingEnd.getTime());
+    }
+
+    /**
+     * Advance by one frame after the greeting end
+     *
+     * @param sound whether the frame's energy is above the silence threshold
+     */
+    public void observe(boolean sound, StreamingDecisionState state) {
+        double window = settings.getStreamingBeepStartWindowSec();
+        double starting = state.elapsed + frameSec >= window
+                ? state.waiting : state.waiting * frameSec / (window - state.elapsed);
+        double ending = state.sounding * beepEndPerFrame;
+        state.waiting -= starting;
+        state.sounding += starting - ending;
+        state.over += ending;
+
+        double quiet = sound ? SOUND_GIVEN_NO_BEEP : 1.0 - SOUND_GIVEN_NO_BEEP;
+        state.sounding *= sound ? SOUND_GIVEN_BEEP : 1.0 - SOUND_GIVEN_BEEP;
+        state.waiting *= quiet;
+        state.over *= quiet;
+        state.none *= quiet;
+
+        double total = state.waiting + state.sounding + state.over + state.none;
+        state.waiting /= total;
+        state.sounding /= total;
+        state.over /= total;
+        state.none /= total;
+        state.elapsed += frameSec;
+    }
+
+    /**
+     * Probability that a beep is still to come or sounding right now
+     */
+    public double pendingBeepProbability(BeepExpectation expectation, StreamingDecisionState state) {
+        double prior = expectation.getBeepProbability();
+        double pending = prior * (state.waiting + state.sounding);
+        return pending / (pending + prior * state.over + (1.0 - prior) * state.none);
+    }
+
+    /**
+     * A validated beep scored by {@link DecisionScorer}. Decides on it, unchanged, when the beep
+     * is sure enough to be the real one, however late that puts the start; otherwise the call is
+     * still followed, and whatever is decided later starts no earlier than the scorer's start.
+     *
+     * @return whether {@code beepScore} is the decision
+     */
+    public boolean onBeep(DecisionScore beepScore, StreamingDecisionState state) {
+        if (1.0 - beepScore.getBeepProbability() > settings.getMaxComplianceRisk()) {
+            state.earliestStart = Math.max(state.earliestStart, beepScore.getStartTime());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decide now if no beep is likely pending, or if the bound is reached. Never while a beep
+     * candidate is open, and never with a start before that of an uncertain beep seen earlier
+     * (a start later than now is decided as is, like the scorer's no-beep delay).
+     *
+     * @param beepOpen whether the beep detector has a candidate run open
+     * @return whether {@code out} now holds the decision
+     */
+    public boolean decide(boolean beepOpen, BeepExpectation expectation, StreamingDecisionState state,
+                          DecisionScore out) {
+        if (beepOpen) {
+            return false;
+        }
+        double risk = pendingBeepProbability(expectation, state);
+        boolean bounded = state.elapsed >= settings.getStreamingMaxWaitSec() - 1e-9;
+        if (!bounded && risk > settings.getMaxComplianceRisk()) {
+            return false;
+        }
+        double start = Math.max(state.greetingEnd + state.elapsed, state.earliestStart);
+        double delay = start - state.greetingEnd;
+        out.set(DecisionScorer.noBeepCase(expectation), start, delay, risk, risk, delay,
+                DecisionScorer.noBeepConfidence(expectation, state.greetingConfidence, risk));
+        return true;
+    }
+}
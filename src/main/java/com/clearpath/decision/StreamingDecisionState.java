@@ -0,0 +1,38 @@
+package com.clearpath.decision;
+
+/**
+ * Per-stream progress of {@link StreamingDecisionPolicy}: a few primitives, so a live session
+ * can carry one next to its detector states.
+ *
+ * <p>The four masses are likelihoods of the audio since the greeting end, split by hypothesis:
+ * a beep is still to come, is sounding, or is already over, versus no beep at all. Only their
+ * ratios matter; the transcript prior is applied when deciding, so a transcript that arrives
+ * mid-call still counts.</p>
+ */
+public final class StreamingDecisionState {
+    boolean started;
+    double greetingEnd;
+    double greetingConfidence;
+    double elapsed;        // seconds of audio observed since the greeting end
+    double waiting;
+    double sounding;
+    double over;
+    double none;
+    double earliestStart;  // after a beep that was too uncertain to decide on
+
+    public void reset() {
+        started = false;
+        greetingEnd = 0;
+        greetingConfidence = 0;
+        elapsed = 0;
+        waiting = 0;
+        sounding = 0;
+        over = 0;
+        none = 0;
+        earliestStart = 0;
+    }
+
+    public boolean isStarted() { return started; }
+    public double getGreetingEnd() { return greetingEnd; }
+    public double getElapsed() { return elapsed; }
+}
@@ -1,17 +1,76 @@
 package com.clearpath.detection;
 
-import com.clearpath.config.Config;
+import com.clearpath.config.AnalyzerSettings;
 import com.clearpath.model.AudioFrame;
 import com.clearpath.model.BeepInfo;
 import org.jtransforms.fft.DoubleFFT_1D;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Finds the answering-machine beep in the window after the greeting ends.
+ *
+ * <p>The search is coarse-to-fine. A cheap per-frame gate (energy above the silence floor
+ * and a zero-crossing count consistent with a tone in the beep band) screens out silence
+ * and most speech; only frames that pass get an FFT. Once a run of beep frames is found,
+ * its start and end are refined below the frame grid by {@link BeepEdgeEstimator}.</p>
+ *
+ * <p>Holds FFT scratch buffers, so an instance must not be shared between threads. The
+ * search progress itself lives in a {@link BeepScanState}, so one detector per thread can
+ * serve any number of live streams through {@link #scanFrame}.</p>
+ */
 public class BeepDetector {
     private static final Logger logger = LoggerFactory.getLogger(BeepDetector.class);
 
+    // A pure tone at f Hz crosses zero 2f times a second; allow for noise and band-edge leakage
+    private static final double ZCR_TOLERANCE = 0.15;
+    private static final int ZCR_SLACK_CROSSINGS = 2;
+
+    // Beep probability calibration (see beepProbability)
+    private static final double PEAK_RATIO_SCALE_DB = 3.0;
+    private static final double DURATION_EDGE_SEC = 0.2;
+
+    private final AnalyzerSettings settings;
+    private final BeepEdgeEstimator edgeEstimator;
+
+    // FFT plan and scratch, reused across frames
+    private final DoubleFFT_1D fft;
+    private final double[] fftBuffer;
+    private final double[] window;
+    private final double[] magnitudes;
+    private final FrequencyAnalysis analysis = new FrequencyAnalysis();
+
+    // Zero-crossing bounds for one frame, derived from the beep band
+    private final int minCrossings;
+    private final int maxCrossings;
+
+    private int gatedFrames;
+    private int analyzedFrames;
+
+    public BeepDetector() {
+        this(AnalyzerSettings.defaults());
+    }
+
+    public BeepDetector(AnalyzerSettings settings) {
+        this.settings = settings;
+        this.edgeEstimator = new BeepEdgeEstimator(settings.getSampleRate(), settings.getFrameSizeSamples());
+        this.fft = new DoubleFFT_1D(settings.getFftSize());
+        this.fftBuffer = new double[settings.getFftSize()];
+        this.window = hanningWindow(settings.getFftSize());
+        this.magnitudes = new double[settings.getFftSize() / 2];
+
+        double crossingsPerHz = 2.0 * settings.getFrameSizeSamples() / settings.getSampleRate();
+        this.minCrossings = (int) Math.floor(settings.getBeepMinFreqHz() * crossingsPerHz * (1 - ZCR_TOLERANCE))
+                - ZCR_SLACK_CROSSINGS;
+        this.maxCrossings = (int) Math.ceil(settings.getBeepMaxFreqHz() * crossingsPerHz * (1 + ZCR_TOLERANCE))
+                + ZCR_SLACK_CROSSINGS;
+    }
+
     /**
      * Detect beep after greeting ends
      */
@@ -19,102 +78,226 @@ public class BeepDetector {
         logger.info("Detecting beep after greeting end ({:.3f}s)...", String.format("%.3f", greetingEndTime));
 
         // Only analyze frames AFTER greeting ends
-        int startFrameIndex = (int) (greetingEndTime / (Config.FRAME_SIZE_MS / 1000.0));
+        int startFrameIndex = (int) (greetingEndTime / settings.getFrameDurationSec());
 
-        // Limit search window to 5 seconds after greeting (beep should be within this)
+        // Limit search window after greeting (beep should be within this, 5 seconds by default)
         int endFrameIndex = Math.min(frames.size(),
-                startFrameIndex + (int)(5.0 / (Config.FRAME_SIZE_MS / 1000.0)));
+                startFrameIndex + (int) (settings.getBeepSearchWindowSec() / settings.getFrameDurationSec()));
+
+        return detectBeep(frames, startFrameIndex, endFrameIndex);
+    }
 
+    /**
+     * Detect beep after greeting ends; the window runs on past its nominal end while a sound
+     * that started inside it lasts (see {@link SilenceMap#beepSearchEnd})
+     */
+    public BeepInfo detectBeep(List<AudioFrame> frames, double greetingEndTime, SilenceMap silenceMap) {
+        logger.info("Detecting beep after greeting end ({}s)...", String.format("%.3f", greetingEndTime));
+        int startFrameIndex = (int) (greetingEndTime / settings.getFrameDurationSec());
+        int windowEnd = startFrameIndex + (int) (settings.getBeepSearchWindowSec() / settings.getFrameDurationSec());
+        int searchEnd = silenceMap.beepSearchEnd(startFrameIndex, windowEnd,
+                (int) Math.ceil(settings.getBeepMaxDurationSec() / settings.getFrameDurationSec()));
+        if (searchEnd > windowEnd && searchEnd <= frames.size()) {
+            logger.info("Sound still going at the end of the beep window, searching {} frames further",
+                    searchEnd - windowEnd);
+        }
+        return detectBeep(frames, startFrameIndex, Math.min(frames.size(), searchEnd));
+    }
+
+    /**
+     * Detect a beep starting within [fromSec, toSec), e.g. a window placed by word timings
+     */
+    public BeepInfo detectBeep(List<AudioFrame> frames, double fromSec, double toSec) {
+        logger.info("Detecting beep in {}s to {}s...", String.format("%.3f", fromSec), String.format("%.3f", toSec));
+        if (frames.isEmpty()) {
+            logger.info("No audio to search");
+            return BeepInfo.noBeep();
+        }
+        int startFrameIndex = Math.min(frames.size() - 1, (int) (fromSec / settings.getFrameDurationSec()));
+        int endFrameIndex = Math.min(frames.size(), (int) Math.ceil(toSec / settings.getFrameDurationSec()));
+        return detectBeep(frames, startFrameIndex, endFrameIndex);
+    }
+
+    private BeepInfo detectBeep(List<AudioFrame> frames, int startFrameIndex, int endFrameIndex) {
         logger.info("Analyzing frames {} to {} ({}s to {}s)",
                 startFrameIndex, endFrameIndex,
                 String.format("%.3f", frames.get(startFrameIndex).getTimestamp()),
                 String.format("%.3f", frames.get(Math.min(endFrameIndex-1, frames.size()-1)).getTimestamp()));
 
-        // Track beep state
-        boolean inBeep = false;
-        double beepStartTime = -1;
-        double beepFrequency = 0;
-        int consecutiveBeepFrames = 0;
+        FrameHistory history = FrameHistory.of(frames);
+        BeepScanState state = new BeepScanState();
+        gatedFrames = 0;
+        analyzedFrames = 0;
 
         for (int i = startFrameIndex; i < endFrameIndex; i++) {
-            AudioFrame frame = frames.get(i);
-
-            // Get FFT result for this frame
-            FrequencyAnalysis analysis = analyzeFrequency(frame);
-
-            // Check if this frame contains a beep
-            if (isBeepFrame(analysis)) {
-                if (!inBeep) {
-                    // Beep started
-                    inBeep = true;
-                    beepStartTime = frame.getTimestamp();
-                    beepFrequency = analysis.dominantFreq;
-                    consecutiveBeepFrames = 1;
+            BeepInfo beep = scanFrame(history, i, state);
+            if (beep != null) {
+                logSearchCost(i + 1 - startFrameIndex);
+                return beep;
+            }
+        }
+
+        logSearchCost(endFrameIndex - startFrameIndex);
+        logger.info("No valid beep detected in analyzed window");
+        return BeepInfo.noBeep();
+    }
+
+    /**
+     * Advance the beep search by one frame. Returns the beep once a run of beep frames ends
+     * with a valid duration, otherwise {@code null}. Frames must be fed in order, and
+     * {@code frames} only needs to hold the last three of them.
+     */
+    public BeepInfo scanFrame(FrameHistory frames, int i, BeepScanState state) {
+        // Coarse gate first; the FFT only runs on frames that could be a tone in the beep band
+        boolean beepFrame = false;
+        MemorySegment samples = frames.segment(i);
+        if (passesGate(samples)) {
+            analyzeFrequency(samples);
+            beepFrame = isBeepFrame(analysis);
+        }
+
+        // Refine the rising edge while the frames around it are still available
+        if (state.inBeep && i == state.startFrame + 1) {
+            BeepEdgeEstimator.Edge start = edgeEstimator.estimate(frames, state.startFrame, state.frequency, true);
+            state.startTime = start != null ? start.time : frames.timestamp(state.startFrame);
+            // Unrefined edges are only known to the frame grid
+            state.startPrecision = start != null ? start.precision : settings.getFrameDurationSec();
+        }
+
+        // Check if this frame contains a beep
+        if (beepFrame) {
+            if (!state.inBeep) {
+                // Beep started
+                state.inBeep = true;
+                state.startFrame = i;
+                state.frequency = analysis.dominantFreq;
+                state.beepFrames = 1;
+                state.peakRatioSum = analysis.peakToAvgRatio;
+                if (logger.isDebugEnabled()) {
                     logger.debug("Beep candidate started at {}s ({}Hz)",
-                            String.format("%.3f", beepStartTime),
-                            String.format("%.0f", beepFrequency));
-                } else {
-                    consecutiveBeepFrames++;
+                            String.format("%.3f", frames.timestamp(i)),
+                            String.format("%.0f", state.frequency));
                 }
             } else {
-                if (inBeep) {
-                    // Beep ended, check if valid
-                    double beepEndTime = frame.getTimestamp();
-                    double duration = beepEndTime - beepStartTime;
-
-                    logger.debug("Beep candidate ended at {}s (duration: {}s)",
-                            String.format("%.3f", beepEndTime),
-                            String.format("%.2f", duration));
-
-                    // Validate beep duration
-                    if (duration >= Config.BEEP_MIN_DURATION_SEC &&
-                            duration <= Config.BEEP_MAX_DURATION_SEC) {
-
-                        logger.info("✓ Valid beep detected: {}Hz, {}s duration",
-                                String.format("%.0f", beepFrequency),
-                                String.format("%.2f", duration));
-
-                        return new BeepInfo(true, beepStartTime, beepEndTime,
-                                beepFrequency, 0.9);
-                    } else {
-                        logger.debug("✗ Invalid beep duration: {}s (expected {}-{}s)",
-                                String.format("%.2f", duration),
-                                Config.BEEP_MIN_DURATION_SEC,
-                                Config.BEEP_MAX_DURATION_SEC);
-                    }
-
-                    // Reset
-                    inBeep = false;
-                    consecutiveBeepFrames = 0;
-                }
+                state.beepFrames++;
+                state.peakRatioSum += analysis.peakToAvgRatio;
             }
+            return null;
+        }
+        if (!state.inBeep) {
+            return null;
         }
 
-        logger.info("No valid beep detected in analyzed window");
-        return BeepInfo.noBeep();
+        // Beep ended: refine the falling edge below the frame grid, then check if valid
+        BeepEdgeEstimator.Edge end = edgeEstimator.estimate(frames, i, state.frequency, false);
+        double beepStartTime = state.startTime;
+        double beepEndTime = end != null ? end.time : frames.timestamp(i);
+        double duration = beepEndTime - beepStartTime;
+        double precision = Math.max(state.startPrecision,
+                end != null ? end.precision : settings.getFrameDurationSec());
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Beep candidate ended at {}s (duration: {}s)",
+                    String.format("%.3f", beepEndTime),
+                    String.format("%.2f", duration));
+        }
+
+        BeepInfo beep = null;
+
+        // Validate beep duration
+        if (duration >= settings.getBeepMinDurationSec() &&
+                duration <= settings.getBeepMaxDurationSec()) {
+
+            logger.info("✓ Valid beep detected: {}Hz, {}s duration, edges ±{}ms",
+                    String.format("%.0f", state.frequency),
+                    String.format("%.2f", duration),
+                    String.format("%.1f", precision * 1000));
+
+            beep = new BeepInfo(true, beepStartTime, beepEndTime,
+                    state.frequency, beepProbability(state.peakRatioSum / state.beepFrames, duration),
+                    precision);
+        } else {
+            logger.debug("✗ Invalid beep duration: {}s (expected {}-{}s)",
+                    String.format("%.2f", duration),
+                    settings.getBeepMinDurationSec(),
+                    settings.getBeepMaxDurationSec());
+        }
+
+        // Reset
+        state.reset();
+        return beep;
+    }
+
+    /**
+     * Probability that a validated run is a real beep.
+     *
+     * <p>Log-odds grow by one per {@link #PEAK_RATIO_SCALE_DB} of mean peak ratio above the
+     * threshold (50% right at it), plus up to ±1 for how comfortably the duration sits inside
+     * the allowed range.</p>
+     */
+    double beepProbability(double meanPeakRatioDb, double duration) {
+        double ratioTerm = (meanPeakRatioDb - settings.getBeepPeakRatioDb()) / PEAK_RATIO_SCALE_DB;
+        double edgeDistance = Math.min(duration - settings.getBeepMinDurationSec(),
+                settings.getBeepMaxDurationSec() - duration);
+        double durationFit = Math.max(0, Math.min(1, edgeDistance / DURATION_EDGE_SEC));
+        return 1.0 / (1.0 + Math.exp(-(ratioTerm + 2 * (durationFit - 0.5))));
+    }
+
+    private void logSearchCost(int scannedFrames) {
+        logger.debug("Beep search scanned {} frames: {} rejected by the gate, {} FFTs",
+                scannedFrames, gatedFrames, analyzedFrames);
+    }
+
+    /**
+     * Cheap screen: energy above the silence floor and a zero-crossing count a beep-band tone could produce
+     */
+    private boolean passesGate(MemorySegment samples) {
+        long count = samples.byteSize() / Double.BYTES;
+        double previous = samples.getAtIndex(ValueLayout.JAVA_DOUBLE, 0);
+        double sumSquares = previous * previous;
+        int crossings = 0;
+        for (long i = 1; i < count; i++) {
+            double sample = samples.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+            sumSquares += sample * sample;
+            if ((sample >= 0) != (previous >= 0)) {
+                crossings++;
+            }
+            previous = sample;
+        }
+
+        double rms = Math.sqrt(sumSquares / count);
+        double db = 20 * Math.log10(rms + 1e-10);
+        boolean pass = db > settings.getSilenceThresholdDb()
+                && crossings >= minCrossings && crossings <= maxCrossings;
+        if (!pass) {
+            gatedFrames++;
+        }
+        return pass;
     }
 
     /**
      * Analyze frequency content of audio frame using FFT
      */
-    private FrequencyAnalysis analyzeFrequency(AudioFrame frame) {
-        double[] samples = frame.getSamples();
+    private void analyzeFrequency(MemorySegment samples) {
+        analyzedFrames++;
 
         // Need to work with FFT_SIZE samples
-        double[] fftInput = new double[Config.FFT_SIZE];
+        double[] fftInput = fftBuffer;
 
         // Copy available samples (pad with zeros if needed)
-        System.arraycopy(samples, 0, fftInput, 0, Math.min(samples.length, Config.FFT_SIZE));
+        int copied = (int) Math.min(samples.byteSize() / Double.BYTES, settings.getFftSize());
+        MemorySegment.copy(samples, ValueLayout.JAVA_DOUBLE, 0, fftInput, 0, copied);
+        Arrays.fill(fftInput, copied, fftInput.length, 0.0);
 
         // Apply Hanning window to reduce spectral leakage
-        applyHanningWindow(fftInput);
+        for (int i = 0; i < fftInput.length; i++) {
+            fftInput[i] *= window[i];
+        }
 
         // Perform FFT
-        DoubleFFT_1D fft = new DoubleFFT_1D(Config.FFT_SIZE);
         fft.realForward(fftInput);
 
         // Calculate magnitude spectrum
-        double[] magnitudes = new double[Config.FFT_SIZE / 2];
         for (int i = 0; i < magnitudes.length; i++) {
             double real = fftInput[2 * i];
             double imag = fftInput[2 * i + 1];
@@ -131,7 +314,7 @@ public class BeepDetector {
             }
         }
 
-        double dominantFreq = maxBin * (Config.SAMPLE_RATE / (double) Config.FFT_SIZE);
+        double dominantFreq = maxBin * (settings.getSampleRate() / (double) settings.getFftSize());
 
         // Calculate average magnitude (excluding DC component)
         double avgMagnitude = 0;
@@ -143,34 +326,34 @@ public class BeepDetector {
         // Peak-to-average ratio in dB
         double peakToAvgRatio = 20 * Math.log10(maxMagnitude / (avgMagnitude + 1e-10));
 
-        return new FrequencyAnalysis(dominantFreq, maxMagnitude, avgMagnitude, peakToAvgRatio);
+        analysis.set(dominantFreq, maxMagnitude, avgMagnitude, peakToAvgRatio);
     }
 
     /**
-     * Apply Hanning window to reduce spectral leakage
+     * Hanning window to reduce spectral leakage
      */
-    private void applyHanningWindow(double[] data) {
-        int n = data.length;
+    private static double[] hanningWindow(int n) {
+        double[] window = new double[n];
         for (int i = 0; i < n; i++) {
-            double window = 0.5 * (1.0 - Math.cos(2.0 * Math.PI * i / (n - 1)));
-            data[i] *= window;
+            window[i] = 0.5 * (1.0 - Math.cos(2.0 * Math.PI * i / (n - 1)));
         }
+        return window;
     }
 
     /**
      * Check if FFT analysis indicates a beep
      */
     private boolean isBeepFrame(FrequencyAnalysis analysis) {
-        boolean freqInRange = (analysis.dominantFreq >= Config.BEEP_MIN_FREQ_HZ &&
-                analysis.dominantFreq <= Config.BEEP_MAX_FREQ_HZ);
+        boolean freqInRange = (analysis.dominantFreq >= settings.getBeepMinFreqHz() &&
+                analysis.dominantFreq <= settings.getBeepMaxFreqHz());
 
-        boolean strongPeak = (analysis.peakToAvgRatio >= Config.BEEP_PEAK_RATIO_DB);
+        boolean strongPeak = (analysis.peakToAvgRatio >= settings.getBeepPeakRatioDb());
 
         return freqInRange && strongPeak;
     }
 
     /**
-     * Helper class to hold frequency analysis results
+     * Frequency analysis results, reused for every analyzed frame
      */
     private static class FrequencyAnalysis {
         double dominantFreq;
@@ -178,8 +361,8 @@ public class BeepDetector {
         double avgMagnitude;
         double peakToAvgRatio;
 
-        FrequencyAnalysis(double dominantFreq, double maxMagnitude,
-                          double avgMagnitude, double peakToAvgRatio) {
+        void set(double dominantFreq, double maxMagnitude,
+                 double avgMagnitude, double peakToAvgRatio) {
             this.dominantFreq = dominantFreq;
             this.maxMagnitude = maxMagnitude;
             this.avgMagnitude = avgMagnitude;
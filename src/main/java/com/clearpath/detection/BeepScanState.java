@@ -0,0 +1,32 @@
+package com.clearpath.detection;
+
+/**
+ * Per-stream progress of {@link BeepDetector#scanFrame}: the current candidate run, if any.
+ *
+ * <p>The rising edge is refined as soon as the frame after the run's first frame arrives, so
+ * a caller only ever needs to keep the last three frames around.</p>
+ */
+public final class BeepScanState {
+    boolean inBeep;
+    int startFrame = -1;
+    double frequency;
+    int beepFrames;
+    double peakRatioSum;
+    double startTime;
+    double startPrecision;
+
+    public void reset() {
+        inBeep = false;
+        startFrame = -1;
+        frequency = 0;
+        beepFrames = 0;
+        peakRatioSum = 0;
+        startTime = 0;
+        startPrecision = 0;
+    }
+
+    /**
+     * Whether a candidate run is open; a decision should wait for it to resolve
+     */
+    public boolean isInBeep() { return inBeep; }
+}
@@ -0,0 +1,83 @@
+package com.clearpath.detection;
+
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.model.AudioFrame;
+import com.clearpath.model.BeepInfo;
+import com.clearpath.model.ChannelAnalysis;
+import com.clearpath.model.GreetingEnd;
+import com.clearpath.trace.Trace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs energy and beep detection on every channel of a recording in parallel.
+ *
+ * <p>Stereo call recordings carry the agent and the far end on separate channels;
+ * analysing them separately keeps our own line noise from masking the far-end beep.</p>
+ */
+public class ChannelAnalyzer {
+    private static final Logger logger = LoggerFactory.getLogger(ChannelAnalyzer.class);
+    private final AnalyzerSettings settings;
+    private final Executor executor;
+
+    public ChannelAnalyzer(AnalyzerSettings settings) {
+        this(settings, ForkJoinPool.commonPool());
+    }
+
+    public ChannelAnalyzer(AnalyzerSettings settings, Executor executor) {
+        this.settings = settings;
+        this.executor = executor;
+    }
+
+    /**
+     * Analyze each channel; results are returned in channel order
+     */
+    public List<ChannelAnalysis> analyze(List<List<AudioFrame>> channels) {
+        if (channels.size() == 1) {
+            // Mono: nothing to parallelize
+            return List.of(analyzeChannel(0, channels.get(0), Trace.currentFile()));
+        }
+
+        String file = Trace.currentFile();  // the pool threads trace under the caller's file
+        List<CompletableFuture<ChannelAnalysis>> futures = new ArrayList<>();
+        for (int ch = 0; ch < channels.size(); ch++) {
+            int channel = ch;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> analyzeChannel(channel, channels.get(channel), file), executor));
+        }
+
+        List<ChannelAnalysis> results = new ArrayList<>();
+        for (CompletableFuture<ChannelAnalysis> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    private ChannelAnalysis analyzeChannel(int channel, List<AudioFrame> frames, String file) {
+        try (Trace.Span _ = Trace.span("channel", file).arg("channel", channel)) {
+            // Detectors are cheap and hold no per-call state, but each channel gets its own instances
+            SilenceMap silenceMap;
+            GreetingEnd greetingEnd;
+            try (Trace.Span energy = Trace.span("energy")) {
+                EnergyDetector energyDetector = new EnergyDetector(settings);
+                silenceMap = energyDetector.buildSilenceMap(frames);
+                greetingEnd = energyDetector.greetingEnd(silenceMap);
+                energy.arg("segments", silenceMap.segmentCount());
+            }
+            BeepInfo beep;
+            try (Trace.Span _ = Trace.span("beep")) {
+                beep = new BeepDetector(settings).detectBeep(frames, greetingEnd.getTime(), silenceMap);
+            }
+            ChannelAnalysis analysis = new ChannelAnalysis(channel, greetingEnd.getTime(),
+                    greetingEnd.getConfidence(), beep);
+            logger.info("{}", analysis);
+            return analysis;
+        }
+    }
+}
@@ -1,66 +1,167 @@
 package com.clearpath.detection;
 
-import com.clearpath.config.Config;
+import com.clearpath.config.AnalyzerSettings;
 import com.clearpath.model.AudioFrame;
+import com.clearpath.model.GreetingEnd;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.util.List;
 
 public class EnergyDetector {
     private static final Logger logger = LoggerFactory.getLogger(EnergyDetector.class);
 
+    // Confidence vs silence margin: 50% at 2 dB below the threshold, ~98% at 10 dB
+    private static final double MARGIN_MIDPOINT_DB = 2.0;
+    private static final double MARGIN_SCALE_DB = 2.0;
+    private static final double NO_SILENCE_CONFIDENCE = 0.25;
+
+    private final AnalyzerSettings settings;
+
+    public EnergyDetector() {
+        this(AnalyzerSettings.defaults());
+    }
+
+    public EnergyDetector(AnalyzerSettings settings) {
+        this.settings = settings;
+    }
+
     public double detectGreetingEnd(List<AudioFrame> frames) {
-        logger.info("Detecting greeting end using energy analysis...");
+        return detectGreetingEndEstimate(frames).getTime();
+    }
 
-        int consecutiveSilentFrames = 0;
-        int requiredSilentFrames = (int) (Config.SILENCE_DURATION_SEC / (Config.FRAME_SIZE_MS / 1000.0));
-        boolean speechStarted = false;  // NEW: Track if we've seen speech yet
+    /**
+     * Greeting end plus how far the following silence sits below the threshold, as a confidence
+     */
+    public GreetingEnd detectGreetingEndEstimate(List<AudioFrame> frames) {
+        logger.info("Detecting greeting end using energy analysis...");
+        return greetingEnd(buildSilenceMap(frames));
+    }
 
-        logger.info("Looking for {} consecutive silent frames ({} second)",
-                requiredSilentFrames, Config.SILENCE_DURATION_SEC);
+    /**
+     * Speech/silence segments of a whole channel, in one pass over the frame energies
+     */
+    public SilenceMap buildSilenceMap(List<AudioFrame> frames) {
+        SilenceMap.Builder builder = new SilenceMap.Builder(settings.getSilenceThresholdDb(),
+                settings.getSpeechThresholdDb(), settings.getClickMaxSec(), settings.getFrameDurationSec());
+        for (AudioFrame frame : frames) {
+            builder.add(calculateEnergyDB(frame.getSamples()));
+        }
+        SilenceMap map = builder.build();
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} segments: {}", map.segmentCount(), map);
+        }
+        return map;
+    }
 
-        for (int i = 0; i < frames.size(); i++) {
-            AudioFrame frame = frames.get(i);
-            double energyDB = calculateEnergyDB(frame.getSamples());
+    /**
+     * Greeting end under {@code energy.greeting.end.policy}: the start of the first silence
+     * lasting {@code energy.silence.duration.sec} after speech ({@code first-silence}), of the
+     * longest such silence ({@code longest-silence}, for greetings with long pauses), or of the
+     * silence after the last sound at all ({@code last-speech}, for recordings that stop after
+     * the greeting)
+     */
+    public GreetingEnd greetingEnd(SilenceMap map) {
+        int firstSound = map.segmentCount() == 0 ? -1 : map.isSound(0) ? 0 : map.segmentCount() > 1 ? 1 : -1;
+        if (firstSound >= 0) {
+            logger.info("Speech started at {}s", String.format("%.3f", map.startTime(firstSound)));
+        }
 
-            // NEW: Check if speech has started
-            if (!speechStarted && energyDB > Config.SPEECH_THRESHOLD_DB) {
-                speechStarted = true;
-                logger.info("Speech started at {}s", String.format("%.3f", frame.getTimestamp()));
+        int requiredSilentFrames = (int) (settings.getSilenceDurationSec() / settings.getFrameDurationSec());
+        int segment = switch (settings.getGreetingEndPolicy()) {
+            case "longest-silence" -> map.longestSilence(requiredSilentFrames);
+            case "last-speech" -> {
+                int lastSound = map.lastSound();
+                yield lastSound >= 0 && lastSound + 1 < map.segmentCount() ? lastSound + 1 : -1;
             }
+            default -> map.firstSilence(requiredSilentFrames);
+        };
+
+        if (segment < 0) {
+            logger.warn("No clear greeting end detected (no sustained silence after speech)");
+            return noGreetingEnd((map.frameCount() - 1) * map.getFrameSec());
+        }
+        double greetingEndTime = map.startTime(segment);
+        double marginDb = settings.getSilenceThresholdDb() - map.meanSilentEnergyDb(segment);
+        double confidence = 1.0 / (1.0 + Math.exp(-(marginDb - MARGIN_MIDPOINT_DB) / MARGIN_SCALE_DB));
+        logger.info("Greeting end detected at {}s (energy dropped below {}dB for {}s, margin {}dB, {})",
+                String.format("%.3f", greetingEndTime), settings.getSilenceThresholdDb(),
+                String.format("%.2f", map.lengthFrames(segment) * map.getFrameSec()),
+                String.format("%.1f", marginDb), settings.getGreetingEndPolicy());
+        return new GreetingEnd(greetingEndTime, true, marginDb, confidence);
+    }
 
-            // Only look for silence AFTER speech has started
-            if (speechStarted && energyDB < Config.SILENCE_THRESHOLD_DB) {
-                consecutiveSilentFrames++;
-
-                if (consecutiveSilentFrames >= requiredSilentFrames) {
-                    double greetingEndTime = frame.getTimestamp() - Config.SILENCE_DURATION_SEC;
-                    logger.info("Greeting end detected at {}s (energy dropped below {}dB)",
-                            String.format("%.3f", greetingEndTime), Config.SILENCE_THRESHOLD_DB);
-                    return greetingEndTime;
-                }
-            } else if (speechStarted) {  // Only reset if speech has started
-                if (consecutiveSilentFrames > 0) {
-                    logger.debug("Reset silence counter at {}s (energy: {}dB)",
-                            String.format("%.3f", frame.getTimestamp()),
-                            String.format("%.1f", energyDB));
-                }
-                consecutiveSilentFrames = 0;
+    /**
+     * The first-silence greeting end as found frame by frame, e.g. by a live session; without
+     * hysteresis any frame above the silence threshold restarts the silent run
+     */
+    public GreetingEnd detectGreetingEndStreaming(List<AudioFrame> frames) {
+        GreetingScanState state = new GreetingScanState();
+        for (AudioFrame frame : frames) {
+            GreetingEnd greetingEnd = scanFrame(frame.getSamples(), frame.getTimestamp(), state);
+            if (greetingEnd != null) {
+                return greetingEnd;
             }
+        }
+        return noGreetingEnd(frames.get(frames.size() - 1).getTimestamp());
+    }
+
+    /**
+     * Advance the greeting-end search by one frame. Returns the greeting end once enough
+     * consecutive silent frames follow speech, otherwise {@code null}.
+     */
+    public GreetingEnd scanFrame(double[] samples, double timestamp, GreetingScanState state) {
+        return scanEnergy(calculateEnergyDB(samples), timestamp, state);
+    }
+
+    /**
+     * {@link #scanFrame(double[], double, GreetingScanState)} over a segment of
+     * {@code JAVA_DOUBLE} samples, e.g. a live session's off-heap frame
+     */
+    public GreetingEnd scanFrame(MemorySegment samples, double timestamp, GreetingScanState state) {
+        return scanEnergy(calculateEnergyDB(samples), timestamp, state);
+    }
+
+    private GreetingEnd scanEnergy(double energyDB, double timestamp, GreetingScanState state) {
+        state.lastEnergyDb = energyDB;
+
+        // Check if speech has started
+        if (!state.speechStarted && energyDB > settings.getSpeechThresholdDb()) {
+            state.speechStarted = true;
+        }
 
-            if (i % 50 == 0) {
-                logger.debug("Frame {} at {}s: energy = {}dB, speech_started = {}, silent frames = {}",
-                        i,
-                        String.format("%.3f", frame.getTimestamp()),
-                        String.format("%.1f", energyDB),
-                        speechStarted,
-                        consecutiveSilentFrames);
+        // Only look for silence AFTER speech has started
+        if (state.speechStarted && energyDB < settings.getSilenceThresholdDb()) {
+            state.consecutiveSilentFrames++;
+            state.silentEnergySum += energyDB;
+
+            int requiredSilentFrames = (int) (settings.getSilenceDurationSec() / settings.getFrameDurationSec());
+            if (state.consecutiveSilentFrames >= requiredSilentFrames) {
+                double greetingEndTime = timestamp - settings.getSilenceDurationSec();
+                double marginDb = settings.getSilenceThresholdDb()
+                        - state.silentEnergySum / state.consecutiveSilentFrames;
+                double confidence = 1.0 / (1.0 + Math.exp(-(marginDb - MARGIN_MIDPOINT_DB) / MARGIN_SCALE_DB));
+                return new GreetingEnd(greetingEndTime, true, marginDb, confidence);
+            }
+        } else if (state.speechStarted) {  // Only reset if speech has started
+            if (state.consecutiveSilentFrames > 0 && logger.isDebugEnabled()) {
+                logger.debug("Reset silence counter at {}s (energy: {}dB)",
+                        String.format("%.3f", timestamp),
+                        String.format("%.1f", energyDB));
             }
+            state.consecutiveSilentFrames = 0;
+            state.silentEnergySum = 0;
         }
+        return null;
+    }
 
-        logger.warn("No clear greeting end detected (no sustained silence after speech)");
-        return frames.get(frames.size() - 1).getTimestamp();
+    /**
+     * Fallback when the audio ends (or a live call times out) without sustained silence
+     */
+    public GreetingEnd noGreetingEnd(double lastTimestamp) {
+        return new GreetingEnd(lastTimestamp, false, 0.0, NO_SILENCE_CONFIDENCE);
     }
 
     public double calculateEnergyDB(double[] samples) {
@@ -68,8 +169,20 @@ public class EnergyDetector {
         for (double sample : samples) {
             sumSquares += sample * sample;
         }
-        double rms = Math.sqrt(sumSquares / samples.length);
+        return toDecibels(Math.sqrt(sumSquares / samples.length));
+    }
+
+    public double calculateEnergyDB(MemorySegment samples) {
+        long count = samples.byteSize() / Double.BYTES;
+        double sumSquares = 0.0;
+        for (long i = 0; i < count; i++) {
+            double sample = samples.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+            sumSquares += sample * sample;
+        }
+        return toDecibels(Math.sqrt(sumSquares / count));
+    }
 
+    private static double toDecibels(double rms) {
         if (rms < 1e-10) {
             return -100.0;
         }
@@ -88,9 +201,9 @@ public class EnergyDetector {
             double energyDB = calculateEnergyDB(frame.getSamples());
             String status;
 
-            if (energyDB > Config.SPEECH_THRESHOLD_DB) {
+            if (energyDB > settings.getSpeechThresholdDb()) {
                 status = "SPEECH";
-            } else if (energyDB < Config.SILENCE_THRESHOLD_DB) {
+            } else if (energyDB < settings.getSilenceThresholdDb()) {
                 status = "SILENCE";
             } else {
                 status = "UNCERTAIN";
@@ -0,0 +1,42 @@
+package com.clearpath.detection;
+
+import com.clearpath.model.AudioFrame;
+
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+
+/**
+ * Random access to the frames a detector has been fed so far.
+ *
+ * <p>Batch analysis wraps the whole frame list. A live session only keeps the last few frames,
+ * which is all beep edge refinement looks at ({@link #size()} still counts every frame seen).</p>
+ *
+ * <p>Frames are exposed as segments of {@code JAVA_DOUBLE} samples so the detectors read heap
+ * arrays and a session's off-heap slab through the same code.</p>
+ */
+public interface FrameHistory {
+    MemorySegment segment(int frameIndex);
+
+    double timestamp(int frameIndex);
+
+    int size();
+
+    static FrameHistory of(List<AudioFrame> frames) {
+        return new FrameHistory() {
+            @Override
+            public MemorySegment segment(int frameIndex) {
+                return MemorySegment.ofArray(frames.get(frameIndex).getSamples());
+            }
+
+            @Override
+            public double timestamp(int frameIndex) {
+                return frames.get(frameIndex).getTimestamp();
+            }
+
+            @Override
+            public int size() {
+                return frames.size();
+            }
+        };
+    }
+}
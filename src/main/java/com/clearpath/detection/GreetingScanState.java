@@ -0,0 +1,31 @@
+package com.clearpath.detection;
+
+/**
+ * Per-stream progress of {@link EnergyDetector#scanFrame}: a few primitives, so a live
+ * session can carry one without holding on to audio
+ */
+public final class GreetingScanState {
+    boolean speechStarted;
+    int consecutiveSilentFrames;
+    double silentEnergySum;  // dB sum over the current silent run
+    double lastEnergyDb;
+
+    public void reset() {
+        speechStarted = false;
+        consecutiveSilentFrames = 0;
+        silentEnergySum = 0;
+        lastEnergyDb = 0;
+    }
+
+    /**
+     * Forget the current silent run, e.g. across missing audio
+     */
+    public void breakSilenceRun() {
+        consecutiveSilentFrames = 0;
+        silentEnergySum = 0;
+    }
+
+    public boolean isSpeechStarted() { return speechStarted; }
+    public int getConsecutiveSilentFrames() { return consecutiveSilentFrames; }
+    public double getLastEnergyDb() { return lastEnergyDb; }
+}
@@ -0,0 +1,244 @@
+package com.clearpath.detection;
+
+import java.util.Arrays;
+
+/**
+ * Run-length encoded speech/silence segmentation of one channel, built in one pass over the
+ * frame energies by {@link Builder}.
+ *
+ * <p>Segments alternate between silence and sound and cover every frame. Switching uses
+ * hysteresis: silence gives way to sound only above the speech threshold and sound to silence
+ * only below the silence threshold, so a frame in between continues whatever came before. Sound
+ * in silence shorter than the click length (a click, a pop, a burst of line noise) is absorbed
+ * into the surrounding silence instead of cutting it in two. Memory is a few numbers per
+ * segment, however long the recording.</p>
+ *
+ * <p>Greeting-end policies and the beep search window are queries over the segments; times are
+ * frame starts ({@code frame * frameSec}).</p>
+ */
+public final class SilenceMap {
+    private final int[] starts;          // first frame of each segment
+    private final double[] energySums;   // dB sum over the segment's frames below the silence threshold
+    private final int[] energyFrames;    // frames in that sum
+    private final int segments;
+    private final boolean firstIsSound;
+    private final int totalFrames;
+    private final double frameSec;
+
+    private SilenceMap(int[] starts, double[] energySums, int[] energyFrames, int segments,
+                       boolean firstIsSound, int totalFrames, double frameSec) {
+        this.starts = starts;
+        this.energySums = energySums;
+        this.energyFrames = energyFrames;
+        this.segments = segments;
+        this.firstIsSound = firstIsSound;
+        this.totalFrames = totalFrames;
+        this.frameSec = frameSec;
+    }
+
+    public int segmentCount() { return segments; }
+    public int frameCount() { return totalFrames; }
+    public double getFrameSec() { return frameSec; }
+
+    public boolean isSound(int segment) {
+        return firstIsSound == (segment % 2 == 0);
+    }
+
+    public int startFrame(int segment) {
+        return starts[segment];
+    }
+
+    /**
+     * Frame after the segment's last
+     */
+    public int endFrame(int segment) {
+        return segment + 1 < segments ? starts[segment + 1] : totalFrames;
+    }
+
+    public int lengthFrames(int segment) {
+        return endFrame(segment) - startFrame(segment);
+    }
+
+    public double startTime(int segment) {
+        return starts[segment] * frameSec;
+    }
+
+    public double endTime(int segment) {
+        return endFrame(segment) * frameSec;
+    }
+
+    /**
+     * Mean energy (dB) of the segment's frames below the silence threshold, NaN if there are none
+     */
+    public double meanSilentEnergyDb(int segment) {
+        return energyFrames[segment] == 0 ? Double.NaN : energySums[segment] / energyFrames[segment];
+    }
+
+    /**
+     * Segment containing {@code frame}, or -1 past the end
+     */
+    public int segmentAt(int frame) {
+        if (frame < 0 || frame >= totalFrames || segments == 0) {
+            return -1;
+        }
+        int found = Arrays.binarySearch(starts, 0, segments, frame);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    // ==================== Greeting-end queries ====================
+
+    /**
+     * First silence segment of at least {@code minFrames} after sound, or -1
+     */
+    public int firstSilence(int minFrames) {
+        for (int s = firstIsSound ? 1 : 2; s < segments; s += 2) {
+            if (lengthFrames(s) >= minFrames) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Longest silence segment of at least {@code minFrames} after sound (the earliest on a tie), or -1
+     */
+    public int longestSilence(int minFrames) {
+        int best = -1;
+        for (int s = firstIsSound ? 1 : 2; s < segments; s += 2) {
+            if (lengthFrames(s) >= minFrames && (best < 0 || lengthFrames(s) > lengthFrames(best))) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Last sound segment, or -1 if the channel is silent throughout
+     */
+    public int lastSound() {
+        for (int s = segments - 1; s >= 0; s--) {
+            if (isSound(s)) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    // ==================== Beep search ====================
+
+    /**
+     * End (exclusive frame) of a beep search over {@code [fromFrame, endFrame)}, pushed past
+     * {@code endFrame} when a sound segment (a beep candidate) starts inside the window and is
+     * still going at its end, so the run's falling edge gets scanned too. The extension covers
+     * at most {@code maxSoundFrames} of the sound plus one frame to see it stop.
+     */
+    public int beepSearchEnd(int fromFrame, int endFrame, int maxSoundFrames) {
+        int segment = segmentAt(endFrame - 1);
+        if (segment < 0 || !isSound(segment) || startFrame(segment) < fromFrame || endFrame(segment) <= endFrame) {
+            return endFrame;
+        }
+        return Math.max(endFrame, Math.min(endFrame(segment), startFrame(segment) + maxSoundFrames) + 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SilenceMap[");
+        for (int s = 0; s < segments; s++) {
+            sb.append(s == 0 ? "" : " ").append(isSound(s) ? "sound " : "silence ")
+                    .append(String.format("%.2f-%.2f", startTime(s), endTime(s)));
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Feeds frame energies in order; a few primitives of state plus the segment arrays
+     */
+    public static final class Builder {
+        private final double silenceThresholdDb;
+        private final double speechThresholdDb;
+        private final int clickFrames;
+        private final double frameSec;
+
+        private int[] starts = new int[16];
+        private double[] energySums = new double[16];
+        private int[] energyFrames = new int[16];
+        private int segments;
+        private boolean firstIsSound;
+        private boolean inSound;
+        private int frames;
+
+        // Sound inside silence not yet long enough to count as a segment
+        private int pendingStart = -1;
+
+        public Builder(double silenceThresholdDb, double speechThresholdDb, double clickSec, double frameSec) {
+            this.silenceThresholdDb = silenceThresholdDb;
+            this.speechThresholdDb = speechThresholdDb;
+            this.clickFrames = (int) Math.round(clickSec / frameSec);
+            this.frameSec = frameSec;
+        }
+
+        public void add(double energyDb) {
+            int frame = frames++;
+            if (segments == 0) {
+                open(frame);  // silence until sound proves otherwise
+            }
+
+            if (inSound) {
+                if (energyDb < silenceThresholdDb) {
+                    inSound = false;
+                    open(frame);
+                    addEnergy(energyDb);
+                }
+                return;
+            }
+
+            if (pendingStart >= 0) {
+                if (energyDb < silenceThresholdDb) {
+                    pendingStart = -1;  // a click: the silence goes on
+                    addEnergy(energyDb);
+                } else if (frame - pendingStart + 1 > clickFrames) {
+                    inSound = true;
+                    open(pendingStart);
+                    pendingStart = -1;
+                }
+                return;
+            }
+            if (energyDb > speechThresholdDb) {
+                if (clickFrames == 0) {
+                    inSound = true;
+                    open(frame);
+                } else {
+                    pendingStart = frame;
+                }
+            } else if (energyDb < silenceThresholdDb) {
+                addEnergy(energyDb);
+            }
+        }
+
+        public SilenceMap build() {
+            return new SilenceMap(starts, energySums, energyFrames, segments, firstIsSound, frames, frameSec);
+        }
+
+        private void open(int startFrame) {
+            if (segments == 1 && starts[0] == startFrame) {
+                // Sound from the very first frame: the leading silence is empty
+                segments = 0;
+                firstIsSound = !firstIsSound;
+            }
+            if (segments == starts.length) {
+                starts = Arrays.copyOf(starts, segments * 2);
+                energySums = Arrays.copyOf(energySums, segments * 2);
+                energyFrames = Arrays.copyOf(energyFrames, segments * 2);
+            }
+            starts[segments] = startFrame;
+            energySums[segments] = 0;
+            energyFrames[segments] = 0;
+            segments++;
+        }
+
+        private void addEnergy(double energyDb) {
+            energySums[segments - 1] += energyDb;
+            energyFrames[segments - 1]++;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.clearpath.evaluation;
+
+import com.clearpath.audio.AudioReader;
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.config.SettingsProvider;
+import com.clearpath.decision.DecisionEngine;
+import com.clearpath.detection.BeepDetector;
+import com.clearpath.detection.EnergyDetector;
+import com.clearpath.model.AnalysisResult;
+import com.clearpath.model.BeepInfo;
+import com.clearpath.model.GreetingEnd;
+import com.clearpath.synthetic.SyntheticCorpusGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sweeps a grid of settings over a labeled corpus and reports how each point trades
+ * dead air against compliance.
+ *
+ * <p>Every (grid point, sample) pair is independent, so the work is split with
+ * fork/join. Transcription is not called; each sample's labeled beep expectation
+ * is passed to the decision engine instead.</p>
+ *
+ * <p>Usage: {@code EvaluationHarness [--manifest labels.csv] [--audio-dir audio-files]
+ * [--synthetic N] [--grid "key=v1,v2;key2=v3"] [--out sweep.csv] [--threads N]
+ * [--mode sweep|streaming]}. Mode {@code streaming} skips the grid and compares the fixed-delay
+ * and streaming live policies instead (see {@link StreamingComparison}).</p>
+ */
+public class EvaluationHarness {
+    static {
+        // Per-file detector logging would dominate the output of a sweep
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+            System.setProperty("org.slf4j.simpleLogger.log.com.clearpath.evaluation", "info");
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationHarness.class);
+
+    // A detected beep whose start is further than this from the truth counts as missed
+    private static final double BEEP_MATCH_TOLERANCE_SEC = 0.25;
+
+    // Pairs per leaf task; each pair is a full detector pass over one recording
+    private static final int LEAF_SIZE = 4;
+
+    // Per-pair beep outcome
+    private static final byte OUTCOME_NONE = 0;
+    private static final byte OUTCOME_MATCH = 1;
+    private static final byte OUTCOME_MISMATCH = 2;
+
+    private final ForkJoinPool pool;
+
+    public EvaluationHarness(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Evaluate every grid point against every sample
+     */
+    public List<GridPointSummary> evaluate(List<SettingsGrid.GridPoint> points, List<LabeledSample> samples) {
+        int n = samples.size();
+        double[] errors = new double[points.size() * n];
+        byte[] beepOutcome = new byte[points.size() * n];
+        long[] nanos = new long[points.size() * n];
+
+        long wallStart = System.nanoTime();
+        pool.invoke(new EvaluateRange(points, samples, errors, beepOutcome, nanos, 0, errors.length));
+        double wallSec = (System.nanoTime() - wallStart) / 1e9;
+        logger.info("Evaluated {} grid points x {} samples in {}s ({} analyses/s on {} threads)",
+                points.size(), n, String.format("%.2f", wallSec),
+                String.format("%.0f", errors.length / wallSec), pool.getParallelism());
+
+        List<GridPointSummary> summaries = new ArrayList<>();
+        for (int p = 0; p < points.size(); p++) {
+            int beepSamples = 0, missed = 0, noBeepSamples = 0, falseBeeps = 0;
+            long totalNanos = 0;
+            double[] pointErrors = new double[n];
+            for (int s = 0; s < n; s++) {
+                int idx = p * n + s;
+                pointErrors[s] = errors[idx];
+                totalNanos += nanos[idx];
+                if (samples.get(s).hasBeep()) {
+                    beepSamples++;
+                    if (beepOutcome[idx] != OUTCOME_MATCH) {
+                        missed++;
+                    }
+                } else {
+                    noBeepSamples++;
+                    if (beepOutcome[idx] != OUTCOME_NONE) {
+                        falseBeeps++;
+                    }
+                }
+            }
+            summaries.add(new GridPointSummary(points.get(p).getLabel(), pointErrors,
+                    beepSamples, missed, noBeepSamples, falseBeeps, totalNanos));
+        }
+        return summaries;
+    }
+
+    /**
+     * Run the detectors for one (grid point, sample) pair
+     */
+    private static void evaluateOne(AnalyzerSettings settings, LabeledSample sample,
+                                    double[] errors, byte[] beepOutcome, long[] nanos, int idx) {
+        long start = System.nanoTime();
+
+        EnergyDetector energyDetector = new EnergyDetector(settings);
+        BeepDetector beepDetector = new BeepDetector(settings);
+        DecisionEngine decisionEngine = new DecisionEngine(settings);
+
+        GreetingEnd greetingEnd = energyDetector.detectGreetingEndEstimate(sample.getFrames());
+        BeepInfo beep = beepDetector.detectBeep(sample.getFrames(), greetingEnd.getTime());
+        AnalysisResult result = decisionEngine.makeDecision(sample.getName(), greetingEnd.getTime(),
+                greetingEnd.getConfidence(), beep, "", sample.getExpectation());
+
+        nanos[idx] = System.nanoTime() - start;
+        errors[idx] = result.getRecommendedStartTime() - sample.getIdealStartTime();
+        if (!beep.isDetected()) {
+            beepOutcome[idx] = OUTCOME_NONE;
+        } else if (sample.hasBeep()
+                && Math.abs(beep.getStartTime() - sample.getTrueBeepStart()) <= BEEP_MATCH_TOLERANCE_SEC) {
+            beepOutcome[idx] = OUTCOME_MATCH;
+        } else {
+            beepOutcome[idx] = OUTCOME_MISMATCH;
+        }
+    }
+
+    /**
+     * Fork/join task over a flat range of (grid point, sample) indices
+     */
+    private static class EvaluateRange extends RecursiveAction {
+        private final List<SettingsGrid.GridPoint> points;
+        private final List<LabeledSample> samples;
+        private final double[] errors;
+        private final byte[] beepOutcome;
+        private final long[] nanos;
+        private final int from;
+        private final int to;
+
+        EvaluateRange(List<SettingsGrid.GridPoint> points, List<LabeledSample> samples,
+                      double[] errors, byte[] beepOutcome, long[] nanos, int from, int to) {
+            this.points = points;
+            this.samples = samples;
+            this.errors = errors;
+            this.beepOutcome = beepOutcome;
+            this.nanos = nanos;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                int n = samples.size();
+                for (int idx = from; idx < to; idx++) {
+                    evaluateOne(points.get(idx / n).getSettings(), samples.get(idx % n),
+                            errors, beepOutcome, nanos, idx);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EvaluateRange(points, samples, errors, beepOutcome, nanos, from, mid),
+                    new EvaluateRange(points, samples, errors, beepOutcome, nanos, mid, to));
+        }
+    }
+
+    public static void writeCsv(List<GridPointSummary> summaries, String outputPath) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(outputPath))) {
+            writer.println(GridPointSummary.csvHeader());
+            for (GridPointSummary summary : summaries) {
+                writer.println(summary.toCsvRow());
+            }
+        }
+        logger.info("✓ Sweep results written: {}", outputPath);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String manifest = null;
+        String audioDir = "audio-files";
+        int synthetic = 0;
+        String gridSpec = "beep.peak.ratio.db=10,12,15;energy.silence.duration.sec=0.6,0.8,1.0";
+        String out = null;
+        String mode = "sweep";
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--manifest" -> manifest = args[i + 1];
+                case "--audio-dir" -> audioDir = args[i + 1];
+                case "--synthetic" -> synthetic = Integer.parseInt(args[i + 1]);
+                case "--grid" -> gridSpec = args[i + 1];
+                case "--out" -> out = args[i + 1];
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--mode" -> mode = args[i + 1];
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        if (!mode.equals("sweep") && !mode.equals("streaming")) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+
+        AnalyzerSettings base = SettingsProvider.fromDefaultLocation().current();
+        List<LabeledSample> samples = new ArrayList<>(manifest != null
+                ? LabeledManifest.load(Paths.get(manifest), base)
+                : ToneInjectedCorpus.build(audioDir, base));
+        if (synthetic > 0) {
+            samples.addAll(new SyntheticCorpusGenerator()
+                    .inMemoryCorpus(synthetic, 1, 5.0, new AudioReader(base)));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            if (mode.equals("streaming")) {
+                StreamingComparison comparison = new StreamingComparison(base, pool);
+                comparison.checkLateLongBeep();
+                List<StreamingComparison.Row> rows = comparison.compare(samples);
+                comparison.logSummary(rows);
+                StreamingComparison.writeCsv(rows, out != null ? out : "streaming_comparison.csv");
+                return;
+            }
+            List<SettingsGrid.GridPoint> points = SettingsGrid.parse(base, gridSpec).points();
+            List<GridPointSummary> summaries = new EvaluationHarness(pool).evaluate(points, samples);
+            for (GridPointSummary s : summaries) {
+                logger.info("{} → p50 {}s, p99 {}s, early {}%, missed beeps {}%, dead air {}s",
+                        s.getLabel(),
+                        String.format("%.3f", s.getP50Error()),
+                        String.format("%.3f", s.getP99Error()),
+                        String.format("%.1f", s.getEarlyStartRate() * 100),
+                        String.format("%.1f", s.getMissedBeepRate() * 100),
+                        String.format("%.3f", s.getAvgDeadAir()));
+            }
+            writeCsv(summaries, out != null ? out : "evaluation_sweep.csv");
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
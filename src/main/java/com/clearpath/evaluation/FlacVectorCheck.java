@@ -0,0 +1,252 @@
+package com.clearpath.evaluation;
+
+import com.clearpath.audio.source.AudioSource;
+import com.clearpath.audio.source.AudioSources;
+import com.clearpath.audio.source.FlacSource;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sample-exact cross-check of {@link FlacSource} against a directory of test vectors.
+ *
+ * <p>Every file listed in {@code expected.csv} must decode to the expected format, frame count
+ * and PCM MD5, and end cleanly ({@code ok}) or with an EOFException after its last complete
+ * frame ({@code truncated}). Any other {@code .flac} in the directory is checked against its own
+ * STREAMINFO MD5 and sample count.</p>
+ *
+ * <p>The bundled vectors in {@code testdata/flac} come from {@code make_vectors.py}, a separate
+ * encoder written from RFC 9639. Agreement with it shows the two implementations read the spec
+ * the same way, not that the decoder is conformant; files written by the reference {@code flac}
+ * tool can be added to the directory (no expected.csv row needed) for that.</p>
+ *
+ * <p>MD5s follow the STREAMINFO convention: interleaved little-endian samples, right-justified
+ * in whole bytes. Exits with status 1 if any check fails.</p>
+ *
+ * <p>Usage: {@code FlacVectorCheck [--dir testdata/flac]}</p>
+ */
+public class FlacVectorCheck {
+    private static final int READ_CHUNK_BYTES = 64 * 1024;
+
+    private int failures;
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get("testdata", "flac");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--dir": dir = Paths.get(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        FlacVectorCheck check = new FlacVectorCheck();
+        check.checkFlac(dir);
+        if (check.failures > 0) {
+            System.out.println(check.failures + " check(s) failed");
+            System.exit(1);
+        }
+        System.out.println("All FLAC vectors passed");
+    }
+
+    private static final class Expected {
+        int sampleRate;
+        int channels;
+        int bitsPerSample;
+        long frames;
+        String md5;
+        boolean truncated;
+    }
+
+    private static final class Decoded {
+        int sampleRate;
+        int channels;
+        int bitsPerSample;
+        long frames;
+        String md5;
+        boolean truncated;
+        String streamMd5;  // null if unset
+        long totalSamples;
+    }
+
+    void checkFlac(Path dir) throws IOException {
+        Map<String, Expected> expected = loadExpected(dir.resolve("expected.csv"));
+        File[] files = dir.toFile().listFiles();
+        if (files == null) {
+            fail("No FLAC vector directory at " + dir);
+            return;
+        }
+        Arrays.sort(files);
+
+        for (File file : files) {
+            String name = file.getName();
+            Expected want = expected.remove(name);
+            if (want == null && !name.toLowerCase(Locale.ROOT).endsWith(".flac")) {
+                continue;
+            }
+
+            Decoded got;
+            try {
+                got = decode(file);
+            } catch (Exception e) {
+                fail(name + ": " + e);
+                continue;
+            }
+
+            List<String> problems = new ArrayList<>();
+            if (want != null) {
+                compare(problems, "sample rate", want.sampleRate, got.sampleRate);
+                compare(problems, "channels", want.channels, got.channels);
+                compare(problems, "bits per sample", want.bitsPerSample, got.bitsPerSample);
+                compare(problems, "frames", want.frames, got.frames);
+                compare(problems, "PCM MD5", want.md5, got.md5);
+                compare(problems, "outcome", want.truncated ? "truncated" : "ok", got.truncated ? "truncated" : "ok");
+                if (!want.truncated && got.streamMd5 != null) {
+                    compare(problems, "STREAMINFO MD5", want.md5, got.streamMd5);
+                }
+            } else if (got.streamMd5 != null) {
+                // Not listed: trust the encoder's own STREAMINFO
+                compare(problems, "outcome", "ok", got.truncated ? "truncated" : "ok");
+                compare(problems, "PCM MD5", got.streamMd5, got.md5);
+                if (got.totalSamples > 0) {
+                    compare(problems, "frames", got.totalSamples, got.frames);
+                }
+            } else {
+                System.out.println(String.format("SKIP %s: not in expected.csv and no STREAMINFO MD5", name));
+                continue;
+            }
+            report(name + String.format(" (%d ch, %d bit, %d frames%s)", got.channels, got.bitsPerSample,
+                    got.frames, got.truncated ? ", truncated" : ""), problems);
+        }
+
+        for (String missing : expected.keySet()) {
+            fail(missing + ": listed in expected.csv but not found");
+        }
+    }
+
+    private static Map<String, Expected> loadExpected(Path csv) throws IOException {
+        Map<String, Expected> expected = new HashMap<>();
+        if (!Files.exists(csv)) {
+            return expected;
+        }
+        try (BufferedReader in = Files.newBufferedReader(csv)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("file,")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length != 7) {
+                    throw new IOException("Bad expected.csv line: " + line);
+                }
+                Expected e = new Expected();
+                e.sampleRate = Integer.parseInt(parts[1]);
+                e.channels = Integer.parseInt(parts[2]);
+                e.bitsPerSample = Integer.parseInt(parts[3]);
+                e.frames = Long.parseLong(parts[4]);
+                e.md5 = parts[5].toLowerCase(Locale.ROOT);
+                e.truncated = parts[6].equals("truncated");
+                expected.put(parts[0], e);
+            }
+        }
+        return expected;
+    }
+
+    private static Decoded decode(File file) throws Exception {
+        Decoded decoded = new Decoded();
+        MessageDigest digest = md5();
+
+        try (AudioSource source = AudioSources.open(file)) {
+            if (!(source instanceof FlacSource flac)) {
+                throw new IOException("not decoded as FLAC but as " + source.getDescription());
+            }
+            decoded.sampleRate = (int) source.getFormat().getSampleRate();
+            decoded.channels = source.getFormat().getChannels();
+            decoded.bitsPerSample = flac.getBitsPerSample();
+            decoded.totalSamples = flac.getTotalSamples();
+            byte[] streamMd5 = flac.getStreamMd5();
+            decoded.streamMd5 = streamMd5 == null ? null : HexFormat.of().formatHex(streamMd5);
+
+            int sampleBytes = source.getFormat().getSampleSizeInBits() / 8;
+            int shift = sampleBytes * 8 - decoded.bitsPerSample;  // undo the left-justification
+            byte[] buffer = new byte[READ_CHUNK_BYTES - READ_CHUNK_BYTES % source.getFormat().getFrameSize()];
+            long bytes = 0;
+            while (true) {
+                int n;
+                try {
+                    n = source.read(buffer, 0, buffer.length);
+                } catch (EOFException e) {
+                    decoded.truncated = true;
+                    break;
+                }
+                if (n < 0) {
+                    break;
+                }
+                if (shift > 0) {
+                    for (int i = 0; i < n; i += sampleBytes) {
+                        int sample = 0;
+                        for (int b = 0; b < sampleBytes; b++) {
+                            sample |= (buffer[i + b] & 0xFF) << (8 * b);
+                        }
+                        sample = (sample << (32 - 8 * sampleBytes)) >> (32 - 8 * sampleBytes + shift);
+                        for (int b = 0; b < sampleBytes; b++) {
+                            buffer[i + b] = (byte) (sample >> (8 * b));
+                        }
+                    }
+                }
+                digest.update(buffer, 0, n);
+                bytes += n;
+            }
+            decoded.frames = bytes / source.getFormat().getFrameSize();
+        }
+        decoded.md5 = HexFormat.of().formatHex(digest.digest());
+        return decoded;
+    }
+
+    // ==================== Reporting ====================
+
+    private static void compare(List<String> problems, String what, Object expected, Object actual) {
+        if (!expected.equals(actual)) {
+            problems.add(what + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    private void report(String name, List<String> problems) {
+        if (problems.isEmpty()) {
+            System.out.println("PASS " + name);
+            return;
+        }
+        for (String problem : problems) {
+            fail(name + ": " + problem);
+        }
+    }
+
+    private void fail(String message) {
+        failures++;
+        System.out.println("FAIL " + message);
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is required by every JRE", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.clearpath.evaluation;
+
+import java.util.Arrays;
+
+/**
+ * Accuracy/latency metrics for one grid point over the whole corpus.
+ *
+ * <p>Start error is {@code recommended - ideal}, where ideal is the true beep end
+ * (or true greeting end when there is no beep). Negative errors are compliance
+ * risks (playback starts before recording); positive errors are dead air.</p>
+ */
+public class GridPointSummary {
+    private final String label;
+    private final int samples;
+    private final double meanError;
+    private final double p50Error;
+    private final double p90Error;
+    private final double p99Error;
+    private final double minError;
+    private final double maxError;
+    private final double earlyStartRate;
+    private final double missedBeepRate;
+    private final double falseBeepRate;
+    private final double avgDeadAir;
+    private final double filesPerSec;
+
+    GridPointSummary(String label, double[] errors, int beepSamples, int missedBeeps,
+                     int noBeepSamples, int falseBeeps, long totalNanos) {
+        this.label = label;
+        this.samples = errors.length;
+
+        double[] sorted = errors.clone();
+        Arrays.sort(sorted);
+        double sum = 0;
+        double deadAir = 0;
+        int early = 0;
+        for (double e : sorted) {
+            sum += e;
+            if (e < 0) {
+                early++;
+            } else {
+                deadAir += e;
+            }
+        }
+        this.meanError = sum / sorted.length;
+        this.p50Error = percentile(sorted, 0.50);
+        this.p90Error = percentile(sorted, 0.90);
+        this.p99Error = percentile(sorted, 0.99);
+        this.minError = sorted[0];
+        this.maxError = sorted[sorted.length - 1];
+        this.earlyStartRate = early / (double) sorted.length;
+        this.avgDeadAir = deadAir / sorted.length;
+        this.missedBeepRate = beepSamples == 0 ? 0 : missedBeeps / (double) beepSamples;
+        this.falseBeepRate = noBeepSamples == 0 ? 0 : falseBeeps / (double) noBeepSamples;
+        this.filesPerSec = totalNanos == 0 ? 0 : sorted.length / (totalNanos / 1e9);
+    }
+
+    static double percentile(double[] sorted, double q) {
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    public static String csvHeader() {
+        return "Grid_Point,Samples,Mean_Error(s),P50_Error(s),P90_Error(s),P99_Error(s),Min_Error(s),Max_Error(s)," +
+                "Early_Start_Rate,Missed_Beep_Rate,False_Beep_Rate,Avg_Dead_Air(s),Files_Per_Sec";
+    }
+
+    public String toCsvRow() {
+        return String.format(java.util.Locale.ROOT,
+                "\"%s\",%d,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f,%.1f",
+                label.replace("\"", "\"\""), samples, meanError, p50Error, p90Error, p99Error,
+                minError, maxError, earlyStartRate, missedBeepRate, falseBeepRate, avgDeadAir, filesPerSec);
+    }
+
+    public String getLabel() { return label; }
+    public int getSamples() { return samples; }
+    public double getMeanError() { return meanError; }
+    public double getP50Error() { return p50Error; }
+    public double getP90Error() { return p90Error; }
+    public double getP99Error() { return p99Error; }
+    public double getMinError() { return minError; }
+    public double getMaxError() { return maxError; }
+    public double getEarlyStartRate() { return earlyStartRate; }
+    public double getMissedBeepRate() { return missedBeepRate; }
+    public double getFalseBeepRate() { return falseBeepRate; }
+    public double getAvgDeadAir() { return avgDeadAir; }
+    public double getFilesPerSec() { return filesPerSec; }
+}
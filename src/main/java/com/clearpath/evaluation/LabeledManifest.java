@@ -0,0 +1,78 @@
+package com.clearpath.evaluation;
+
+import com.clearpath.audio.AudioReader;
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.transcription.TranscriptAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads a labeled corpus from a CSV manifest.
+ *
+ * <p>Format (one file per line, '#' starts a comment, paths are relative to the manifest):</p>
+ * <pre>
+ * file,greeting_end_sec,beep_start_sec,beep_end_sec[,expectation]
+ * vm1_output.wav,10.74,,,LOW
+ * vm2_output.wav,9.10,9.85,10.40,HIGH
+ * </pre>
+ * <p>Empty beep columns mean the recording has no beep. The optional expectation
+ * (HIGH/MEDIUM/LOW) stands in for the transcript so sweeps run without STT calls.</p>
+ */
+public class LabeledManifest {
+    private static final Logger logger = LoggerFactory.getLogger(LabeledManifest.class);
+
+    public static List<LabeledSample> load(Path manifest, AnalyzerSettings settings) throws IOException {
+        AudioReader reader = new AudioReader(settings);
+        Path baseDir = manifest.toAbsolutePath().getParent();
+        List<LabeledSample> samples = new ArrayList<>();
+
+        try (BufferedReader in = Files.newBufferedReader(manifest)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("file,")) {
+                    continue;
+                }
+
+                String[] cols = line.split(",", -1);
+                if (cols.length < 4) {
+                    throw new IOException("Manifest line " + lineNumber + ": expected at least 4 columns");
+                }
+
+                Path audio = baseDir.resolve(cols[0].trim());
+                try {
+                    double greetingEnd = Double.parseDouble(cols[1].trim());
+                    double beepStart = parseOptional(cols[2]);
+                    double beepEnd = parseOptional(cols[3]);
+                    TranscriptAnalyzer.BeepExpectation expectation = cols.length > 4 && !cols[4].isBlank()
+                            ? TranscriptAnalyzer.BeepExpectation.valueOf(cols[4].trim().toUpperCase())
+                            : TranscriptAnalyzer.BeepExpectation.LOW;
+
+                    samples.add(new LabeledSample(audio.getFileName().toString(),
+                            reader.readAudioFile(audio.toString()),
+                            greetingEnd, beepStart, beepEnd, expectation));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Manifest line " + lineNumber + ": " + e.getMessage(), e);
+                } catch (javax.sound.sampled.UnsupportedAudioFileException e) {
+                    throw new IOException("Unsupported audio file " + audio + ": " + e.getMessage(), e);
+                }
+            }
+        }
+
+        logger.info("Loaded {} labeled samples from {}", samples.size(), manifest);
+        return samples;
+    }
+
+    private static double parseOptional(String value) {
+        return value.isBlank() ? Double.NaN : Double.parseDouble(value.trim());
+    }
+}
@@ -0,0 +1,46 @@
+package com.clearpath.evaluation;
+
+import com.clearpath.model.AudioFrame;
+import com.clearpath.transcription.TranscriptAnalyzer;
+
+import java.util.List;
+
+/**
+ * One corpus entry: decoded frames plus ground-truth timing.
+ *
+ * <p>Frames are decoded once and shared read-only by every grid point of a sweep.</p>
+ */
+public class LabeledSample {
+    private final String name;
+    private final List<AudioFrame> frames;
+    private final double trueGreetingEnd;
+    private final double trueBeepStart;   // NaN when the recording has no beep
+    private final double trueBeepEnd;     // NaN when the recording has no beep
+    private final TranscriptAnalyzer.BeepExpectation expectation;
+
+    public LabeledSample(String name, List<AudioFrame> frames, double trueGreetingEnd,
+                         double trueBeepStart, double trueBeepEnd,
+                         TranscriptAnalyzer.BeepExpectation expectation) {
+        this.name = name;
+        this.frames = frames;
+        this.trueGreetingEnd = trueGreetingEnd;
+        this.trueBeepStart = trueBeepStart;
+        this.trueBeepEnd = trueBeepEnd;
+        this.expectation = expectation;
+    }
+
+    public String getName() { return name; }
+    public List<AudioFrame> getFrames() { return frames; }
+    public double getTrueGreetingEnd() { return trueGreetingEnd; }
+    public double getTrueBeepStart() { return trueBeepStart; }
+    public double getTrueBeepEnd() { return trueBeepEnd; }
+    public TranscriptAnalyzer.BeepExpectation getExpectation() { return expectation; }
+    public boolean hasBeep() { return !Double.isNaN(trueBeepStart); }
+
+    /**
+     * Earliest compliant start: the end of the beep, or the end of the greeting when there is none
+     */
+    public double getIdealStartTime() {
+        return hasBeep() ? trueBeepEnd : trueGreetingEnd;
+    }
+}
@@ -0,0 +1,87 @@
+package com.clearpath.evaluation;
+
+import com.clearpath.config.AnalyzerSettings;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cartesian product of setting values to sweep.
+ *
+ * <p>Parsed from a spec such as
+ * {@code beep.peak.ratio.db=10,12,15;decision.post.beep.delay.sec=0.2,0.5},
+ * using the same keys as the properties file. Audio keys are rejected because
+ * the corpus is decoded once with the base frame layout.</p>
+ */
+public class SettingsGrid {
+    private final AnalyzerSettings base;
+    private final Map<String, List<String>> axes = new LinkedHashMap<>();
+
+    public SettingsGrid(AnalyzerSettings base) {
+        this.base = base;
+    }
+
+    public static SettingsGrid parse(AnalyzerSettings base, String spec) {
+        SettingsGrid grid = new SettingsGrid(base);
+        if (spec == null || spec.isBlank()) {
+            return grid;
+        }
+        for (String axis : spec.split(";")) {
+            int eq = axis.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Malformed grid axis: " + axis);
+            }
+            grid.axis(axis.substring(0, eq).trim(), axis.substring(eq + 1).split(","));
+        }
+        return grid;
+    }
+
+    public SettingsGrid axis(String key, String... values) {
+        if (key.startsWith("audio.")) {
+            throw new IllegalArgumentException("Audio settings cannot be swept: " + key);
+        }
+        List<String> list = new ArrayList<>();
+        for (String v : values) {
+            list.add(v.trim());
+        }
+        axes.put(key, list);
+        return this;
+    }
+
+    /**
+     * All grid points, each labelled with its axis values (e.g. "beep.peak.ratio.db=12")
+     */
+    public List<GridPoint> points() {
+        List<GridPoint> points = new ArrayList<>();
+        points.add(new GridPoint("base", base));
+
+        for (Map.Entry<String, List<String>> axis : axes.entrySet()) {
+            List<GridPoint> next = new ArrayList<>();
+            for (GridPoint point : points) {
+                for (String value : axis.getValue()) {
+                    String label = (point.getLabel().equals("base") ? "" : point.getLabel() + " ")
+                            + axis.getKey() + "=" + value;
+                    next.add(new GridPoint(label,
+                            point.getSettings().toBuilder().set(axis.getKey(), value).build()));
+                }
+            }
+            points = next;
+        }
+        return points;
+    }
+
+    public static class GridPoint {
+        private final String label;
+        private final AnalyzerSettings settings;
+
+        GridPoint(String label, AnalyzerSettings settings) {
+            this.label = label;
+            this.settings = settings;
+        }
+
+        public String getLabel() { return label; }
+        public AnalyzerSettings getSettings() { return settings; }
+    }
+}
@@ -0,0 +1,301 @@
+package com.clearpath.evaluation;
+
+import com.clearpath.audio.AudioReader;
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.decision.DecisionScore;
+import com.clearpath.decision.DecisionScorer;
+import com.clearpath.decision.StreamingDecisionPolicy;
+import com.clearpath.decision.StreamingDecisionState;
+import com.clearpath.detection.BeepDetector;
+import com.clearpath.detection.BeepScanState;
+import com.clearpath.detection.EnergyDetector;
+import com.clearpath.detection.FrameHistory;
+import com.clearpath.detection.GreetingScanState;
+import com.clearpath.model.AudioFrame;
+import com.clearpath.model.BeepInfo;
+import com.clearpath.model.GreetingEnd;
+import com.clearpath.transcription.TranscriptAnalyzer.BeepExpectation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Replays a labeled corpus frame by frame, the way a live session sees each call, and compares
+ * the fixed-delay live policy with {@link StreamingDecisionPolicy}: dead air, early starts and
+ * the wait after the detected greeting end, per transcript class.
+ *
+ * <p>Both policies share one pass of the greeting and beep detectors, so they differ only in
+ * when they commit. Audio past the end of a recording reads as silence, so every call is
+ * decided. Run with {@code EvaluationHarness --mode streaming}, which first replays
+ * {@link #checkLateLongBeep a built-in call} whose beep outlasts the streaming bound.</p>
+ */
+public class StreamingComparison {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingComparison.class);
+
+    // Built-in late, long beep call
+    private static final double LATE_GREETING_SEC = 2.0;
+    private static final double LATE_SPEECH_AMPLITUDE = 0.1;    // -20 dB RMS, well above the speech threshold
+    private static final double LATE_NOISE_AMPLITUDE = 0.0005;  // about -66 dBFS RMS
+    private static final double LATE_TONE_AMPLITUDE = 0.3;
+
+    private final AnalyzerSettings settings;
+    private final ForkJoinPool pool;
+
+    public StreamingComparison(AnalyzerSettings settings, ForkJoinPool pool) {
+        this.settings = settings;
+        this.pool = pool;
+    }
+
+    /**
+     * Replay every sample under both policies
+     */
+    public List<Row> compare(List<LabeledSample> samples) {
+        Row[] rows = new Row[samples.size()];
+        long wallStart = System.nanoTime();
+        pool.submit(() -> IntStream.range(0, rows.length).parallel()
+                .forEach(i -> rows[i] = replay(settings, samples.get(i)))).join();
+        logger.info("Replayed {} samples in {}s on {} threads", rows.length,
+                String.format("%.2f", (System.nanoTime() - wallStart) / 1e9), pool.getParallelism());
+        return Arrays.asList(rows);
+    }
+
+    /**
+     * One call as a live session would see it, deciding with both policies
+     */
+    static Row replay(AnalyzerSettings settings, LabeledSample sample) {
+        EnergyDetector energyDetector = new EnergyDetector(settings);
+        BeepDetector beepDetector = new BeepDetector(settings);
+        DecisionScorer scorer = new DecisionScorer(settings);
+        StreamingDecisionPolicy policy = new StreamingDecisionPolicy(settings);
+
+        List<AudioFrame> frames = sample.getFrames();
+        double frameSec = settings.getFrameDurationSec();
+        FrameHistory history = paddedHistory(frames, settings);
+        BeepExpectation expectation = sample.getExpectation();
+        GreetingScanState greetingState = new GreetingScanState();
+        BeepScanState beepState = new BeepScanState();
+        StreamingDecisionState streamingState = new StreamingDecisionState();
+        DecisionScore fixed = new DecisionScore();
+        DecisionScore streaming = new DecisionScore();
+
+        double tail = Math.max(settings.getStreamingMaxWaitSec(),
+                Math.max(settings.getBeepWaitTimeoutSec(), settings.getNoBeepLongDelaySec()))
+                + settings.getBeepMaxDurationSec() + settings.getPostBeepDelaySec();
+        int lastFrame = frames.size() + (int) Math.ceil(tail / frameSec);
+        GreetingEnd greetingEnd = null;
+        double fixedStart = Double.NaN;
+        double streamingStart = Double.NaN;
+
+        for (int i = 0; i < lastFrame && (Double.isNaN(fixedStart) || Double.isNaN(streamingStart)); i++) {
+            MemorySegment samples = history.segment(i);
+            double time = i * frameSec;
+            double audioEnd = time + frameSec;
+
+            if (greetingEnd == null) {
+                greetingEnd = energyDetector.scanFrame(samples, time, greetingState);
+                if (greetingEnd == null) {
+                    boolean timedOut = settings.hasMaxDuration() && audioEnd >= settings.getMaxDurationSec();
+                    if (!timedOut && i < frames.size() - 1) {
+                        continue;
+                    }
+                    greetingEnd = energyDetector.noGreetingEnd(time);
+                }
+                policy.begin(greetingEnd, audioEnd, streamingState);
+            } else {
+                BeepInfo beep = beepDetector.scanFrame(history, i, beepState);
+                if (beep != null) {
+                    scorer.score(greetingEnd.getTime(), greetingEnd.getConfidence(), true, beep.getEndTime(),
+                            beep.getConfidence(), beep.getTimingPrecision(), expectation, fixed);
+                    if (Double.isNaN(fixedStart)) {
+                        fixedStart = fixed.getStartTime();
+                    }
+                    scorer.score(greetingEnd.getTime(), greetingEnd.getConfidence(), true, beep.getEndTime(),
+                            beep.getConfidence(), beep.getTimingPrecision(), expectation, streaming);
+                    if (Double.isNaN(streamingStart) && policy.onBeep(streaming, streamingState)) {
+                        streamingStart = streaming.getStartTime();
+                    }
+                }
+                policy.observe(energyDetector.calculateEnergyDB(samples) > settings.getSilenceThresholdDb(),
+                        streamingState);
+            }
+
+            if (Double.isNaN(streamingStart)
+                    && policy.decide(beepState.isInBeep(), expectation, streamingState, streaming)) {
+                streamingStart = streaming.getStartTime();
+            }
+            if (Double.isNaN(fixedStart) && !beepState.isInBeep()) {
+                scorer.score(greetingEnd.getTime(), greetingEnd.getConfidence(),
+                        false, 0, 0, Double.NaN, expectation, fixed);
+                if (audioEnd >= fixed.getStartTime()) {
+                    fixedStart = fixed.getStartTime();
+                }
+            }
+        }
+        return new Row(sample.getName(), expectation, sample.hasBeep(), sample.getIdealStartTime(),
+                greetingEnd != null ? greetingEnd.getTime() : Double.NaN, fixedStart, streamingStart);
+    }
+
+    // ==================== Late, long beep ====================
+
+    /**
+     * Replay a call whose beep starts late in the start window and lasts almost the longest
+     * valid beep, so it is still sounding at {@code decision.streaming.max.wait.sec}, and fail
+     * if either policy starts before the beep is over
+     */
+    public Row checkLateLongBeep() {
+        Row row = replay(settings, lateLongBeep(settings));
+        logger.info("Late, long beep ending at {}s: fixed start {}s, streaming start {}s",
+                String.format("%.3f", row.idealStart), String.format("%.3f", row.fixedStart),
+                String.format("%.3f", row.streamingStart));
+        if (!(row.fixedStart >= row.idealStart) || !(row.streamingStart >= row.idealStart)) {
+            throw new IllegalStateException(String.format(
+                    "Start before the end of a late, long beep (ends %.3fs, fixed %.3fs, streaming %.3fs)",
+                    row.idealStart, row.fixedStart, row.streamingStart));
+        }
+        return row;
+    }
+
+    /**
+     * Loud noise standing in for the greeting, then quiet line noise with a tone starting 0.1s
+     * before the end of the start window and lasting 0.1s less than the longest valid beep
+     */
+    static LabeledSample lateLongBeep(AnalyzerSettings settings) {
+        int rate = settings.getSampleRate();
+        double beepStart = LATE_GREETING_SEC + settings.getStreamingBeepStartWindowSec() - 0.1;
+        double beepEnd = beepStart + settings.getBeepMaxDurationSec() - 0.1;
+        double freq = (settings.getBeepMinFreqHz() + settings.getBeepMaxFreqHz()) / 2;
+        double[] samples = new double[(int) ((beepEnd + settings.getBeepSearchWindowSec()) * rate)];
+        Random random = new Random(42);
+        for (int i = 0; i < samples.length; i++) {
+            double t = i / (double) rate;
+            samples[i] = (t < LATE_GREETING_SEC ? LATE_SPEECH_AMPLITUDE : LATE_NOISE_AMPLITUDE)
+                    * random.nextGaussian();
+            if (t >= beepStart && t < beepEnd) {
+                samples[i] += LATE_TONE_AMPLITUDE * Math.sin(2.0 * Math.PI * freq * (t - beepStart));
+            }
+        }
+        return new LabeledSample("late-long-beep", new AudioReader(settings).splitIntoFrames(samples),
+                LATE_GREETING_SEC, beepStart, beepEnd, BeepExpectation.HIGH);
+    }
+
+    /**
+     * The recording's frames followed by silence
+     */
+    private static FrameHistory paddedHistory(List<AudioFrame> frames, AnalyzerSettings settings) {
+        MemorySegment silence = MemorySegment.ofArray(new double[settings.getFrameSizeSamples()]);
+        double frameSec = settings.getFrameDurationSec();
+        return new FrameHistory() {
+            @Override
+            public MemorySegment segment(int frameIndex) {
+                return frameIndex < frames.size()
+                        ? MemorySegment.ofArray(frames.get(frameIndex).getSamples()) : silence;
+            }
+
+            @Override
+            public double timestamp(int frameIndex) {
+                return frameIndex * frameSec;
+            }
+
+            @Override
+            public int size() {
+                return Integer.MAX_VALUE;
+            }
+        };
+    }
+
+    /**
+     * Log one line per transcript class plus the whole corpus
+     */
+    public void logSummary(List<Row> rows) {
+        List<String> labels = new ArrayList<>();
+        List<List<Row>> groups = new ArrayList<>();
+        for (BeepExpectation expectation : BeepExpectation.values()) {
+            List<Row> group = rows.stream().filter(r -> r.expectation == expectation).toList();
+            if (!group.isEmpty()) {
+                labels.add(expectation.name());
+                groups.add(group);
+            }
+        }
+        labels.add("ALL");
+        groups.add(rows);
+
+        for (int g = 0; g < groups.size(); g++) {
+            List<Row> group = groups.get(g);
+            double fixedDeadAir = 0, streamingDeadAir = 0, fixedMaxWait = 0, streamingMaxWait = 0;
+            int fixedEarly = 0, streamingEarly = 0, bounded = 0;
+            for (Row row : group) {
+                fixedDeadAir += Math.max(0, row.fixedStart - row.idealStart);
+                streamingDeadAir += Math.max(0, row.streamingStart - row.idealStart);
+                fixedEarly += row.fixedStart < row.idealStart ? 1 : 0;
+                streamingEarly += row.streamingStart < row.idealStart ? 1 : 0;
+                fixedMaxWait = Math.max(fixedMaxWait, row.fixedStart - row.greetingEnd);
+                streamingMaxWait = Math.max(streamingMaxWait, row.streamingStart - row.greetingEnd);
+                bounded += row.streamingStart - row.greetingEnd >= settings.getStreamingMaxWaitSec() - 1e-9 ? 1 : 0;
+            }
+            int n = group.size();
+            logger.info("{} ({} calls): dead air fixed {}s → streaming {}s (saved {}s), early fixed {}% → " +
+                            "streaming {}%, longest wait after greeting fixed {}s → streaming {}s, {} at the bound",
+                    labels.get(g), n,
+                    String.format("%.3f", fixedDeadAir / n), String.format("%.3f", streamingDeadAir / n),
+                    String.format("%.3f", (fixedDeadAir - streamingDeadAir) / n),
+                    String.format("%.1f", fixedEarly * 100.0 / n), String.format("%.1f", streamingEarly * 100.0 / n),
+                    String.format("%.2f", fixedMaxWait), String.format("%.2f", streamingMaxWait), bounded);
+        }
+    }
+
+    public static void writeCsv(List<Row> rows, String outputPath) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(outputPath))) {
+            writer.println("File,Expectation,Has_Beep,Ideal_Start(s),Greeting_End(s),Fixed_Start(s)," +
+                    "Streaming_Start(s),Saved(s)");
+            for (Row row : rows) {
+                writer.println(String.format(Locale.ROOT, "\"%s\",%s,%b,%.4f,%.4f,%.4f,%.4f,%.4f",
+                        row.name.replace("\"", "\"\""), row.expectation, row.hasBeep, row.idealStart,
+                        row.greetingEnd, row.fixedStart, row.streamingStart, row.fixedStart - row.streamingStart));
+            }
+        }
+        logger.info("✓ Streaming comparison written: {}", outputPath);
+    }
+
+    /**
+     * Start times of one call under both policies
+     */
+    public static class Row {
+        private final String name;
+        private final BeepExpectation expectation;
+        private final boolean hasBeep;
+        private final double idealStart;
+        private final double greetingEnd;
+        private final double fixedStart;
+        private final double streamingStart;
+
+        Row(String name, BeepExpectation expectation, boolean hasBeep, double idealStart, double greetingEnd,
+            double fixedStart, double streamingStart) {
+            this.name = name;
+            this.expectation = expectation;
+            this.hasBeep = hasBeep;
+            this.idealStart = idealStart;
+            this.greetingEnd = greetingEnd;
+            this.fixedStart = fixedStart;
+            this.streamingStart = streamingStart;
+        }
+
+        public String getName() { return name; }
+        public BeepExpectation getExpectation() { return expectation; }
+        public boolean hasBeep() { return hasBeep; }
+        public double getIdealStart() { return idealStart; }
+        public double getGreetingEnd() { return greetingEnd; }
+        public double getFixedStart() { return fixedStart; }
+        public double getStreamingStart() { return streamingStart; }
+    }
+}
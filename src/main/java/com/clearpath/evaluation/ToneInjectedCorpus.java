@@ -0,0 +1,109 @@
+package com.clearpath.evaluation;
+
+import com.clearpath.audio.AudioReader;
+import com.clearpath.audio.source.AudioSources;
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.detection.EnergyDetector;
+import com.clearpath.transcription.TranscriptAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Default evaluation corpus built from the bundled greetings.
+ *
+ * <p>Each recording is cut right after its last speech frame (so the true greeting end
+ * is known exactly), then extended with low-level noise. Every greeting yields a
+ * beep variant, with a known tone injected after a short or long pause, and a
+ * no-beep variant. Generation is seeded, so the corpus is identical between runs.</p>
+ */
+public class ToneInjectedCorpus {
+    private static final Logger logger = LoggerFactory.getLogger(ToneInjectedCorpus.class);
+
+    private static final double[] TONE_FREQUENCIES_HZ = {950.0, 1000.0, 1050.0};
+    private static final double[] PAUSES_SEC = {0.4, 1.5};
+    private static final double TONE_AMPLITUDE = 0.3;
+    private static final double NOISE_AMPLITUDE = 0.0005;  // about -66 dBFS RMS
+    private static final double TAIL_SEC = 6.0;
+
+    public static List<LabeledSample> build(String audioDir, AnalyzerSettings settings) throws IOException {
+        File[] files = new File(audioDir).listFiles((dir, name) -> AudioSources.isAudioFileName(name));
+        if (files == null || files.length == 0) {
+            throw new IOException("No audio files found in " + audioDir);
+        }
+        Arrays.sort(files);
+
+        AudioReader reader = new AudioReader(settings);
+        EnergyDetector energy = new EnergyDetector(settings);
+        int rate = settings.getSampleRate();
+        int frameSize = settings.getFrameSizeSamples();
+        Random random = new Random(42);
+        List<LabeledSample> samples = new ArrayList<>();
+
+        for (int f = 0; f < files.length; f++) {
+            double[] original;
+            try {
+                original = reader.readSamples(files[f].getPath());
+            } catch (javax.sound.sampled.UnsupportedAudioFileException e) {
+                throw new IOException("Unsupported audio file " + files[f] + ": " + e.getMessage(), e);
+            }
+
+            // Cut after the last frame that is clearly speech
+            int cut = -1;
+            double[] frame = new double[frameSize];
+            for (int i = 0; i + frameSize <= original.length; i += frameSize) {
+                System.arraycopy(original, i, frame, 0, frameSize);
+                if (energy.calculateEnergyDB(frame) > settings.getSpeechThresholdDb()) {
+                    cut = i + frameSize;
+                }
+            }
+            if (cut < 0) {
+                logger.warn("Skipping {}: no speech found", files[f].getName());
+                continue;
+            }
+            double greetingEnd = cut / (double) rate;
+
+            // Beep variant
+            double pause = PAUSES_SEC[f % PAUSES_SEC.length];
+            double freq = TONE_FREQUENCIES_HZ[f % TONE_FREQUENCIES_HZ.length];
+            double toneDuration = 0.6 + 0.1 * (f % 6);
+            double[] withBeep = extend(original, cut, pause + toneDuration + TAIL_SEC, rate, random);
+            int toneStart = cut + (int) (pause * rate);
+            int toneLength = (int) (toneDuration * rate);
+            for (int i = 0; i < toneLength; i++) {
+                withBeep[toneStart + i] += TONE_AMPLITUDE * Math.sin(2.0 * Math.PI * freq * i / rate);
+            }
+            samples.add(new LabeledSample(files[f].getName() + "#beep",
+                    reader.splitIntoFrames(withBeep), greetingEnd,
+                    toneStart / (double) rate, (toneStart + toneLength) / (double) rate,
+                    TranscriptAnalyzer.BeepExpectation.HIGH));
+
+            // No-beep variant
+            double[] withoutBeep = extend(original, cut, TAIL_SEC, rate, random);
+            samples.add(new LabeledSample(files[f].getName() + "#nobeep",
+                    reader.splitIntoFrames(withoutBeep), greetingEnd, Double.NaN, Double.NaN,
+                    TranscriptAnalyzer.BeepExpectation.LOW));
+        }
+
+        logger.info("Built tone-injected corpus: {} samples from {} greetings", samples.size(), files.length);
+        return samples;
+    }
+
+    /**
+     * Copy the first {@code cut} samples and append {@code seconds} of low-level noise
+     */
+    private static double[] extend(double[] original, int cut, double seconds, int rate, Random random) {
+        double[] out = new double[cut + (int) (seconds * rate)];
+        System.arraycopy(original, 0, out, 0, cut);
+        for (int i = cut; i < out.length; i++) {
+            out[i] = NOISE_AMPLITUDE * random.nextGaussian();
+        }
+        return out;
+    }
+}
@@ -0,0 +1,45 @@
+package com.clearpath.fingerprint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of a file's bytes: identifies byte-for-byte identical recordings
+ */
+public final class ContentHash {
+    private ContentHash() {
+    }
+
+    public static byte[] sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return digest.digest();
+    }
+
+    public static byte[] sha256(byte[] bytes) {
+        return newDigest().digest(bytes);
+    }
+
+    public static String sha256Hex(Path file) throws IOException {
+        return HexFormat.of().formatHex(sha256(file));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every JRE", e);
+        }
+    }
+}
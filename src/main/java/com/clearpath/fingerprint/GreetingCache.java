@@ -0,0 +1,317 @@
+package com.clearpath.fingerprint;
+
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.decision.DecisionEngine;
+import com.clearpath.model.AnalysisResult;
+import com.clearpath.model.BeepInfo;
+import com.clearpath.model.ChannelAnalysis;
+import com.clearpath.transcription.TranscriptAnalyzer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decision evidence of greetings already analyzed, found again by content hash or acoustic
+ * fingerprint so a mailbox called repeatedly is decoded, scanned and transcribed once.
+ *
+ * <p>Lookup is two-step. An identical file matches on its SHA-256 before it is decoded.
+ * Otherwise the query's sub-fingerprints vote through a {@link PostingIndex} for
+ * (greeting, offset) pairs; each stored greeting indexes every {@link #ANCHOR_STRIDE}th window
+ * with sound, so a shifted copy still shares exact sub-fingerprints at a consistent offset.
+ * The best few candidates are then verified by bit error rate over everything the decision
+ * looked at: from the start of the recording to the end of the beep search window (or of the
+ * recording), of which the query must cover at least the greeting, the silence that ended it
+ * and any beep. A copy
+ * at another level has the same bits (see {@link GreetingFingerprint}); a copy starting up
+ * to {@code fingerprint.max.offset.sec} earlier or later matches with its times shifted.</p>
+ *
+ * <p>Entries are only reused under the settings snapshot that produced them, and the least
+ * recently used entry is evicted beyond {@code fingerprint.cache.entries}. An entry stored
+ * before its transcript is known (no transcript, null expectation) only carries the audio
+ * results: use {@link Hit#getChannelResults()}, not {@link Hit#decide}. Thread-safe.</p>
+ */
+public final class GreetingCache {
+    static final int ANCHOR_STRIDE = 4;
+    static final int MIN_ACTIVE_WINDOWS = 100;     // 1 s of sound before a match means anything
+    private static final int MAX_CANDIDATES = 4;
+    private static final int MIN_VOTES = 3;
+    private static final int MAX_POSTINGS_PER_KEY = 64;
+
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> byContentHash = new HashMap<>();
+    private final PostingIndex index = new PostingIndex();
+    private int capacity;
+    private int nextId;
+
+    private long exactHits;
+    private long fuzzyHits;
+    private long misses;
+    private long evictions;
+
+    public GreetingCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Change the number of entries kept, evicting the least recently used beyond it
+     */
+    public synchronized void setCapacity(int capacity) {
+        this.capacity = capacity;
+        evictOverflow();
+    }
+
+    // ==================== Lookup ====================
+
+    /**
+     * Entry for a byte-identical recording, analyzed under the same settings snapshot
+     *
+     * @return the hit, or null
+     */
+    public synchronized Hit lookupExact(String contentHash, AnalyzerSettings settings) {
+        Integer id = byContentHash.get(contentHash);
+        Entry entry = id != null ? entries.get(id) : null;
+        if (entry == null || entry.settings != settings) {
+            return null;  // a miss is counted by the fuzzy lookup that follows
+        }
+        exactHits++;
+        return new Hit(entry, 0.0, 0.0, true);
+    }
+
+    /**
+     * Entry whose greeting matches {@code query} (the far-end channel of a recording with
+     * {@code channelCount} channels) within the configured bit error rate and offset
+     *
+     * @return the best hit, or null
+     */
+    public synchronized Hit lookup(GreetingFingerprint query, AnalyzerSettings settings, int channelCount) {
+        int maxOffset = (int) Math.round(settings.getFingerprintMaxOffsetSec() / query.getHopSec());
+
+        // Vote: every shared sub-fingerprint suggests a greeting and an offset
+        Map<Long, Integer> votes = new HashMap<>();
+        for (int w = 0; w < query.length(); w++) {
+            int subFingerprint = query.get(w);
+            if (!GreetingFingerprint.isActive(subFingerprint)) {
+                continue;
+            }
+            int queryWindow = w;
+            index.forEach(subFingerprint, MAX_POSTINGS_PER_KEY, posting -> {
+                int offset = queryWindow - PostingIndex.window(posting);
+                if (Math.abs(offset) <= maxOffset) {
+                    votes.merge(PostingIndex.posting(PostingIndex.entryId(posting), offset), 1, Integer::sum);
+                }
+            });
+        }
+
+        // Verify the strongest candidates over the span their decision depended on
+        List<Map.Entry<Long, Integer>> candidates = new ArrayList<>(votes.entrySet());
+        candidates.sort(Map.Entry.<Long, Integer>comparingByValue().reversed());
+        Hit best = null;
+        for (int i = 0; i < Math.min(MAX_CANDIDATES, candidates.size()); i++) {
+            if (candidates.get(i).getValue() < MIN_VOTES) {
+                break;
+            }
+            long key = candidates.get(i).getKey();
+            Entry entry = entries.get(PostingIndex.entryId(key));
+            if (entry == null || entry.settings != settings || entry.channelResults.size() != channelCount) {
+                continue;
+            }
+            int offset = PostingIndex.window(key);
+            int windows = Math.min(entry.horizonWindows, query.length() - offset);
+            if (windows < entry.requiredWindows) {
+                continue;
+            }
+            double bitErrorRate = entry.fingerprint.bitErrorRate(query, offset, windows, MIN_ACTIVE_WINDOWS);
+            if (bitErrorRate <= settings.getFingerprintMaxBitErrorRate()
+                    && (best == null || bitErrorRate < best.bitErrorRate)) {
+                best = new Hit(entry, offset * query.getHopSec(), bitErrorRate, false);
+            }
+        }
+        if (best != null) {
+            fuzzyHits++;
+        } else {
+            misses++;
+        }
+        return best;
+    }
+
+    // ==================== Insertion ====================
+
+    /**
+     * Remember a finished analysis. Not stored when the greeting has too little sound to
+     * fingerprint, or when the recording ended before the greeting did (a longer copy could
+     * end its greeting elsewhere).
+     *
+     * @param source         the recording, for logging
+     * @param contentHash    SHA-256 of the file, or null
+     * @param fingerprint    fingerprint of the far-end channel
+     * @param channelResults audio results after transcript alignment
+     * @return true if stored
+     */
+    public synchronized boolean put(String source, String contentHash, GreetingFingerprint fingerprint,
+                                    AnalyzerSettings settings, List<ChannelAnalysis> channelResults,
+                                    String transcript, TranscriptAnalyzer.BeepExpectation beepExpectation) {
+        ChannelAnalysis farEnd = channelResults.get(settings.farEndChannelFor(channelResults.size()));
+        double requiredSec = farEnd.getGreetingEndTime() + settings.getSilenceDurationSec();
+        double horizonSec = farEnd.getGreetingEndTime() + settings.getBeepSearchWindowSec();
+        if (farEnd.getBeepInfo().isDetected()) {
+            requiredSec = Math.max(requiredSec, farEnd.getBeepInfo().getEndTime());
+            horizonSec = Math.max(horizonSec, farEnd.getBeepInfo().getEndTime());
+        }
+        int requiredWindows = (int) Math.ceil(requiredSec / fingerprint.getHopSec());
+        int horizonWindows = Math.min(fingerprint.length(), (int) Math.ceil(horizonSec / fingerprint.getHopSec()));
+        if (requiredWindows > horizonWindows || countActive(fingerprint, horizonWindows) < MIN_ACTIVE_WINDOWS) {
+            return false;
+        }
+
+        int id = nextId++;
+        Entry entry = new Entry(id, source, contentHash, fingerprint, settings, List.copyOf(channelResults),
+                transcript, beepExpectation, requiredWindows, horizonWindows);
+        entries.put(id, entry);
+        if (contentHash != null) {
+            byContentHash.put(contentHash, id);
+        }
+        forEachAnchor(entry, (key, window) -> index.add(key, PostingIndex.posting(id, window)));
+        evictOverflow();
+        return true;
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > capacity && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            if (entry.contentHash != null) {
+                byContentHash.remove(entry.contentHash, entry.id);
+            }
+            forEachAnchor(entry, (key, window) -> index.remove(key, PostingIndex.posting(entry.id, window)));
+            evictions++;
+        }
+    }
+
+    private static void forEachAnchor(Entry entry, AnchorConsumer action) {
+        for (int w = 0; w < entry.horizonWindows; w += ANCHOR_STRIDE) {
+            int subFingerprint = entry.fingerprint.get(w);
+            if (GreetingFingerprint.isActive(subFingerprint)) {
+                action.accept(subFingerprint, w);
+            }
+        }
+    }
+
+    private static int countActive(GreetingFingerprint fingerprint, int windows) {
+        int active = 0;
+        for (int w = 0; w < windows; w++) {
+            if (GreetingFingerprint.isActive(fingerprint.get(w))) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    private interface AnchorConsumer {
+        void accept(int subFingerprint, int window);
+    }
+
+    // ==================== Statistics ====================
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized int getPostingCount() { return index.size(); }
+    public synchronized long getExactHits() { return exactHits; }
+    public synchronized long getFuzzyHits() { return fuzzyHits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("GreetingCache[%d entries, %d exact hits, %d fuzzy hits, %d misses, %d evictions]",
+                entries.size(), exactHits, fuzzyHits, misses, evictions);
+    }
+
+    // ==================== Entries and hits ====================
+
+    private static final class Entry {
+        final int id;
+        final String source;
+        final String contentHash;
+        final GreetingFingerprint fingerprint;
+        final AnalyzerSettings settings;
+        final List<ChannelAnalysis> channelResults;
+        final String transcript;
+        final TranscriptAnalyzer.BeepExpectation beepExpectation;
+        final int requiredWindows;  // greeting, the silence ending it and any beep
+        final int horizonWindows;   // everything the decision looked at, within the recording
+
+        Entry(int id, String source, String contentHash, GreetingFingerprint fingerprint, AnalyzerSettings settings,
+              List<ChannelAnalysis> channelResults, String transcript,
+              TranscriptAnalyzer.BeepExpectation beepExpectation, int requiredWindows, int horizonWindows) {
+            this.id = id;
+            this.source = source;
+            this.contentHash = contentHash;
+            this.fingerprint = fingerprint;
+            this.settings = settings;
+            this.channelResults = channelResults;
+            this.transcript = transcript;
+            this.beepExpectation = beepExpectation;
+            this.requiredWindows = requiredWindows;
+            this.horizonWindows = horizonWindows;
+        }
+    }
+
+    /**
+     * A matched greeting: the new recording is the cached one shifted by {@link #getOffsetSec()}
+     */
+    public static final class Hit {
+        private final Entry entry;
+        private final double offsetSec;
+        private final double bitErrorRate;
+        private final boolean exact;
+
+        Hit(Entry entry, double offsetSec, double bitErrorRate, boolean exact) {
+            this.entry = entry;
+            this.offsetSec = offsetSec;
+            this.bitErrorRate = bitErrorRate;
+            this.exact = exact;
+        }
+
+        public String getSource() { return entry.source; }
+        public double getOffsetSec() { return offsetSec; }
+        public double getBitErrorRate() { return bitErrorRate; }
+        public boolean isExact() { return exact; }
+
+        /**
+         * The cached audio results with greeting end and beep moved by the offset
+         */
+        public List<ChannelAnalysis> getChannelResults() {
+            List<ChannelAnalysis> shifted = new ArrayList<>(entry.channelResults.size());
+            for (ChannelAnalysis channel : entry.channelResults) {
+                BeepInfo beep = channel.getBeepInfo();
+                if (beep.isDetected()) {
+                    beep = new BeepInfo(true, beep.getStartTime() + offsetSec, beep.getEndTime() + offsetSec,
+                            beep.getFrequency(), beep.getConfidence(), beep.getTimingPrecision());
+                }
+                shifted.add(new ChannelAnalysis(channel.getChannel(), channel.getGreetingEndTime() + offsetSec,
+                        channel.getGreetingEndConfidence(), beep));
+            }
+            return shifted;
+        }
+
+        /**
+         * Decision for the new recording from the cached evidence
+         */
+        public AnalysisResult decide(String fileName) {
+            return new DecisionEngine(entry.settings).makeDecision(fileName, getChannelResults(), entry.transcript,
+                    entry.beepExpectation);
+        }
+
+        @Override
+        public String toString() {
+            String name = entry.source.substring(entry.source.lastIndexOf('/') + 1);
+            return exact ? "identical to " + name
+                    : String.format("same greeting as %s (offset %+.3fs, bit error rate %.3f)", name, offsetSec,
+                    bitErrorRate);
+        }
+    }
+}
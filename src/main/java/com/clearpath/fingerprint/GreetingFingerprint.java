@@ -0,0 +1,183 @@
+package com.clearpath.fingerprint;
+
+import com.clearpath.model.AudioFrame;
+import org.jtransforms.fft.DoubleFFT_1D;
+
+import java.util.List;
+
+/**
+ * Acoustic fingerprint of one channel: a 32-bit sub-fingerprint every 10 ms.
+ *
+ * <p>Each sub-fingerprint describes where the spectral peaks sit and how they move: the
+ * energy of 17 log-spaced bands between 300 and 3400 Hz (the telephone band), from 32 ms
+ * windows (Hann, 512-point FFT) summed over {@link #SMOOTHING_WINDOWS} hops, with bit
+ * {@code m} set when the energy difference between bands {@code m} and {@code m+1} grew over
+ * the last {@link #STEP_WINDOWS} hops (Haitsma-Kalker). One more bit records whether the total
+ * energy rose. Both are differences of log energies, so a louder or quieter copy of a greeting
+ * has the same bits; the ~100 ms span makes a copy shifted by a fraction of a hop land on
+ * nearly the same bits.</p>
+ *
+ * <p>Windows more than {@link #ACTIVE_RANGE_DB} below the recording's loudest window are
+ * marked quiet: their bits are noise and only the quiet/active pattern is compared.</p>
+ */
+public final class GreetingFingerprint {
+    static final int WINDOW_SAMPLES = 512;        // 32 ms at 16 kHz
+    static final int HOP_SAMPLES = 160;           // 10 ms
+    static final int BANDS = 17;
+    static final int BITS = BANDS;                // 16 band bits + 1 energy bit
+    static final int BIT_MASK = (1 << BITS) - 1;
+    static final int ACTIVE = 1 << 31;            // set on windows that carry sound
+    static final double ACTIVE_RANGE_DB = 40.0;
+    private static final int SMOOTHING_WINDOWS = 8;  // 32 ms + 7 hops ≈ 100 ms of audio per bit
+    private static final int STEP_WINDOWS = 4;       // 40 ms between the compared spans
+    private static final double MIN_BAND_HZ = 300;
+    private static final double MAX_BAND_HZ = 3400;
+
+    private final int[] subFingerprints;
+    private final double hopSec;
+
+    GreetingFingerprint(int[] subFingerprints, double hopSec) {
+        this.subFingerprints = subFingerprints;
+        this.hopSec = hopSec;
+    }
+
+    /**
+     * Fingerprint one channel of decoded audio
+     */
+    public static GreetingFingerprint compute(List<AudioFrame> frames, int sampleRate) {
+        int sampleCount = 0;
+        for (AudioFrame frame : frames) {
+            sampleCount += frame.getLength();
+        }
+        double[] samples = new double[sampleCount];
+        int offset = 0;
+        for (AudioFrame frame : frames) {
+            System.arraycopy(frame.getSamples(), 0, samples, offset, frame.getLength());
+            offset += frame.getLength();
+        }
+
+        int windows = sampleCount < WINDOW_SAMPLES ? 0 : 1 + (sampleCount - WINDOW_SAMPLES) / HOP_SAMPLES;
+        int[] bandEdges = bandEdges(sampleRate);
+        double[] hann = new double[WINDOW_SAMPLES];
+        for (int i = 0; i < WINDOW_SAMPLES; i++) {
+            hann[i] = 0.5 * (1 - Math.cos(2 * Math.PI * i / (WINDOW_SAMPLES - 1)));
+        }
+        DoubleFFT_1D fft = new DoubleFFT_1D(WINDOW_SAMPLES);
+        double[] buffer = new double[WINDOW_SAMPLES];
+
+        // Band energies and total energy (dB) per window
+        double[][] bandEnergy = new double[windows][BANDS];
+        double[] energyDb = new double[windows];
+        double loudestDb = Double.NEGATIVE_INFINITY;
+        for (int w = 0; w < windows; w++) {
+            int start = w * HOP_SAMPLES;
+            for (int i = 0; i < WINDOW_SAMPLES; i++) {
+                buffer[i] = samples[start + i] * hann[i];
+            }
+            fft.realForward(buffer);
+            double total = 0;
+            for (int b = 0; b < BANDS; b++) {
+                double energy = 0;
+                for (int bin = bandEdges[b]; bin < bandEdges[b + 1]; bin++) {
+                    energy += buffer[2 * bin] * buffer[2 * bin] + buffer[2 * bin + 1] * buffer[2 * bin + 1];
+                }
+                bandEnergy[w][b] = energy;
+                total += energy;
+            }
+            energyDb[w] = 10 * Math.log10(total + 1e-12);
+            loudestDb = Math.max(loudestDb, energyDb[w]);
+        }
+
+        // Log band energies and total energy over SMOOTHING_WINDOWS consecutive windows
+        double[][] bandDb = new double[windows][BANDS];
+        double[] spanDb = new double[windows];
+        for (int w = 0; w < windows; w++) {
+            double total = 0;
+            for (int b = 0; b < BANDS; b++) {
+                double energy = 0;
+                for (int k = w; k < Math.min(windows, w + SMOOTHING_WINDOWS); k++) {
+                    energy += bandEnergy[k][b];
+                }
+                bandDb[w][b] = 10 * Math.log10(energy + 1e-12);
+                total += energy;
+            }
+            spanDb[w] = 10 * Math.log10(total + 1e-12);
+        }
+
+        int[] subFingerprints = new int[windows];
+        for (int w = STEP_WINDOWS; w < windows; w++) {
+            if (energyDb[w] < loudestDb - ACTIVE_RANGE_DB) {
+                continue;  // quiet: 0
+            }
+            int bits = 0;
+            for (int b = 0; b < BANDS - 1; b++) {
+                double now = bandDb[w][b] - bandDb[w][b + 1];
+                double before = bandDb[w - STEP_WINDOWS][b] - bandDb[w - STEP_WINDOWS][b + 1];
+                if (now - before > 0) {
+                    bits |= 1 << b;
+                }
+            }
+            if (spanDb[w] > spanDb[w - STEP_WINDOWS]) {
+                bits |= 1 << (BANDS - 1);
+            }
+            subFingerprints[w] = ACTIVE | bits;
+        }
+        return new GreetingFingerprint(subFingerprints, HOP_SAMPLES / (double) sampleRate);
+    }
+
+    /**
+     * FFT bin boundaries of the log-spaced bands
+     */
+    private static int[] bandEdges(int sampleRate) {
+        double binHz = sampleRate / (double) WINDOW_SAMPLES;
+        int[] edges = new int[BANDS + 1];
+        for (int b = 0; b <= BANDS; b++) {
+            double hz = MIN_BAND_HZ * Math.pow(MAX_BAND_HZ / MIN_BAND_HZ, b / (double) BANDS);
+            edges[b] = Math.min(WINDOW_SAMPLES / 2, (int) Math.round(hz / binHz));
+        }
+        for (int b = 1; b <= BANDS; b++) {
+            edges[b] = Math.max(edges[b], edges[b - 1] + 1);  // at least one bin per band
+        }
+        return edges;
+    }
+
+    public int length() { return subFingerprints.length; }
+    public double getHopSec() { return hopSec; }
+    public double getDurationSec() { return subFingerprints.length * hopSec; }
+
+    int get(int window) { return subFingerprints[window]; }
+
+    static boolean isActive(int subFingerprint) {
+        return (subFingerprint & ACTIVE) != 0;
+    }
+
+    /**
+     * Bit error rate of {@code query} against this fingerprint's first {@code windows} windows,
+     * with query window {@code w + offset} compared to window {@code w}. A window active in one
+     * and quiet in the other counts as all bits wrong; windows quiet in both are skipped.
+     *
+     * @param minActive fewest windows with sound for a meaningful comparison
+     * @return the error rate, or NaN if the query doesn't cover the span or it has too little sound
+     */
+    double bitErrorRate(GreetingFingerprint query, int offset, int windows, int minActive) {
+        int from = Math.max(0, -offset);
+        if (windows > subFingerprints.length || windows + offset > query.subFingerprints.length) {
+            return Double.NaN;
+        }
+        long errors = 0;
+        int compared = 0;
+        for (int w = from; w < windows; w++) {
+            int mine = subFingerprints[w];
+            int theirs = query.subFingerprints[w + offset];
+            boolean mineActive = isActive(mine);
+            if (mineActive != isActive(theirs)) {
+                errors += BITS;
+                compared++;
+            } else if (mineActive) {
+                errors += Integer.bitCount((mine ^ theirs) & BIT_MASK);
+                compared++;
+            }
+        }
+        return compared < minActive ? Double.NaN : errors / (double) (compared * BITS);
+    }
+}
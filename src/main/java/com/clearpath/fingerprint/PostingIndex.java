@@ -0,0 +1,109 @@
+package com.clearpath.fingerprint;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing multimap from a 32-bit sub-fingerprint to postings (entry id, window), kept
+ * in flat primitive arrays: about 13 bytes per slot instead of a boxed map entry and list per
+ * posting. Linear probing; removals leave tombstones, cleared when the table is rebuilt.
+ */
+final class PostingIndex {
+    private static final int MIN_CAPACITY = 1024;
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte DELETED = 2;
+
+    private int[] keys;
+    private long[] postings;
+    private byte[] states;
+    private int mask;
+    private int size;
+    private int tombstones;
+
+    PostingIndex() {
+        allocate(MIN_CAPACITY);
+    }
+
+    static long posting(int entryId, int window) {
+        return ((long) entryId << 32) | (window & 0xFFFFFFFFL);
+    }
+
+    static int entryId(long posting) {
+        return (int) (posting >>> 32);
+    }
+
+    static int window(long posting) {
+        return (int) posting;
+    }
+
+    void add(int key, long posting) {
+        if ((size + tombstones + 1) * 2 > keys.length) {
+            rebuild(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, size) * 4)));
+        }
+        int slot = slot(key);
+        while (states[slot] == USED) {
+            slot = (slot + 1) & mask;
+        }
+        if (states[slot] == DELETED) {
+            tombstones--;
+        }
+        keys[slot] = key;
+        postings[slot] = posting;
+        states[slot] = USED;
+        size++;
+    }
+
+    void remove(int key, long posting) {
+        for (int slot = slot(key); states[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (states[slot] == USED && keys[slot] == key && postings[slot] == posting) {
+                states[slot] = DELETED;
+                size--;
+                tombstones++;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Visit up to {@code limit} postings of {@code key}; a key shared by very many windows
+     * (steady tones, hum) says little about which greeting it is
+     */
+    void forEach(int key, int limit, LongConsumer action) {
+        int visited = 0;
+        for (int slot = slot(key); states[slot] != EMPTY && visited < limit; slot = (slot + 1) & mask) {
+            if (states[slot] == USED && keys[slot] == key) {
+                action.accept(postings[slot]);
+                visited++;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(int key) {
+        return (key * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(keys.length));  // Fibonacci hashing
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        postings = new long[capacity];
+        states = new byte[capacity];
+        mask = capacity - 1;
+        size = 0;
+        tombstones = 0;
+    }
+
+    private void rebuild(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldPostings = postings;
+        byte[] oldStates = states;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == USED) {
+                add(oldKeys[i], oldPostings[i]);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.clearpath.model;
 
+import com.clearpath.decision.DecisionCase;
+import com.clearpath.decision.DecisionScore;
 import com.clearpath.transcription.TranscriptAnalyzer;
 
 public class AnalysisResult {
@@ -11,10 +13,13 @@ public class AnalysisResult {
     private final double recommendedStartTime;
     private final String reasoning;
     private final String confidence;
+    private final double confidenceScore;
+    private final DecisionCase decisionCase;
+    private final double complianceRisk;
 
     public AnalysisResult(String fileName, double greetingEndTime, BeepInfo beepInfo,
                           String transcript, TranscriptAnalyzer.BeepExpectation beepExpectation,
-                          double recommendedStartTime, String reasoning, String confidence) {
+                          double recommendedStartTime, String reasoning, DecisionScore score) {
         this.fileName = fileName;
         this.greetingEndTime = greetingEndTime;
         this.beepInfo = beepInfo;
@@ -22,7 +27,10 @@ public class AnalysisResult {
         this.beepExpectation = beepExpectation;
         this.recommendedStartTime = recommendedStartTime;
         this.reasoning = reasoning;
-        this.confidence = confidence;
+        this.confidence = DecisionScore.confidenceLabel(score.getConfidence());
+        this.confidenceScore = score.getConfidence();
+        this.decisionCase = score.getDecisionCase();
+        this.complianceRisk = score.getComplianceRisk();
     }
 
     // Getters
@@ -34,4 +42,7 @@ public class AnalysisResult {
     public double getRecommendedStartTime() { return recommendedStartTime; }
     public String getReasoning() { return reasoning; }
     public String getConfidence() { return confidence; }
+    public double getConfidenceScore() { return confidenceScore; }
+    public DecisionCase getDecisionCase() { return decisionCase; }
+    public double getComplianceRisk() { return complianceRisk; }
 }
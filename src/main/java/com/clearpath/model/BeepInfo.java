@@ -6,13 +6,20 @@ public class BeepInfo {
     private final double endTime;
     private final double frequency;
     private final double confidence;
+    private final double timingPrecision;  // ~1 sigma uncertainty of start/end in seconds, NaN if unknown
 
     public BeepInfo(boolean detected, double startTime, double endTime, double frequency, double confidence) {
+        this(detected, startTime, endTime, frequency, confidence, Double.NaN);
+    }
+
+    public BeepInfo(boolean detected, double startTime, double endTime, double frequency, double confidence,
+                    double timingPrecision) {
         this.detected = detected;
         this.startTime = startTime;
         this.endTime = endTime;
         this.frequency = frequency;
         this.confidence = confidence;
+        this.timingPrecision = timingPrecision;
     }
 
     // No beep detected constructor
@@ -26,9 +33,15 @@ public class BeepInfo {
     public double getFrequency() { return frequency; }
     public double getConfidence() { return confidence; }
     public double getDuration() { return endTime - startTime; }
+    public double getTimingPrecision() { return timingPrecision; }
+    public boolean hasTimingPrecision() { return !Double.isNaN(timingPrecision); }
 
     @Override
     public String toString() {
+        if (detected && hasTimingPrecision()) {
+            return String.format("Beep detected at %.3fs-%.3fs ±%.1fms (%.0fHz, %.1fs duration)",
+                    startTime, endTime, timingPrecision * 1000, frequency, getDuration());
+        }
         if (detected) {
             return String.format("Beep detected at %.3fs-%.3fs (%.0fHz, %.1fs duration)",
                     startTime, endTime, frequency, getDuration());
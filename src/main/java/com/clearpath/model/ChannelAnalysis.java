@@ -0,0 +1,33 @@
+package com.clearpath.model;
+
+/**
+ * Energy and beep detection results for one channel of a recording
+ */
+public class ChannelAnalysis {
+    private final int channel;
+    private final double greetingEndTime;
+    private final double greetingEndConfidence;
+    private final BeepInfo beepInfo;
+
+    public ChannelAnalysis(int channel, double greetingEndTime, BeepInfo beepInfo) {
+        this(channel, greetingEndTime, 1.0, beepInfo);
+    }
+
+    public ChannelAnalysis(int channel, double greetingEndTime, double greetingEndConfidence, BeepInfo beepInfo) {
+        this.channel = channel;
+        this.greetingEndTime = greetingEndTime;
+        this.greetingEndConfidence = greetingEndConfidence;
+        this.beepInfo = beepInfo;
+    }
+
+    public int getChannel() { return channel; }
+    public double getGreetingEndTime() { return greetingEndTime; }
+    public double getGreetingEndConfidence() { return greetingEndConfidence; }
+    public BeepInfo getBeepInfo() { return beepInfo; }
+
+    @Override
+    public String toString() {
+        return String.format("Channel %d: greeting end %.3fs (confidence %.2f), %s",
+                channel, greetingEndTime, greetingEndConfidence, beepInfo);
+    }
+}
@@ -1,5 +1,10 @@
 package com.clearpath.model;
 
+/**
+ * Full Gson mapping of a Deepgram response. The client reads responses with
+ * {@link com.clearpath.transcription.DeepgramResponseParser} instead; this stays as the
+ * object-mapping baseline for {@code TranscriptParseBenchmark}.
+ */
 public class DeepgramResponse {
     public Results results;
 
@@ -0,0 +1,27 @@
+package com.clearpath.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The fields we use from a Deepgram response: first channel, first alternative
+ */
+public class DeepgramTranscript {
+    private final String transcript;
+    private final double confidence;
+    private final List<WordTiming> words;  // empty when the response had no word timings
+
+    public DeepgramTranscript(String transcript, double confidence, List<WordTiming> words) {
+        this.transcript = transcript;
+        this.confidence = confidence;
+        this.words = Collections.unmodifiableList(words);
+    }
+
+    public String getTranscript() { return transcript; }
+    public double getConfidence() { return confidence; }
+    public List<WordTiming> getWords() { return words; }
+
+    public boolean hasWordTimings() {
+        return !words.isEmpty();
+    }
+}
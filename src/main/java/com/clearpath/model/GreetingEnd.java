@@ -0,0 +1,23 @@
+package com.clearpath.model;
+
+/**
+ * Energy-based greeting end estimate
+ */
+public class GreetingEnd {
+    private final double time;
+    private final boolean silenceFound;   // false: no sustained silence, time is the end of the audio
+    private final double silenceMarginDb; // how far the silence sat below the threshold (mean)
+    private final double confidence;      // 0..1 that the greeting really ended here
+
+    public GreetingEnd(double time, boolean silenceFound, double silenceMarginDb, double confidence) {
+        this.time = time;
+        this.silenceFound = silenceFound;
+        this.silenceMarginDb = silenceMarginDb;
+        this.confidence = confidence;
+    }
+
+    public double getTime() { return time; }
+    public boolean isSilenceFound() { return silenceFound; }
+    public double getSilenceMarginDb() { return silenceMarginDb; }
+    public double getConfidence() { return confidence; }
+}
@@ -0,0 +1,32 @@
+package com.clearpath.model;
+
+/**
+ * One recognized word with its position in the audio
+ */
+public class WordTiming {
+    private final String word;
+    private final double startSec;
+    private final double endSec;
+    private final double confidence;
+
+    public WordTiming(String word, double startSec, double endSec, double confidence) {
+        this.word = word;
+        this.startSec = startSec;
+        this.endSec = endSec;
+        this.confidence = confidence;
+    }
+
+    /**
+     * Lower-case word without punctuation, as Deepgram reports it
+     */
+    public String getWord() { return word; }
+
+    public double getStartSec() { return startSec; }
+    public double getEndSec() { return endSec; }
+    public double getConfidence() { return confidence; }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%.2f-%.2f]", word, startSec, endSec);
+    }
+}
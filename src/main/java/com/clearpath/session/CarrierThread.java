@@ -0,0 +1,167 @@
+package com.clearpath.session;
+
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.decision.DecisionScorer;
+import com.clearpath.decision.StreamingDecisionPolicy;
+import com.clearpath.detection.BeepDetector;
+import com.clearpath.detection.EnergyDetector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One stripe of the session scheduler: a platform thread that owns a set of sessions and
+ * round-robins over their queues.
+ *
+ * <p>Only this thread touches its sessions' detection state, so none of it is synchronized.
+ * Each visit drains a few frames per session for fairness. When a full pass finds no work the
+ * thread parks until a producer wakes it; a wakeup that races with parking is picked up after
+ * at most {@link #IDLE_PARK_NANOS}. Idle sessions are swept out on a fixed interval.</p>
+ */
+final class CarrierThread implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(CarrierThread.class);
+
+    private static final int MAX_FRAMES_PER_VISIT = 4;
+    private static final long IDLE_PARK_NANOS = 500_000;
+    private static final long SWEEP_INTERVAL_NANOS = 100_000_000;
+
+    final AnalyzerSettings settings;
+    final EnergyDetector energyDetector;
+    final BeepDetector beepDetector;  // FFT scratch, shared by every session on this thread
+    final DecisionScorer scorer;
+    final StreamingDecisionPolicy streamingPolicy;
+
+    private final SessionManager manager;
+    private final ConcurrentLinkedQueue<LiveSession> inbox = new ConcurrentLinkedQueue<>();
+    private final List<LiveSession> sessions = new ArrayList<>();
+    private final long idleTimeoutNanos;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile boolean parked;
+
+    // Published once per pass for SessionManager statistics
+    private volatile long framesProcessed;
+    private volatile long decisions;
+    private long pendingFrames;
+    private long pendingDecisions;
+
+    CarrierThread(SessionManager manager, AnalyzerSettings settings, int index) {
+        this.manager = manager;
+        this.settings = settings;
+        this.energyDetector = new EnergyDetector(settings);
+        this.beepDetector = new BeepDetector(settings);
+        this.scorer = new DecisionScorer(settings);
+        this.streamingPolicy = new StreamingDecisionPolicy(settings);
+        this.idleTimeoutNanos = (long) (settings.getSessionIdleTimeoutSec() * 1e9);
+        this.thread = new Thread(this, "session-carrier-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void add(LiveSession session) {
+        inbox.add(session);
+        wake();
+    }
+
+    void wake() {
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    void recordDecision() {
+        pendingDecisions++;
+    }
+
+    long getFramesProcessed() { return framesProcessed; }
+    long getDecisions() { return decisions; }
+
+    void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    @Override
+    public void run() {
+        long nextSweep = System.nanoTime() + SWEEP_INTERVAL_NANOS;
+        while (running) {
+            for (LiveSession added; (added = inbox.poll()) != null; ) {
+                sessions.add(added);
+            }
+
+            int work = 0;
+            for (int i = 0; i < sessions.size(); ) {
+                LiveSession session = sessions.get(i);
+                if (session.isClosing()) {
+                    remove(i, SessionListener.CloseReason.CLOSED);
+                    continue;
+                }
+                work += session.drain(MAX_FRAMES_PER_VISIT);
+                i++;
+            }
+            pendingFrames += work;
+            framesProcessed = pendingFrames;
+            decisions = pendingDecisions;
+
+            long now = System.nanoTime();
+            if (now >= nextSweep) {
+                sweepIdle(now);
+                nextSweep = now + SWEEP_INTERVAL_NANOS;
+            }
+
+            if (work == 0) {
+                parked = true;
+                if (inbox.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked = false;
+            }
+        }
+
+        // Shutdown: everything still on this stripe is closed
+        for (LiveSession added; (added = inbox.poll()) != null; ) {
+            sessions.add(added);
+        }
+        while (!sessions.isEmpty()) {
+            LiveSession session = sessions.get(sessions.size() - 1);
+            if (!session.tryClose()) {
+                Thread.onSpinWait();
+                continue;
+            }
+            remove(sessions.size() - 1, SessionListener.CloseReason.SHUTDOWN);
+        }
+    }
+
+    private void sweepIdle(long now) {
+        for (int i = 0; i < sessions.size(); ) {
+            LiveSession session = sessions.get(i);
+            if (now - session.getLastFrameNanos() > idleTimeoutNanos && session.tryClose()) {
+                logger.debug("Evicting idle call {}", session.getCallId());
+                remove(i, SessionListener.CloseReason.IDLE_TIMEOUT);
+                continue;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Swap-remove the session at {@code i}, recycle its buffers and notify the listener
+     */
+    private void remove(int i, SessionListener.CloseReason reason) {
+        int last = sessions.size() - 1;
+        LiveSession session = sessions.get(i);
+        sessions.set(i, sessions.get(last));
+        sessions.remove(last);
+        manager.release(session.releaseBuffers());
+        session.notifyClosed(reason);
+    }
+}
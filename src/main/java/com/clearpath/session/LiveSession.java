@@ -0,0 +1,300 @@
+package com.clearpath.session;
+
+import com.clearpath.decision.DecisionScore;
+import com.clearpath.decision.StreamingDecisionState;
+import com.clearpath.detection.BeepScanState;
+import com.clearpath.detection.FrameHistory;
+import com.clearpath.detection.GreetingScanState;
+import com.clearpath.model.BeepInfo;
+import com.clearpath.model.GreetingEnd;
+import com.clearpath.transcription.TranscriptAnalyzer.BeepExpectation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One live call: the caller's handle for feeding audio, and the detector state its carrier
+ * thread advances frame by frame.
+ *
+ * <p>The detection state is a handful of primitives plus the last three decoded frames (kept
+ * off-heap in the session's slab), owned exclusively by the carrier thread. Audio reaches it
+ * through a single-producer queue, so {@link #offer} must only ever be called from one thread
+ * at a time (normally the thread reading the call's media). Frames are
+ * {@code audio.frame.size.ms} of PCM16 at {@code audio.sample.rate}.</p>
+ *
+ * <p>Decision policy: the greeting end is found with the regular energy detector. From then
+ * on every frame goes through the beep detector; a validated beep decides immediately, and
+ * otherwise the call is decided once the audio reaches the no-beep start time from the
+ * {@link com.clearpath.decision.DecisionScorer} (never while a beep candidate is still open).
+ * With {@code decision.streaming.enabled} the fixed no-beep delay is replaced by
+ * {@link com.clearpath.decision.StreamingDecisionPolicy}, which decides as soon as the audio
+ * since the greeting end makes a pending beep unlikely, and no later than
+ * {@code decision.streaming.max.wait.sec} after it unless a beep is still sounding. A call
+ * with no greeting end by {@code audio.max.duration.sec} is decided as if the greeting ended
+ * there.</p>
+ */
+public final class LiveSession {
+    private static final Logger logger = LoggerFactory.getLogger(LiveSession.class);
+
+    // Producer/consumer handshake, see offer() and close()
+    private static final int OPEN = 0;
+    private static final int OFFERING = 1;
+    private static final int CLOSING = 2;
+
+    private final String callId;
+    private final SessionListener listener;
+    private final CarrierThread carrier;
+    private final AtomicInteger state = new AtomicInteger(OPEN);
+    private volatile BeepExpectation beepExpectation;
+    private long droppedFrames;  // producer-owned
+
+    // ---- Carrier-owned detection state ----
+    private SessionBuffers buffers;
+    private final GreetingScanState greetingState = new GreetingScanState();
+    private final BeepScanState beepState = new BeepScanState();
+    private final StreamingDecisionState streamingState = new StreamingDecisionState();
+    private final DecisionScore score = new DecisionScore();
+    private final FrameHistory history = new History();
+    private GreetingEnd greetingEnd;
+    private int frameCount;
+    private long lastFrameNanos;
+    private volatile boolean decided;
+
+    LiveSession(String callId, BeepExpectation beepExpectation, SessionListener listener,
+                CarrierThread carrier, SessionBuffers buffers) {
+        this.callId = callId;
+        this.beepExpectation = beepExpectation;
+        this.listener = listener;
+        this.carrier = carrier;
+        this.buffers = buffers;
+        this.lastFrameNanos = System.nanoTime();
+    }
+
+    public String getCallId() { return callId; }
+    public BeepExpectation getBeepExpectation() { return beepExpectation; }
+    public boolean isDecided() { return decided; }
+    public boolean isOpen() { return state.get() != CLOSING; }
+
+    /**
+     * Frames rejected because the queue was full (producer-side count)
+     */
+    public long getDroppedFrames() { return droppedFrames; }
+
+    /**
+     * Update the transcript evidence, e.g. once a partial transcript arrives. Applies to the
+     * no-beep start time from the next frame on.
+     */
+    public void setBeepExpectation(BeepExpectation beepExpectation) {
+        this.beepExpectation = beepExpectation;
+    }
+
+    /**
+     * Queue one frame of PCM16 audio starting at {@code pcm[offset]}.
+     *
+     * @return false if the session is closed or its queue is full (the frame is dropped)
+     */
+    public boolean offer(short[] pcm, int offset) {
+        if (!state.compareAndSet(OPEN, OFFERING)) {
+            return false;
+        }
+        boolean queued = buffers.queue.offer(pcm, offset, System.nanoTime());
+        state.set(OPEN);
+        if (!queued) {
+            droppedFrames++;
+            return false;
+        }
+        carrier.wake();
+        return true;
+    }
+
+    /**
+     * Stop the session; its carrier recycles the buffers and reports {@link SessionListener#onClosed}.
+     * Safe from any thread, including the listener callback.
+     */
+    public void close() {
+        while (true) {
+            int current = state.get();
+            if (current == CLOSING) {
+                return;
+            }
+            if (current == OPEN && state.compareAndSet(OPEN, CLOSING)) {
+                carrier.wake();
+                return;
+            }
+            Thread.onSpinWait();  // an offer is copying into the queue
+        }
+    }
+
+    // ==================== Carrier side ====================
+
+    boolean isClosing() {
+        return state.get() == CLOSING;
+    }
+
+    /**
+     * Carrier-initiated close (idle eviction, shutdown); fails while an offer is in progress
+     */
+    boolean tryClose() {
+        return state.compareAndSet(OPEN, CLOSING) || state.get() == CLOSING;
+    }
+
+    long getLastFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    /**
+     * Detach the buffers for recycling; the producer can no longer reach them
+     */
+    SessionBuffers releaseBuffers() {
+        SessionBuffers released = buffers;
+        buffers = null;
+        return released;
+    }
+
+    /**
+     * Process up to {@code maxFrames} queued frames
+     *
+     * @return frames processed
+     */
+    int drain(int maxFrames) {
+        int processed = 0;
+        while (processed < maxFrames) {
+            int gap = buffers.queue.peekGap();
+            if (gap < 0) {
+                break;
+            }
+            if (gap > 0) {
+                skipFrames(gap);
+            }
+            MemorySegment target = buffers.history[frameCount % SessionBuffers.HISTORY_FRAMES];
+            long enqueueNanos = buffers.queue.poll(target);
+            lastFrameNanos = enqueueNanos;
+            processFrame(target, enqueueNanos);
+            processed++;
+        }
+        return processed;
+    }
+
+    /**
+     * Account for frames the producer dropped: time moves on, but a gap can't extend a
+     * silence run or a beep, and the history frames it covers read as zeros
+     */
+    private void skipFrames(int count) {
+        for (int i = 0; i < Math.min(count, SessionBuffers.HISTORY_FRAMES); i++) {
+            buffers.history[(frameCount + i) % SessionBuffers.HISTORY_FRAMES].fill((byte) 0);
+        }
+        frameCount += count;
+        greetingState.breakSilenceRun();
+        beepState.reset();
+    }
+
+    private void processFrame(MemorySegment samples, long enqueueNanos) {
+        int index = frameCount++;
+        if (decided) {
+            return;
+        }
+        double frameDuration = carrier.settings.getFrameDurationSec();
+        double time = index * frameDuration;
+        double audioEnd = time + frameDuration;
+
+        boolean streaming = carrier.settings.isStreamingDecisionEnabled();
+        if (greetingEnd == null) {
+            greetingEnd = carrier.energyDetector.scanFrame(samples, time, greetingState);
+            if (greetingEnd == null) {
+                if (!carrier.settings.hasMaxDuration() || audioEnd < carrier.settings.getMaxDurationSec()) {
+                    return;
+                }
+                logger.debug("Call {}: no greeting end after {}s, deciding from here", callId,
+                        String.format("%.1f", audioEnd));
+                greetingEnd = carrier.energyDetector.noGreetingEnd(time);
+            }
+            if (streaming) {
+                carrier.streamingPolicy.begin(greetingEnd, audioEnd, streamingState);
+            }
+        } else {
+            BeepInfo beep = carrier.beepDetector.scanFrame(history, index, beepState);
+            if (beep != null) {
+                carrier.scorer.score(greetingEnd.getTime(), greetingEnd.getConfidence(),
+                        true, beep.getEndTime(), beep.getConfidence(), beep.getTimingPrecision(),
+                        beepExpectation, score);
+                if (!streaming || carrier.streamingPolicy.onBeep(score, streamingState)) {
+                    decide(enqueueNanos);
+                    return;
+                }
+            }
+            if (streaming) {
+                boolean sound = carrier.energyDetector.calculateEnergyDB(samples)
+                        > carrier.settings.getSilenceThresholdDb();
+                carrier.streamingPolicy.observe(sound, streamingState);
+            }
+        }
+
+        if (streaming) {
+            if (carrier.streamingPolicy.decide(beepState.isInBeep(), beepExpectation, streamingState, score)) {
+                decide(enqueueNanos);
+            }
+            return;
+        }
+
+        // Never start while a beep candidate is still open
+        if (beepState.isInBeep()) {
+            return;
+        }
+        carrier.scorer.score(greetingEnd.getTime(), greetingEnd.getConfidence(),
+                false, 0, 0, Double.NaN, beepExpectation, score);
+        if (audioEnd >= score.getStartTime()) {
+            decide(enqueueNanos);
+        }
+    }
+
+    private void decide(long enqueueNanos) {
+        decided = true;
+        long latency = System.nanoTime() - enqueueNanos;
+        carrier.recordDecision();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Call {}: start at {}s ({}, confidence {})", callId,
+                    String.format("%.3f", score.getStartTime()), score.getDecisionCase(),
+                    String.format("%.2f", score.getConfidence()));
+        }
+        try {
+            listener.onDecision(this, score, latency);
+        } catch (RuntimeException e) {
+            logger.warn("Decision listener failed for call {}", callId, e);
+        }
+    }
+
+    void notifyClosed(SessionListener.CloseReason reason) {
+        try {
+            listener.onClosed(this, reason);
+        } catch (RuntimeException e) {
+            logger.warn("Close listener failed for call {}", callId, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LiveSession[%s, %d frames%s]", callId, frameCount, decided ? ", decided" : "");
+    }
+
+    /**
+     * The last {@link SessionBuffers#HISTORY_FRAMES} frames, indexed by absolute frame number
+     */
+    private final class History implements FrameHistory {
+        @Override
+        public MemorySegment segment(int frameIndex) {
+            return buffers.history[frameIndex % SessionBuffers.HISTORY_FRAMES];
+        }
+
+        @Override
+        public double timestamp(int frameIndex) {
+            return frameIndex * carrier.settings.getFrameDurationSec();
+        }
+
+        @Override
+        public int size() {
+            return frameCount;
+        }
+    }
+}
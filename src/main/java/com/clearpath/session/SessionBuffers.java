@@ -0,0 +1,53 @@
+package com.clearpath.session;
+
+import com.clearpath.audio.FrameSlab;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Everything a session holds in proportion to the frame size: its inbound queue and the last
+ * few decoded frames. Both live in one off-heap slab leased from {@link SessionManager}'s
+ * {@link com.clearpath.audio.FrameArena} when a call opens and returned when it closes, so the
+ * heap cost of a call is a few small objects whatever the frame size or queue depth.
+ *
+ * <pre>
+ * slab: [ queue: queueFrames x frameSize PCM16 ][ history: 3 x frameSize doubles ]
+ * </pre>
+ */
+final class SessionBuffers {
+    // Beep edge refinement reads at most the current frame and the two before it
+    static final int HISTORY_FRAMES = 3;
+
+    final FrameSlab slab;
+    final SpscFrameQueue queue;
+    final MemorySegment[] history;
+
+    SessionBuffers(FrameSlab slab, int queueFrames, int frameSize) {
+        this.slab = slab;
+        MemorySegment memory = slab.getSegment();
+        long queueBytes = alignedQueueBytes(queueFrames, frameSize);
+        this.queue = new SpscFrameQueue(queueFrames, frameSize, memory.asSlice(0, queueBytes));
+
+        long frameBytes = (long) frameSize * Double.BYTES;
+        this.history = new MemorySegment[HISTORY_FRAMES];
+        for (int i = 0; i < HISTORY_FRAMES; i++) {
+            history[i] = memory.asSlice(queueBytes + i * frameBytes, frameBytes);
+        }
+    }
+
+    /**
+     * Slab size one session needs
+     */
+    static long slabBytes(int queueFrames, int frameSize) {
+        return alignedQueueBytes(queueFrames, frameSize) + (long) HISTORY_FRAMES * frameSize * Double.BYTES;
+    }
+
+    /**
+     * Queue bytes rounded up so the history frames that follow are double-aligned
+     */
+    private static long alignedQueueBytes(int queueFrames, int frameSize) {
+        long bytes = SpscFrameQueue.bytes(queueFrames, frameSize);
+        return (bytes + ValueLayout.JAVA_DOUBLE.byteSize() - 1) & -ValueLayout.JAVA_DOUBLE.byteSize();
+    }
+}
@@ -0,0 +1,30 @@
+package com.clearpath.session;
+
+import com.clearpath.decision.DecisionScore;
+
+/**
+ * Callbacks from a {@link SessionManager}. They run on the session's carrier thread, which
+ * also serves hundreds of other calls, so implementations must hand work off rather than block.
+ */
+public interface SessionListener {
+    /**
+     * Start time decided for a call.
+     *
+     * @param score        the decision; start time is in seconds of call audio. The instance
+     *                     belongs to the session and is only valid during the callback.
+     * @param latencyNanos from enqueueing the frame that completed the decision to this callback
+     */
+    void onDecision(LiveSession session, DecisionScore score, long latencyNanos);
+
+    /**
+     * The session has been removed and its buffers recycled
+     */
+    default void onClosed(LiveSession session, CloseReason reason) {
+    }
+
+    enum CloseReason {
+        CLOSED,        // LiveSession.close() by the caller
+        IDLE_TIMEOUT,  // no audio for session.idle.timeout.sec
+        SHUTDOWN       // the manager was closed
+    }
+}
@@ -0,0 +1,152 @@
+package com.clearpath.session;
+
+import com.clearpath.audio.FrameArena;
+import com.clearpath.audio.FrameSlab;
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.transcription.TranscriptAnalyzer.BeepExpectation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multiplexes live calls onto a small, fixed set of carrier threads.
+ *
+ * <p>Each call is pinned to one carrier by a hash of its call id (a striped scheduler), so a
+ * call's detector state is only ever touched by one thread and needs no locking. Audio moves
+ * from the caller's media thread to the carrier through a per-call lock-free SPSC queue. The
+ * heavy per-thread objects (FFT plan and scratch) live on the carrier; a session carries only
+ * primitives and three frames of history.</p>
+ *
+ * <p>Queue and history buffers are one off-heap slab per call, leased from a
+ * {@link FrameArena} capped at {@code session.arena.max.mb}: a closing call returns its slab
+ * and the next call to open reuses it, so neither the heap nor the off-heap footprint grows
+ * under steady call churn. With {@code session.arena.leak.detection} the arena records who
+ * leased each slab and reports any still out at shutdown. Calls that stop sending audio for
+ * {@code session.idle.timeout.sec} are evicted.</p>
+ *
+ * <pre>
+ * try (SessionManager manager = new SessionManager(settings)) {
+ *     LiveSession call = manager.open(callId, BeepExpectation.MEDIUM, listener);
+ *     while (media.read(frame)) call.offer(frame, 0);   // from one media thread
+ *     call.close();
+ * }
+ * </pre>
+ */
+public class SessionManager implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SessionManager.class);
+
+    private final AnalyzerSettings settings;
+    private final CarrierThread[] carriers;
+    private final FrameArena arena;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private volatile boolean closed;
+
+    public SessionManager(AnalyzerSettings settings) {
+        this.settings = settings;
+        this.arena = FrameArena.withBudget("session-arena",
+                SessionBuffers.slabBytes(settings.getSessionQueueFrames(), settings.getFrameSizeSamples()),
+                settings.getSessionArenaMaxMb() * 1024L * 1024L, settings.isSessionArenaLeakDetection());
+        this.carriers = new CarrierThread[settings.resolveSessionCarrierThreads()];
+        for (int i = 0; i < carriers.length; i++) {
+            carriers[i] = new CarrierThread(this, settings, i);
+            carriers[i].start();
+        }
+        logger.info("Session manager started: {} carrier threads, {}-frame queues, {}s idle timeout, " +
+                        "{} B off-heap per call (up to {} calls)", carriers.length, settings.getSessionQueueFrames(),
+                settings.getSessionIdleTimeoutSec(), arena.getSlabBytes(), arena.getMaxSlabs());
+    }
+
+    /**
+     * Start tracking a call. Audio is then fed with {@link LiveSession#offer}.
+     *
+     * @param expectation transcript evidence known up front (MEDIUM if nothing is known yet)
+     * @throws IllegalStateException if the manager is closed or the off-heap budget is used up
+     */
+    public LiveSession open(String callId, BeepExpectation expectation, SessionListener listener) {
+        if (closed) {
+            throw new IllegalStateException("Session manager is closed");
+        }
+        FrameSlab slab = arena.lease();
+        if (slab == null) {
+            throw new IllegalStateException(String.format("Session arena exhausted: %d calls open, budget %d MB",
+                    arena.getLeased(), settings.getSessionArenaMaxMb()));
+        }
+        SessionBuffers buffers = new SessionBuffers(slab, settings.getSessionQueueFrames(),
+                settings.getFrameSizeSamples());
+
+        CarrierThread carrier = carriers[stripe(callId)];
+        LiveSession session = new LiveSession(callId, expectation, listener, carrier, buffers);
+        activeSessions.incrementAndGet();
+        carrier.add(session);
+        return session;
+    }
+
+    /**
+     * Sessions opened and not yet closed
+     */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * The off-heap buffer pool, for utilization metrics (slabs leased, peak, bytes)
+     */
+    public FrameArena getArena() {
+        return arena;
+    }
+
+    public int getCarrierCount() {
+        return carriers.length;
+    }
+
+    /**
+     * Frames processed by all carriers (refreshed once per scheduler pass)
+     */
+    public long getFramesProcessed() {
+        long total = 0;
+        for (CarrierThread carrier : carriers) {
+            total += carrier.getFramesProcessed();
+        }
+        return total;
+    }
+
+    public long getDecisions() {
+        long total = 0;
+        for (CarrierThread carrier : carriers) {
+            total += carrier.getDecisions();
+        }
+        return total;
+    }
+
+    /**
+     * Stop every carrier; open sessions are closed with {@link SessionListener.CloseReason#SHUTDOWN}
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (CarrierThread carrier : carriers) {
+            try {
+                carrier.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("Session manager stopped: {} frames, {} decisions",
+                getFramesProcessed(), getDecisions());
+        arena.close();
+    }
+
+    void release(SessionBuffers buffers) {
+        activeSessions.decrementAndGet();
+        arena.release(buffers.slab);
+    }
+
+    private int stripe(String callId) {
+        int h = callId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), carriers.length);
+    }
+}
@@ -0,0 +1,116 @@
+package com.clearpath.session;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer/single-consumer queue of fixed-size PCM16 frames.
+ *
+ * <p>Slots live in a caller-supplied segment (normally an off-heap slab), so offering copies
+ * into preallocated memory and nothing is allocated per frame. The producer is the thread
+ * feeding one call, the consumer is the call's carrier thread; indices are published with
+ * release stores and read with acquire loads, and each side caches the other's index so the
+ * common case touches no shared cache line.</p>
+ *
+ * <p>A frame rejected because the queue is full is not forgotten: the next frame that gets in
+ * carries the number of frames dropped before it, so the consumer can keep the call's
+ * timeline intact.</p>
+ */
+final class SpscFrameQueue {
+    private final int mask;
+    private final int frameSize;
+    private final MemorySegment slots;  // capacity x frameSize PCM16 samples
+    private final long[] enqueueNanos;
+    private final int[] gaps;  // frames dropped right before each slot's frame
+
+    private final AtomicLong tail = new AtomicLong();  // next slot to write (producer)
+    private final AtomicLong head = new AtomicLong();  // next slot to read (consumer)
+    private long cachedHead;                           // producer's view of head
+    private long cachedTail;                           // consumer's view of tail
+    private int pendingGap;                            // producer: frames dropped since the last offer
+
+    SpscFrameQueue(int capacity, int frameSize, MemorySegment slots) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Queue capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.frameSize = frameSize;
+        if (slots.byteSize() < bytes(capacity, frameSize)) {
+            throw new IllegalArgumentException("Slot segment too small: " + slots.byteSize() + " bytes");
+        }
+        this.slots = slots;
+        this.enqueueNanos = new long[capacity];
+        this.gaps = new int[capacity];
+    }
+
+    /**
+     * Segment bytes needed for {@code capacity} frames of {@code frameSize} samples
+     */
+    static long bytes(int capacity, int frameSize) {
+        return (long) capacity * frameSize * Short.BYTES;
+    }
+
+    int getFrameSize() {
+        return frameSize;
+    }
+
+    /**
+     * Producer side: copy one frame in, or return false if the queue is full
+     */
+    boolean offer(short[] pcm, int offset, long nanos) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.getAcquire();
+            if (t - cachedHead > mask) {
+                pendingGap++;
+                return false;
+            }
+        }
+        int slot = (int) (t & mask);
+        MemorySegment.copy(pcm, offset, slots, ValueLayout.JAVA_SHORT, (long) slot * frameSize * Short.BYTES, frameSize);
+        enqueueNanos[slot] = nanos;
+        gaps[slot] = pendingGap;
+        pendingGap = 0;
+        tail.setRelease(t + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side: frames dropped before the oldest queued frame, or -1 if the queue is empty
+     */
+    int peekGap() {
+        long h = head.get();
+        if (h == cachedTail) {
+            cachedTail = tail.getAcquire();
+            if (h == cachedTail) {
+                return -1;
+            }
+        }
+        return gaps[(int) (h & mask)];
+    }
+
+    /**
+     * Consumer side: convert the oldest frame to normalized samples in {@code target}
+     * ({@code frameSize} doubles).
+     *
+     * @return the frame's enqueue time, or -1 if the queue is empty
+     */
+    long poll(MemorySegment target) {
+        long h = head.get();
+        if (h == cachedTail) {
+            cachedTail = tail.getAcquire();
+            if (h == cachedTail) {
+                return -1;
+            }
+        }
+        int slot = (int) (h & mask);
+        long base = (long) slot * frameSize;
+        for (int i = 0; i < frameSize; i++) {
+            target.setAtIndex(ValueLayout.JAVA_DOUBLE, i, slots.getAtIndex(ValueLayout.JAVA_SHORT, base + i) / 32768.0);
+        }
+        long nanos = enqueueNanos[slot];
+        head.setRelease(h + 1);
+        return nanos;
+    }
+}
@@ -0,0 +1,237 @@
+package com.clearpath.store;
+
+import com.clearpath.decision.DecisionCase;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aggregates over a {@link ResultStore}, optionally restricted to a day range and a carrier.
+ *
+ * <p>Queries are immutable: {@link #days} and {@link #carrier} return a narrowed copy. Each
+ * aggregate is one pass over the rows, reading only the columns it needs.</p>
+ */
+public final class ResultQuery {
+    private final ResultStore store;
+    private final int fromDay;
+    private final int toDay;
+    private final int carrierId;  // -1: any carrier
+
+    public ResultQuery(ResultStore store) {
+        this(store, Integer.MIN_VALUE, Integer.MAX_VALUE, -1);
+    }
+
+    private ResultQuery(ResultStore store, int fromDay, int toDay, int carrierId) {
+        this.store = store;
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.carrierId = carrierId;
+    }
+
+    /**
+     * Only rows analyzed from {@code from} to {@code to}, inclusive; null leaves that end open
+     */
+    public ResultQuery days(LocalDate from, LocalDate to) {
+        return new ResultQuery(store, from == null ? Integer.MIN_VALUE : (int) from.toEpochDay(),
+                to == null ? Integer.MAX_VALUE : (int) to.toEpochDay(), carrierId);
+    }
+
+    /**
+     * Only rows of one carrier; an unknown carrier matches nothing
+     */
+    public ResultQuery carrier(String carrier) {
+        int id = store.findCarrier(carrier);
+        return new ResultQuery(store, fromDay, toDay, id < 0 ? Integer.MIN_VALUE : id);
+    }
+
+    private boolean matches(int row) {
+        if (carrierId != -1 && store.getCarrierId(row) != carrierId) {
+            return false;
+        }
+        int day = store.getEpochDay(row);
+        return day >= fromDay && day <= toDay;
+    }
+
+    // ==================== Aggregates ====================
+
+    public int count() {
+        int count = 0;
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (matches(row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rows with a confidence score of at least {@code threshold} (compared at the column's float
+     * precision, so 0.9 stored as a float still counts at threshold 0.9)
+     */
+    public int countConfidenceAtLeast(double threshold) {
+        int count = 0;
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (matches(row) && store.getConfidence(row) >= (float) threshold) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int countBeepsDetected() {
+        int count = 0;
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (matches(row) && store.isBeepDetected(row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Percentiles of the start delay (recommended start minus greeting end)
+     *
+     * @param quantiles e.g. 0.5, 0.9, 0.99
+     * @return one value per quantile (nearest rank), NaN when no row matches
+     */
+    public double[] startDelayPercentiles(double... quantiles) {
+        double[] delays = new double[store.getRowCount()];
+        int n = 0;
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (matches(row)) {
+                delays[n++] = store.getStartDelay(row);
+            }
+        }
+        Arrays.sort(delays, 0, n);
+
+        double[] values = new double[quantiles.length];
+        for (int i = 0; i < quantiles.length; i++) {
+            int index = (int) Math.ceil(quantiles[i] * n) - 1;
+            values[i] = n == 0 ? Double.NaN : delays[Math.max(0, Math.min(n - 1, index))];
+        }
+        return values;
+    }
+
+    /**
+     * Beep detection rate per day, days in order
+     */
+    public Map<LocalDate, Rate> beepRateByDay() {
+        // Day range of the matching rows first, then count into arrays indexed by day
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (matches(row)) {
+                minDay = Math.min(minDay, store.getEpochDay(row));
+                maxDay = Math.max(maxDay, store.getEpochDay(row));
+            }
+        }
+        Map<LocalDate, Rate> rates = new LinkedHashMap<>();
+        if (minDay > maxDay) {
+            return rates;
+        }
+
+        Rate[] byDay = new Rate[maxDay - minDay + 1];
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (matches(row)) {
+                int index = store.getEpochDay(row) - minDay;
+                if (byDay[index] == null) {
+                    byDay[index] = new Rate();
+                }
+                byDay[index].add(store.isBeepDetected(row));
+            }
+        }
+        for (int index = 0; index < byDay.length; index++) {
+            if (byDay[index] != null) {
+                rates.put(LocalDate.ofEpochDay(minDay + index), byDay[index]);
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * Beep detection rate per carrier, in order of first appearance in the store
+     */
+    public Map<String, Rate> beepRateByCarrier() {
+        Rate[] byId = new Rate[store.getCarriers().size()];
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (matches(row)) {
+                int id = store.getCarrierId(row);
+                if (byId[id] == null) {
+                    byId[id] = new Rate();
+                }
+                byId[id].add(store.isBeepDetected(row));
+            }
+        }
+        Map<String, Rate> rates = new LinkedHashMap<>();
+        for (int id = 0; id < byId.length; id++) {
+            if (byId[id] != null) {
+                rates.put(store.getCarrierName(id), byId[id]);
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * Confidence score histogram over [0, 1] with equal-width bins (1.0 goes in the last)
+     */
+    public long[] confidenceHistogram(int bins) {
+        long[] counts = new long[bins];
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (matches(row)) {
+                int bin = (int) (store.getConfidence(row) * bins);
+                counts[Math.max(0, Math.min(bins - 1, bin))]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @throws IllegalStateException if a matching row holds an unknown decision case code
+     */
+    public Map<DecisionCase, Integer> decisionCaseCounts() {
+        int[] counts = new int[256];
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (matches(row)) {
+                counts[store.getDecisionCaseId(row)]++;
+            }
+        }
+        Map<DecisionCase, Integer> byCase = new EnumMap<>(DecisionCase.class);
+        for (DecisionCase decisionCase : DecisionCase.values()) {
+            byCase.put(decisionCase, counts[decisionCase.getId()]);
+            counts[decisionCase.getId()] = 0;
+        }
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] > 0) {
+                throw new IllegalStateException(counts[id] + " result store rows with unknown decision case code " + id);
+            }
+        }
+        return byCase;
+    }
+
+    /**
+     * Detected beeps out of calls
+     */
+    public static final class Rate {
+        private int calls;
+        private int detected;
+
+        void add(boolean beepDetected) {
+            calls++;
+            if (beepDetected) {
+                detected++;
+            }
+        }
+
+        public int getCalls() { return calls; }
+        public int getDetected() { return detected; }
+        public double getRate() { return calls == 0 ? 0 : detected / (double) calls; }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d (%.1f%%)", detected, calls, getRate() * 100);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.clearpath.store;
+
+import com.clearpath.decision.DecisionCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read-only, memory-mapped view of a columnar result store.
+ *
+ * <p>A store is a directory with one file per column ({@link StoreColumn}: recommended start,
+ * greeting end, beep frequency, decision case, confidence score, day, file, carrier), each a
+ * flat array of fixed-width little-endian values, plus {@code file.dict} and
+ * {@code carrier.dict} for the dictionary-encoded names and {@code rows} holding the committed
+ * row count. Aggregates ({@link ResultQuery}) scan only the columns they need, straight from
+ * the page cache, so a query over months of results touches a few bytes per call rather than
+ * parsing CSV.</p>
+ *
+ * <p>The view is a snapshot of the rows committed when it was opened; appends made later
+ * (by a {@link ResultStoreWriter}) need a new {@link #open}. A column file is limited to 2 GB
+ * of mapping, about 268 million rows.</p>
+ */
+public final class ResultStore {
+    private static final Logger logger = LoggerFactory.getLogger(ResultStore.class);
+
+    static final String ROWS_FILE = "rows";
+    static final String FILE_DICTIONARY = "file.dict";
+    static final String CARRIER_DICTIONARY = "carrier.dict";
+    static final String LOCK_FILE = "write.lock";
+
+    private final int rows;
+    private final DoubleBuffer startTime;
+    private final DoubleBuffer greetingEnd;
+    private final FloatBuffer beepFrequency;
+    private final ByteBuffer decisionCase;
+    private final FloatBuffer confidence;
+    private final IntBuffer day;
+    private final IntBuffer file;
+    private final IntBuffer carrier;
+    private final StringDictionary files;
+    private final StringDictionary carriers;
+
+    private ResultStore(Path dir) throws IOException {
+        long committed = readCommittedRows(dir);
+        if (committed * Double.BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Result store " + dir + " has too many rows to map: " + committed);
+        }
+        rows = (int) committed;
+        startTime = map(dir, StoreColumn.START_TIME).asDoubleBuffer();
+        greetingEnd = map(dir, StoreColumn.GREETING_END).asDoubleBuffer();
+        beepFrequency = map(dir, StoreColumn.BEEP_FREQUENCY).asFloatBuffer();
+        decisionCase = map(dir, StoreColumn.DECISION_CASE);
+        confidence = map(dir, StoreColumn.CONFIDENCE).asFloatBuffer();
+        day = map(dir, StoreColumn.DAY).asIntBuffer();
+        file = map(dir, StoreColumn.FILE).asIntBuffer();
+        carrier = map(dir, StoreColumn.CARRIER).asIntBuffer();
+        files = StringDictionary.load(dir.resolve(FILE_DICTIONARY));
+        carriers = StringDictionary.load(dir.resolve(CARRIER_DICTIONARY));
+        logger.info("Opened result store {} ({} rows, {} files, {} carriers)", dir, rows, files.size(),
+                carriers.size());
+    }
+
+    public static ResultStore open(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            throw new IOException("No result store at " + dir);
+        }
+        return new ResultStore(dir);
+    }
+
+    /**
+     * Row count in {@code rows}; 0 for a new store
+     */
+    static long readCommittedRows(Path dir) throws IOException {
+        Path rowsFile = dir.resolve(ROWS_FILE);
+        if (!Files.exists(rowsFile)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(rowsFile);
+        if (bytes.length != Long.BYTES) {
+            throw new IOException("Corrupt row count in " + rowsFile);
+        }
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    /**
+     * Map the committed part of one column (the mapping outlives the channel)
+     */
+    private ByteBuffer map(Path dir, StoreColumn column) throws IOException {
+        long length = (long) rows * column.getWidth();
+        try (FileChannel channel = FileChannel.open(dir.resolve(column.getFileName()), StandardOpenOption.READ)) {
+            if (channel.size() < length) {
+                throw new IOException("Result store column " + column.getFileName() + " is shorter than " + rows
+                        + " committed rows");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    public int getRowCount() { return rows; }
+
+    // ==================== Row Access ====================
+
+    public double getStartTime(int row) { return startTime.get(row); }
+    public double getGreetingEnd(int row) { return greetingEnd.get(row); }
+
+    /**
+     * Recommended start minus greeting end: the wait after the greeting
+     */
+    public double getStartDelay(int row) { return startTime.get(row) - greetingEnd.get(row); }
+
+    /**
+     * Beep frequency in Hz, 0 when no beep was detected
+     */
+    public float getBeepFrequency(int row) { return beepFrequency.get(row); }
+    public boolean isBeepDetected(int row) { return beepFrequency.get(row) > 0; }
+
+    /**
+     * @throws IllegalStateException if the stored code is not a {@link DecisionCase} id
+     */
+    public DecisionCase getDecisionCase(int row) {
+        int id = getDecisionCaseId(row);
+        DecisionCase decisionCase = DecisionCase.fromId(id);
+        if (decisionCase == null) {
+            throw new IllegalStateException("Unknown decision case code " + id + " in result store row " + row);
+        }
+        return decisionCase;
+    }
+
+    public int getDecisionCaseId(int row) { return Byte.toUnsignedInt(decisionCase.get(row)); }
+    public float getConfidence(int row) { return confidence.get(row); }
+    public int getEpochDay(int row) { return day.get(row); }
+    public LocalDate getDay(int row) { return LocalDate.ofEpochDay(day.get(row)); }
+    public int getFileId(int row) { return file.get(row); }
+    public String getFileName(int row) { return files.get(file.get(row)); }
+    public int getCarrierId(int row) { return carrier.get(row); }
+    public String getCarrier(int row) { return carriers.get(carrier.get(row)); }
+
+    // ==================== Dictionaries ====================
+
+    /**
+     * @return the carrier's id, or -1 if no row has it
+     */
+    public int findCarrier(String name) { return carriers.find(name); }
+    public String getCarrierName(int id) { return carriers.get(id); }
+    public List<String> getCarriers() { return carriers.values(); }
+    public int getFileCount() { return files.size(); }
+}
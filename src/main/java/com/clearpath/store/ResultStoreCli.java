@@ -0,0 +1,127 @@
+package com.clearpath.store;
+
+import com.clearpath.decision.DecisionCase;
+import com.clearpath.decision.DecisionScore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Command-line queries over a {@link ResultStore}.
+ *
+ * <p>Usage: {@code ResultStoreCli --store <dir> [--from 2025-11-01] [--to 2025-11-30]
+ * [--carrier name] [command]} with command one of</p>
+ * <ul>
+ *   <li>{@code summary} (default): calls, beep rate, high-confidence share, start delay
+ *       percentiles and decision cases</li>
+ *   <li>{@code delays [--quantiles 0.5,0.9,0.99]}: start delay percentiles</li>
+ *   <li>{@code beep-rate [--by day|carrier]}: beep detection rate per group</li>
+ *   <li>{@code confidence [--bins 10]}: confidence score distribution</li>
+ * </ul>
+ */
+public class ResultStoreCli {
+
+    public static void main(String[] args) throws IOException {
+        Path dir = null;
+        LocalDate from = null;
+        LocalDate to = null;
+        String carrier = null;
+        String command = "summary";
+        double[] quantiles = {0.50, 0.90, 0.99};
+        String by = "day";
+        int bins = 10;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--store": dir = Paths.get(args[++i]); break;
+                case "--from": from = LocalDate.parse(args[++i]); break;
+                case "--to": to = LocalDate.parse(args[++i]); break;
+                case "--carrier": carrier = args[++i]; break;
+                case "--quantiles": quantiles = Arrays.stream(args[++i].split(",")).mapToDouble(Double::parseDouble).toArray(); break;
+                case "--by": by = args[++i]; break;
+                case "--bins": bins = Integer.parseInt(args[++i]); break;
+                case "summary": case "delays": case "beep-rate": case "confidence": command = args[i]; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        if (dir == null) {
+            System.err.println("Usage: ResultStoreCli --store <dir> [--from date] [--to date] [--carrier name] " +
+                    "[summary | delays [--quantiles 0.5,0.9] | beep-rate [--by day|carrier] | confidence [--bins 10]]");
+            System.exit(1);
+        }
+
+        ResultStore store = ResultStore.open(dir);
+        ResultQuery query = new ResultQuery(store).days(from, to);
+        if (carrier != null) {
+            query = query.carrier(carrier);
+        }
+
+        long start = System.nanoTime();
+        switch (command) {
+            case "delays" -> printDelays(query, quantiles);
+            case "beep-rate" -> printBeepRate(query, by);
+            case "confidence" -> printConfidence(query, bins);
+            default -> printSummary(query, quantiles);
+        }
+        System.out.println(String.format("(%d rows scanned in %.1f ms)", store.getRowCount(),
+                (System.nanoTime() - start) / 1e6));
+    }
+
+    private static void printSummary(ResultQuery query, double[] quantiles) {
+        int calls = query.count();
+        int beeps = query.countBeepsDetected();
+        int high = query.countConfidenceAtLeast(DecisionScore.HIGH_CONFIDENCE);
+        System.out.println(String.format("%-28s %d", "Calls:", calls));
+        System.out.println(String.format("%-28s %d (%.1f%%)", "Beeps detected:", beeps, percent(beeps, calls)));
+        System.out.println(String.format("%-28s %d (%.1f%%)", "High confidence decisions:", high,
+                percent(high, calls)));
+        printDelays(query, quantiles);
+        System.out.println("Decision cases:");
+        for (Map.Entry<DecisionCase, Integer> entry : query.decisionCaseCounts().entrySet()) {
+            System.out.println(String.format("  %-46s %8d (%.1f%%)", entry.getKey().getDescription(),
+                    entry.getValue(), percent(entry.getValue(), calls)));
+        }
+    }
+
+    private static void printDelays(ResultQuery query, double[] quantiles) {
+        double[] delays = query.startDelayPercentiles(quantiles);
+        System.out.println("Start delay after greeting end:");
+        for (int i = 0; i < quantiles.length; i++) {
+            System.out.println(String.format("  p%-6s %8.3fs", format(quantiles[i] * 100), delays[i]));
+        }
+    }
+
+    private static void printBeepRate(ResultQuery query, String by) {
+        Map<?, ResultQuery.Rate> rates = by.equals("carrier") ? query.beepRateByCarrier() : query.beepRateByDay();
+        System.out.println(String.format("%-20s %10s %10s %8s", by, "calls", "beeps", "rate"));
+        for (Map.Entry<?, ResultQuery.Rate> entry : rates.entrySet()) {
+            ResultQuery.Rate rate = entry.getValue();
+            System.out.println(String.format("%-20s %10d %10d %7.1f%%", entry.getKey(), rate.getCalls(),
+                    rate.getDetected(), rate.getRate() * 100));
+        }
+    }
+
+    private static void printConfidence(ResultQuery query, int bins) {
+        long[] histogram = query.confidenceHistogram(bins);
+        long total = Arrays.stream(histogram).sum();
+        long peak = Math.max(1, Arrays.stream(histogram).max().orElse(1));
+        System.out.println("Confidence score distribution:");
+        for (int i = 0; i < bins; i++) {
+            System.out.println(String.format("  %.2f-%.2f %10d %6.1f%% %s", i / (double) bins, (i + 1) / (double) bins,
+                    histogram[i], percent(histogram[i], total), "#".repeat((int) (40 * histogram[i] / peak))));
+        }
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
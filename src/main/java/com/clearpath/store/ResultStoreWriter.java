@@ -0,0 +1,156 @@
+package com.clearpath.store;
+
+import com.clearpath.model.AnalysisResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends analysis results to a {@link ResultStore} directory.
+ *
+ * <p>One writer per store at a time (enforced with a file lock). An append writes the new
+ * dictionary entries, then every column, forces them to disk and only then advances the
+ * committed row count in {@code rows}. A crash mid-append leaves bytes past the committed
+ * count, which readers ignore and the next writer truncates away.</p>
+ */
+public class ResultStoreWriter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ResultStoreWriter.class);
+
+    private final Path dir;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Map<StoreColumn, FileChannel> columns = new EnumMap<>(StoreColumn.class);
+    private final StringDictionary files;
+    private final StringDictionary carriers;
+    private final FileChannel filesDict;
+    private final FileChannel carriersDict;
+    private long rows;
+
+    private ResultStoreWriter(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        lockChannel = FileChannel.open(dir.resolve(ResultStore.LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Result store " + dir + " is open for writing elsewhere");
+        }
+
+        rows = ResultStore.readCommittedRows(dir);
+        for (StoreColumn column : StoreColumn.values()) {
+            FileChannel channel = FileChannel.open(dir.resolve(column.getFileName()), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            long committed = rows * column.getWidth();
+            if (channel.size() < committed) {
+                channel.close();
+                throw new IOException("Result store column " + column.getFileName() + " is shorter than " + rows
+                        + " committed rows");
+            }
+            channel.truncate(committed);  // drop a torn append
+            channel.position(committed);
+            columns.put(column, channel);
+        }
+        files = StringDictionary.load(dir.resolve(ResultStore.FILE_DICTIONARY));
+        carriers = StringDictionary.load(dir.resolve(ResultStore.CARRIER_DICTIONARY));
+        filesDict = StringDictionary.openForAppend(dir.resolve(ResultStore.FILE_DICTIONARY), files.byteLength());
+        carriersDict = StringDictionary.openForAppend(dir.resolve(ResultStore.CARRIER_DICTIONARY),
+                carriers.byteLength());
+    }
+
+    /**
+     * Open (creating if needed) a store for appending
+     */
+    public static ResultStoreWriter open(Path dir) throws IOException {
+        return new ResultStoreWriter(dir);
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Append one batch and commit it
+     *
+     * @param carrier carrier or tenant the calls went through (settings profile name)
+     * @param day     day the calls were analyzed
+     */
+    public void append(List<AnalysisResult> results, String carrier, LocalDate day) throws IOException {
+        if (results.isEmpty()) {
+            return;
+        }
+        int n = results.size();
+        Map<StoreColumn, ByteBuffer> buffers = new EnumMap<>(StoreColumn.class);
+        for (StoreColumn column : StoreColumn.values()) {
+            buffers.put(column, ByteBuffer.allocate(n * column.getWidth()).order(ByteOrder.LITTLE_ENDIAN));
+        }
+
+        int carrierId = carriers.intern(carrier, carriersDict);
+        int epochDay = (int) day.toEpochDay();
+        for (AnalysisResult result : results) {
+            buffers.get(StoreColumn.START_TIME).putDouble(result.getRecommendedStartTime());
+            buffers.get(StoreColumn.GREETING_END).putDouble(result.getGreetingEndTime());
+            buffers.get(StoreColumn.BEEP_FREQUENCY).putFloat(result.getBeepInfo().isDetected()
+                    ? (float) result.getBeepInfo().getFrequency() : 0f);
+            buffers.get(StoreColumn.DECISION_CASE).put((byte) result.getDecisionCase().getId());
+            buffers.get(StoreColumn.CONFIDENCE).putFloat((float) result.getConfidenceScore());
+            buffers.get(StoreColumn.DAY).putInt(epochDay);
+            buffers.get(StoreColumn.FILE).putInt(files.intern(result.getFileName(), filesDict));
+            buffers.get(StoreColumn.CARRIER).putInt(carrierId);
+        }
+
+        // Dictionaries first: a committed row never references an entry that isn't on disk
+        filesDict.force(false);
+        carriersDict.force(false);
+        for (StoreColumn column : StoreColumn.values()) {
+            ByteBuffer buffer = buffers.get(column).flip();
+            FileChannel channel = columns.get(column);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        commit(rows + n);
+        logger.info("Appended {} results to result store {} ({} rows)", n, dir, rows);
+    }
+
+    /**
+     * Replace {@code rows} atomically
+     */
+    private void commit(long newRows) throws IOException {
+        Path tmp = dir.resolve(ResultStore.ROWS_FILE + ".tmp");
+        ByteBuffer count = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(newRows).flip();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(count);
+            channel.force(false);
+        }
+        Files.move(tmp, dir.resolve(ResultStore.ROWS_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        rows = newRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FileChannel channel : columns.values()) {
+            channel.close();
+        }
+        filesDict.close();
+        carriersDict.close();
+        lock.release();
+        lockChannel.close();
+    }
+}
@@ -0,0 +1,26 @@
+package com.clearpath.store;
+
+/**
+ * Column files of a {@link ResultStore}: one fixed-width little-endian value per row
+ */
+enum StoreColumn {
+    START_TIME("start_time.f64", 8),         // recommended start, seconds
+    GREETING_END("greeting_end.f64", 8),     // seconds
+    BEEP_FREQUENCY("beep_frequency.f32", 4), // Hz, 0 when no beep was detected
+    DECISION_CASE("decision_case.u8", 1),    // DecisionCase id (stable, not the ordinal)
+    CONFIDENCE("confidence.f32", 4),         // decision confidence score, 0-1
+    DAY("day.i32", 4),                       // epoch day (UTC) the call was analyzed
+    FILE("file.i32", 4),                     // id in file.dict
+    CARRIER("carrier.i32", 4);               // id in carrier.dict
+
+    private final String fileName;
+    private final int width;
+
+    StoreColumn(String fileName, int width) {
+        this.fileName = fileName;
+        this.width = width;
+    }
+
+    public String getFileName() { return fileName; }
+    public int getWidth() { return width; }
+}
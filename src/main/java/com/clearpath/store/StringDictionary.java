@@ -0,0 +1,104 @@
+package com.clearpath.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only string dictionary backing a dictionary-encoded column. The file is a sequence
+ * of (int32 length, UTF-8 bytes) records; an entry's id is its position. A record cut short by
+ * a crash is dropped on load (no row can reference it: rows are committed after the
+ * dictionary is forced to disk).
+ */
+final class StringDictionary {
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private long byteLength;  // of the complete records, where the next one goes
+
+    private StringDictionary() {
+    }
+
+    /**
+     * Load every complete record; a missing file is an empty dictionary
+     */
+    static StringDictionary load(Path file) throws IOException {
+        StringDictionary dictionary = new StringDictionary();
+        if (!Files.exists(file)) {
+            return dictionary;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        while (bytes.remaining() >= Integer.BYTES) {
+            int length = bytes.getInt();
+            if (length < 0 || length > bytes.remaining()) {
+                break;  // torn record
+            }
+            byte[] utf8 = new byte[length];
+            bytes.get(utf8);
+            dictionary.add(new String(utf8, StandardCharsets.UTF_8), length);
+        }
+        return dictionary;
+    }
+
+    long byteLength() {
+        return byteLength;
+    }
+
+    String get(int id) {
+        return values.get(id);
+    }
+
+    /**
+     * @return the id, or -1 if the value is not in the dictionary
+     */
+    int find(String value) {
+        return ids.getOrDefault(value, -1);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    List<String> values() {
+        return List.copyOf(values);
+    }
+
+    /**
+     * Id of {@code value}, appending it to {@code file} (at the channel's position) if new
+     */
+    int intern(String value, FileChannel file) throws IOException {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + utf8.length).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(utf8.length).put(utf8).flip();
+        while (record.hasRemaining()) {
+            file.write(record);
+        }
+        return add(value, utf8.length);
+    }
+
+    private int add(String value, int utf8Length) {
+        byteLength += Integer.BYTES + utf8Length;
+        values.add(value);
+        ids.put(value, values.size() - 1);
+        return values.size() - 1;
+    }
+
+    static FileChannel openForAppend(Path file, long validLength) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        return channel;
+    }
+}
@@ -0,0 +1,111 @@
+package com.clearpath.synthetic;
+
+import com.clearpath.config.Config;
+
+/**
+ * Parameters for one synthetic greeting.
+ *
+ * <p>Layout: {@code leadIn | phrase (pause phrase)* | postGreetingPause | beep? | tail}.
+ * Background noise covers the whole recording at the requested SNR relative to speech.</p>
+ */
+public final class GreetingSpec {
+    private final long seed;
+    private final int sampleRate;
+    private final double leadInSec;
+    private final int phrases;
+    private final double minPhraseSec;
+    private final double maxPhraseSec;
+    private final double maxInterPhrasePauseSec;
+    private final double postGreetingPauseSec;
+    private final boolean beep;
+    private final double beepFrequencyHz;
+    private final double beepDurationSec;
+    private final double beepAmplitude;
+    private final double speechLevelDbfs;
+    private final double snrDb;
+    private final double tailSec;
+
+    private GreetingSpec(Builder b) {
+        this.seed = b.seed;
+        this.sampleRate = b.sampleRate;
+        this.leadInSec = b.leadInSec;
+        this.phrases = b.phrases;
+        this.minPhraseSec = b.minPhraseSec;
+        this.maxPhraseSec = b.maxPhraseSec;
+        this.maxInterPhrasePauseSec = b.maxInterPhrasePauseSec;
+        this.postGreetingPauseSec = b.postGreetingPauseSec;
+        this.beep = b.beep;
+        this.beepFrequencyHz = b.beepFrequencyHz;
+        this.beepDurationSec = b.beepDurationSec;
+        this.beepAmplitude = b.beepAmplitude;
+        this.speechLevelDbfs = b.speechLevelDbfs;
+        this.snrDb = b.snrDb;
+        this.tailSec = b.tailSec;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getSeed() { return seed; }
+    public int getSampleRate() { return sampleRate; }
+    public double getLeadInSec() { return leadInSec; }
+    public int getPhrases() { return phrases; }
+    public double getMinPhraseSec() { return minPhraseSec; }
+    public double getMaxPhraseSec() { return maxPhraseSec; }
+    public double getMaxInterPhrasePauseSec() { return maxInterPhrasePauseSec; }
+    public double getPostGreetingPauseSec() { return postGreetingPauseSec; }
+    public boolean hasBeep() { return beep; }
+    public double getBeepFrequencyHz() { return beepFrequencyHz; }
+    public double getBeepDurationSec() { return beepDurationSec; }
+    public double getBeepAmplitude() { return beepAmplitude; }
+    public double getSpeechLevelDbfs() { return speechLevelDbfs; }
+    public double getSnrDb() { return snrDb; }
+    public double getTailSec() { return tailSec; }
+
+    public static final class Builder {
+        private long seed = 1;
+        private int sampleRate = Config.SAMPLE_RATE;
+        private double leadInSec = 0.3;
+        private int phrases = 4;
+        private double minPhraseSec = 0.8;
+        private double maxPhraseSec = 2.0;
+        private double maxInterPhrasePauseSec = 0.5;
+        private double postGreetingPauseSec = 0.5;
+        private boolean beep = true;
+        private double beepFrequencyHz = 1000.0;
+        private double beepDurationSec = 0.8;
+        private double beepAmplitude = 0.3;
+        private double speechLevelDbfs = -20.0;
+        private double snrDb = 40.0;
+        private double tailSec = 5.0;
+
+        private Builder() {
+        }
+
+        public Builder seed(long v) { this.seed = v; return this; }
+        public Builder sampleRate(int v) { this.sampleRate = v; return this; }
+        public Builder leadInSec(double v) { this.leadInSec = v; return this; }
+        public Builder phrases(int v) { this.phrases = v; return this; }
+        public Builder phraseSec(double min, double max) { this.minPhraseSec = min; this.maxPhraseSec = max; return this; }
+        public Builder maxInterPhrasePauseSec(double v) { this.maxInterPhrasePauseSec = v; return this; }
+        public Builder postGreetingPauseSec(double v) { this.postGreetingPauseSec = v; return this; }
+        public Builder beep(boolean v) { this.beep = v; return this; }
+        public Builder beepFrequencyHz(double v) { this.beepFrequencyHz = v; return this; }
+        public Builder beepDurationSec(double v) { this.beepDurationSec = v; return this; }
+        public Builder beepAmplitude(double v) { this.beepAmplitude = v; return this; }
+        public Builder speechLevelDbfs(double v) { this.speechLevelDbfs = v; return this; }
+        public Builder snrDb(double v) { this.snrDb = v; return this; }
+        public Builder tailSec(double v) { this.tailSec = v; return this; }
+
+        public GreetingSpec build() {
+            if (phrases < 1 || minPhraseSec <= 0 || maxPhraseSec < minPhraseSec) {
+                throw new IllegalArgumentException("Need at least one phrase with a valid length range");
+            }
+            if (beep && (beepDurationSec <= 0 || beepFrequencyHz <= 0 || beepFrequencyHz >= sampleRate / 2.0)) {
+                throw new IllegalArgumentException("Beep frequency must be below Nyquist and duration positive");
+            }
+            return new GreetingSpec(this);
+        }
+    }
+}
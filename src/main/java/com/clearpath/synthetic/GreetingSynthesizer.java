@@ -0,0 +1,174 @@
+package com.clearpath.synthetic;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of speech-like voicemail greetings.
+ *
+ * <p>Speech is modelled as syllables of harmonic "voiced" sound with a random pitch
+ * contour plus a little high-passed noise, shaped by a raised-sine envelope. That is
+ * enough to look like speech to the energy detector and to put harmonics near the
+ * beep band, without needing recorded voices. The same spec and seed always give
+ * the same bytes.</p>
+ */
+public class GreetingSynthesizer {
+    private static final double[] BEEP_FREQUENCIES_HZ = {950.0, 1000.0, 1050.0};
+    private static final double[] SNRS_DB = {60.0, 50.0, 40.0, 30.0};
+    private static final double VOICE_BANDWIDTH_HZ = 3400.0;
+    private static final double MIN_PITCH_HZ = 100.0;
+    private static final double BEEP_RAMP_SEC = 0.005;
+
+    private static final int SINE_TABLE_SIZE = 4096;
+    private static final double[] SINE_TABLE = new double[SINE_TABLE_SIZE];
+
+    // One period of sum(sin(k*x)/k, k=1..h) per harmonic count h, so voiced synthesis is one lookup per sample
+    private static final double[][] VOICED_TABLES = new double[(int) (VOICE_BANDWIDTH_HZ / MIN_PITCH_HZ) + 1][];
+
+    static {
+        for (int i = 0; i < SINE_TABLE_SIZE; i++) {
+            SINE_TABLE[i] = Math.sin(2.0 * Math.PI * i / SINE_TABLE_SIZE);
+        }
+        double[] partial = new double[SINE_TABLE_SIZE];
+        for (int h = 1; h < VOICED_TABLES.length; h++) {
+            for (int i = 0; i < SINE_TABLE_SIZE; i++) {
+                partial[i] += SINE_TABLE[(int) ((long) i * h % SINE_TABLE_SIZE)] / h;
+            }
+            VOICED_TABLES[h] = partial.clone();
+        }
+    }
+
+    /**
+     * Randomized spec for corpus generation: varied phrase count, pauses, SNR and beep presence
+     */
+    public static GreetingSpec randomSpec(long seed, double tailSec) {
+        SplittableRandom r = new SplittableRandom(seed);
+        return GreetingSpec.builder()
+                .seed(seed)
+                .leadInSec(0.1 + 0.6 * r.nextDouble())
+                .phrases(2 + r.nextInt(5))
+                .maxInterPhrasePauseSec(0.2 + 0.5 * r.nextDouble())
+                .postGreetingPauseSec(0.2 + 1.3 * r.nextDouble())
+                .beep(r.nextDouble() < 0.7)
+                .beepFrequencyHz(BEEP_FREQUENCIES_HZ[r.nextInt(BEEP_FREQUENCIES_HZ.length)])
+                .beepDurationSec(0.5 + 0.7 * r.nextDouble())
+                .beepAmplitude(0.1 + 0.3 * r.nextDouble())
+                .speechLevelDbfs(-26.0 + 10.0 * r.nextDouble())
+                .snrDb(SNRS_DB[r.nextInt(SNRS_DB.length)])
+                .tailSec(tailSec)
+                .build();
+    }
+
+    public SyntheticGreeting generate(String name, GreetingSpec spec) {
+        SplittableRandom r = new SplittableRandom(spec.getSeed());
+        int rate = spec.getSampleRate();
+
+        // Lay out phrase boundaries first so the buffer is allocated once
+        int phrases = spec.getPhrases();
+        int[] phraseStart = new int[phrases];
+        int[] phraseLength = new int[phrases];
+        int pos = (int) (spec.getLeadInSec() * rate);
+        for (int p = 0; p < phrases; p++) {
+            if (p > 0) {
+                pos += (int) ((0.1 + (spec.getMaxInterPhrasePauseSec() - 0.1) * r.nextDouble()) * rate);
+            }
+            double len = spec.getMinPhraseSec() + (spec.getMaxPhraseSec() - spec.getMinPhraseSec()) * r.nextDouble();
+            phraseStart[p] = pos;
+            phraseLength[p] = (int) (len * rate);
+            pos += phraseLength[p];
+        }
+        int greetingEnd = pos;
+        int beepStart = greetingEnd + (int) (spec.getPostGreetingPauseSec() * rate);
+        int beepLength = spec.hasBeep() ? (int) (spec.getBeepDurationSec() * rate) : 0;
+        int total = beepStart + beepLength + (int) (spec.getTailSec() * rate);
+
+        double[] out = new double[total];
+        double speechRms = Math.pow(10.0, spec.getSpeechLevelDbfs() / 20.0);
+        for (int p = 0; p < phrases; p++) {
+            synthesizePhrase(out, phraseStart[p], phraseLength[p], rate, speechRms, r);
+        }
+        if (spec.hasBeep()) {
+            addTone(out, beepStart, beepLength, rate, spec.getBeepFrequencyHz(), spec.getBeepAmplitude());
+        }
+        addNoise(out, speechRms / Math.pow(10.0, spec.getSnrDb() / 20.0), r);
+
+        return new SyntheticGreeting(name, toPcm16(out), rate,
+                greetingEnd / (double) rate,
+                spec.hasBeep() ? beepStart / (double) rate : Double.NaN,
+                spec.hasBeep() ? (beepStart + beepLength) / (double) rate : Double.NaN);
+    }
+
+    /**
+     * Fill one phrase with syllables of harmonic speech-like sound at roughly {@code rms}
+     */
+    private void synthesizePhrase(double[] out, int start, int length, int rate, double rms, SplittableRandom r) {
+        int end = start + length;
+        int pos = start;
+        double phase = 0;
+        while (pos < end) {
+            int syllable = Math.min(end - pos, (int) ((0.12 + 0.18 * r.nextDouble()) * rate));
+            double f0 = MIN_PITCH_HZ + 120.0 * r.nextDouble();
+            double glide = (r.nextDouble() - 0.5) * 40.0;  // Hz across the syllable
+            double noiseMix = 0.3 * r.nextDouble();
+            int harmonics = Math.min(VOICED_TABLES.length - 1,
+                    Math.max(1, (int) (VOICE_BANDWIDTH_HZ / (f0 + Math.abs(glide)))));
+            double[] voicedTable = VOICED_TABLES[harmonics];
+            double prevNoise = 0;
+
+            double invSyllable = 1.0 / syllable;
+            for (int i = 0; i < syllable; i++) {
+                double t = i * invSyllable;
+                double envelope = SINE_TABLE[(int) (t * (SINE_TABLE_SIZE / 2))];
+                phase += (f0 + glide * t) / rate;
+                if (phase >= 1.0) {
+                    phase -= 1.0;
+                }
+
+                double voiced = voicedTable[(int) (phase * SINE_TABLE_SIZE) & (SINE_TABLE_SIZE - 1)];
+                double white = r.nextDouble() * 2.0 - 1.0;
+                double fricative = white - prevNoise;  // first difference = crude high-pass
+                prevNoise = white;
+
+                // Harmonic series 1/k has RMS of about 0.9; scale so the syllable peak sits near rms*sqrt(2)
+                out[pos + i] += rms * 1.6 * envelope * ((1.0 - noiseMix) * voiced + noiseMix * fricative);
+            }
+            pos += syllable;
+            // Short intra-phrase gaps between syllables
+            pos += (int) (0.04 * r.nextDouble() * rate);
+        }
+    }
+
+    private void addTone(double[] out, int start, int length, int rate, double freq, double amplitude) {
+        int ramp = Math.min(length / 2, (int) (BEEP_RAMP_SEC * rate));
+        for (int i = 0; i < length; i++) {
+            double gain = 1.0;
+            if (i < ramp) {
+                gain = 0.5 * (1.0 - Math.cos(Math.PI * i / ramp));
+            } else if (i >= length - ramp) {
+                gain = 0.5 * (1.0 - Math.cos(Math.PI * (length - 1 - i) / ramp));
+            }
+            out[start + i] += amplitude * gain * Math.sin(2.0 * Math.PI * freq * i / rate);
+        }
+    }
+
+    private void addNoise(double[] out, double rms, SplittableRandom r) {
+        // Uniform noise on [-1, 1] has RMS 1/sqrt(3)
+        double scale = rms * Math.sqrt(3.0);
+        for (int i = 0; i < out.length; i++) {
+            out[i] += scale * (r.nextDouble() * 2.0 - 1.0);
+        }
+    }
+
+    private static byte[] toPcm16(double[] samples) {
+        // Convert to shorts first and bulk-copy: far faster than two byte stores per sample
+        short[] shorts = new short[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            double clipped = Math.max(-1.0, Math.min(1.0, samples[i]));
+            shorts[i] = (short) Math.rint(clipped * 32767.0);
+        }
+        byte[] pcm = new byte[samples.length * 2];
+        ByteBuffer.wrap(pcm).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().put(shorts);
+        return pcm;
+    }
+}
@@ -0,0 +1,90 @@
+package com.clearpath.synthetic;
+
+import com.clearpath.audio.AudioReader;
+import com.clearpath.evaluation.LabeledSample;
+import com.clearpath.transcription.TranscriptAnalyzer;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Generated 16-bit PCM greeting with its ground-truth labels.
+ */
+public class SyntheticGreeting {
+    private final String name;
+    private final byte[] pcm;  // 16-bit signed little-endian mono
+    private final int sampleRate;
+    private final double greetingEndTime;
+    private final double beepStartTime;  // NaN when there is no beep
+    private final double beepEndTime;    // NaN when there is no beep
+
+    SyntheticGreeting(String name, byte[] pcm, int sampleRate,
+                      double greetingEndTime, double beepStartTime, double beepEndTime) {
+        this.name = name;
+        this.pcm = pcm;
+        this.sampleRate = sampleRate;
+        this.greetingEndTime = greetingEndTime;
+        this.beepStartTime = beepStartTime;
+        this.beepEndTime = beepEndTime;
+    }
+
+    public String getName() { return name; }
+    public int getSampleRate() { return sampleRate; }
+    public double getGreetingEndTime() { return greetingEndTime; }
+    public double getBeepStartTime() { return beepStartTime; }
+    public double getBeepEndTime() { return beepEndTime; }
+    public boolean hasBeep() { return !Double.isNaN(beepStartTime); }
+    public double getDurationSec() { return pcm.length / 2.0 / sampleRate; }
+
+    public AudioFormat getFormat() {
+        return new AudioFormat(sampleRate, 16, 1, true, false);
+    }
+
+    /**
+     * In-memory stream for {@link AudioReader#readAudioStream}; no disk access
+     */
+    public AudioInputStream toAudioInputStream() {
+        return new AudioInputStream(new ByteArrayInputStream(pcm), getFormat(), pcm.length / 2);
+    }
+
+    /**
+     * Samples as 16-bit values, e.g. for feeding a live session frame by frame
+     */
+    public short[] toPcm16() {
+        short[] samples = new short[pcm.length / 2];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) ((pcm[2 * i + 1] << 8) | (pcm[2 * i] & 0xFF));
+        }
+        return samples;
+    }
+
+    public void writeWav(Path file) throws IOException {
+        AudioSystem.write(toAudioInputStream(), AudioFileFormat.Type.WAVE, file.toFile());
+    }
+
+    /**
+     * Labeled sample for the evaluation harness, decoded through the regular reader path
+     */
+    public LabeledSample toLabeledSample(AudioReader reader) throws IOException {
+        return new LabeledSample(name, reader.readAudioStream(toAudioInputStream()),
+                greetingEndTime, beepStartTime, beepEndTime,
+                hasBeep() ? TranscriptAnalyzer.BeepExpectation.HIGH : TranscriptAnalyzer.BeepExpectation.LOW);
+    }
+
+    /**
+     * Line in the {@code LabeledManifest} CSV format
+     */
+    public String toManifestLine(String fileName) {
+        if (hasBeep()) {
+            return String.format(Locale.ROOT, "%s,%.4f,%.4f,%.4f,HIGH",
+                    fileName, greetingEndTime, beepStartTime, beepEndTime);
+        }
+        return String.format(Locale.ROOT, "%s,%.4f,,,LOW", fileName, greetingEndTime);
+    }
+}
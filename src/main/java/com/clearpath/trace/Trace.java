@@ -0,0 +1,167 @@
+package com.clearpath.trace;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opt-in span tracing of the batch pipeline, written as Chrome trace-event JSON (open the file
+ * in Perfetto or chrome://tracing).
+ *
+ * <p>A span is one timed stage on one thread: {@code try (Trace.Span _ = Trace.span("beep"))}.
+ * Spans on a thread nest by time, so each thread shows as a flame chart of its stages and the
+ * threads side by side show overlap and stalls. Every span carries the file it works on:
+ * {@link #span(String, String)} sets it for the thread until the span closes, nested spans
+ * inherit it, and work handed to another thread passes {@link #currentFile()} along.</p>
+ *
+ * <p>Off until {@link #start}: {@link #span} then costs one volatile read and returns a shared
+ * no-op span.</p>
+ */
+public final class Trace {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final ThreadLocal<String> currentFile = new ThreadLocal<>();
+
+    private static volatile TraceWriter writer;
+
+    private Trace() {
+    }
+
+    /**
+     * Start writing spans to a new {@code trace-<pid>-<time>.json} in {@code dir}
+     *
+     * @return the trace file
+     */
+    public static synchronized Path start(Path dir) throws IOException {
+        if (writer != null) {
+            return writer.getPath();
+        }
+        Files.createDirectories(dir);
+        Path file = dir.resolve(String.format("trace-%d-%s.json", ProcessHandle.current().pid(),
+                LocalDateTime.now().format(FILE_TIME)));
+        writer = new TraceWriter(file, ManagementFactory.getRuntimeMXBean().getName());
+        return file;
+    }
+
+    /**
+     * Finish the trace file; spans still open are dropped
+     *
+     * @return events written, 0 if tracing was off
+     */
+    public static synchronized int stop() {
+        TraceWriter current = writer;
+        if (current == null) {
+            return 0;
+        }
+        writer = null;
+        return current.close();
+    }
+
+    public static boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * A span of the thread's current file
+     */
+    public static Span span(String name) {
+        TraceWriter current = writer;
+        if (current == null) {
+            return Span.NOOP;
+        }
+        return new Span(current, name, currentFile.get(), null, false);
+    }
+
+    /**
+     * A span of {@code file}, which is also the thread's current file until the span closes
+     */
+    public static Span span(String name, String file) {
+        TraceWriter current = writer;
+        if (current == null) {
+            return Span.NOOP;
+        }
+        String previous = currentFile.get();
+        currentFile.set(file);
+        return new Span(current, name, file, previous, true);
+    }
+
+    /**
+     * A point in time (e.g. a hedge sent) on the current thread
+     */
+    public static void instant(String name, String file) {
+        TraceWriter current = writer;
+        if (current != null) {
+            current.instant(name, file, System.nanoTime(), Thread.currentThread());
+        }
+    }
+
+    /**
+     * The thread's current file, to pass to work running on another thread (null when off)
+     */
+    public static String currentFile() {
+        return writer == null ? null : currentFile.get();
+    }
+
+    /**
+     * One timed stage; closing it writes the event
+     */
+    public static final class Span implements AutoCloseable {
+        static final Span NOOP = new Span(null, null, null, null, false);
+
+        private final TraceWriter writer;
+        private final String name;
+        private final String file;
+        private final String previousFile;
+        private final boolean ownsFile;
+        private final Thread thread;
+        private final long startNanos;
+        private List<Object> args;  // key, value, key, value...
+
+        private Span(TraceWriter writer, String name, String file, String previousFile, boolean ownsFile) {
+            this.writer = writer;
+            this.name = name;
+            this.file = file;
+            this.previousFile = previousFile;
+            this.ownsFile = ownsFile;
+            this.thread = writer != null ? Thread.currentThread() : null;
+            this.startNanos = writer != null ? System.nanoTime() : 0;
+        }
+
+        public Span arg(String key, long value) {
+            return writer == null ? this : addArg(key, value);
+        }
+
+        public Span arg(String key, double value) {
+            return writer == null ? this : addArg(key, value);
+        }
+
+        public Span arg(String key, String value) {
+            return writer == null ? this : addArg(key, value);
+        }
+
+        private Span addArg(String key, Object value) {
+            if (args == null) {
+                args = new ArrayList<>(4);
+            }
+            args.add(key);
+            args.add(value);
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (writer == null) {
+                return;
+            }
+            long endNanos = System.nanoTime();
+            if (ownsFile) {
+                currentFile.set(previousFile);
+            }
+            writer.complete(name, file, startNanos, endNanos, thread, args);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.clearpath.trace;
+
+import com.google.gson.stream.JsonWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams trace events to one JSON file: complete ({@code "ph":"X"}) events with microsecond
+ * timestamps at nanosecond resolution, instants, and a thread-name record the first time a
+ * thread appears. Events are appended as spans close, so memory stays flat for any batch size.
+ */
+final class TraceWriter {
+    private static final Logger logger = LoggerFactory.getLogger(TraceWriter.class);
+    private static final int PID = 1;
+
+    private final Path path;
+    private final JsonWriter json;
+    private final long originNanos = System.nanoTime();
+    private final Set<Long> namedThreads = new HashSet<>();
+    private int events;
+    private boolean closed;
+
+    TraceWriter(Path path, String processName) throws IOException {
+        this.path = path;
+        this.json = new JsonWriter(Files.newBufferedWriter(path));
+        json.beginObject();
+        json.name("displayTimeUnit").value("ms");
+        json.name("traceEvents").beginArray();
+        json.beginObject();
+        json.name("name").value("process_name");
+        json.name("ph").value("M");
+        json.name("pid").value(PID);
+        json.name("args").beginObject().name("name").value(processName).endObject();
+        json.endObject();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    synchronized void complete(String name, String file, long startNanos, long endNanos, Thread thread,
+                               List<Object> args) {
+        if (closed) {
+            return;  // a straggler finishing after the batch
+        }
+        try {
+            nameThread(thread);
+            json.beginObject();
+            json.name("name").value(name);
+            json.name("ph").value("X");
+            json.name("ts").jsonValue(micros(startNanos - originNanos));
+            json.name("dur").jsonValue(micros(endNanos - startNanos));
+            json.name("pid").value(PID);
+            json.name("tid").value(thread.threadId());
+            writeArgs(file, args);
+            json.endObject();
+            events++;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    synchronized void instant(String name, String file, long nanos, Thread thread) {
+        if (closed) {
+            return;
+        }
+        try {
+            nameThread(thread);
+            json.beginObject();
+            json.name("name").value(name);
+            json.name("ph").value("i");
+            json.name("s").value("t");
+            json.name("ts").jsonValue(micros(nanos - originNanos));
+            json.name("pid").value(PID);
+            json.name("tid").value(thread.threadId());
+            writeArgs(file, null);
+            json.endObject();
+            events++;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Close the event array and the file
+     *
+     * @return events written
+     */
+    synchronized int close() {
+        if (!closed) {
+            closed = true;
+            try (json) {
+                json.endArray();
+                json.endObject();
+            } catch (IOException e) {
+                logger.warn("Trace {} may be incomplete: {}", path, e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    private void writeArgs(String file, List<Object> args) throws IOException {
+        if (file == null && args == null) {
+            return;
+        }
+        json.name("args").beginObject();
+        if (file != null) {
+            json.name("file").value(file);
+        }
+        if (args != null) {
+            for (int i = 0; i < args.size(); i += 2) {
+                json.name((String) args.get(i));
+                Object value = args.get(i + 1);
+                if (value instanceof Number number) {
+                    json.value(number);
+                } else {
+                    json.value(String.valueOf(value));
+                }
+            }
+        }
+        json.endObject();
+    }
+
+    private void nameThread(Thread thread) throws IOException {
+        if (!namedThreads.add(thread.threadId())) {
+            return;
+        }
+        String name = thread.getName().isEmpty() ? "virtual-" + thread.threadId() : thread.getName();
+        json.beginObject();
+        json.name("name").value("thread_name");
+        json.name("ph").value("M");
+        json.name("pid").value(PID);
+        json.name("tid").value(thread.threadId());
+        json.name("args").beginObject().name("name").value(name).endObject();
+        json.endObject();
+    }
+
+    private void fail(IOException e) {
+        logger.warn("Tracing stopped, cannot write {}: {}", path, e.getMessage());
+        closed = true;
+        try {
+            json.close();
+        } catch (IOException ignored) {
+            // already failing
+        }
+    }
+
+    /**
+     * Nanoseconds as a JSON number of microseconds with three decimals
+     */
+    private static String micros(long nanos) {
+        long fraction = nanos % 1000;
+        return (nanos / 1000) + (fraction < 10 ? ".00" : fraction < 100 ? ".0" : ".") + fraction;
+    }
+}
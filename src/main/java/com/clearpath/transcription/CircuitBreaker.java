@@ -0,0 +1,103 @@
+package com.clearpath.transcription;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Consecutive-failure circuit breaker for one backend.
+ *
+ * <p>CLOSED lets everything through. {@code failureThreshold} failures in a row open it: calls
+ * then fail immediately for {@code openSec}, after which one trial request is let through
+ * (HALF_OPEN). Its success closes the circuit, its failure opens it for another period.
+ * Both limits can be changed with {@link #configure} without losing the current state.</p>
+ */
+final class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private int failureThreshold;
+    private long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private long rejected;
+
+    CircuitBreaker(String name, int failureThreshold, double openSec) {
+        this.name = name;
+        configure(failureThreshold, openSec);
+    }
+
+    /**
+     * Apply new limits; they take effect from the next failure or the next check of an open circuit
+     */
+    synchronized void configure(int failureThreshold, double openSec) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = (long) (openSec * 1e9);
+    }
+
+    /**
+     * Whether a request may go out now
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED -> {
+                return true;
+            }
+            case OPEN -> {
+                if (System.nanoTime() - openedAtNanos >= openNanos) {
+                    state = State.HALF_OPEN;
+                    logger.info("{}: circuit half-open, sending a trial request", name);
+                    return true;
+                }
+            }
+            case HALF_OPEN -> {
+                // one trial at a time
+            }
+        }
+        rejected++;
+        return false;
+    }
+
+    synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("{}: circuit closed", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            logger.warn("{}: circuit open after {} consecutive failure(s), failing fast for {}s",
+                    name, consecutiveFailures, String.format("%.0f", openNanos / 1e9));
+        }
+    }
+
+    /**
+     * The request ended without telling us anything about the backend (e.g. interrupted):
+     * give the trial slot to the next caller
+     */
+    synchronized void onAbandoned() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime() - openNanos;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Requests refused while open
+     */
+    synchronized long getRejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,14 @@
+package com.clearpath.transcription;
+
+import java.io.IOException;
+
+/**
+ * Request refused without being sent because the backend's circuit breaker is open
+ */
+public class CircuitOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
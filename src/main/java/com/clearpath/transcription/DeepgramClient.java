@@ -1,50 +1,308 @@
 package com.clearpath.transcription;
 
-import com.clearpath.config.Config;
-import com.clearpath.model.DeepgramResponse;
-import com.google.gson.Gson;
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.model.DeepgramTranscript;
+import com.clearpath.trace.Trace;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
-public class DeepgramClient {
+/**
+ * Deepgram pre-recorded transcription over HTTP.
+ *
+ * <p>All instances share one connection pool and dispatcher; each instance only layers its
+ * settings snapshot's timeouts on top ({@code deepgram.connect/read/call.timeout.sec}), so a
+ * slow response can hold a file for at most the call deadline.</p>
+ *
+ * <p>Once an endpoint has enough history, a request still running at its p95 latency (never
+ * sooner than {@code deepgram.hedge.min.delay.sec}) gets a hedge: an identical second request.
+ * Whichever answers first wins and the other is cancelled, which trims the tail at the cost of
+ * roughly 5% extra requests. Each endpoint also has a {@link CircuitBreaker}: after
+ * {@code deepgram.breaker.failures} consecutive timeouts, transport errors or 5xx, requests
+ * fail immediately with {@link CircuitOpenException} for {@code deepgram.breaker.open.sec}, so
+ * an outage sends files straight to the no-transcript path instead of stalling the batch.</p>
+ *
+ * <p>Responses are parsed as they stream in ({@link DeepgramResponseParser}); only the
+ * transcript, its confidence and the word timings are kept.</p>
+ */
+public class DeepgramClient implements Transcriber {
     private static final Logger logger = LoggerFactory.getLogger(DeepgramClient.class);
-    private static final Gson gson = new Gson();
-    private final OkHttpClient client = new OkHttpClient();
 
+    private static final double HEDGE_PERCENTILE = 0.95;
+    private static final int MAX_IDLE_CONNECTIONS = 16;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final int MAX_REQUESTS = 64;
+    private static final int MAX_REQUESTS_PER_HOST = 32;  // OkHttp's default of 5 would queue hedges
+
+    // Shared so per-analysis clients (one per settings snapshot) reuse the same connection pool
+    private static final OkHttpClient sharedClient = createSharedClient();
+    private static final ScheduledExecutorService hedgeTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "deepgram-hedge-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    private final AnalyzerSettings settings;
+    private final OkHttpClient client;
+    private final CircuitBreaker breaker;
+    private final LatencyWindow latency;
+
+    public DeepgramClient(AnalyzerSettings settings) {
+        this.settings = settings;
+        this.client = sharedClient.newBuilder()
+                .connectTimeout(seconds(settings.getDeepgramConnectTimeoutSec()))
+                .readTimeout(seconds(settings.getDeepgramReadTimeoutSec()))
+                .writeTimeout(seconds(settings.getDeepgramReadTimeoutSec()))
+                .callTimeout(seconds(settings.getDeepgramCallTimeoutSec()))
+                .build();
+        // Breaker state and latency history belong to the endpoint, not to one settings snapshot,
+        // but the breaker limits follow the newest snapshot so a reload takes effect
+        this.breaker = breakers.computeIfAbsent(settings.getDeepgramUrl(), url -> new CircuitBreaker("Deepgram",
+                settings.getDeepgramBreakerFailures(), settings.getDeepgramBreakerOpenSec()));
+        breaker.configure(settings.getDeepgramBreakerFailures(), settings.getDeepgramBreakerOpenSec());
+        this.latency = latencies.computeIfAbsent(settings.getDeepgramUrl(), url -> new LatencyWindow());
+    }
+
+    private static OkHttpClient createSharedClient() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .build();
+    }
+
+    /**
+     * Transcript text only; see {@link #transcribe}
+     */
+    @Override
     public String transcribeFile(String audioFilePath) throws IOException {
+        return transcribe(audioFilePath).getTranscript();
+    }
+
+    /**
+     * Transcript with confidence and word timings
+     *
+     * @throws CircuitOpenException   if the endpoint's circuit is open (nothing was sent)
+     * @throws TranscriptionException on an HTTP error response
+     * @throws InterruptedIOException on a timeout
+     */
+    @Override
+    public DeepgramTranscript transcribe(String audioFilePath) throws IOException {
+        if (!breaker.tryAcquire()) {
+            throw new CircuitOpenException("Deepgram circuit open, not sending " + audioFilePath);
+        }
         logger.info("Transcribing with Deepgram...");
 
-        byte[] audioBytes = Files.readAllBytes(Paths.get(audioFilePath));
+        try {
+            byte[] audioBytes = Files.readAllBytes(Paths.get(audioFilePath));
 
-        RequestBody requestBody = RequestBody.create(
-                audioBytes,
-                MediaType.parse("audio/wav")
-        );
+            RequestBody requestBody = RequestBody.create(
+                    audioBytes,
+                    MediaType.parse("audio/wav")
+            );
 
-        Request request = new Request.Builder()
-                .url("https://api.deepgram.com/v1/listen?punctuate=true&model=nova-2")
-                .addHeader("Authorization", "Token " + Config.DEEPGRAM_API_KEY)
-                .post(requestBody)
-                .build();
+            Request request = new Request.Builder()
+                    .url(settings.getDeepgramUrl())
+                    .addHeader("Authorization", "Token " + settings.getDeepgramApiKey())
+                    .post(requestBody)
+                    .build();
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                String error = response.body() != null ? response.body().string() : "Unknown error";
-                throw new IOException("Deepgram API error " + response.code() + ": " + error);
+            DeepgramTranscript transcript = new HedgedExchange(request, audioFilePath).await(hedgeDelaySec());
+            breaker.onSuccess();
+            logger.info("Transcript: '{}' ({} words timed)", transcript.getTranscript(), transcript.getWords().size());
+            return transcript;
+        } catch (TranscriptionException e) {
+            // Any answer short of a 5xx means the backend is up
+            if (e.getStatusCode() >= 500) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+            throw e;
+        } catch (IOException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                breaker.onAbandoned();
+            } else {
+                breaker.onFailure();
             }
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.onAbandoned();
+            throw e;
+        }
+    }
+
+    /**
+     * When to hedge, or NaN for no hedge (disabled or not enough latency history)
+     */
+    private double hedgeDelaySec() {
+        if (!settings.isDeepgramHedgeEnabled()) {
+            return Double.NaN;
+        }
+        double p95 = latency.percentile(HEDGE_PERCENTILE);
+        return Double.isNaN(p95) ? Double.NaN : Math.max(p95, settings.getDeepgramHedgeMinDelaySec());
+    }
 
-            String responseBody = response.body().string();
-            DeepgramResponse deepgramResponse = gson.fromJson(responseBody, DeepgramResponse.class);
+    /**
+     * One logical request: the primary call plus, if it is slow, a hedge
+     */
+    private final class HedgedExchange implements Callback {
+        private final Request request;
+        private final String audioFilePath;  // for tracing
+        private final CompletableFuture<DeepgramTranscript> result = new CompletableFuture<>();
+        private final List<Call> calls = new ArrayList<>(2);
+        private final List<Long> launchNanos = new ArrayList<>(2);
+        private int inFlight;
+        private ScheduledFuture<?> hedge;
 
-            String transcript = deepgramResponse.results.channels[0].alternatives[0].transcript;
-            logger.info("Transcript: '{}'", transcript);
+        HedgedExchange(Request request, String audioFilePath) {
+            this.request = request;
+            this.audioFilePath = audioFilePath;
+        }
 
-            return transcript;
+        DeepgramTranscript await(double hedgeDelaySec) throws IOException {
+            launch();
+            if (!Double.isNaN(hedgeDelaySec)) {
+                synchronized (this) {
+                    if (!result.isDone()) {
+                        hedge = hedgeTimer.schedule(this::launchHedge, (long) (hedgeDelaySec * 1e9),
+                                TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IOException("Deepgram request failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for Deepgram");
+            } finally {
+                cancelAll();
+            }
+        }
+
+        private synchronized void launch() {
+            Call call = client.newCall(request);
+            calls.add(call);
+            launchNanos.add(System.nanoTime());
+            inFlight++;
+            call.enqueue(this);
+        }
+
+        private void launchHedge() {
+            synchronized (this) {
+                if (result.isDone() || inFlight == 0) {
+                    return;
+                }
+                launch();
+            }
+            Trace.instant("hedge", audioFilePath);
+            logger.info("Deepgram request slower than p95, sent a hedge");
         }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            try (response; Trace.Span _ = Trace.span("response", audioFilePath).arg("status", response.code())) {
+                if (!response.isSuccessful()) {
+                    String error = response.body() != null ? response.body().string() : "Unknown error";
+                    fail(new TranscriptionException(response.code(), parseRetryAfter(response.header("Retry-After")),
+                            "Deepgram API error " + response.code() + ": " + error));
+                    return;
+                }
+
+                DeepgramTranscript transcript;
+                try (Reader body = response.body().charStream()) {
+                    transcript = DeepgramResponseParser.parse(body);
+                }
+
+                long launched;
+                int index;
+                synchronized (this) {
+                    index = calls.indexOf(call);
+                    launched = launchNanos.get(index);
+                }
+                if (result.complete(transcript)) {
+                    latency.record((System.nanoTime() - launched) / 1e9);
+                    if (index > 0) {
+                        logger.info("Hedged Deepgram request answered first");
+                    }
+                }
+            } catch (IOException e) {
+                fail(e);
+            } catch (RuntimeException e) {
+                fail(new IOException("Malformed Deepgram response: " + e.getMessage(), e));
+            }
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            if (!call.isCanceled()) {
+                fail(e);
+            }
+        }
+
+        /**
+         * An attempt failed: the exchange fails once no attempt is left running. A failure
+         * before the hedge timer fires ends the exchange right away (a fast error is not a
+         * slow request).
+         */
+        private synchronized void fail(IOException e) {
+            inFlight--;
+            if (inFlight == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private synchronized void cancelAll() {
+            if (hedge != null) {
+                hedge.cancel(false);
+            }
+            for (Call call : calls) {
+                call.cancel();
+            }
+        }
+    }
+
+    /**
+     * Retry-After in seconds; HTTP-date values are not used by Deepgram and count as absent
+     */
+    private static double parseRetryAfter(String header) {
+        if (header == null) {
+            return Double.NaN;
+        }
+        try {
+            return Math.max(0, Double.parseDouble(header.trim()));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static Duration seconds(double seconds) {
+        return Duration.ofMillis(Math.round(seconds * 1000));
     }
 }
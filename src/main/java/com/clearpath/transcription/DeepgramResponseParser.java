@@ -0,0 +1,185 @@
+package com.clearpath.transcription;
+
+import com.clearpath.model.DeepgramTranscript;
+import com.clearpath.model.WordTiming;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pulls {@code results.channels[0].alternatives[0]} out of a Deepgram response as it streams.
+ *
+ * <p>The response is read token by token with a Gson {@link JsonReader}: only the transcript,
+ * its confidence and (optionally) the word timings are materialized. Metadata, other channels
+ * and other alternatives are skipped without building strings or objects, and the body is
+ * never held in memory as a whole, which matters once responses carry a timestamp per
+ * word.</p>
+ */
+public final class DeepgramResponseParser {
+    private DeepgramResponseParser() {
+    }
+
+    /**
+     * Parse with word timings
+     */
+    public static DeepgramTranscript parse(Reader in) throws IOException {
+        return parse(in, true);
+    }
+
+    /**
+     * @param withWords false skips the {@code words} array (the result has no word timings)
+     * @throws IOException on malformed JSON or a response without a transcript
+     */
+    public static DeepgramTranscript parse(Reader in, boolean withWords) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        Alternative alternative = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("results") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                alternative = readResults(reader, withWords);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (alternative == null || alternative.transcript == null) {
+            throw new IOException("Deepgram response has no results.channels[0].alternatives[0].transcript");
+        }
+        return new DeepgramTranscript(alternative.transcript, alternative.confidence, alternative.words);
+    }
+
+    /**
+     * Fields of the first alternative seen so far
+     */
+    private static final class Alternative {
+        String transcript;
+        double confidence = Double.NaN;
+        List<WordTiming> words = List.of();
+    }
+
+    private static Alternative readResults(JsonReader reader, boolean withWords) throws IOException {
+        Alternative alternative = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("channels") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                if (reader.hasNext()) {
+                    alternative = readChannel(reader, withWords);
+                }
+                skipRest(reader);
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return alternative;
+    }
+
+    private static Alternative readChannel(JsonReader reader, boolean withWords) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        Alternative alternative = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("alternatives") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                if (reader.hasNext()) {
+                    alternative = readAlternative(reader, withWords);
+                }
+                skipRest(reader);
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return alternative;
+    }
+
+    private static Alternative readAlternative(JsonReader reader, boolean withWords) throws IOException {
+        Alternative alternative = new Alternative();
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return alternative;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "transcript" -> alternative.transcript = nextStringOrNull(reader);
+                case "confidence" -> alternative.confidence = nextDoubleOrNaN(reader);
+                case "words" -> {
+                    if (withWords && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        alternative.words = readWords(reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return alternative;
+    }
+
+    private static List<WordTiming> readWords(JsonReader reader) throws IOException {
+        List<WordTiming> words = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            String word = null;
+            double start = Double.NaN;
+            double end = Double.NaN;
+            double confidence = Double.NaN;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "word" -> word = nextStringOrNull(reader);
+                    case "start" -> start = nextDoubleOrNaN(reader);
+                    case "end" -> end = nextDoubleOrNaN(reader);
+                    case "confidence" -> confidence = nextDoubleOrNaN(reader);
+                    default -> reader.skipValue();  // punctuated_word, speaker, ...
+                }
+            }
+            reader.endObject();
+            if (word != null && !Double.isNaN(start) && !Double.isNaN(end)) {
+                words.add(new WordTiming(word, start, end, confidence));
+            }
+        }
+        reader.endArray();
+        return words;
+    }
+
+    private static void skipRest(JsonReader reader) throws IOException {
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    private static double nextDoubleOrNaN(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.NUMBER) {
+            reader.skipValue();
+            return Double.NaN;
+        }
+        return reader.nextDouble();
+    }
+}
@@ -0,0 +1,34 @@
+package com.clearpath.transcription;
+
+import java.util.Arrays;
+
+/**
+ * The last {@value #SIZE} request latencies of a backend, for hedging decisions
+ */
+final class LatencyWindow {
+    static final int SIZE = 256;
+    static final int MIN_SAMPLES = 20;  // no percentile before this many
+
+    private final double[] samples = new double[SIZE];
+    private final double[] scratch = new double[SIZE];
+    private int count;
+    private int next;
+
+    synchronized void record(double seconds) {
+        samples[next] = seconds;
+        next = (next + 1) % SIZE;
+        count = Math.min(count + 1, SIZE);
+    }
+
+    /**
+     * Latency below which {@code p} of recent requests finished, NaN until {@link #MIN_SAMPLES}
+     */
+    synchronized double percentile(double p) {
+        if (count < MIN_SAMPLES) {
+            return Double.NaN;
+        }
+        System.arraycopy(samples, 0, scratch, 0, count);
+        Arrays.sort(scratch, 0, count);
+        return scratch[Math.min(count - 1, (int) Math.ceil(p * count) - 1)];
+    }
+}
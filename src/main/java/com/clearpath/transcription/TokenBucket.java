@@ -0,0 +1,61 @@
+package com.clearpath.transcription;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Request-rate limiter: {@code ratePerSec} permits per second with bursts of up to
+ * {@code burst}, plus a shared cool-down after the backend reports rate limiting.
+ *
+ * <p>Permits are reserved under the lock and waited for outside it, so callers queue up in
+ * arrival order without holding anything while they sleep.</p>
+ */
+final class TokenBucket {
+    private final double permitsPerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    TokenBucket(double ratePerSec, int burst) {
+        this.permitsPerNano = ratePerSec / 1e9;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * Wait for one permit
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        long deadline = System.nanoTime() + waitNanos;
+        while (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            waitNanos = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Hold every caller back for {@code seconds} (a 429 applies to the whole account, not one request)
+     */
+    synchronized void pause(double seconds) {
+        long until = System.nanoTime() + (long) (seconds * 1e9);
+        pausedUntilNanos = Math.max(pausedUntilNanos, until);
+    }
+
+    /**
+     * Take a permit, possibly going into debt, and return how long to wait before using it
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+        tokens -= 1;
+        long rateWait = tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+        return Math.max(rateWait, pausedUntilNanos - now);
+    }
+}
@@ -0,0 +1,25 @@
+package com.clearpath.transcription;
+
+import com.clearpath.model.DeepgramTranscript;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Speech-to-text backend for one audio file
+ */
+@FunctionalInterface
+public interface Transcriber {
+    /**
+     * @throws TranscriptionException when the backend answers with an HTTP error
+     */
+    String transcribeFile(String audioFilePath) throws IOException;
+
+    /**
+     * Transcript with word timings, for backends that provide them; by default the plain text
+     * with no timings
+     */
+    default DeepgramTranscript transcribe(String audioFilePath) throws IOException {
+        return new DeepgramTranscript(transcribeFile(audioFilePath), Double.NaN, List.of());
+    }
+}
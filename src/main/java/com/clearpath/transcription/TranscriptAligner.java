@@ -0,0 +1,135 @@
+package com.clearpath.transcription;
+
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.model.BeepInfo;
+import com.clearpath.model.WordTiming;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Cross-checks the energy-based greeting end with word timestamps from the transcript.
+ *
+ * <p>The last confidently recognized word should end about where the energy detector found
+ * the silence. If it ends clearly later ({@code alignment.tolerance.sec}), the silence was a
+ * pause inside the greeting and the greeting end moves to the last word; starting earlier
+ * would talk over the greeting. If sound continues after the last word (music, noise, the
+ * beep itself) the energy estimate is kept, being the later of the two.</p>
+ *
+ * <p>An explicit beep phrase ("after the beep", "at the tone", ...) located in time tells us
+ * where the beep must be: after that phrase, at most {@code alignment.beep.window.sec} past
+ * the greeting end. When the first search (the full window after the energy estimate) missed
+ * or looked in the wrong place, the beep is searched again in just that span, which costs
+ * less FFT work than a full window and keeps speech harmonics before the phrase out of the
+ * search.</p>
+ */
+public class TranscriptAligner {
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptAligner.class);
+
+    // Same phrases that make TranscriptAnalyzer expect a beep with HIGH probability
+    private static final List<String[]> BEEP_PHRASES = List.of(
+            new String[]{"after", "the", "beep"},
+            new String[]{"after", "the", "tone"},
+            new String[]{"at", "the", "tone"},
+            new String[]{"wait", "for", "the", "beep"});
+
+    private final AnalyzerSettings settings;
+
+    public TranscriptAligner(AnalyzerSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Align word timings with one channel's energy greeting end
+     */
+    public TranscriptAlignment align(List<WordTiming> words, double energyGreetingEndSec) {
+        if (!settings.isAlignmentEnabled() || words.isEmpty()) {
+            return TranscriptAlignment.none(energyGreetingEndSec);
+        }
+
+        double lastWordEnd = Double.NaN;
+        for (WordTiming word : words) {
+            boolean confident = Double.isNaN(word.getConfidence())
+                    || word.getConfidence() >= settings.getAlignmentMinWordConfidence();
+            if (confident && (Double.isNaN(lastWordEnd) || word.getEndSec() > lastWordEnd)) {
+                lastWordEnd = word.getEndSec();
+            }
+        }
+        if (Double.isNaN(lastWordEnd)) {
+            return TranscriptAlignment.none(energyGreetingEndSec);
+        }
+
+        double delta = lastWordEnd - energyGreetingEndSec;
+        TranscriptAlignment.Agreement agreement;
+        if (delta > settings.getAlignmentToleranceSec()) {
+            agreement = TranscriptAlignment.Agreement.SPEECH_PAST_ENERGY_END;
+        } else if (delta < -settings.getAlignmentToleranceSec()) {
+            agreement = TranscriptAlignment.Agreement.ENERGY_PAST_SPEECH;
+        } else {
+            agreement = TranscriptAlignment.Agreement.AGREE;
+        }
+        double greetingEnd = agreement == TranscriptAlignment.Agreement.SPEECH_PAST_ENERGY_END
+                ? lastWordEnd : energyGreetingEndSec;
+
+        double phraseEnd = findBeepPhraseEnd(words);
+        double windowFrom = Double.NaN;
+        double windowTo = Double.NaN;
+        if (!Double.isNaN(phraseEnd)) {
+            windowFrom = phraseEnd;
+            windowTo = Math.max(phraseEnd, greetingEnd) + settings.getAlignmentBeepWindowSec();
+        }
+
+        TranscriptAlignment alignment = new TranscriptAlignment(agreement, energyGreetingEndSec, lastWordEnd,
+                greetingEnd, phraseEnd, windowFrom, windowTo);
+        logger.info("Alignment: {}", alignment);
+        return alignment;
+    }
+
+    /**
+     * Whether the first beep search should be redone in the narrowed window. With a beep
+     * phrase, either the first search found a "beep" that starts before the phrase has been
+     * said (speech harmonics), or it found nothing although the greeting announced a beep:
+     * typically because the beep itself broke the silence, pushing the energy greeting end
+     * and with it the search window past the beep.
+     */
+    public boolean needsBeepRescan(TranscriptAlignment alignment, BeepInfo beep) {
+        if (!alignment.hasBeepPhrase()) {
+            return false;
+        }
+        return !beep.isDetected() || beep.getStartTime() < alignment.getBeepPhraseEndSec();
+    }
+
+    /**
+     * End time of the last beep phrase in the word sequence, NaN if there is none
+     */
+    private static double findBeepPhraseEnd(List<WordTiming> words) {
+        String[] tokens = new String[words.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = normalize(words.get(i).getWord());
+        }
+        for (int end = tokens.length; end > 0; end--) {
+            for (String[] phrase : BEEP_PHRASES) {
+                int start = end - phrase.length;
+                if (start >= 0 && matches(tokens, start, phrase)) {
+                    return words.get(end - 1).getEndSec();
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static boolean matches(String[] tokens, int start, String[] phrase) {
+        for (int i = 0; i < phrase.length; i++) {
+            if (!tokens[start + i].equals(phrase[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String word) {
+        return word.toLowerCase(Locale.ROOT).replaceAll("[^a-z']", "");
+    }
+}
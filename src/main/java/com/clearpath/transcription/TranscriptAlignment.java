@@ -0,0 +1,89 @@
+package com.clearpath.transcription;
+
+/**
+ * Word timings set against the energy-based greeting end for one file
+ */
+public class TranscriptAlignment {
+    public enum Agreement {
+        NO_WORDS("No usable word timings"),
+        AGREE("Last word and energy greeting end agree"),
+        SPEECH_PAST_ENERGY_END("Speech continues past the energy greeting end"),
+        ENERGY_PAST_SPEECH("Sound continues past the last word");
+
+        private final String description;
+        Agreement(String description) { this.description = description; }
+        public String getDescription() { return description; }
+    }
+
+    private final Agreement agreement;
+    private final double energyGreetingEndSec;
+    private final double lastWordEndSec;      // NaN without words
+    private final double greetingEndSec;      // reconciled
+    private final double beepPhraseEndSec;    // end of the last "after the beep"-style phrase, NaN if none
+    private final double beepWindowFromSec;
+    private final double beepWindowToSec;
+
+    TranscriptAlignment(Agreement agreement, double energyGreetingEndSec, double lastWordEndSec,
+                        double greetingEndSec, double beepPhraseEndSec, double beepWindowFromSec,
+                        double beepWindowToSec) {
+        this.agreement = agreement;
+        this.energyGreetingEndSec = energyGreetingEndSec;
+        this.lastWordEndSec = lastWordEndSec;
+        this.greetingEndSec = greetingEndSec;
+        this.beepPhraseEndSec = beepPhraseEndSec;
+        this.beepWindowFromSec = beepWindowFromSec;
+        this.beepWindowToSec = beepWindowToSec;
+    }
+
+    static TranscriptAlignment none(double energyGreetingEndSec) {
+        return new TranscriptAlignment(Agreement.NO_WORDS, energyGreetingEndSec, Double.NaN, energyGreetingEndSec,
+                Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    public Agreement getAgreement() { return agreement; }
+    public double getEnergyGreetingEndSec() { return energyGreetingEndSec; }
+    public double getLastWordEndSec() { return lastWordEndSec; }
+
+    /**
+     * Greeting end to decide from: the energy estimate, moved to the last word's end when
+     * speech clearly continues past it
+     */
+    public double getGreetingEndSec() { return greetingEndSec; }
+
+    public boolean isGreetingEndMoved() {
+        return greetingEndSec != energyGreetingEndSec;
+    }
+
+    /**
+     * Last word minus energy greeting end (positive: the energy detector stopped early)
+     */
+    public double getDeltaSec() {
+        return lastWordEndSec - energyGreetingEndSec;
+    }
+
+    public boolean hasBeepPhrase() {
+        return !Double.isNaN(beepPhraseEndSec);
+    }
+
+    public double getBeepPhraseEndSec() { return beepPhraseEndSec; }
+
+    /**
+     * Narrowed beep search window, NaN without a beep phrase
+     */
+    public double getBeepWindowFromSec() { return beepWindowFromSec; }
+    public double getBeepWindowToSec() { return beepWindowToSec; }
+
+    @Override
+    public String toString() {
+        if (agreement == Agreement.NO_WORDS) {
+            return agreement.getDescription();
+        }
+        String text = String.format("%s (last word %.2fs, energy %.2fs, %+.2fs) → greeting end %.2fs",
+                agreement.getDescription(), lastWordEndSec, energyGreetingEndSec, getDeltaSec(), greetingEndSec);
+        if (hasBeepPhrase()) {
+            text += String.format("; beep phrase ends %.2fs, beep window %.2f-%.2fs",
+                    beepPhraseEndSec, beepWindowFromSec, beepWindowToSec);
+        }
+        return text;
+    }
+}
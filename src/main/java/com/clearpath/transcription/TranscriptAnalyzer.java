@@ -1,20 +1,37 @@
 package com.clearpath.transcription;
 
-import com.clearpath.config.Config;
+import com.clearpath.config.AnalyzerSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class TranscriptAnalyzer {
     private static final Logger logger = LoggerFactory.getLogger(TranscriptAnalyzer.class);
-    private final DeepgramClient deepgramClient = new DeepgramClient();
-
-    public String getTranscript(String audioFilePath) {
-        try {
-            return deepgramClient.transcribeFile(audioFilePath);
-        } catch (Exception e) {
-            logger.error("Transcription failed: {}", e.getMessage());
-            return "Transcription failed";
+    private final AnalyzerSettings settings;
+
+    public TranscriptAnalyzer() {
+        this(AnalyzerSettings.defaults());
+    }
+
+    public TranscriptAnalyzer(AnalyzerSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Expectation from a transcription outcome. A file skipped as final is decided the same
+     * under every class, so it gets LOW; a transcript that was wanted but never arrived (failed,
+     * timed out, circuit open, not scheduled) is UNKNOWN, not evidence against a beep.
+     */
+    public BeepExpectation analyzeBeepExpectation(TranscriptionOutcome outcome) {
+        if (outcome == null || !outcome.isTranscribed()) {
+            if (outcome != null && outcome.getStatus() == TranscriptionOutcome.Status.SKIPPED_FINAL) {
+                logger.info("LOW beep probability: not transcribed, decision final from audio");
+                return BeepExpectation.LOW;
+            }
+            logger.info("UNKNOWN beep probability: no transcript ({})",
+                    outcome == null ? "not scheduled" : outcome.getStatus().getDescription());
+            return BeepExpectation.UNKNOWN;
         }
+        return analyzeBeepExpectation(outcome.getTranscript());
     }
 
     public BeepExpectation analyzeBeepExpectation(String transcript) {
@@ -24,37 +41,54 @@ public class TranscriptAnalyzer {
         // High confidence beep indicators
         if (lower.contains("after the beep") || lower.contains("at the tone") ||
                 lower.contains("after the tone") || lower.contains("wait for the beep")) {
-            score = 0.95;
+            score = BeepExpectation.HIGH.getBeepProbability();
             logger.info("HIGH beep probability: explicit beep phrase detected");
         }
         // Medium confidence
         else if (lower.contains("leave a message") || lower.contains("leave your message") ||
                 lower.contains("leave me a message")) {
-            score = 0.60;
+            score = BeepExpectation.MEDIUM.getBeepProbability();
             logger.info("MEDIUM beep probability: message phrase detected");
         }
         // Low confidence
         else {
-            score = 0.30;
+            score = BeepExpectation.LOW.getBeepProbability();
             logger.info("LOW beep probability: no beep indicators");
         }
 
-        if (score >= Config.HIGH_BEEP_PROBABILITY) {
+        if (score >= settings.getHighBeepProbability()) {
             return BeepExpectation.HIGH;
-        } else if (score >= Config.MEDIUM_BEEP_PROBABILITY) {
+        } else if (score >= settings.getMediumBeepProbability()) {
             return BeepExpectation.MEDIUM;
         } else {
             return BeepExpectation.LOW;
         }
     }
 
+    /**
+     * Transcript evidence class, with the prior probability of a beep it implies.
+     * {@link #UNKNOWN} means there is no transcript to classify: a beep still to come is then
+     * weighed as if one had been announced (HIGH's prior), but a detected beep gets no support
+     * from it (see {@link com.clearpath.decision.DecisionScorer}).
+     */
     public enum BeepExpectation {
-        HIGH("HIGH - Beep expected (wait 3s)"),
-        MEDIUM("MEDIUM - Possible beep (wait 2s)"),
-        LOW("LOW - No beep expected (wait 1s)");
+        HIGH("HIGH - Beep expected", 0.95),
+        MEDIUM("MEDIUM - Possible beep", 0.60),
+        LOW("LOW - No beep expected", 0.30),
+        UNKNOWN("UNKNOWN - No transcript", 0.95);
 
         private final String description;
-        BeepExpectation(String description) { this.description = description; }
+        private final double beepProbability;
+        BeepExpectation(String description, double beepProbability) {
+            this.description = description;
+            this.beepProbability = beepProbability;
+        }
         public String getDescription() { return description; }
+        public double getBeepProbability() { return beepProbability; }
+
+        /**
+         * Whether this class was read from a transcript (false only for {@link #UNKNOWN})
+         */
+        public boolean isObserved() { return this != UNKNOWN; }
     }
 }
\ No newline at end of file
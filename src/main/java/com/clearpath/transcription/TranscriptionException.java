@@ -0,0 +1,36 @@
+package com.clearpath.transcription;
+
+import java.io.IOException;
+
+/**
+ * Speech-to-text backend rejected a request with an HTTP error.
+ *
+ * <p>429 (rate limited) and 5xx (backend trouble) are worth retrying; anything else
+ * (bad key, unsupported audio) fails the same way every time.</p>
+ */
+public class TranscriptionException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final double retryAfterSec;
+
+    /**
+     * @param retryAfterSec server-requested wait from the {@code Retry-After} header, NaN if none
+     */
+    public TranscriptionException(int statusCode, double retryAfterSec, String message) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfterSec = retryAfterSec;
+    }
+
+    public int getStatusCode() { return statusCode; }
+    public double getRetryAfterSec() { return retryAfterSec; }
+
+    public boolean isRateLimited() {
+        return statusCode == 429;
+    }
+
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
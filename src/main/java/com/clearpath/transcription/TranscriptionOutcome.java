@@ -0,0 +1,75 @@
+package com.clearpath.transcription;
+
+import com.clearpath.model.WordTiming;
+
+import java.util.List;
+
+/**
+ * What the scheduler did for one file. Only {@link Status#TRANSCRIBED} carries a transcript;
+ * every other status is a typed reason for deciding without one.
+ */
+public class TranscriptionOutcome {
+    public enum Status {
+        TRANSCRIBED("Transcribed"),
+        SKIPPED_FINAL("Skipped - decision final without transcript"),
+        FAILED("Failed"),
+        TIMED_OUT("Timed out"),
+        CIRCUIT_OPEN("Not sent - STT circuit open");
+
+        private final String description;
+        Status(String description) { this.description = description; }
+        public String getDescription() { return description; }
+    }
+
+    private final Status status;
+    private final String transcript;
+    private final List<WordTiming> words;
+    private final int attempts;
+    private final double latencySec;
+    private final String error;
+
+    TranscriptionOutcome(Status status, String transcript, List<WordTiming> words, int attempts, double latencySec,
+                         String error) {
+        this.status = status;
+        this.transcript = transcript;
+        this.words = words;
+        this.attempts = attempts;
+        this.latencySec = latencySec;
+        this.error = error;
+    }
+
+    static TranscriptionOutcome skipped() {
+        return new TranscriptionOutcome(Status.SKIPPED_FINAL, null, List.of(), 0, 0.0, null);
+    }
+
+    public Status getStatus() { return status; }
+
+    public boolean isTranscribed() {
+        return status == Status.TRANSCRIBED;
+    }
+
+    /**
+     * The transcript, or null unless {@link Status#TRANSCRIBED}
+     */
+    public String getTranscript() { return transcript; }
+
+    /**
+     * Word timings of the transcript; empty without a transcript or when the backend gave none
+     */
+    public List<WordTiming> getWords() { return words; }
+
+    public int getAttempts() { return attempts; }
+
+    /**
+     * Wall time from the first request to the final answer, including retries
+     */
+    public double getLatencySec() { return latencySec; }
+
+    public String getError() { return error; }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%d attempt(s), %.2fs)%s", status.getDescription(), attempts, latencySec,
+                error != null ? ": " + error : "");
+    }
+}
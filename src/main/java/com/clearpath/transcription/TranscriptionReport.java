@@ -0,0 +1,91 @@
+package com.clearpath.transcription;
+
+/**
+ * Spend and latency summary of one scheduler run
+ */
+public class TranscriptionReport {
+    private final int submitted;
+    private final int transcribed;
+    private final int skipped;
+    private final int deferred;
+    private final int failed;
+    private final int requests;
+    private final int rateLimited;
+    private final double transcribedMinutes;
+    private final double skippedMinutes;
+    private final double costPerMinute;
+    private final double meanLatencySec;
+    private final double wallSec;
+
+    TranscriptionReport(int submitted, int transcribed, int skipped, int deferred, int failed, int requests,
+                        int rateLimited, double transcribedMinutes, double skippedMinutes, double costPerMinute,
+                        double meanLatencySec, double wallSec) {
+        this.submitted = submitted;
+        this.transcribed = transcribed;
+        this.skipped = skipped;
+        this.deferred = deferred;
+        this.failed = failed;
+        this.requests = requests;
+        this.rateLimited = rateLimited;
+        this.transcribedMinutes = transcribedMinutes;
+        this.skippedMinutes = skippedMinutes;
+        this.costPerMinute = costPerMinute;
+        this.meanLatencySec = meanLatencySec;
+        this.wallSec = wallSec;
+    }
+
+    public int getSubmitted() { return submitted; }
+    public int getTranscribed() { return transcribed; }
+    public int getSkipped() { return skipped; }
+
+    /**
+     * Final decisions transcribed anyway, after every ambiguous file ({@code transcription.defer.final})
+     */
+    public int getDeferred() { return deferred; }
+
+    public int getFailed() { return failed; }
+
+    /**
+     * HTTP requests sent, retries included
+     */
+    public int getRequests() { return requests; }
+
+    public int getRateLimited() { return rateLimited; }
+    public double getTranscribedMinutes() { return transcribedMinutes; }
+    public double getSkippedMinutes() { return skippedMinutes; }
+
+    public double getSpend() {
+        return transcribedMinutes * costPerMinute;
+    }
+
+    /**
+     * What the skipped files would have cost
+     */
+    public double getSpendSaved() {
+        return skippedMinutes * costPerMinute;
+    }
+
+    /**
+     * Mean per-file latency of successful transcriptions, NaN if there were none
+     */
+    public double getMeanLatencySec() { return meanLatencySec; }
+
+    /**
+     * STT time not spent on skipped files, at the observed mean latency (NaN if unknown)
+     */
+    public double getLatencySavedSec() {
+        return skipped * meanLatencySec;
+    }
+
+    public double getWallSec() { return wallSec; }
+
+    @Override
+    public String toString() {
+        return String.format("%d files: %d transcribed (%d deferred), %d skipped, %d failed; %d requests, " +
+                        "%d rate limited; spend $%.4f (%.1f min), saved $%.4f (%.1f min)%s; %.1fs wall",
+                submitted, transcribed, deferred, skipped, failed, requests, rateLimited,
+                getSpend(), transcribedMinutes, getSpendSaved(), skippedMinutes,
+                Double.isNaN(meanLatencySec) ? "" : String.format(" and ~%.1fs of STT time", getLatencySavedSec()),
+                wallSec);
+    }
+}
@@ -0,0 +1,257 @@
+package com.clearpath.transcription;
+
+import com.clearpath.config.AnalyzerSettings;
+import com.clearpath.model.DeepgramTranscript;
+import com.clearpath.trace.Trace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch speech-to-text with cost and latency in mind.
+ *
+ * <p>Each file is submitted with its <i>decision impact</i>: how far the recommended start time
+ * can still move depending on what the transcript says (see
+ * {@link com.clearpath.decision.DecisionEngine#transcriptImpact}). A file with no impact,
+ * typically a confidently detected beep, is final already and is not transcribed at all, or is
+ * transcribed last when {@code transcription.defer.final} is set. The rest go out most ambiguous
+ * first, so the files whose answer depends most on the transcript are done before a budget or
+ * deadline runs out.</p>
+ *
+ * <p>Requests are limited to {@code transcription.rate.per.sec} and
+ * {@code transcription.max.concurrent} in flight. A 429 or 5xx is retried up to
+ * {@code transcription.max.retries} times with full-jitter exponential backoff
+ * (a random wait up to {@code transcription.backoff.base.sec}, doubling with each retry, and
+ * never shorter than the server's {@code Retry-After}); a 429 also pauses the shared rate
+ * limiter, so one throttled request doesn't turn into a burst of throttled retries from every
+ * worker.</p>
+ */
+public class TranscriptionScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptionScheduler.class);
+
+    private static final double FINAL_IMPACT_SEC = 1e-6;  // start time moves less than this: final
+    private static final double MAX_BACKOFF_SEC = 30.0;
+
+    private final AnalyzerSettings settings;
+    private final Transcriber transcriber;
+    private final List<Job> jobs = new ArrayList<>();
+    private TranscriptionReport report;
+
+    /**
+     * One submitted file
+     */
+    private static final class Job {
+        final String audioFilePath;
+        final double audioSeconds;
+        final double impactSec;
+
+        Job(String audioFilePath, double audioSeconds, double impactSec) {
+            this.audioFilePath = audioFilePath;
+            this.audioSeconds = audioSeconds;
+            this.impactSec = impactSec;
+        }
+
+        boolean isFinal() {
+            return impactSec < FINAL_IMPACT_SEC;
+        }
+    }
+
+    public TranscriptionScheduler(AnalyzerSettings settings) {
+        this(settings, new DeepgramClient(settings));
+    }
+
+    public TranscriptionScheduler(AnalyzerSettings settings, Transcriber transcriber) {
+        this.settings = settings;
+        this.transcriber = transcriber;
+    }
+
+    /**
+     * Queue a file for the next {@link #runAll()}
+     *
+     * @param audioSeconds      audio duration, for spend accounting
+     * @param decisionImpactSec how far the start time can move with the transcript (0 = final)
+     */
+    public void submit(String audioFilePath, double audioSeconds, double decisionImpactSec) {
+        jobs.add(new Job(audioFilePath, audioSeconds, decisionImpactSec));
+    }
+
+    /**
+     * Transcribe the submitted files and clear the queue
+     *
+     * @return one outcome per submitted path, in submission order
+     */
+    public Map<String, TranscriptionOutcome> runAll() throws InterruptedException {
+        List<Job> batch = new ArrayList<>(jobs);
+        jobs.clear();
+
+        // Most ambiguous first; among equals the shorter (cheaper, faster) file
+        List<Job> queue = new ArrayList<>();
+        List<Job> finals = new ArrayList<>();
+        for (Job job : batch) {
+            (job.isFinal() ? finals : queue).add(job);
+        }
+        queue.sort(Comparator.comparingDouble((Job j) -> -j.impactSec).thenComparingDouble(j -> j.audioSeconds));
+        if (settings.isTranscriptionDeferFinal()) {
+            queue.addAll(finals);
+        }
+        logger.info("Transcription plan: {} of {} files need a transcript, {} final{}",
+                batch.size() - finals.size(), batch.size(), finals.size(),
+                settings.isTranscriptionDeferFinal() ? " (deferred to the end)" : " (skipped)");
+
+        Map<String, TranscriptionOutcome> outcomes = new ConcurrentHashMap<>();
+        TokenBucket rateLimiter = new TokenBucket(settings.getTranscriptionRatePerSec(),
+                settings.getTranscriptionMaxConcurrent());
+        Semaphore inFlight = new Semaphore(settings.getTranscriptionMaxConcurrent());
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger rateLimited = new AtomicInteger();
+        long start = System.nanoTime();
+
+        // Dispatch in priority order; the semaphore holds back the next file until a slot frees up
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Job job : queue) {
+                try (Trace.Span _ = Trace.span("slot", job.audioFilePath)) {
+                    inFlight.acquire();
+                }
+                workers.execute(() -> {
+                    try (Trace.Span span = Trace.span("transcription", job.audioFilePath)) {
+                        TranscriptionOutcome outcome = transcribe(job, rateLimiter, requests, rateLimited);
+                        span.arg("status", outcome.getStatus().name()).arg("attempts", outcome.getAttempts());
+                        outcomes.put(job.audioFilePath, outcome);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        Map<String, TranscriptionOutcome> ordered = new LinkedHashMap<>();
+        for (Job job : batch) {
+            ordered.put(job.audioFilePath, outcomes.getOrDefault(job.audioFilePath, TranscriptionOutcome.skipped()));
+        }
+        report = buildReport(batch, ordered, requests.get(), rateLimited.get(), (System.nanoTime() - start) / 1e9);
+        logger.info("Transcription: {}", report);
+        return ordered;
+    }
+
+    /**
+     * Summary of the last {@link #runAll()}, or null before the first run
+     */
+    public TranscriptionReport getReport() {
+        return report;
+    }
+
+    private TranscriptionOutcome transcribe(Job job, TokenBucket rateLimiter,
+                                            AtomicInteger requests, AtomicInteger rateLimited) {
+        long start = System.nanoTime();
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            try {
+                try (Trace.Span _ = Trace.span("rate-limit")) {
+                    rateLimiter.acquire();
+                }
+                requests.incrementAndGet();
+                DeepgramTranscript transcript;
+                try (Trace.Span _ = Trace.span("request").arg("attempt", attempt)) {
+                    transcript = transcriber.transcribe(job.audioFilePath);
+                }
+                return new TranscriptionOutcome(TranscriptionOutcome.Status.TRANSCRIBED, transcript.getTranscript(),
+                        transcript.getWords(), attempt, (System.nanoTime() - start) / 1e9, null);
+            } catch (TranscriptionException e) {
+                if (e.isRateLimited()) {
+                    rateLimited.incrementAndGet();
+                }
+                if (!e.isRetryable() || attempt > settings.getTranscriptionMaxRetries()) {
+                    return failed(job, attempt, start, e);
+                }
+                double wait = backoffSec(attempt, e.getRetryAfterSec());
+                logger.warn("{}: HTTP {}, retry {} of {} in {}s", job.audioFilePath, e.getStatusCode(), attempt,
+                        settings.getTranscriptionMaxRetries(), String.format("%.2f", wait));
+                if (e.isRateLimited()) {
+                    rateLimiter.pause(wait);
+                }
+                try (Trace.Span _ = Trace.span("backoff").arg("status", e.getStatusCode())) {
+                    Thread.sleep((long) (wait * 1000));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return failed(job, attempt, start, ie);
+                }
+            } catch (CircuitOpenException e) {
+                return failed(TranscriptionOutcome.Status.CIRCUIT_OPEN, job, attempt, start, e);
+            } catch (InterruptedIOException e) {
+                return failed(TranscriptionOutcome.Status.TIMED_OUT, job, attempt, start, e);
+            } catch (IOException | RuntimeException e) {
+                return failed(job, attempt, start, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return failed(job, attempt, start, e);
+            }
+        }
+    }
+
+    /**
+     * Full jitter: uniform in [0, base * 2^(attempt-1)], capped, never shorter than Retry-After
+     */
+    private double backoffSec(int attempt, double retryAfterSec) {
+        double ceiling = Math.min(MAX_BACKOFF_SEC,
+                settings.getTranscriptionBackoffBaseSec() * Math.pow(2, attempt - 1));
+        double wait = ThreadLocalRandom.current().nextDouble() * ceiling;
+        return Double.isNaN(retryAfterSec) ? wait : Math.max(wait, retryAfterSec);
+    }
+
+    private TranscriptionOutcome failed(Job job, int attempts, long start, Exception e) {
+        return failed(TranscriptionOutcome.Status.FAILED, job, attempts, start, e);
+    }
+
+    private TranscriptionOutcome failed(TranscriptionOutcome.Status status, Job job, int attempts, long start,
+                                        Exception e) {
+        logger.error("Transcription failed for {} ({}): {}", job.audioFilePath, status, e.getMessage());
+        return new TranscriptionOutcome(status, null, List.of(), attempts, (System.nanoTime() - start) / 1e9,
+                e.getMessage());
+    }
+
+    private TranscriptionReport buildReport(List<Job> batch, Map<String, TranscriptionOutcome> outcomes,
+                                            int requests, int rateLimited, double wallSec) {
+        int transcribed = 0;
+        int skipped = 0;
+        int deferred = 0;
+        int failed = 0;
+        double transcribedMinutes = 0;
+        double skippedMinutes = 0;
+        double latencySum = 0;
+        for (Job job : batch) {
+            TranscriptionOutcome outcome = outcomes.get(job.audioFilePath);
+            switch (outcome.getStatus()) {
+                case TRANSCRIBED -> {
+                    transcribed++;
+                    transcribedMinutes += job.audioSeconds / 60.0;
+                    latencySum += outcome.getLatencySec();
+                    if (job.isFinal()) {
+                        deferred++;
+                    }
+                }
+                case SKIPPED_FINAL -> {
+                    skipped++;
+                    skippedMinutes += job.audioSeconds / 60.0;
+                }
+                case FAILED, TIMED_OUT, CIRCUIT_OPEN -> failed++;
+            }
+        }
+        double meanLatency = transcribed == 0 ? Double.NaN : latencySum / transcribed;
+        return new TranscriptionReport(batch.size(), transcribed, skipped, deferred, failed, requests, rateLimited,
+                transcribedMinutes, skippedMinutes, settings.getTranscriptionCostPerMinute(), meanLatency, wallSec);
+    }
+}
@@ -0,0 +1,370 @@
+#!/usr/bin/env python3
+"""Writes the FLAC / Ogg FLAC test vectors and expected.csv in this directory.
+
+An independent bit-level encoder written from RFC 9639, sharing no code with the Java
+decoder. Signals are seeded, so re-running reproduces the committed files byte for byte.
+Each stream stores the real STREAMINFO MD5 of its samples.
+
+Usage: python3 make_vectors.py
+"""
+import hashlib
+import math
+import os
+import random
+import struct
+
+HERE = os.path.dirname(os.path.abspath(__file__))
+
+
+class BitWriter:
+    def __init__(self):
+        self.out = bytearray()
+        self.acc = 0
+        self.n = 0
+
+    def bits(self, value, n):
+        for i in range(n - 1, -1, -1):
+            self.acc = (self.acc << 1) | ((value >> i) & 1)
+            self.n += 1
+            if self.n == 8:
+                self.out.append(self.acc)
+                self.acc = 0
+                self.n = 0
+
+    def signed(self, value, n):
+        assert -(1 << (n - 1)) <= value < (1 << (n - 1)), (value, n)
+        self.bits(value & ((1 << n) - 1), n)
+
+    def unary(self, q):
+        for _ in range(q):
+            self.bits(0, 1)
+        self.bits(1, 1)
+
+    def align(self):
+        while self.n:
+            self.bits(0, 1)
+
+
+# ==================== Subframes ====================
+
+FIXED = [[], [1], [2, -1], [3, -3, 1], [4, -6, 4, -1]]
+# (precision, shift, coefficients), applied as sum(c[j] * x[i-j-1]) >> shift
+LPC = {
+    2: (13, 9, [int(1.6 * 512), int(-0.7 * 512)]),
+    3: (13, 10, [int(2.2 * 1024), int(-1.7 * 1024), int(0.45 * 1024)]),
+    8: (15, 13, [9011, -3277, 1229, -655, 410, -246, 164, -82]),
+}
+
+
+def residual(bw, res, bs, order, variant):
+    # Rice parameters above 14 need the 5-bit format
+    wide = int(sum(abs(x) for x in res) / len(res)).bit_length() > 14
+    method = 1 if (variant // 3) % 2 or wide else 0
+    parameter_bits, escape = (5, 31) if method else (4, 15)
+    po = 0
+    for candidate in range(variant % 5, -1, -1):  # partition orders 0..4
+        if bs % (1 << candidate) == 0 and (bs >> candidate) > order:
+            po = candidate
+            break
+    bw.bits(method, 2)
+    bw.bits(po, 4)
+    i = 0
+    for p in range(1 << po):
+        count = (bs >> po) - (order if p == 0 else 0)
+        part = res[i:i + count]
+        i += count
+        if variant % 7 == 3:
+            bw.bits(escape, parameter_bits)
+            raw = 0 if all(x == 0 for x in part) else max(abs(x) for x in part).bit_length() + 1
+            bw.bits(raw, 5)
+            for x in part:
+                if raw:
+                    bw.signed(x, raw)
+        else:
+            mean = sum(abs(x) for x in part) / len(part)
+            k = max(0, min(escape - 1, int(mean).bit_length()))
+            bw.bits(k, parameter_bits)
+            for x in part:
+                u = (x << 1) if x >= 0 else ((-x) << 1) - 1
+                bw.unary(u >> k)
+                bw.bits(u & ((1 << k) - 1), k)
+
+
+def subframe(bw, x, bps, variant):
+    bs = len(x)
+    if all(v == x[0] for v in x):
+        bw.bits(0, 8)  # padding, CONSTANT, no wasted bits
+        bw.signed(x[0], bps)
+        return
+
+    wasted = 0
+    while all(v % (2 << wasted) == 0 for v in x):
+        wasted += 1
+    x = [v >> wasted for v in x]
+    bps -= wasted
+
+    kind = variant % 9
+    if kind == 7:
+        kind_type, order = 1, 0
+    elif kind < 5:
+        kind_type, order = 8 + kind, kind
+    else:
+        order = {5: 2, 6: 3, 8: 8}[kind]
+        kind_type = 32 + order - 1
+    bw.bits(0, 1)
+    bw.bits(kind_type, 6)
+    if wasted:
+        bw.bits(1, 1)
+        bw.unary(wasted - 1)
+    else:
+        bw.bits(0, 1)
+
+    if kind_type == 1:
+        for v in x:
+            bw.signed(v, bps)
+        return
+    for i in range(order):
+        bw.signed(x[i], bps)
+    if kind < 5:
+        res = [x[i] - sum(c * x[i - j - 1] for j, c in enumerate(FIXED[order])) for i in range(order, bs)]
+    else:
+        precision, shift, coefficients = LPC[order]
+        bw.bits(precision - 1, 4)
+        bw.signed(shift, 5)
+        for c in coefficients:
+            bw.signed(c, precision)
+        res = [x[i] - (sum(c * x[i - j - 1] for j, c in enumerate(coefficients)) >> shift)
+               for i in range(order, bs)]
+    residual(bw, res, bs, order, variant)
+
+
+# ==================== Frames ====================
+
+def crc8(data):
+    c = 0
+    for b in data:
+        c ^= b
+        for _ in range(8):
+            c = ((c << 1) ^ 0x07) & 0xFF if c & 0x80 else (c << 1) & 0xFF
+    return c
+
+
+def crc16(data):
+    c = 0
+    for b in data:
+        c ^= b << 8
+        for _ in range(8):
+            c = ((c << 1) ^ 0x8005) & 0xFFFF if c & 0x8000 else (c << 1) & 0xFFFF
+    return c
+
+
+def coded_number(n):
+    if n < 0x80:
+        return bytes([n])
+    length = 2
+    while n >= 1 << (5 * length + 1):
+        length += 1
+    out = [0x80 | ((n >> (6 * i)) & 0x3F) for i in range(length - 1)]
+    first = ((0xFF << (8 - length)) & 0xFF) | (n >> (6 * (length - 1)))
+    return bytes([first] + out[::-1])
+
+
+SAMPLE_SIZE_CODES = {8: 1, 12: 2, 16: 4, 20: 5, 24: 6}
+RATE_CODES = {8000: 4, 16000: 5, 22050: 6, 24000: 7, 32000: 8, 44100: 9, 48000: 10, 96000: 11}
+
+
+def frame(channels, pos, bs, rate, bps, index):
+    bw = BitWriter()
+    bw.bits(0xFFF9, 16)  # sync + variable block size: the header carries the sample number
+    size_code = {192: 1, 576: 2, 1152: 3, 2304: 4, 4608: 5, 256: 8, 512: 9, 1024: 10,
+                 2048: 11, 4096: 12}.get(bs, 6 if bs <= 256 else 7)
+    rate_code = [0, RATE_CODES.get(rate, 0), 13, 12 if rate % 1000 == 0 else 13][index % 4]
+    bw.bits(size_code, 4)
+    bw.bits(rate_code, 4)
+
+    assignment = 0
+    if len(channels) == 2:
+        assignment = [1, 8, 9, 10][index % 4]
+    bw.bits(assignment if assignment != 0 else len(channels) - 1, 4)
+    bw.bits(0 if index % 2 else SAMPLE_SIZE_CODES[bps], 3)
+    bw.bits(0, 1)
+    for b in coded_number(pos):
+        bw.bits(b, 8)
+    if size_code == 6:
+        bw.bits(bs - 1, 8)
+    elif size_code == 7:
+        bw.bits(bs - 1, 16)
+    if rate_code == 12:
+        bw.bits(rate // 1000, 8)
+    elif rate_code == 13:
+        bw.bits(rate, 16)
+    bw.bits(crc8(bytes(bw.out)), 8)
+
+    block = [c[pos:pos + bs] for c in channels]
+    if assignment in (8, 9, 10):
+        left, right = block
+        side = [a - b for a, b in zip(left, right)]
+        subs = {8: [(left, bps), (side, bps + 1)],
+                9: [(side, bps + 1), (right, bps)],
+                10: [([(a + b) >> 1 for a, b in zip(left, right)], bps), (side, bps + 1)]}[assignment]
+    else:
+        subs = [(c, bps) for c in block]
+    for k, (x, width) in enumerate(subs):
+        subframe(bw, x, width, index * 4 + k)
+    bw.align()
+    body = bytes(bw.out)
+    return body + struct.pack('>H', crc16(body))
+
+
+def pcm_md5(channels, bps, frames):
+    width = (bps + 7) // 8
+    digest = hashlib.md5()
+    for i in range(frames):
+        for c in channels:
+            digest.update((c[i] & ((1 << (8 * width)) - 1)).to_bytes(width, 'little'))
+    return digest.hexdigest()
+
+
+def encode(channels, rate, bps, sizes):
+    n = len(channels[0])
+    frames = []
+    pos = 0
+    while pos < n:
+        bs = min(sizes[len(frames) % len(sizes)], n - pos)
+        frames.append(frame(channels, pos, bs, rate, bps, len(frames)))
+        pos += bs
+    blocks = [min(sizes[i % len(sizes)], n - sum(min(sizes[j % len(sizes)], n) for j in range(i)))
+              for i in range(len(frames))]
+
+    si = BitWriter()
+    si.bits(min(blocks), 16)
+    si.bits(max(blocks), 16)
+    si.bits(min(len(f) for f in frames), 24)
+    si.bits(max(len(f) for f in frames), 24)
+    si.bits(rate, 20)
+    si.bits(len(channels) - 1, 3)
+    si.bits(bps - 1, 5)
+    si.bits(n, 36)
+    streaminfo = bytes(si.out) + bytes.fromhex(pcm_md5(channels, bps, n))
+    return streaminfo, frames
+
+
+def native(streaminfo, frames, id3=False):
+    padding = bytes([0x81]) + (12).to_bytes(3, 'big') + bytes(12)
+    head = b'fLaC' + bytes([0x00]) + len(streaminfo).to_bytes(3, 'big') + streaminfo + padding
+    if id3:
+        tag = b'TIT2' + (6).to_bytes(4, 'big') + b'\0\0' + b'\0vector'[:6]
+        head = b'ID3\x03\x00\x00' + bytes([0, 0, 0, len(tag)]) + tag + head
+    return head + b''.join(frames)
+
+
+def ogg_crc(data):
+    c = 0
+    for b in data:
+        c ^= b << 24
+        for _ in range(8):
+            c = ((c << 1) ^ 0x04C11DB7) & 0xFFFFFFFF if c & 0x80000000 else (c << 1) & 0xFFFFFFFF
+    return c
+
+
+def ogg_page(payload, sequence, header_type, serial=0x0C1EA2):
+    segments = [255] * (len(payload) // 255) + [len(payload) % 255]
+    page = bytearray(b'OggS' + bytes([0, header_type]) + struct.pack('<qII', 0, serial, sequence)
+                     + bytes(4) + bytes([len(segments)]) + bytes(segments) + payload)
+    page[22:26] = struct.pack('<I', ogg_crc(page))
+    return bytes(page)
+
+
+def ogg(streaminfo, frames):
+    first = b'\x7fFLAC\x01\x00\x00\x00fLaC' + bytes([0x80]) + len(streaminfo).to_bytes(3, 'big') + streaminfo
+    out = ogg_page(first, 0, 2)
+    out += ogg_page(b'foreign logical stream', 0, 2, serial=999)  # must be skipped
+    for i, f in enumerate(frames):
+        out += ogg_page(f, i + 1, 4 if i == len(frames) - 1 else 0)
+    return out
+
+
+# ==================== Signals ====================
+
+def tone(n, rate, amplitude, rng, noise, start_hz=300.0, end_hz=1800.0):
+    phase = 0.0
+    out = []
+    for i in range(n):
+        phase += 2 * math.pi * (start_hz + (end_hz - start_hz) * i / n) / rate
+        out.append(amplitude * math.sin(phase) + rng.gauss(0, noise))
+    return out
+
+
+def quantize(signal, bps, step=1):
+    top = (1 << (bps - 1)) - 1
+    return [max(-top - 1, min(top, int(round(v * top / step)) * step)) for v in signal]
+
+
+def vectors():
+    rng = random.Random(9639)
+    rate = 8000
+
+    # Stereo 16-bit: every subframe type, all four channel assignments, silence and L == R
+    n = 12000
+    left = quantize(tone(n, rate, 0.6, rng, 0.02), 16)
+    right = quantize(tone(n, rate, 0.4, rng, 0.05, 500.0, 900.0), 16)
+    for i in range(4096, 5248):
+        left[i] = right[i] = 0
+    for i in range(5248, 5440):
+        right[i] = left[i]
+    yield 'stereo16', [left, right], rate, 16, [4096, 1152, 192, 777, 1000, 4096], {}
+
+    # Mono 16-bit with 2 and 8 wasted bits in alternate frames
+    n = 6000
+    mono = quantize(tone(n, rate, 0.7, rng, 0.01), 16)
+    mono = [v & ~3 if (i // 1152) % 2 == 0 else v & ~0xFF for i, v in enumerate(mono)]
+    yield 'mono16_wasted', [mono], rate, 16, [1152, 576], {}
+
+    # Mono 8-bit behind an ID3v2 tag
+    yield 'mono8_id3', [quantize(tone(3000, rate, 0.8, rng, 0.03), 8)], rate, 8, [576, 192, 256], {'id3': True}
+
+    # Stereo 12-bit (decoder output is left-justified to 16)
+    n = 5000
+    yield 'stereo12', [quantize(tone(n, 16000, 0.5, rng, 0.02), 12),
+                       quantize(tone(n, 16000, 0.5, rng, 0.02, 250.0, 700.0), 12)], 16000, 12, [1024, 333], {}
+
+    # Stereo 24-bit: LPC over wide samples, plus a 16-bit-in-24 stretch (8 wasted bits)
+    n = 5000
+    left = quantize(tone(n, rate, 0.9, rng, 0.001), 24)
+    right = quantize(tone(n, rate, 0.3, rng, 0.001, 900.0, 200.0), 24)
+    for i in range(2048, 4096):
+        left[i] &= ~0xFF
+        right[i] &= ~0xFF
+    yield 'stereo24', [left, right], rate, 24, [1024, 512], {}
+
+
+def main():
+    rows = ['file,sample_rate,channels,bits_per_sample,frames,pcm_md5,outcome']
+    for name, channels, rate, bps, sizes, options in vectors():
+        streaminfo, frames = encode(channels, rate, bps, sizes)
+        n = len(channels[0])
+        md5 = pcm_md5(channels, bps, n)
+        with open(os.path.join(HERE, name + '.flac'), 'wb') as f:
+            f.write(native(streaminfo, frames, options.get('id3', False)))
+        rows.append(f'{name}.flac,{rate},{len(channels)},{bps},{n},{md5},ok')
+
+        if name == 'stereo16':
+            with open(os.path.join(HERE, name + '.oga'), 'wb') as f:
+                f.write(ogg(streaminfo, frames))
+            rows.append(f'{name}.oga,{rate},{len(channels)},{bps},{n},{md5},ok')
+
+            # Cut halfway through the fifth frame: the first four decode, then the stream fails
+            whole = native(streaminfo, frames)
+            cut = len(whole) - sum(len(f) for f in frames[4:]) + len(frames[4]) // 2
+            with open(os.path.join(HERE, name + '_truncated.flac'), 'wb') as f:
+                f.write(whole[:cut])
+            decoded = 4096 + 1152 + 192 + 777
+            rows.append(f'{name}_truncated.flac,{rate},{len(channels)},{bps},{decoded},'
+                        f'{pcm_md5([c[:decoded] for c in channels], bps, decoded)},truncated')
+
+    with open(os.path.join(HERE, 'expected.csv'), 'w') as f:
+        f.write('\n'.join(rows) + '\n')
+
+
+if __name__ == '__main__':
+    main()